@@ -0,0 +1,159 @@
+package com.demo.game.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Porównanie wyniku JMH ({@code -rf json}) z zapisaną bazą.
+ * <p>
+ * • Benchmarki dopasowujemy po nazwie, trybie i parametrach.<br>
+ * • Dla trybów czasowych (avgt, sample, ss) wzrost wyniku to regresja, dla przepustowości (thrpt) – spadek.<br>
+ * • Zmiana większa niż próg (procent) i większa niż suma błędów obu pomiarów jest raportowana jako REGRESSION;
+ * wtedy proces kończy się kodem 1.<br>
+ * • Raport zaczyna się od JVM obu pomiarów (z pól {@code jdkVersion}/{@code vmVersion} JMH). Gdy główne wersje JDK się
+ * różnią, porównanie niczego nie mówi o kodzie – różnicę robi wtedy JIT i GC – więc proces kończy się kodem
+ * {@value #JDK_MISMATCH}: bazę trzeba nagrać na nowo, a nie przepuszczać pomiar bez sprawdzenia.
+ * <p>
+ * Uruchomienie: {@code mvn -f benchmarks/pom.xml exec:exec@compare} (po {@code exec:exec}). Nową bazę zapisuje
+ * {@code exec:exec@record} ({@code --record}: kopia {@code target/jmh-result.json} bez pola {@code jvm} – ścieżki
+ * do JDK na maszynie pomiaru) – zawsze z pełnego pomiaru na JDK, którym buduje się projekt (release 23
+ * z {@code --enable-preview}), po ostatniej zmianie ścieżki rozkazu.
+ */
+public final class BaselineComparator {
+
+  static final int JDK_MISMATCH = 3;
+
+  private BaselineComparator() {
+  }
+
+  record Score(String mode, double score, double error, String unit) {
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length == 3 && args[0].equals("--record")) {
+      record(Path.of(args[1]), Path.of(args[2]));
+      return;
+    }
+    if (args.length < 2) {
+      System.err.println("usage: BaselineComparator <baseline.json> <result.json> [threshold-percent]");
+      System.err.println("       BaselineComparator --record <result.json> <baseline.json>");
+      System.exit(2);
+    }
+    double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+    JsonNode baselineRuns = parse(Path.of(args[0]));
+    JsonNode currentRuns = parse(Path.of(args[1]));
+    Map<String, Score> baseline = read(baselineRuns);
+    Map<String, Score> current = read(currentRuns);
+
+    String baselineJvm = jvm(baselineRuns);
+    String currentJvm = jvm(currentRuns);
+    boolean sameJdk = feature(baselineRuns).equals(feature(currentRuns));
+    System.out.printf("baseline JVM: %s%ncurrent JVM:  %s%n", baselineJvm, currentJvm);
+
+    int regressions = 0;
+    System.out.printf("%-70s %14s %14s %9s  %s%n", "benchmark", "baseline", "current", "change", "verdict");
+    for (Map.Entry<String, Score> e : current.entrySet()) {
+      Score now = e.getValue();
+      Score base = baseline.get(e.getKey());
+      if (base == null) {
+        System.out.printf("%-70s %14s %14.3f %9s  NEW%n", e.getKey(), "-", now.score(), "");
+        continue;
+      }
+      double change = (now.score() - base.score()) / base.score() * 100;
+      double worse = now.mode().equals("thrpt") ? -change : change;
+      boolean significant = Math.abs(now.score() - base.score()) > now.error() + base.error();
+
+      String verdict = !significant || Math.abs(change) <= threshold ? "ok"
+          : worse > 0 ? "REGRESSION"
+          : "improved";
+      if (verdict.equals("REGRESSION")) {
+        regressions++;
+      }
+      System.out.printf("%-70s %14.3f %14.3f %+8.1f%%  %s %s%n",
+          e.getKey(), base.score(), now.score(), change, verdict, now.unit());
+    }
+    baseline.keySet().stream()
+        .filter(k -> !current.containsKey(k))
+        .forEach(k -> System.out.printf("%-70s %14.3f %14s %9s  MISSING%n", k, baseline.get(k).score(), "-", ""));
+
+    if (!sameJdk) {
+      System.out.printf("ERROR: baseline recorded on JDK %s, current run on JDK %s - "
+          + "record the baseline again on the build JDK (exec:exec@record)%n",
+          feature(baselineRuns), feature(currentRuns));
+      System.exit(JDK_MISMATCH);
+    }
+    if (regressions > 0) {
+      System.out.printf("%d regression(s) above %.1f%%%n", regressions, threshold);
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Zapisz wynik JMH jako bazę – bez pola {@code jvm} (ścieżka do JDK na maszynie pomiaru).
+   */
+  static void record(Path result, Path baseline) throws IOException {
+    JsonNode runs = parse(result);
+    for (JsonNode run : runs) {
+      ((ObjectNode) run).remove("jvm");
+    }
+    new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(baseline.toFile(), runs);
+    System.out.printf("baseline %s recorded from %s: %d benchmark(s), JVM %s%n",
+        baseline, result, runs.size(), jvm(runs));
+  }
+
+  static JsonNode parse(Path file) throws IOException {
+    return new ObjectMapper().readTree(Files.readString(file));
+  }
+
+  static Map<String, Score> read(JsonNode runs) {
+    Map<String, Score> scores = new LinkedHashMap<>();
+    for (JsonNode run : runs) {
+      JsonNode metric = run.path("primaryMetric");
+      String mode = run.path("mode").asText();
+      double error = metric.path("scoreError").asDouble(0);
+      scores.put(key(run, mode), new Score(
+          mode,
+          metric.path("score").asDouble(),
+          Double.isNaN(error) ? 0 : error,    // JMH zapisuje "NaN" przy jednej iteracji
+          metric.path("scoreUnit").asText()));
+    }
+    return scores;
+  }
+
+  /**
+   * JVM pomiaru – z pierwszego benchmarku; JMH zapisuje te same pola w każdym.
+   */
+  static String jvm(JsonNode runs) {
+    JsonNode run = runs.path(0);
+    return run.path("vmName").asText("?") + " " + run.path("vmVersion").asText("?")
+        + " " + run.path("jvmArgs");
+  }
+
+  /**
+   * Główna wersja JDK, np. {@code 23} z {@code 23.0.1}.
+   */
+  static String feature(JsonNode runs) {
+    String version = runs.path(0).path("jdkVersion").asText("?");
+    int dot = version.indexOf('.');
+    return dot < 0 ? version : version.substring(0, dot);
+  }
+
+  private static String key(JsonNode run, String mode) {
+    String name = run.path("benchmark").asText().replace("com.demo.game.benchmarks.", "");
+    Map<String, String> params = new TreeMap<>();
+    for (Iterator<Map.Entry<String, JsonNode>> it = run.path("params").fields(); it.hasNext(); ) {
+      Map.Entry<String, JsonNode> p = it.next();
+      params.put(p.getKey(), p.getValue().asText());
+    }
+    return name + " " + mode + (params.isEmpty() ? "" : " " + params);
+  }
+}
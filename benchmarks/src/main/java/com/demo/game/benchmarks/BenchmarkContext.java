@@ -0,0 +1,72 @@
+package com.demo.game.benchmarks;
+
+import com.demo.game.GameApplication;
+import com.demo.game.simulation.VirtualClock;
+import java.util.Arrays;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Pełny kontekst aplikacji (JPA + H2 w pamięci) bez serwera HTTP – dla benchmarków ścieżek serwisowych.
+ * <p>
+ * Zegar jest wirtualny: benchmark przesuwa go o {@link #COOLDOWN_SKIP_MILLIS} przed każdym rozkazem, więc ta sama
+ * jednostka może wykonywać rozkazy bez czekania na cooldown.
+ */
+public final class BenchmarkContext {
+
+  static final long COOLDOWN_SKIP_MILLIS = 60_000;
+
+  private BenchmarkContext() {
+  }
+
+  /**
+   * Ustawienia przekazujemy jak argumenty wiersza poleceń – muszą nadpisać {@code application.properties} (plikowa
+   * baza, show-sql, logi DEBUG). {@code properties} ({@code klucz=wartość}) dokładamy na końcu.
+   */
+  static ConfigurableApplicationContext start(String name, String... properties) {
+    String[] quiet = quietInMemory(name);
+    String[] args = Arrays.copyOf(quiet, quiet.length + properties.length);
+    for (int i = 0; i < properties.length; i++) {
+      args[quiet.length + i] = "--" + properties[i];
+    }
+    return new SpringApplicationBuilder(GameApplication.class, ClockConfiguration.class)
+        .web(WebApplicationType.NONE)
+        .run(args);
+  }
+
+  /**
+   * Argumenty startowe: H2 w pamięci o nazwie {@code name}, bez banera, SQL w logach i pliku logu. Używane też przez
+   * {@code load.LoadDriver}.
+   */
+  public static String[] quietInMemory(String name) {
+    return new String[]{
+        "--spring.main.banner-mode=off",
+        "--spring.datasource.url=jdbc:h2:mem:" + name + ";MODE=Oracle;DB_CLOSE_DELAY=-1",
+        "--spring.jpa.show-sql=false",
+        "--logging.level.root=WARN",
+        "--logging.level.org.hibernate.SQL=WARN",
+        "--logging.level.org.springframework.web=WARN",
+        "--logging.level.com.demo.game=WARN",
+        "--logging.file.name="};
+  }
+
+  /**
+   * Bez {@code @Configuration} – klasa leży pod {@code com.demo.game}, więc skanowanie komponentów aplikacji
+   * podłożyłoby zamrożony zegar także w {@code LoadDriver}. Rejestrujemy ją wyłącznie jawnie w {@link #start}.
+   */
+  static class ClockConfiguration {
+
+    @Bean
+    @Primary
+    VirtualClock benchmarkClock() {
+      return new VirtualClock(System.currentTimeMillis());
+    }
+  }
+
+  static void skipCooldown(VirtualClock clock) {
+    clock.advanceTo(clock.millis() + COOLDOWN_SKIP_MILLIS);
+  }
+}
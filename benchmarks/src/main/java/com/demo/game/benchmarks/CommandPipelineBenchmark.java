@@ -0,0 +1,175 @@
+package com.demo.game.benchmarks;
+
+import com.demo.game.board.BoardRegistry;
+import com.demo.game.board.OccupancyGrid;
+import com.demo.game.commands.Command;
+import com.demo.game.commands.MoveCommand;
+import com.demo.game.commands.ShootCommand;
+import com.demo.game.objects.dao.Game;
+import com.demo.game.objects.dao.Unit;
+import com.demo.game.objects.dto.PlayerConfig;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Direction;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitType;
+import com.demo.game.repositories.UnitRepository;
+import com.demo.game.service.CommandService;
+import com.demo.game.service.GameService;
+import com.demo.game.simulation.VirtualClock;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@code CommandService.executeCommand} dla ruchu i strzału – pełna ścieżka: cooldown, transakcja, blokada wiersza,
+ * reguły, zapis jednostki i zdarzenia.
+ * <p>
+ * • {@code cold} – jak w produkcji: każdy rozkaz w nowej transakcji, jednostka czytana z bazy.<br>
+ * • {@code warm} – rozkaz dołącza do transakcji, w której jednostka i gra są już w kontekście persystencji
+ * (bez hydratacji encji).
+ * <p>
+ * Transport chodzi tam i z powrotem o jedno pole, armata strzela w puste pole – stan planszy się nie zmienia.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 5)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class CommandPipelineBenchmark {
+
+  @Param({"cold", "warm"})
+  String context;
+
+  private ConfigurableApplicationContext ctx;
+  private CommandService commands;
+  private EntityManager entityManager;
+  private TransactionTemplate tx;
+  private VirtualClock clock;
+
+  private long transportId;
+  private MoveCommand forth;
+  private MoveCommand back;
+  private boolean moved;
+
+  private long cannonId;
+  private ShootCommand shot;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    ctx = BenchmarkContext.start("pipeline-" + context);
+    commands = ctx.getBean(CommandService.class);
+    entityManager = ctx.getBean(EntityManager.class);
+    tx = new TransactionTemplate(ctx.getBean(PlatformTransactionManager.class));
+    clock = ctx.getBean(VirtualClock.class);
+
+    Game game = ctx.getBean(GameService.class)
+        .createNewGame(20, 20, new PlayerConfig(0, 1, 1), new PlayerConfig(0, 0, 1));
+    OccupancyGrid grid = ctx.getBean(BoardRegistry.class).grid(game);
+
+    List<Unit> units = ctx.getBean(UnitRepository.class).findByGame(game);
+    Unit transport = units.stream().filter(u -> u.getType() == UnitType.TRANSPORT).findFirst().orElseThrow();
+    Unit cannon = units.stream()
+        .filter(u -> u.getType() == UnitType.CANNON && u.getFaction() == Faction.WHITE)
+        .findFirst().orElseThrow();
+
+    transportId = transport.getId();
+    Direction dir = freeDirection(grid, transport.getX(), transport.getY(), -1, -1);
+    forth = new MoveCommand(dir, 1, Faction.WHITE, CommandType.MOVE_TRANSPORT);
+    back = new MoveCommand(opposite(dir), 1, Faction.WHITE, CommandType.MOVE_TRANSPORT);
+
+    /* cel strzału nie może być polem, na które wchodzi transport */
+    cannonId = cannon.getId();
+    Direction aim = freeDirection(grid, cannon.getX(), cannon.getY(),
+        transport.getX() + dx(dir), transport.getY() + dy(dir));
+    shot = new ShootCommand(dx(aim), dy(aim), Faction.WHITE, CommandType.SHOOT_CANNON);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    ctx.close();
+  }
+
+  @Benchmark
+  public void move() {
+    BenchmarkContext.skipCooldown(clock);
+    execute(transportId, moved ? back : forth);
+    moved = !moved;
+  }
+
+  @Benchmark
+  public void shoot() {
+    BenchmarkContext.skipCooldown(clock);
+    execute(cannonId, shot);
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private void execute(long unitId, Command cmd) {
+    if (context.equals("cold")) {
+      run(unitId, cmd);
+      return;
+    }
+    tx.executeWithoutResult(status -> {
+      Unit unit = entityManager.find(Unit.class, unitId);
+      entityManager.find(Game.class, unit.getGame().getId());
+      run(unitId, cmd);
+    });
+  }
+
+  private void run(long unitId, Command cmd) {
+    try {
+      commands.executeCommand(unitId, cmd);
+    } catch (NotFoundException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Kierunek, w którym sąsiednie pole jest na planszy, wolne i różne od ({@code avoidX}, {@code avoidY}).
+   */
+  static Direction freeDirection(OccupancyGrid grid, int x, int y, int avoidX, int avoidY) {
+    for (Direction d : Direction.values()) {
+      int nx = x + dx(d);
+      int ny = y + dy(d);
+      if (grid.inBounds(nx, ny) && grid.occupant(nx, ny) == OccupancyGrid.EMPTY && (nx != avoidX || ny != avoidY)) {
+        return d;
+      }
+    }
+    throw new IllegalStateException("Unit at (" + x + "," + y + ") is boxed in");
+  }
+
+  static int dx(Direction d) {
+    return d == Direction.LEFT ? -1 : d == Direction.RIGHT ? 1 : 0;
+  }
+
+  static int dy(Direction d) {
+    return d == Direction.UP ? -1 : d == Direction.DOWN ? 1 : 0;
+  }
+
+  static Direction opposite(Direction d) {
+    return switch (d) {
+      case UP -> Direction.DOWN;
+      case DOWN -> Direction.UP;
+      case LEFT -> Direction.RIGHT;
+      case RIGHT -> Direction.LEFT;
+    };
+  }
+}
@@ -0,0 +1,69 @@
+package com.demo.game.benchmarks;
+
+import com.demo.game.objects.dao.Game;
+import com.demo.game.objects.dto.PlayerConfig;
+import com.demo.game.objects.enums.GameStatus;
+import com.demo.game.service.GameService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * {@code GameService.createNewGame} dla kilku rozmiarów planszy; każda armia zajmuje {@code fill} procent pól
+ * planszy podzielone po równo na łuczników, transporty i armaty.
+ * <p>
+ * Gry nie kończą się same – po każdej iteracji zamykamy je zbiorczo, żeby siatki nie zostawały w pamięci.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 5)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class CreateGameBenchmark {
+
+  @Param({"8", "14", "20"})
+  int side;
+
+  @Param({"10", "40"})
+  int fill;
+
+  private ConfigurableApplicationContext ctx;
+  private GameService games;
+  private PlayerConfig army;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    ctx = BenchmarkContext.start("create-" + side + "-" + fill);
+    games = ctx.getBean(GameService.class);
+    int perType = Math.max(1, side * side * fill / 100 / 3);
+    army = new PlayerConfig(perType, perType, perType);
+  }
+
+  @TearDown(Level.Iteration)
+  public void endGames() {
+    games.endActiveGames(GameStatus.ABORTED, null);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    ctx.close();
+  }
+
+  @Benchmark
+  public Game createNewGame() {
+    return games.createNewGame(side, side, army, army);
+  }
+}
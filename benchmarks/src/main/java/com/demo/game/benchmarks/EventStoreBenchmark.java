@@ -0,0 +1,127 @@
+package com.demo.game.benchmarks;
+
+import com.demo.game.board.BoardRegistry;
+import com.demo.game.commands.MoveCommand;
+import com.demo.game.objects.dao.Game;
+import com.demo.game.objects.dao.Unit;
+import com.demo.game.objects.dto.PlayerConfig;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Direction;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitType;
+import com.demo.game.repositories.UnitRepository;
+import com.demo.game.service.CommandService;
+import com.demo.game.service.EventHistory;
+import com.demo.game.service.GameService;
+import com.demo.game.simulation.VirtualClock;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Magazyn zdarzeń ({@code game.events.store}) na ścieżce rozkazu i przy odczycie historii.
+ * <p>
+ * • {@code move} – pełny {@code CommandService.executeCommand}; w trybie {@code commit} czas obejmuje trwały zapis
+ * zdarzenia (commit bazy albo fsync dziennika).<br>
+ * • {@code history} – ostatnie zdarzenia gry z kilku tysięcy, jak przy wznowieniu strumienia SSE.
+ * <p>
+ * Dziennik leży w katalogu tymczasowym usuwanym po próbie.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10, time = 5)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class EventStoreBenchmark {
+
+  private static final int HISTORY = 5_000;
+  private static final int TAIL = 50;
+
+  @Param({"jpa", "log"})
+  String store;
+
+  @Param({"commit", "interval"})
+  String durability;
+
+  private ConfigurableApplicationContext ctx;
+  private Path logDir;
+  private CommandService commands;
+  private EventHistory history;
+  private VirtualClock clock;
+
+  private long gameId;
+  private long transportId;
+  private MoveCommand forth;
+  private MoveCommand back;
+  private boolean moved;
+  private long tailFrom;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException, NotFoundException, InterruptedException {
+    logDir = Files.createTempDirectory("event-log-bench");
+    ctx = BenchmarkContext.start("store-" + store + "-" + durability,
+        "game.events.store=" + store,
+        "game.events.durability=" + durability,
+        "game.events.log.dir=" + logDir);
+    commands = ctx.getBean(CommandService.class);
+    history = ctx.getBean(EventHistory.class);
+    clock = ctx.getBean(VirtualClock.class);
+
+    Game game = ctx.getBean(GameService.class)
+        .createNewGame(20, 20, new PlayerConfig(0, 1, 0), new PlayerConfig(0, 0, 1));
+    gameId = game.getId();
+    Unit transport = ctx.getBean(UnitRepository.class).findByGame(game).stream()
+        .filter(u -> u.getType() == UnitType.TRANSPORT).findFirst().orElseThrow();
+    transportId = transport.getId();
+    Direction dir = CommandPipelineBenchmark.freeDirection(ctx.getBean(BoardRegistry.class).grid(game),
+        transport.getX(), transport.getY(), -1, -1);
+    forth = new MoveCommand(dir, 1, Faction.WHITE, CommandType.MOVE_TRANSPORT);
+    back = new MoveCommand(CommandPipelineBenchmark.opposite(dir), 1, Faction.WHITE, CommandType.MOVE_TRANSPORT);
+
+    for (int i = 0; i < HISTORY; i++) {
+      move();
+    }
+    // w trybie interval część zdarzeń może jeszcze czekać na zapis
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (history.eventsAfter(gameId, 0).size() < HISTORY && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    tailFrom = history.eventsAfter(gameId, 0).get(HISTORY - TAIL - 1).id();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    ctx.close();
+    FileSystemUtils.deleteRecursively(logDir);
+  }
+
+  @Benchmark
+  public void move() throws NotFoundException {
+    BenchmarkContext.skipCooldown(clock);
+    commands.executeCommand(transportId, moved ? back : forth);
+    moved = !moved;
+  }
+
+  @Benchmark
+  public int history() {
+    return history.eventsAfter(gameId, tailFrom).size();
+  }
+}
@@ -0,0 +1,97 @@
+package com.demo.game.benchmarks;
+
+import com.demo.game.commands.Command;
+import com.demo.game.commands.CommandCodec;
+import com.demo.game.commands.MoveCommand;
+import com.demo.game.commands.ShootCommand;
+import com.demo.game.objects.dto.CommandRequest;
+import com.demo.game.objects.dto.MoveRequest;
+import com.demo.game.objects.dto.ShootRequest;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Direction;
+import com.demo.game.objects.enums.Faction;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * (De)serializacja polimorficznych {@link Command} i {@link CommandRequest} przez Jacksona (pole {@code kind}) oraz,
+ * dla porównania, binarny {@link CommandCodec} używany w historii zdarzeń.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+  @Param({"move", "shoot"})
+  String kind;
+
+  private ObjectMapper mapper;
+  private CommandCodec codec;
+
+  private Command command;
+  private CommandRequest request;
+  private String commandJson;
+  private String requestJson;
+  private byte[] commandBytes;
+
+  @Setup
+  public void setup() throws JsonProcessingException {
+    mapper = new ObjectMapper();
+    codec = new CommandCodec(mapper);
+    if (kind.equals("move")) {
+      command = new MoveCommand(Direction.RIGHT, 2, Faction.WHITE, CommandType.MOVE_TRANSPORT);
+      request = new MoveRequest(Direction.RIGHT, 2, Faction.WHITE);
+    } else {
+      command = new ShootCommand(-2, 3, Faction.BLACK, CommandType.SHOOT_CANNON);
+      request = new ShootRequest(-2, 3, Faction.BLACK, CommandType.SHOOT_CANNON);
+    }
+    commandJson = mapper.writeValueAsString(command);
+    requestJson = mapper.writerFor(CommandRequest.class).writeValueAsString(request);
+    commandBytes = codec.encode(command);
+  }
+
+  @Benchmark
+  public String writeCommand() throws JsonProcessingException {
+    return mapper.writeValueAsString(command);
+  }
+
+  @Benchmark
+  public Command readCommand() throws JsonProcessingException {
+    return mapper.readValue(commandJson, Command.class);
+  }
+
+  @Benchmark
+  public String writeRequest() throws JsonProcessingException {
+    return mapper.writerFor(CommandRequest.class).writeValueAsString(request);
+  }
+
+  @Benchmark
+  public Command readRequest() throws JsonProcessingException {
+    return mapper.readValue(requestJson, CommandRequest.class).toDomain();
+  }
+
+  @Benchmark
+  public byte[] encodeBinary() {
+    return codec.encode(command);
+  }
+
+  @Benchmark
+  public Command decodeBinary() {
+    return codec.decode(commandBytes);
+  }
+}
@@ -0,0 +1,68 @@
+package com.demo.game.benchmarks;
+
+import com.demo.game.board.GameRules;
+import com.demo.game.board.MoveOutcome;
+import com.demo.game.board.OccupancyGrid;
+import com.demo.game.commands.MoveCommand;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Direction;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reguły ruchu ({@link GameRules#resolveMove}, rdzeń {@code CommandExecutor.applyMove}) na siatce zajętości, dla
+ * każdej ścieżki kolizji: wolna droga, najazd na przeciwnika, najazd na swojego, zablokowana droga i wyjście poza
+ * planszę. Dwie ostatnie kończą się wyjątkiem – widać jego koszt.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveRulesBenchmark {
+
+  @Param({"free", "capture", "cancelled", "blocked", "outside"})
+  String path;
+
+  private final MoveCommand move = new MoveCommand(Direction.RIGHT, 3, Faction.WHITE, CommandType.MOVE_TRANSPORT);
+
+  private OccupancyGrid grid;
+  private int fromX;
+
+  @Setup
+  public void setup() {
+    grid = new OccupancyGrid(1L, 20, 20);
+    fromX = path.equals("outside") ? 18 : 5;
+    grid.place(1L, Faction.WHITE, fromX, 5);
+    switch (path) {
+      case "capture" -> grid.place(2L, Faction.BLACK, 8, 5);
+      case "cancelled" -> grid.place(2L, Faction.WHITE, 8, 5);
+      case "blocked" -> grid.place(2L, Faction.BLACK, 6, 5);
+      default -> {
+      }
+    }
+  }
+
+  @Benchmark
+  public Object resolveMove() {
+    try {
+      MoveOutcome outcome = GameRules.resolveMove(UnitType.TRANSPORT, Faction.WHITE, fromX, 5, move, grid);
+      return outcome;
+    } catch (IllegalArgumentException ex) {
+      return ex;
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package com.demo.game.benchmarks;
+
+import com.demo.game.commands.Command;
+import com.demo.game.objects.dao.Game;
+import com.demo.game.objects.dao.Unit;
+import com.demo.game.objects.dto.PlayerConfig;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitType;
+import com.demo.game.repositories.UnitRepository;
+import com.demo.game.service.CommandService;
+import com.demo.game.service.GameService;
+import com.demo.game.simulation.VirtualClock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+
+/**
+ * Przepustowość rozkazów przy wielu grach naraz – {@code games} aktywnych gier, każdy wątek JMH steruje własnym
+ * transportem w grze {@code numer wątku % games} ({@code CommandService.executeRandom}).
+ * <p>
+ * • Skalowanie z liczbą gier – parametr {@code games}.<br>
+ * • Skalowanie z liczbą rdzeni – liczba wątków JMH, np. {@code -Djmh.args="MultiGame -t 4"}; przy
+ * {@code games = 1} wszystkie wątki dzielą siatkę (monitor) i skrzynkę jednej gry, przy {@code games >= t} każda
+ * gra ma własny wątek.<br>
+ * • Każda gra ma {@link #TRANSPORTS_PER_GAME} transportów białych, więc wątków może być najwyżej
+ * {@code games * TRANSPORTS_PER_GAME}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10, time = 5)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class MultiGameBenchmark {
+
+  static final int TRANSPORTS_PER_GAME = 8;
+
+  @State(Scope.Benchmark)
+  public static class Games {
+
+    @Param({"1", "16", "256"})
+    int games;
+
+    private ConfigurableApplicationContext ctx;
+    private CommandService commands;
+    private VirtualClock clock;
+    private final List<List<Unit>> transports = new ArrayList<>();
+    private final AtomicInteger threads = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setup() {
+      ctx = BenchmarkContext.start("multi-" + games);
+      commands = ctx.getBean(CommandService.class);
+      clock = ctx.getBean(VirtualClock.class);
+      GameService gameService = ctx.getBean(GameService.class);
+      UnitRepository units = ctx.getBean(UnitRepository.class);
+
+      for (int i = 0; i < games; i++) {
+        Game game = gameService.createNewGame(12, 12,
+            new PlayerConfig(0, TRANSPORTS_PER_GAME, 0), new PlayerConfig(0, 0, 1));
+        transports.add(units.findByGame(game).stream()
+            .filter(u -> u.getType() == UnitType.TRANSPORT)
+            .toList());
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      ctx.close();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Driver {
+
+    private long unitId;
+
+    @Setup(Level.Trial)
+    public void setup(Games g) {
+      int thread = g.threads.getAndIncrement();
+      List<Unit> game = g.transports.get(thread % g.games);
+      int slot = thread / g.games;
+      if (slot >= game.size()) {
+        throw new IllegalStateException("Too many threads: at most " + g.games * TRANSPORTS_PER_GAME);
+      }
+      unitId = game.get(slot).getId();
+    }
+  }
+
+  /**
+   * Zablokowany transport (same swoje jednostki dookoła) zwraca 400 – taki rozkaz liczymy jak każdy inny.
+   */
+  @Benchmark
+  public Command command(Games g, Driver d) throws NotFoundException {
+    BenchmarkContext.skipCooldown(g.clock);
+    try {
+      return g.commands.executeRandom(d.unitId, Faction.WHITE);
+    } catch (IllegalArgumentException ex) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package com.demo.game.benchmarks;
+
+import com.demo.game.board.BoardPlacement;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rozstawienie jednostek: częściowy Fisher–Yates ({@link BoardPlacement}) kontra dawne losowanie „do skutku" z
+ * kluczami {@code x + ":" + y} w {@link HashSet}. {@code fill} to procent planszy zajęty przez jednostki.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementBenchmark {
+
+  @Param({"8", "20"})
+  int side;
+
+  @Param({"25", "90", "100"})
+  int fill;
+
+  private SplittableRandom rng;
+  private int capacity;
+  private int count;
+
+  @Setup
+  public void setup() {
+    rng = new SplittableRandom(42);
+    capacity = side * side;
+    count = capacity * fill / 100;
+  }
+
+  @Benchmark
+  public int[] partialFisherYates() {
+    return BoardPlacement.sampleCells(rng, capacity, count);
+  }
+
+  @Benchmark
+  public Set<String> rejectionSampling() {
+    Set<String> occupied = new HashSet<>();
+    for (int i = 0; i < count; i++) {
+      int x, y;
+      do {
+        x = rng.nextInt(side);
+        y = rng.nextInt(side);
+      } while (!occupied.add(x + ":" + y));
+    }
+    return occupied;
+  }
+}
@@ -0,0 +1,119 @@
+package com.demo.game.benchmarks;
+
+import com.demo.game.board.BoardRegistry;
+import com.demo.game.board.TacticalBoard;
+import com.demo.game.commands.Command;
+import com.demo.game.commands.CommandScoring;
+import com.demo.game.commands.RandomCommands;
+import com.demo.game.objects.dao.Game;
+import com.demo.game.objects.dao.Unit;
+import com.demo.game.objects.dto.PlayerConfig;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.repositories.UnitRepository;
+import com.demo.game.service.GameService;
+import com.demo.game.service.TurnPlanner;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Decyzje AI na sekundę – na migawce planszy ({@code OccupancyGrid.snapshot}), jak w {@code executeRandomTurn}:
+ * <p>
+ * • {@code plannerDecision} – {@link CommandScoring#best} dla kolejnej białej jednostki.<br>
+ * • {@code randomDecision} – {@link RandomCommands#legal} dla tej samej jednostki (punkt odniesienia).<br>
+ * • {@code plannedTurn} – cała tura białych przez {@link TurnPlanner} (pula wątków, budżet tury); jedna operacja to
+ * {@code units} decyzji.
+ * <p>
+ * Plansza 32×32, po {@code units} jednostek każdej frakcji (po równo łuczników, transportów i armat).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class PlannerBenchmark {
+
+  @Param({"30", "150"})
+  int units;
+
+  private ConfigurableApplicationContext ctx;
+  private TurnPlanner planner;
+  private TacticalBoard snapshot;
+  private List<Unit> white;
+  private Command[] plans;
+  private SplittableRandom rng;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    ctx = BenchmarkContext.start("planner-" + units);
+    planner = ctx.getBean(TurnPlanner.class);
+    PlayerConfig side = new PlayerConfig(units / 3, units / 3, units - 2 * (units / 3));
+    Game game = ctx.getBean(GameService.class).createNewGame(32, 32, side, side);
+    snapshot = ctx.getBean(BoardRegistry.class).grid(game).snapshot();
+    white = ctx.getBean(UnitRepository.class).findByGame(game).stream()
+        .filter(u -> u.getFaction() == Faction.WHITE)
+        .toList();
+    plans = new Command[white.size()];
+    rng = new SplittableRandom(42);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    ctx.close();
+  }
+
+  @Benchmark
+  public Command plannerDecision() {
+    Unit u = nextUnit();
+    return CommandScoring.best(u.getType(), u.getFaction(), u.getX(), u.getY(), snapshot, true, true, rng);
+  }
+
+  @Benchmark
+  public Command randomDecision() {
+    Unit u = nextUnit();
+    return RandomCommands.legal(u.getType(), u.getFaction(), u.getX(), u.getY(), snapshot, true, true, rng);
+  }
+
+  /**
+   * Wątki puli losują z {@link ThreadLocalRandom} – {@link SplittableRandom} nie jest bezpieczny dla wielu wątków.
+   */
+  @Benchmark
+  public Command[] plannedTurn() {
+    planner.plan(plans.length,
+        i -> plans[i] = decide(white.get(i), true),
+        i -> plans[i] = decide(white.get(i), false));
+    return plans;
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private Unit nextUnit() {
+    Unit u = white.get(next);
+    next = next + 1 == white.size() ? 0 : next + 1;
+    return u;
+  }
+
+  private Command decide(Unit u, boolean scored) {
+    ThreadLocalRandom r = ThreadLocalRandom.current();
+    return scored
+        ? CommandScoring.best(u.getType(), u.getFaction(), u.getX(), u.getY(), snapshot, true, true, r)
+        : RandomCommands.legal(u.getType(), u.getFaction(), u.getX(), u.getY(), snapshot, true, true, r);
+  }
+}
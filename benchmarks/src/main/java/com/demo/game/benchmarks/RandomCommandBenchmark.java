@@ -0,0 +1,102 @@
+package com.demo.game.benchmarks;
+
+import com.demo.game.board.BoardRegistry;
+import com.demo.game.board.OccupancyGrid;
+import com.demo.game.commands.Command;
+import com.demo.game.commands.RandomCommands;
+import com.demo.game.objects.dao.Game;
+import com.demo.game.objects.dao.Unit;
+import com.demo.game.objects.dto.PlayerConfig;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.repositories.UnitRepository;
+import com.demo.game.service.CommandService;
+import com.demo.game.service.GameService;
+import com.demo.game.service.RandomCommandGenerator;
+import com.demo.game.simulation.VirtualClock;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+
+/**
+ * Losowy rozkaz AI:
+ * <p>
+ * • {@code generate} – {@code RandomCommandGenerator.generate} dla wczytanej jednostki: legalne rozkazy z siatki,
+ * losowanie na {@code ThreadLocalRandom}.<br>
+ * • {@code legalOnly} / {@code randomOnly} – samo losowanie ({@link RandomCommands}) na {@link SplittableRandom},
+ * z planszą i bez niej.<br>
+ * • {@code executeRandom} – {@code CommandService.executeRandom}: losowanie i wykonanie w jednej transakcji.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 5)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class RandomCommandBenchmark {
+
+  private ConfigurableApplicationContext ctx;
+  private RandomCommandGenerator generator;
+  private CommandService commands;
+  private VirtualClock clock;
+  private OccupancyGrid grid;
+  private Unit unit;
+  private SplittableRandom rng;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    ctx = BenchmarkContext.start("random");
+    generator = ctx.getBean(RandomCommandGenerator.class);
+    commands = ctx.getBean(CommandService.class);
+    clock = ctx.getBean(VirtualClock.class);
+    Game game = ctx.getBean(GameService.class)
+        .createNewGame(8, 8, new PlayerConfig(1, 1, 1), new PlayerConfig(1, 1, 1));
+    grid = ctx.getBean(BoardRegistry.class).grid(game);
+    unit = ctx.getBean(UnitRepository.class).findByGame(game).getFirst();
+    rng = new SplittableRandom(42);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    ctx.close();
+  }
+
+  @Benchmark
+  public Command generate() {
+    synchronized (grid) {
+      return generator.generate(unit, grid);
+    }
+  }
+
+  @Benchmark
+  public Command legalOnly() {
+    return RandomCommands.legal(unit.getType(), unit.getFaction(), unit.getX(), unit.getY(), grid, true, true, rng);
+  }
+
+  @Benchmark
+  public Command randomOnly() {
+    return RandomCommands.random(unit.getType(), Faction.WHITE, rng);
+  }
+
+  /**
+   * Rozkazy zmieniają planszę (łucznik chodzi i strzela), ale jego pozycję trzyma encja – {@code unit} z setupu
+   * nie jest tu używany.
+   */
+  @Benchmark
+  public Command executeRandom() throws NotFoundException {
+    BenchmarkContext.skipCooldown(clock);
+    return commands.executeRandom(unit.getId(), unit.getFaction());
+  }
+}
@@ -0,0 +1,243 @@
+package com.demo.game.benchmarks.load;
+
+import com.demo.game.GameApplication;
+import com.demo.game.benchmarks.BenchmarkContext;
+import com.demo.game.commands.Command;
+import com.demo.game.commands.MoveCommand;
+import com.demo.game.commands.RandomCommands;
+import com.demo.game.commands.ShootCommand;
+import com.demo.game.objects.dto.CommandRequest;
+import com.demo.game.objects.dto.MoveRequest;
+import com.demo.game.objects.dto.NewGameRequest;
+import com.demo.game.objects.dto.PlayerConfig;
+import com.demo.game.objects.dto.ShootRequest;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Generator obciążenia HTTP dla {@code GameApiController} – wbudowany serwer, H2 w pamięci, bez usług zewnętrznych.
+ * <p>
+ * • Otwarta pętla: żądania wysyłane są w stałym tempie {@code --rate} niezależnie od tego, jak szybko serwer
+ * odpowiada; każde na osobnym wirtualnym wątku.<br>
+ * • Boty losują jednostkę z jednej z {@code --games} gier i wysyłają {@code /units/{id}/random} (udział
+ * {@code --random-share}) albo {@code /units/{id}/command} z rozkazem jak {@code RandomCommands}.<br>
+ * • Bot pamięta cooldown swojej jednostki i wybiera jednostkę gotową do rozkazu; gdy żadnej nie ma (za mało
+ * jednostek na zadane tempo), wysyła mimo to – taki rozkaz kończy się 429. Przy cooldownach 5–13 s tempo
+ * {@code R} req/s wymaga około {@code 10 * R} jednostek (domyślnie 20 gier po 100 jednostek, 100 req/s).<br>
+ * • Po rozgrzewce ({@code --warmup}, poza statystykami) mierzymy przez {@code --duration} i drukujemy p50/p99/p999,
+ * przepustowość i rozkład statusów (202/400/404/409/429/500, błędy IO).
+ * <p>
+ * • Opcje {@code --spring.*} trafiają do aplikacji, np. {@code --spring.threads.virtual.enabled=true}.
+ * <p>
+ * Uruchomienie: {@code mvn -f benchmarks/pom.xml exec:exec@load -Dload.args="--rate=500 --games=50 --duration=PT60S"}.
+ */
+public final class LoadDriver {
+
+  private static final int PICK_ATTEMPTS = 64;
+
+  /** Zapas na różnicę między chwilą wysłania a chwilą, od której serwer liczy cooldown. */
+  private static final long COOLDOWN_MARGIN_NANOS = 50_000_000L;
+
+  private final Map<String, String> options;
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final HttpClient client = HttpClient.newBuilder()
+      .executor(Executors.newVirtualThreadPerTaskExecutor())
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(Duration.ofSeconds(5))
+      .build();
+
+  private String baseUrl;
+  private List<Bot> bots;
+  /** Chwila (System.nanoTime), od której jednostka bota znów może dostać rozkaz. */
+  private long[] readyAt;
+
+  private LoadDriver(Map<String, String> options) {
+    this.options = options;
+  }
+
+  record Bot(long unitId, UnitType type, Faction faction) {
+
+    /**
+     * Najdłuższy cooldown rozkazu tej jednostki. Serwer liczy cooldown od ostatniego rozkazu, ale według typu
+     * następnego – bot nie zna typu, który wylosuje {@code /random}, więc zakłada najgorszy.
+     */
+    Duration longestCooldown() {
+      return switch (type) {
+        case ARCHER -> CommandType.SHOOT_ARCHER.getCooldown();
+        case TRANSPORT -> CommandType.MOVE_TRANSPORT.getCooldown();
+        case CANNON -> CommandType.SHOOT_CANNON.getCooldown();
+      };
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = new HashMap<>();
+    for (String a : args) {
+      String[] kv = a.replaceFirst("^--", "").split("=", 2);
+      options.put(kv[0], kv.length > 1 ? kv[1] : "true");
+    }
+    new LoadDriver(options).run();
+  }
+
+  private void run() throws Exception {
+    String[] args = Stream.of(
+            Stream.of("--server.port=0"),
+            Arrays.stream(BenchmarkContext.quietInMemory("load")),
+            options.entrySet().stream()
+                .filter(o -> o.getKey().startsWith("spring."))
+                .map(o -> "--" + o.getKey() + "=" + o.getValue()))
+        .flatMap(a -> a)
+        .toArray(String[]::new);
+    try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(GameApplication.class).run(args)) {
+
+      baseUrl = "http://localhost:" + ctx.getEnvironment().getProperty("local.server.port") + "/api";
+      bots = setUpGames();
+      readyAt = new long[bots.size()];
+
+      int rate = intOption("rate", 100);
+      double randomShare = Double.parseDouble(options.getOrDefault("random-share", "0.5"));
+      SplittableRandom rng = new SplittableRandom(intOption("seed", 42));
+
+      System.out.printf("%d bots, %d req/s, %.0f%% random%n", bots.size(), rate, randomShare * 100);
+      drive(rate, randomShare, rng, Duration.parse(options.getOrDefault("warmup", "PT30S")), new LoadStats());
+
+      LoadStats stats = new LoadStats();
+      Duration duration = Duration.parse(options.getOrDefault("duration", "PT30S"));
+      drive(rate, randomShare, rng, duration, stats);
+      stats.print(System.out, duration.toNanos() / 1e9);
+    }
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Przygotowanie gier                                          */
+  /* ----------------------------------------------------------- */
+
+  private List<Bot> setUpGames() throws IOException, InterruptedException {
+    int side = intOption("board", 20);
+    String[] army = options.getOrDefault("army", "20,20,10").split(",");
+    PlayerConfig cfg = new PlayerConfig(Integer.parseInt(army[0]), Integer.parseInt(army[1]),
+        Integer.parseInt(army[2]));
+
+    List<Bot> bots = new ArrayList<>();
+    for (int g = 0; g < intOption("games", 20); g++) {
+      JsonNode game = mapper.readTree(send(HttpRequest.newBuilder(URI.create(baseUrl + "/games"))
+          .header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofString(
+              mapper.writeValueAsString(new NewGameRequest(side, side, cfg, cfg))))).body());
+      long gameId = game.path("id").asLong();
+      for (Faction f : Faction.values()) {
+        JsonNode units = mapper.readTree(send(HttpRequest.newBuilder(
+            URI.create(baseUrl + "/games/" + gameId + "/units?faction=" + f)).GET()).body());
+        units.forEach(u -> bots.add(new Bot(u.path("id").asLong(), UnitType.valueOf(u.path("type").asText()), f)));
+      }
+    }
+    return bots;
+  }
+
+  private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+    return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Otwarta pętla                                               */
+  /* ----------------------------------------------------------- */
+
+  private void drive(int rate, double randomShare, SplittableRandom rng, Duration duration, LoadStats stats)
+      throws IOException {
+
+    long interval = 1_000_000_000L / rate;
+    long count = duration.toNanos() / interval;
+    long start = System.nanoTime();
+
+    try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (long i = 0; i < count; i++) {
+        long intended = start + i * interval;
+        long wait = intended - System.nanoTime();
+        if (wait > 0) {
+          LockSupport.parkNanos(wait);
+        }
+
+        int b = pickReady(rng, intended);
+        Bot bot = bots.get(b);
+        if (readyAt[b] <= intended) {    // niegotowa jednostka dostanie 429 – jej cooldown się nie przesuwa
+          readyAt[b] = intended + bot.longestCooldown().toNanos() + COOLDOWN_MARGIN_NANOS;
+        }
+        if (rng.nextDouble() < randomShare) {
+          HttpRequest request = HttpRequest.newBuilder(
+                  URI.create(baseUrl + "/units/" + bot.unitId() + "/random?issuer=" + bot.faction()))
+              .POST(HttpRequest.BodyPublishers.noBody())
+              .build();
+          senders.execute(() -> exchange("units/{id}/random", null, request, intended, stats));
+        } else {
+          CommandRequest body = toRequest(RandomCommands.random(bot.type(), bot.faction(), rng));
+          CommandType type = body.toDomain().type();
+          HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/units/" + bot.unitId() + "/command"))
+              .header("Content-Type", "application/json")
+              .POST(HttpRequest.BodyPublishers.ofString(mapper.writerFor(CommandRequest.class).writeValueAsString(body)))
+              .build();
+          senders.execute(() -> exchange("units/{id}/command", type, request, intended, stats));
+        }
+      }
+    }
+  }
+
+  /**
+   * Losowa jednostka, której cooldown już minął; po {@link #PICK_ATTEMPTS} nieudanych próbach – dowolna.
+   */
+  private int pickReady(SplittableRandom rng, long now) {
+    int b = rng.nextInt(bots.size());
+    for (int attempt = 1; attempt < PICK_ATTEMPTS && readyAt[b] > now; attempt++) {
+      b = rng.nextInt(bots.size());
+    }
+    return b;
+  }
+
+  private void exchange(String endpoint, CommandType type, HttpRequest request, long intended, LoadStats stats) {
+    String status;
+    try {
+      status = String.valueOf(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+    } catch (IOException ex) {
+      status = "io-error";
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+    stats.record(endpoint, type, System.nanoTime() - intended, status);
+  }
+
+  /**
+   * Rozkaz jako ciało żądania. Ruch przez API to zawsze MOVE_TRANSPORT – ruch łucznika kończy się 400, jak
+   * w produkcji.
+   */
+  private static CommandRequest toRequest(Command cmd) {
+    return switch (cmd) {
+      case MoveCommand mv -> new MoveRequest(mv.direction(), mv.steps(), mv.issuer());
+      case ShootCommand sh -> new ShootRequest(sh.dx(), sh.dy(), sh.issuer(), sh.type());
+    };
+  }
+
+  private int intOption(String name, int fallback) {
+    return Integer.parseInt(options.getOrDefault(name, String.valueOf(fallback)));
+  }
+}
@@ -0,0 +1,59 @@
+package com.demo.game.benchmarks.load;
+
+import com.demo.game.objects.enums.CommandType;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Histogramy opóźnień (HdrHistogram, mikrosekundy) per endpoint i per {@link CommandType} oraz liczniki statusów.
+ * <p>
+ * Opóźnienie liczymy od <em>zaplanowanej</em> chwili wysłania, nie od faktycznej – gdy serwer nie nadąża, kolejka
+ * po stronie klienta też jest widoczna w wyniku (brak „coordinated omission").
+ */
+final class LoadStats {
+
+  /** Najdłuższe rejestrowane opóźnienie: 60 s. */
+  private static final long MAX_MICROS = 60_000_000L;
+
+  private final Map<String, Histogram> byEndpoint = new ConcurrentHashMap<>();
+  private final Map<CommandType, Histogram> byType = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+
+  void record(String endpoint, CommandType type, long latencyNanos, String status) {
+    long micros = Math.min(MAX_MICROS, Math.max(1, latencyNanos / 1_000));
+    byEndpoint.computeIfAbsent(endpoint, k -> histogram()).recordValue(micros);
+    if (type != null) {
+      byType.computeIfAbsent(type, k -> histogram()).recordValue(micros);
+    }
+    statuses.computeIfAbsent(endpoint + " " + status, k -> new LongAdder()).increment();
+  }
+
+  void print(PrintStream out, double seconds) {
+    out.printf("%-22s %9s %10s %9s %9s %9s %9s%n", "latency [ms]", "count", "req/s", "p50", "p99", "p999", "max");
+    new TreeMap<>(byEndpoint).forEach((k, h) -> row(out, "/" + k, h, seconds));
+    new TreeMap<>(byType).forEach((k, h) -> row(out, "  " + k, h, seconds));
+
+    out.println();
+    out.printf("%-22s %9s%n", "status", "count");
+    new TreeMap<>(statuses).forEach((k, n) -> out.printf("%-22s %9d%n", k, n.sum()));
+  }
+
+  private static void row(PrintStream out, String label, Histogram h, double seconds) {
+    out.printf("%-22s %9d %10.0f %9.2f %9.2f %9.2f %9.2f%n", label, h.getTotalCount(), h.getTotalCount() / seconds,
+        ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(99)), ms(h.getValueAtPercentile(99.9)),
+        ms(h.getMaxValue()));
+  }
+
+  private static double ms(long micros) {
+    return micros / 1_000.0;
+  }
+
+  private static Histogram histogram() {
+    return new ConcurrentHistogram(MAX_MICROS, 3);
+  }
+}
@@ -0,0 +1,176 @@
+package com.demo.game.archive;
+
+import com.demo.game.objects.enums.CommandType;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binarny zapis bloku archiwum – zdarzenia jednej gry, rosnąco po id, skompresowane Deflate.
+ * <p>
+ * Układ przed kompresją (wersja 1):
+ * <pre>
+ *  bajt 0     FORMAT_V1 (0x01)
+ *  bajty 1-4  liczba zdarzeń
+ *  per zdarzenie:
+ *    8  id
+ *    1  flagi: bit 0 sukces, bit 1 jednostka, bit 2 pozycja, bit 3 zniszczona jednostka, bit 4 payload
+ *    1  typ rozkazu (ordinal, 0xFF – brak)
+ *    8  id jednostki                      (bit 1)
+ *    4  x, 4  y                           (bit 2)
+ *    8  id zniszczonej jednostki          (bit 3)
+ *    1  długość payloadu + payload        (bit 4, najwyżej 255 bajtów – jak kolumna)
+ *    8  czas wykonania: sekundy epoki, 4  nanosekundy
+ * </pre>
+ * Id gry nie zapisujemy – blok należy do jednej gry, a wie o tym indeks.
+ */
+final class BlockCodec {
+
+  static final byte FORMAT_V1 = 0x01;
+
+  private static final int SUCCESS = 1;
+  private static final int UNIT = 1 << 1;
+  private static final int POSITION = 1 << 2;
+  private static final int DESTROYED = 1 << 3;
+  private static final int PAYLOAD = 1 << 4;
+
+  private static final int NO_TYPE = 0xFF;
+  private static final CommandType[] TYPES = CommandType.values();
+
+  private BlockCodec() {
+  }
+
+  /**
+   * Blok przed kompresją.
+   */
+  static byte[] encode(List<EventRecord> events) {
+    int size = 5;
+    for (EventRecord e : events) {
+      size += 8 + 2 + 12
+          + (e.unitId() != null ? 8 : 0)
+          + (e.x() != null ? 8 : 0)
+          + (e.destroyedUnitId() != null ? 8 : 0)
+          + (e.payload() != null ? 1 + e.payload().length : 0);
+    }
+
+    ByteBuffer buf = ByteBuffer.allocate(size);
+    buf.put(FORMAT_V1);
+    buf.putInt(events.size());
+    for (EventRecord e : events) {
+      if (e.payload() != null && e.payload().length > 255) {
+        throw new IllegalArgumentException("Payload of event " + e.id() + " is too long");
+      }
+      int flags = (e.success() ? SUCCESS : 0)
+          | (e.unitId() != null ? UNIT : 0)
+          | (e.x() != null ? POSITION : 0)
+          | (e.destroyedUnitId() != null ? DESTROYED : 0)
+          | (e.payload() != null ? PAYLOAD : 0);
+      buf.putLong(e.id());
+      buf.put((byte) flags);
+      buf.put((byte) (e.type() == null ? NO_TYPE : e.type().ordinal()));
+      if (e.unitId() != null) {
+        buf.putLong(e.unitId());
+      }
+      if (e.x() != null) {
+        buf.putInt(e.x());
+        buf.putInt(e.y());
+      }
+      if (e.destroyedUnitId() != null) {
+        buf.putLong(e.destroyedUnitId());
+      }
+      if (e.payload() != null) {
+        buf.put((byte) e.payload().length);
+        buf.put(e.payload());
+      }
+      buf.putLong(e.executedAt().getEpochSecond());
+      buf.putInt(e.executedAt().getNano());
+    }
+    return buf.array();
+  }
+
+  static List<EventRecord> decode(long gameId, byte[] block) {
+    ByteBuffer buf = ByteBuffer.wrap(block);
+    if (buf.get() != FORMAT_V1) {
+      throw new IllegalArgumentException("Unsupported archive block format");
+    }
+    int count = buf.getInt();
+    List<EventRecord> events = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      long id = buf.getLong();
+      int flags = buf.get();
+      int type = buf.get() & 0xFF;
+      Long unitId = (flags & UNIT) != 0 ? buf.getLong() : null;
+      Integer x = null;
+      Integer y = null;
+      if ((flags & POSITION) != 0) {
+        x = buf.getInt();
+        y = buf.getInt();
+      }
+      Long destroyed = (flags & DESTROYED) != 0 ? buf.getLong() : null;
+      byte[] payload = null;
+      if ((flags & PAYLOAD) != 0) {
+        payload = new byte[buf.get() & 0xFF];
+        buf.get(payload);
+      }
+      Instant executedAt = Instant.ofEpochSecond(buf.getLong(), buf.getInt());
+      events.add(new EventRecord(id, gameId, unitId, type == NO_TYPE ? null : TYPES[type], payload,
+          (flags & SUCCESS) != 0, x, y, destroyed, executedAt));
+    }
+    return events;
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Kompresja                                                   */
+  /* ----------------------------------------------------------- */
+
+  static byte[] deflate(byte[] raw) {
+    Deflater deflater = new Deflater();
+    try {
+      deflater.setInput(raw);
+      deflater.finish();
+      byte[] out = new byte[raw.length + raw.length / 16 + 64];
+      int length = 0;
+      while (!deflater.finished()) {
+        if (length == out.length) {
+          out = Arrays.copyOf(out, out.length * 2);
+        }
+        length += deflater.deflate(out, length, out.length - length);
+      }
+      return Arrays.copyOf(out, length);
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Rozpakuj blok prosto ze zmapowanego pliku – bez kopiowania skompresowanych bajtów na stertę.
+   */
+  static byte[] inflate(ByteBuffer packed, int rawLength) {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(packed);
+      byte[] raw = new byte[rawLength];
+      int length = 0;
+      while (length < rawLength) {
+        int n = inflater.inflate(raw, length, rawLength - length);
+        if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        length += n;
+      }
+      if (length != rawLength) {
+        throw new IllegalStateException("Corrupted archive block");
+      }
+      return raw;
+    } catch (DataFormatException ex) {
+      throw new IllegalStateException("Corrupted archive block", ex);
+    } finally {
+      inflater.end();
+    }
+  }
+}
@@ -0,0 +1,281 @@
+package com.demo.game.archive;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Archiwum zdarzeń zakończonych gier – pliki segmentów tylko do dopisywania i mały indeks (katalog
+ * {@code game.archive.dir}).
+ * <p>
+ * • Blok = zdarzenia jednej gry ({@link BlockCodec}, Deflate), dopisywany na koniec bieżącego segmentu
+ * {@code segment-NNNNNN.dat}. Segment większy niż {@code game.archive.segment-size} zamykamy i zaczynamy
+ * kolejny.<br>
+ * • W bloku zdarzenia są rosnąco po id, ale zakresy kolejnych bloków gry mogą na siebie zachodzić – zdarzenie
+ * o niższym id z puli sekwencji, zatwierdzone później, trafia do późniejszego bloku. Odczyt zwraca je rosnąco.<br>
+ * • Indeks ({@code index.dat}) – rekord {@value #INDEX_RECORD} bajtów na blok: gra, segment, położenie, długości,
+ * liczba i zakres id zdarzeń, CRC32 bloku i samego rekordu. Przy starcie wczytujemy go w całości do pamięci.<br>
+ * • Kolejność zapisu: blok + {@code force}, potem rekord indeksu + {@code force}. Awaria pomiędzy zostawia w
+ * segmencie bajty, na które nic nie wskazuje; urwany rekord na końcu indeksu odcinamy przy starcie.<br>
+ * • Odczyt przez pamięć mapowaną ({@link FileChannel#map}) – jedno mapowanie na segment, blok rozpakowujemy wprost
+ * z niego. Bieżący segment mapujemy ponownie, gdy urośnie.
+ */
+@Slf4j
+@Component
+public class EventArchive {
+
+  /** Rozmiar rekordu indeksu: 8 + 4 + 8 + 4 + 4 + 4 + 8 + 8 + 4 + 4. */
+  static final int INDEX_RECORD = 56;
+
+  private static final String INDEX = "index.dat";
+  private static final String SEGMENT = "segment-%06d.dat";
+
+  /** Blok archiwum w segmencie. */
+  record Block(int segment, long offset, int length, int rawLength, int count, long firstEventId,
+               long lastEventId, int crc) { }
+
+  @Value("${game.archive.dir:data/archive}")
+  private String directory;
+
+  @Value("${game.archive.segment-size:67108864}")
+  private long segmentSize;
+
+  /** Bloki gry rosnąco po id zdarzeń; listy niezmienne, podmieniane przy dopisaniu. */
+  private final Map<Long, List<Block>> blocks = new ConcurrentHashMap<>();
+  private final Map<Integer, MappedByteBuffer> mapped = new ConcurrentHashMap<>();
+
+  private Path dir;
+  private FileChannel index;
+  private FileChannel segment;
+  private int segmentNo;
+
+  @PostConstruct
+  void open() throws IOException {
+    if (segmentSize <= 0 || segmentSize > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("game.archive.segment-size must be between 1 and " + Integer.MAX_VALUE);
+    }
+    dir = Files.createDirectories(Path.of(directory));
+    index = FileChannel.open(dir.resolve(INDEX),
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    loadIndex();
+
+    segmentNo = Math.max(1, lastSegmentOnDisk());
+    openSegment();
+    log.info("Event archive {}: {} games, segment {}", dir.toAbsolutePath(), blocks.size(), segmentNo);
+  }
+
+  @PreDestroy
+  synchronized void close() throws IOException {
+    segment.close();
+    index.close();
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Zapis                                                       */
+  /* ----------------------------------------------------------- */
+
+  /**
+   * Dopisz zdarzenia gry jako nowy blok. Zdarzenia muszą być posortowane po id i nie mogą być już w archiwum
+   * (pilnuje tego {@code EventArchiver} – archiwizuje tylko wiersze, które jeszcze są w bazie).
+   */
+  public synchronized void append(long gameId, List<EventRecord> events) throws IOException {
+    if (events.isEmpty()) {
+      return;
+    }
+    byte[] raw = BlockCodec.encode(events);
+    byte[] packed = BlockCodec.deflate(raw);
+
+    if (segment.size() > 0 && segment.size() + packed.length > segmentSize) {
+      segment.force(true);
+      segment.close();
+      segmentNo++;
+      openSegment();
+    }
+    long offset = segment.size();
+    writeFully(segment, ByteBuffer.wrap(packed), offset);
+    segment.force(false);
+
+    CRC32 crc = new CRC32();
+    crc.update(packed);
+    Block block = new Block(segmentNo, offset, packed.length, raw.length, events.size(),
+        events.getFirst().id(), events.getLast().id(), (int) crc.getValue());
+    writeFully(index, encode(gameId, block), index.size());
+    index.force(false);
+
+    add(gameId, block);
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Odczyt                                                      */
+  /* ----------------------------------------------------------- */
+
+  /**
+   * Id ostatniego zarchiwizowanego zdarzenia gry (0 – gra nie ma nic w archiwum).
+   */
+  public long lastEventId(long gameId) {
+    List<Block> game = blocks.get(gameId);
+    return game == null ? 0 : game.stream().mapToLong(Block::lastEventId).max().orElse(0);
+  }
+
+  /**
+   * Id zdarzeń ostatnio dopisanego bloku gry (pusta lista – gra nie ma nic w archiwum). Tylko ten blok może mieć
+   * jeszcze wiersze w bazie – po awarii między dopisaniem bloku a ich usunięciem.
+   */
+  public List<Long> lastBlockEventIds(long gameId) {
+    List<Block> game = blocks.get(gameId);
+    return game == null ? List.of() : read(gameId, game.getLast()).stream().map(EventRecord::id).toList();
+  }
+
+  /**
+   * Zarchiwizowane zdarzenia gry o id większym niż {@code afterId}, rosnąco po id. Gra spoza archiwum – pusta
+   * lista bez dostępu do dysku.
+   */
+  public List<EventRecord> events(long gameId, long afterId) {
+    if (lastEventId(gameId) <= afterId) {
+      return List.of();
+    }
+    List<EventRecord> events = new ArrayList<>();
+    for (Block b : blocks.get(gameId)) {
+      if (b.lastEventId() <= afterId) {
+        continue;
+      }
+      for (EventRecord e : read(gameId, b)) {
+        if (e.id() > afterId) {
+          events.add(e);
+        }
+      }
+    }
+    // bloki mogą zachodzić na siebie zakresami id – przy zwykłych, rozłącznych blokach to jedno przejście
+    events.sort(Comparator.comparingLong(EventRecord::id));
+    return events;
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private List<EventRecord> read(long gameId, Block b) {
+    ByteBuffer packed = map(b.segment(), b.offset() + b.length()).slice((int) b.offset(), b.length());
+    CRC32 crc = new CRC32();
+    crc.update(packed.duplicate());
+    if ((int) crc.getValue() != b.crc()) {
+      throw new IllegalStateException("Corrupted archive block of game " + gameId + " in segment " + b.segment());
+    }
+    return BlockCodec.decode(gameId, BlockCodec.inflate(packed, b.rawLength()));
+  }
+
+  /**
+   * Mapowanie segmentu obejmujące co najmniej {@code [0, end)}.
+   */
+  private MappedByteBuffer map(int segmentNo, long end) {
+    MappedByteBuffer buf = mapped.get(segmentNo);
+    if (buf != null && buf.capacity() >= end) {
+      return buf;
+    }
+    synchronized (mapped) {
+      buf = mapped.get(segmentNo);
+      if (buf == null || buf.capacity() < end) {
+        try (FileChannel ch = FileChannel.open(segmentPath(segmentNo), StandardOpenOption.READ)) {
+          buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+        mapped.put(segmentNo, buf);
+      }
+      return buf;
+    }
+  }
+
+  private void add(long gameId, Block block) {
+    blocks.merge(gameId, List.of(block), (old, added) -> {
+      List<Block> all = new ArrayList<>(old.size() + 1);
+      all.addAll(old);
+      all.addAll(added);
+      return List.copyOf(all);
+    });
+  }
+
+  private void loadIndex() throws IOException {
+    long size = index.size();
+    ByteBuffer all = ByteBuffer.allocate((int) (size - size % INDEX_RECORD));
+    while (all.hasRemaining() && index.read(all, all.position()) > 0) {
+      // czytamy do końca
+    }
+    all.flip();
+
+    long valid = 0;
+    while (all.remaining() >= INDEX_RECORD) {
+      ByteBuffer rec = all.slice(all.position(), INDEX_RECORD);
+      CRC32 crc = new CRC32();
+      crc.update(rec.slice(0, INDEX_RECORD - 4));
+      if ((int) crc.getValue() != rec.getInt(INDEX_RECORD - 4)) {
+        break;
+      }
+      add(rec.getLong(0), new Block(rec.getInt(8), rec.getLong(12), rec.getInt(20), rec.getInt(24), rec.getInt(28),
+          rec.getLong(32), rec.getLong(40), rec.getInt(48)));
+      all.position(all.position() + INDEX_RECORD);
+      valid += INDEX_RECORD;
+    }
+    if (valid < size) {
+      log.warn("Event archive index truncated from {} to {} bytes (incomplete record)", size, valid);
+      index.truncate(valid);
+    }
+  }
+
+  private static ByteBuffer encode(long gameId, Block b) {
+    ByteBuffer rec = ByteBuffer.allocate(INDEX_RECORD);
+    rec.putLong(gameId)
+        .putInt(b.segment())
+        .putLong(b.offset())
+        .putInt(b.length())
+        .putInt(b.rawLength())
+        .putInt(b.count())
+        .putLong(b.firstEventId())
+        .putLong(b.lastEventId())
+        .putInt(b.crc());
+    CRC32 crc = new CRC32();
+    crc.update(rec.array(), 0, INDEX_RECORD - 4);
+    rec.putInt((int) crc.getValue());
+    return rec.flip();
+  }
+
+  private int lastSegmentOnDisk() throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.map(p -> p.getFileName().toString())
+          .filter(name -> name.matches("segment-\\d{6}\\.dat"))
+          .mapToInt(name -> Integer.parseInt(name.substring(8, 14)))
+          .max()
+          .orElse(0);
+    }
+  }
+
+  private void openSegment() throws IOException {
+    segment = FileChannel.open(segmentPath(segmentNo),
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+  }
+
+  private Path segmentPath(int segmentNo) {
+    return dir.resolve(SEGMENT.formatted(segmentNo));
+  }
+
+  private static void writeFully(FileChannel ch, ByteBuffer buf, long position) throws IOException {
+    while (buf.hasRemaining()) {
+      position += ch.write(buf, position);
+    }
+  }
+}
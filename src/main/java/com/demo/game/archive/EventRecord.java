@@ -0,0 +1,47 @@
+package com.demo.game.archive;
+
+import com.demo.game.objects.dao.GameEvent;
+import com.demo.game.objects.enums.CommandType;
+import java.time.Instant;
+
+/**
+ * Zdarzenie gry bez encji JPA – wiersz {@link GameEvent} albo wpis archiwum ({@link EventArchive}).
+ */
+public record EventRecord(long id,
+                          long gameId,
+                          Long unitId,
+                          CommandType type,
+                          byte[] payload,
+                          boolean success,
+                          Integer x,
+                          Integer y,
+                          Long destroyedUnitId,
+                          Instant executedAt) {
+
+  public static EventRecord from(GameEvent e) {
+    return new EventRecord(
+        e.getId(),
+        e.getGame().getId(),
+        e.getUnit() == null ? null : e.getUnit().getId(),
+        e.getType(),
+        e.getPayload(),
+        e.isSuccess(),
+        e.getX(),
+        e.getY(),
+        e.getDestroyedUnitId(),
+        e.getExecutedAt()
+    );
+  }
+
+  /**
+   * Zdarzenie jeszcze bez id – {@code EventLog} nada je przy dopisaniu.
+   */
+  public static EventRecord unsaved(GameEvent e) {
+    return new EventRecord(0, e.getGame().getId(), e.getUnit() == null ? null : e.getUnit().getId(), e.getType(),
+        e.getPayload(), e.isSuccess(), e.getX(), e.getY(), e.getDestroyedUnitId(), e.getExecutedAt());
+  }
+
+  public EventRecord withId(long id) {
+    return new EventRecord(id, gameId, unitId, type, payload, success, x, y, destroyedUnitId, executedAt);
+  }
+}
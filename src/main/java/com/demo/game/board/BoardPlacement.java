@@ -0,0 +1,38 @@
+package com.demo.game.board;
+
+import com.demo.game.util.LongLongHashMap;
+import java.util.random.RandomGenerator;
+
+/**
+ * Losowe rozstawienie jednostek na planszy.
+ * <p>
+ * Zamiast losowania „do skutku" (coraz wolniejsze, gdy plansza się zapełnia) wykonujemy częściowe tasowanie
+ * Fishera–Yatesa po indeksach pól: {@code count} kroków, każdy O(1), bez kolizji. Tablicy wszystkich pól nie
+ * tworzymy – pamiętamy tylko przestawione pozycje w {@link LongLongHashMap}, więc koszt to O(count), a nie
+ * O(rozmiar planszy). Indeks pola to {@code y * width + x} – tak samo jak w {@link OccupancyGrid}.
+ */
+public final class BoardPlacement {
+
+  private BoardPlacement() {
+  }
+
+  /**
+   * Wylosuj {@code count} różnych pól z planszy o {@code capacity} polach.
+   *
+   * @return tablica indeksów pól długości {@code count}, w losowej kolejności
+   */
+  public static int[] sampleCells(RandomGenerator rng, int capacity, int count) {
+    if (count > capacity) {
+      throw new IllegalArgumentException("Board too small for requested units");
+    }
+    // przestawione pozycje tablicy 0..capacity-1; brak klucza = pozycja na swoim miejscu (klucz +1, bo 0 zajęte)
+    LongLongHashMap swapped = new LongLongHashMap(count);
+    int[] picked = new int[count];
+    for (int i = 0; i < count; i++) {
+      int j = i + rng.nextInt(capacity - i);
+      picked[i] = (int) swapped.get(j + 1L, j);
+      swapped.put(j + 1L, swapped.get(i + 1L, i));
+    }
+    return picked;
+  }
+}
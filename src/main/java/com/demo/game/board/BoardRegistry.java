@@ -0,0 +1,269 @@
+package com.demo.game.board;
+
+import com.demo.game.exceptions.GameNotActiveException;
+import com.demo.game.objects.dao.Game;
+import com.demo.game.objects.dao.Unit;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitStatus;
+import com.demo.game.objects.enums.UnitType;
+import com.demo.game.repositories.UnitRepository;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Rejestr siatek zajętości ({@link OccupancyGrid}) dla aktywnych gier – wiele gier naraz, każda z własną siatką
+ * i własnym monitorem.
+ * <p>
+ * • Siatka powstaje przy tworzeniu gry albo przy pierwszym dotknięciu (jedno zapytanie o żywe jednostki).<br>
+ * • CommandExecutor zmienia ją przez {@link #move} i {@link #remove} w trakcie transakcji – kolejne rozkazy (także
+ * z innych transakcji) widzą zmianę od razu.<br>
+ * • Każda transakcja zapisuje swoje zmiany w dzienniku cofnięć; przy rollbacku cofamy tylko je, w odwrotnej
+ * kolejności – zmiany innych transakcji w toku zostają. Gdy cofnięcie się nie da (pole zajęła już inna
+ * transakcja), siatka jest oznaczana jako nieaktualna i wyrzucana, gdy skończy się ostatnia transakcja, która ją
+ * zmienia.<br>
+ * • Siatki ze zmianami w toku nie są eksmitowane; usuwamy zawsze konkretną instancję
+ * ({@code grids.remove(gameId, grid)}), żeby nie wyrzucić siatki wczytanej na jej miejsce.<br>
+ * • Gry bezczynne dłużej niż {@code game.board.idle-timeout} są okresowo eksmitowane.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BoardRegistry {
+
+  private final UnitRepository unitRepo;
+  private final Clock clock;
+
+  @Value("${game.board.idle-timeout:PT10M}")
+  private Duration idleTimeout;
+
+  private final Map<Long, OccupancyGrid> grids = new ConcurrentHashMap<>();
+
+  /**
+   * Siatka dla gry – wczytywana z bazy przy pierwszym użyciu.
+   * <p>
+   * Siatki trzymamy tylko dla gier przyjmujących rozkazy: zakończenie gry usuwa jej siatkę
+   * ({@code GameService.endGame}), a ponowne wczytanie sprawdza stan gry – każdy rozkaz dla zakończonej gry
+   * kończy się tu.
+   *
+   * @throws GameNotActiveException gdy gra nie przyjmuje już rozkazów
+   */
+  public OccupancyGrid grid(Game game) {
+    while (true) {
+      OccupancyGrid grid = grids.computeIfAbsent(game.getId(), id -> load(game));
+      synchronized (grid) {
+        // eksmisja sprawdza czas użycia pod tym samym monitorem – zwracamy tylko siatkę wciąż zarejestrowaną
+        if (grids.get(game.getId()) == grid) {
+          grid.touch(clock.millis());
+          return grid;
+        }
+      }
+    }
+  }
+
+  /**
+   * Zarejestruj siatkę świeżo rozstawionej gry – bez ponownego odczytu jednostek.
+   */
+  public void register(Game game, Collection<? extends Unit> units) {
+    OccupancyGrid grid = new OccupancyGrid(game.getId(), game.getBoardWidth(), game.getBoardHeight(),
+        game.getRandomSeed());
+    units.forEach(u -> grid.place(u.getId(), u.getFaction(), u.getType(), u.getX(), u.getY()));
+    grid.touch(clock.millis());
+    grids.put(game.getId(), grid);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          if (status != STATUS_COMMITTED) {
+            grids.remove(game.getId(), grid);
+          }
+        }
+      });
+    }
+  }
+
+  /**
+   * Siatka gry, jeśli jest już w pamięci – bez dostępu do bazy i bez odświeżania czasu użycia.
+   */
+  public OccupancyGrid cached(long gameId) {
+    return grids.get(gameId);
+  }
+
+  /**
+   * Plansza do odczytu: dla gry aktywnej jej siatka ({@link #grid}), dla zakończonej – siatka wczytana z bazy
+   * jednorazowo, poza rejestrem.
+   */
+  public OccupancyGrid view(Game game) {
+    return game.getStatus().isAcceptingCommands() ? grid(game) : read(game);
+  }
+
+  public void evict(long gameId) {
+    grids.remove(gameId);
+  }
+
+  /**
+   * Usuń siatki gier po zatwierdzeniu bieżącej transakcji (zakończenie gier); poza transakcją – od razu.
+   */
+  public void evictAfterCommit(Collection<Long> gameIds) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      gameIds.forEach(grids::remove);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        gameIds.forEach(grids::remove);
+      }
+    });
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Eksmisja bezczynnych gier                                   */
+  /* ----------------------------------------------------------- */
+
+  @Scheduled(fixedDelayString = "${game.board.eviction-interval:PT1M}")
+  public void evictIdle() {
+    long threshold = clock.millis() - idleTimeout.toMillis();
+    for (OccupancyGrid g : grids.values()) {
+      synchronized (g) {
+        if (g.lastAccessMillis() < threshold && g.inFlight == 0 && grids.remove(g.gameId(), g)) {
+          log.debug("Evicting idle board of game {}", g.gameId());
+        }
+      }
+    }
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Zmiany siatki w transakcji                                  */
+  /* ----------------------------------------------------------- */
+
+  /**
+   * Przenieś jednostkę na siatce i zapisz cofnięcie w dzienniku bieżącej transakcji.
+   */
+  public void move(OccupancyGrid grid, int fromX, int fromY, int toX, int toY) {
+    synchronized (grid) {
+      long unitId = grid.occupant(fromX, fromY);
+      grid.move(fromX, fromY, toX, toY);
+      undoLog(grid).add(new Moved(unitId, fromX, fromY, toX, toY));
+    }
+  }
+
+  /**
+   * Zwolnij pole zniszczonej jednostki i zapisz cofnięcie w dzienniku bieżącej transakcji.
+   */
+  public void remove(OccupancyGrid grid, int x, int y) {
+    synchronized (grid) {
+      Removed removed = new Removed(grid.occupant(x, y), grid.factionAt(x, y), grid.typeAt(x, y), x, y);
+      grid.remove(x, y);
+      undoLog(grid).add(removed);
+    }
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Pomocnicze                                                  */
+  /* ----------------------------------------------------------- */
+
+  private OccupancyGrid load(Game game) {
+    if (!game.getStatus().isAcceptingCommands()) {
+      throw new GameNotActiveException(game.getId(), game.getStatus());
+    }
+    return read(game);
+  }
+
+  private OccupancyGrid read(Game game) {
+    OccupancyGrid grid = new OccupancyGrid(game.getId(), game.getBoardWidth(), game.getBoardHeight(),
+        game.getRandomSeed());
+    for (Unit u : unitRepo.findByGameAndStatus(game, UnitStatus.ACTIVE)) {
+      grid.place(u.getId(), u.getFaction(), u.getType(), u.getX(), u.getY());
+    }
+    return grid;
+  }
+
+  /**
+   * Dziennik cofnięć bieżącej transakcji dla siatki (pierwsza zmiana w transakcji podbija licznik transakcji w
+   * toku). Poza transakcją zmiana jest ostateczna – dziennik trafia do kosza. Wołane pod monitorem siatki.
+   */
+  private List<Change> undoLog(OccupancyGrid grid) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return new ArrayList<>(1);
+    }
+    @SuppressWarnings("unchecked")
+    Map<OccupancyGrid, List<Change>> logs =
+        (Map<OccupancyGrid, List<Change>>) TransactionSynchronizationManager.getResource(this);
+    if (logs == null) {
+      Map<OccupancyGrid, List<Change>> touched = new IdentityHashMap<>();
+      TransactionSynchronizationManager.bindResource(this, touched);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResource(BoardRegistry.this);
+          touched.forEach((g, changes) -> complete(g, changes, status == STATUS_COMMITTED));
+        }
+      });
+      logs = touched;
+    }
+    return logs.computeIfAbsent(grid, g -> {
+      g.inFlight++;
+      return new ArrayList<>();
+    });
+  }
+
+  private void complete(OccupancyGrid grid, List<Change> changes, boolean committed) {
+    synchronized (grid) {
+      if (!committed) {
+        for (int i = changes.size() - 1; i >= 0 && !grid.stale; i--) {
+          if (!changes.get(i).revert(grid)) {
+            log.warn("Board of game {} cannot be rolled back, reloading it once idle", grid.gameId());
+            grid.stale = true;
+          }
+        }
+      }
+      grid.inFlight--;
+      if (grid.stale && grid.inFlight == 0) {
+        grids.remove(grid.gameId(), grid);
+      }
+    }
+  }
+
+  /** Zmiana siatki w transakcji – umie się cofnąć, o ile nikt w międzyczasie nie zajął jej pól. */
+  private sealed interface Change permits Moved, Removed {
+
+    boolean revert(OccupancyGrid grid);
+  }
+
+  private record Moved(long unitId, int fromX, int fromY, int toX, int toY) implements Change {
+
+    @Override
+    public boolean revert(OccupancyGrid grid) {
+      if (grid.occupant(toX, toY) != unitId || grid.occupant(fromX, fromY) != OccupancyGrid.EMPTY) {
+        return false;
+      }
+      grid.move(toX, toY, fromX, fromY);
+      return true;
+    }
+  }
+
+  private record Removed(long unitId, Faction faction, UnitType type, int x, int y) implements Change {
+
+    @Override
+    public boolean revert(OccupancyGrid grid) {
+      if (grid.occupant(x, y) != OccupancyGrid.EMPTY) {
+        return false;
+      }
+      grid.place(unitId, faction, type, x, y);
+      return true;
+    }
+  }
+}
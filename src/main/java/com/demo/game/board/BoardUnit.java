@@ -0,0 +1,12 @@
+package com.demo.game.board;
+
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitType;
+
+/**
+ * Żywa jednostka na planszy, tak jak widzi ją siatka gry ({@link OccupancyGrid#unitsWithin}).
+ *
+ * @param type rodzaj jednostki; {@code null} gdy siatka go nie zna
+ */
+public record BoardUnit(long unitId, Faction faction, UnitType type, int x, int y) {
+}
@@ -0,0 +1,27 @@
+package com.demo.game.board;
+
+import com.demo.game.objects.enums.Faction;
+
+/**
+ * Widok planszy potrzebny regułom gry ({@link GameRules}) – kto stoi na polu i czyj jest.
+ * <p>
+ * Implementują go siatka serwera ({@link OccupancyGrid}) i plansza symulacji bez bazy danych; reguły są dzięki temu
+ * jedne dla obu.
+ */
+public interface BoardView {
+
+  /** Wartość pustego pola – identyfikatory jednostek zaczynają się od 1. */
+  long EMPTY = 0L;
+
+  boolean inBounds(int x, int y);
+
+  /**
+   * Id żywej jednostki na polu albo {@link #EMPTY}.
+   */
+  long occupant(int x, int y);
+
+  /**
+   * Frakcja jednostki stojącej na polu; {@code null} gdy pole jest wolne.
+   */
+  Faction factionAt(int x, int y);
+}
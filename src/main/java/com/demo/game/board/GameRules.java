@@ -0,0 +1,123 @@
+package com.demo.game.board;
+
+import com.demo.game.commands.MoveCommand;
+import com.demo.game.commands.ShootCommand;
+import com.demo.game.exceptions.CommandRejectedException;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.RejectionReason;
+import com.demo.game.objects.enums.UnitType;
+
+/**
+ * Reguły ruchu i strzału – czyste funkcje na {@link BoardView}, bez encji i bez zapisu.
+ * <p>
+ * Wołający (CommandExecutor na serwerze, silnik symulacji bez Springa) sam nanosi wynik na swoją planszę.
+ * Niedozwolony rozkaz kończy się {@link CommandRejectedException} (podklasa {@link IllegalArgumentException}, jak
+ * dotąd w CommandService) z powodem odrzucenia.
+ */
+public final class GameRules {
+
+  private GameRules() {
+  }
+
+  /**
+   * Rozstrzygnij ruch.
+   * <p>
+   * Reguły: • Łucznik – zawsze dokładnie 1 pole orthogonalnie. • Transport – 1-3 pól orthogonalnie. • Wejście na
+   * pole przeciwnika niszczy go i zajmuje pole. • Własnej jednostki nie wolno „najechać" – wtedy ruch jest
+   * anulowany, a cooldown mimo to liczy się normalnie. • Nie wolno wyjść poza planszę ani „przeskoczyć" nad żywą
+   * jednostką.
+   */
+  public static MoveOutcome resolveMove(UnitType unitType, Faction faction, int fromX, int fromY,
+      MoveCommand cmd, BoardView board) {
+
+    /* --- walidacja zgodności typu rozkazu z typem jednostki --- */
+    if (unitType == UnitType.ARCHER && cmd.type() != CommandType.MOVE_ARCHER) {
+      throw new CommandRejectedException(RejectionReason.WRONG_TYPE, "Archer can execute only MOVE_ARCHER");
+    }
+    if (unitType == UnitType.TRANSPORT && cmd.type() != CommandType.MOVE_TRANSPORT) {
+      throw new CommandRejectedException(RejectionReason.WRONG_TYPE,
+          "Transport can execute only MOVE_TRANSPORT");
+    }
+
+    /* --- dodatkowe limity kroków --- */
+    if (unitType == UnitType.ARCHER && cmd.steps() != 1) {
+      throw new CommandRejectedException(RejectionReason.INVALID_DISTANCE, "Archer moves exactly 1 square");
+    }
+    if (unitType == UnitType.TRANSPORT && (cmd.steps() < 1 || cmd.steps() > 3)) {
+      throw new CommandRejectedException(RejectionReason.INVALID_DISTANCE, "Transport moves 1-3 squares");
+    }
+
+    /* Kierunek jako wektor (dx,dy) długości 1 */
+    int dx = switch (cmd.direction()) {
+      case LEFT -> -1;
+      case RIGHT -> 1;
+      default -> 0;
+    };
+    int dy = switch (cmd.direction()) {
+      case UP -> -1;
+      case DOWN -> 1;
+      default -> 0;
+    };
+
+    /* Bierzemy kolejne pola po drodze, aby:
+       • nie „przeskakiwać" innych jednostek,
+       • rozstrzygnąć kolizję z ostatnim polem. */
+    int x = fromX;
+    int y = fromY;
+
+    for (int step = 1; step <= cmd.steps(); step++) {
+
+      x += dx;
+      y += dy;
+
+      // wyjście poza planszę -> błąd
+      if (!board.inBounds(x, y)) {
+        throw new CommandRejectedException(RejectionReason.OUT_OF_BOARD, "Move goes outside the board");
+      }
+
+      /* Czy pole zajęte przez żywą jednostkę? */
+      long occupantId = board.occupant(x, y);
+
+      if (occupantId != BoardView.EMPTY) {
+
+        // w trakcie marszu (nie ostatni krok) – blokada
+        if (step < cmd.steps()) {
+          throw new CommandRejectedException(RejectionReason.PATH_BLOCKED,
+              "Path blocked by another unit at (" + x + "," + y + ")");
+        }
+
+        /* Ostatnie pole – dwa scenariusze */
+        if (board.factionAt(x, y) == faction) {
+          /* Próba najazdu na swoją jednostkę: ruch anulowany, pozostajemy na miejscu. */
+          return new MoveOutcome(fromX, fromY, BoardView.EMPTY, true);
+        }
+        /* Najazd na przeciwnika – przeciwnik ginie, jednostka zajmuje pole. */
+        return new MoveOutcome(x, y, occupantId, false);
+      }
+    }
+
+    /* zwykły ruch na puste pole. */
+    return new MoveOutcome(x, y, BoardView.EMPTY, false);
+  }
+
+  /**
+   * Rozstrzygnij strzał.
+   * <p>
+   * Reguły: • Archer strzela orthogonalnie (walidacja już w ShootCommand). • Cannon może także po skosie. • Jeśli w
+   * polu docelowym znajduje się dowolna żywa jednostka (własna lub cudza) – zostaje zniszczona. • Brak „przeszkód po
+   * drodze" – pocisk leci nad pustymi polami.
+   *
+   * @return trafiona jednostka albo {@link BoardView#EMPTY}
+   */
+  public static long resolveShot(int fromX, int fromY, ShootCommand cmd, BoardView board) {
+    int targetX = cmd.targetX(fromX);
+    int targetY = cmd.targetY(fromY);
+
+    // wyjście poza planszę -> błąd
+    if (!board.inBounds(targetX, targetY)) {
+      throw new CommandRejectedException(RejectionReason.OUT_OF_BOARD, "Shot goes outside the board");
+    }
+    return board.occupant(targetX, targetY);
+  }
+}
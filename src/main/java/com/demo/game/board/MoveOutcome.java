@@ -0,0 +1,12 @@
+package com.demo.game.board;
+
+/**
+ * Wynik ruchu wyliczony przez {@link GameRules#resolveMove}.
+ *
+ * @param x            pole, na którym jednostka kończy ruch
+ * @param y            jw.
+ * @param capturedUnit przeciwnik zniszczony najazdem albo {@link BoardView#EMPTY}
+ * @param cancelled    ruch anulowany (najazd na własną jednostkę) – jednostka zostaje na miejscu
+ */
+public record MoveOutcome(int x, int y, long capturedUnit, boolean cancelled) {
+}
@@ -0,0 +1,328 @@
+package com.demo.game.board;
+
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Indeks zajętości planszy jednej gry trzymany w pamięci.
+ * <p>
+ * • Pole (x,y) mapujemy na indeks {@code y * width + x}.<br>
+ * • {@code cells[i]} – id żywej jednostki na polu albo {@link #EMPTY}.<br>
+ * • {@code factions[i]} – frakcja tej jednostki (ordinal + 1), 0 dla pustego pola.<br>
+ * • {@code types[i]} – rodzaj tej jednostki (ordinal + 1), 0 gdy pole wolne albo rodzaj nieznany.<br>
+ * • {@code threats[f]} – liczniki pól, które może ostrzelać frakcja f ({@link ThreatCounts}), poprawiane przy
+ * każdym postawieniu, ruchu i usunięciu jednostki.
+ * <p>
+ * Dzięki temu sprawdzenie kolizji i trafienia nie wymaga zapytania do bazy. Metody są synchronizowane na instancji –
+ * CommandExecutor dodatkowo trzyma monitor siatki na czas całego ruchu (sprawdzenie + aktualizacja).
+ */
+public final class OccupancyGrid implements TacticalBoard {
+
+  private static final Faction[] FACTIONS = Faction.values();
+  private static final UnitType[] TYPES = UnitType.values();
+  private static final int[] REACH_DX = {0, 0, -1, 1};
+  private static final int[] REACH_DY = {-1, 1, 0, 0};
+
+  private final long gameId;
+  private final int width;
+  private final int height;
+  private final long[] cells;
+  private final byte[] factions;
+  private final byte[] types;
+  private final ThreatCounts[] threats;
+
+  /** Ziarno losowych rozkazów gry ({@code Game.randomSeed}) – tu, żeby losowanie nie czytało encji gry. */
+  private final Long randomSeed;
+
+  /** Ostatnie użycie siatki (epoch millis) – podstawa do eksmisji bezczynnych gier. */
+  private volatile long lastAccessMillis;
+
+  /** Transakcje ze zmianami w toku i znacznik nieudanego cofnięcia – pod monitorem siatki, {@link BoardRegistry}. */
+  int inFlight;
+  boolean stale;
+
+  public OccupancyGrid(long gameId, int width, int height) {
+    this(gameId, width, height, null);
+  }
+
+  public OccupancyGrid(long gameId, int width, int height, Long randomSeed) {
+    this.gameId = gameId;
+    this.randomSeed = randomSeed;
+    this.width = width;
+    this.height = height;
+    this.cells = new long[width * height];
+    this.factions = new byte[width * height];
+    this.types = new byte[width * height];
+    this.threats = new ThreatCounts[FACTIONS.length];
+    for (int f = 0; f < threats.length; f++) {
+      threats[f] = new ThreatCounts(width, height);
+    }
+  }
+
+  public long gameId() {
+    return gameId;
+  }
+
+  public int width() {
+    return width;
+  }
+
+  public int height() {
+    return height;
+  }
+
+  /**
+   * Ziarno losowych rozkazów albo {@code null}, gdy gra losuje bez powtarzalności.
+   */
+  public Long randomSeed() {
+    return randomSeed;
+  }
+
+  @Override
+  public boolean inBounds(int x, int y) {
+    return x >= 0 && x < width && y >= 0 && y < height;
+  }
+
+  /**
+   * Id żywej jednostki na polu albo {@link #EMPTY}.
+   */
+  @Override
+  public synchronized long occupant(int x, int y) {
+    return cells[index(x, y)];
+  }
+
+  /**
+   * Frakcja jednostki stojącej na polu; {@code null} gdy pole jest wolne.
+   */
+  @Override
+  public synchronized Faction factionAt(int x, int y) {
+    byte f = factions[index(x, y)];
+    return f == 0 ? null : FACTIONS[f - 1];
+  }
+
+  /**
+   * Rodzaj jednostki stojącej na polu; {@code null} gdy pole jest wolne albo rodzaj nieznany.
+   */
+  @Override
+  public synchronized UnitType typeAt(int x, int y) {
+    byte t = types[index(x, y)];
+    return t == 0 ? null : TYPES[t - 1];
+  }
+
+  /**
+   * Postaw jednostkę na wolnym polu (rozstawienie planszy / ładowanie z bazy).
+   */
+  public synchronized void place(long unitId, Faction faction, int x, int y) {
+    place(unitId, faction, null, x, y);
+  }
+
+  /**
+   * Jak {@link #place(long, Faction, int, int)}, z rodzajem jednostki – potrzebnym tylko do {@link #pack}.
+   */
+  public synchronized void place(long unitId, Faction faction, UnitType type, int x, int y) {
+    int i = index(x, y);
+    updateThreats(i, x, y, -1);
+    cells[i] = unitId;
+    factions[i] = (byte) (faction.ordinal() + 1);
+    types[i] = (byte) (type == null ? 0 : type.ordinal() + 1);
+    updateThreats(i, x, y, 1);
+  }
+
+  /**
+   * Przenieś jednostkę – pole docelowe musi być już zwolnione (np. po zniszczeniu przeciwnika).
+   */
+  public synchronized void move(int fromX, int fromY, int toX, int toY) {
+    int from = index(fromX, fromY);
+    int to = index(toX, toY);
+    updateThreats(from, fromX, fromY, -1);
+    cells[to] = cells[from];
+    factions[to] = factions[from];
+    types[to] = types[from];
+    cells[from] = EMPTY;
+    factions[from] = 0;
+    types[from] = 0;
+    updateThreats(to, toX, toY, 1);
+  }
+
+  /**
+   * Zwolnij pole (jednostka zniszczona).
+   */
+  public synchronized void remove(int x, int y) {
+    int i = index(x, y);
+    updateThreats(i, x, y, -1);
+    cells[i] = EMPTY;
+    factions[i] = 0;
+    types[i] = 0;
+  }
+
+  /**
+   * Niezmienna kopia planszy (z rodzajami jednostek i zasięgiem ognia frakcji) – czytana bez monitora, np. przez
+   * wiele wątków planujących rozkazy naraz.
+   */
+  public synchronized TacticalBoard snapshot() {
+    short[][] threatCopy = new short[threats.length][];
+    for (int f = 0; f < threats.length; f++) {
+      threatCopy[f] = threats[f].copy();
+    }
+    return new Snapshot(width, height, cells.clone(), factions.clone(), types.clone(), threatCopy);
+  }
+
+  /**
+   * Cała plansza w postaci upakowanej ({@link PackedBoard}) – jedno przejście po tablicach pod monitorem siatki.
+   */
+  public synchronized PackedBoard pack() {
+    int occupied = 0;
+    for (long c : cells) {
+      if (c != EMPTY) {
+        occupied++;
+      }
+    }
+    if (occupied > PackedBoard.MAX_UNITS) {
+      throw new IllegalStateException("Game " + gameId + " has too many units to pack: " + occupied);
+    }
+
+    long[] unitIds = new long[occupied];
+    short[] packed = new short[cells.length];
+    int next = 0;
+    for (int i = 0; i < cells.length; i++) {
+      if (cells[i] != EMPTY) {
+        unitIds[next] = cells[i];
+        packed[i] = PackedBoard.cell(factions[i] - 1, types[i] - 1, next);
+        next++;
+      }
+    }
+    return new PackedBoard(gameId, width, height, unitIds, packed);
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Zapytania przestrzenne                                      */
+  /* ----------------------------------------------------------- */
+
+  /**
+   * Żywe jednostki w odległości co najwyżej {@code distance} od pola (x,y) w metryce Czebyszewa – tej samej co
+   * {@code ShootCommand.distance()}; razem z jednostką stojącą na samym polu. Kolejność: wiersz po wierszu.
+   */
+  public synchronized List<BoardUnit> unitsWithin(int x, int y, int distance) {
+    requireCell(x, y);
+    if (distance < 0) {
+      throw new IllegalArgumentException("Distance must not be negative");
+    }
+    int minX = Math.max(0, x - distance);
+    int maxX = Math.min(width - 1, x + distance);
+    int minY = Math.max(0, y - distance);
+    int maxY = Math.min(height - 1, y + distance);
+    List<BoardUnit> found = new ArrayList<>();
+    for (int ty = minY; ty <= maxY; ty++) {
+      for (int tx = minX; tx <= maxX; tx++) {
+        int i = index(tx, ty);
+        if (cells[i] != EMPTY) {
+          found.add(new BoardUnit(cells[i], FACTIONS[factions[i] - 1], types[i] == 0 ? null : TYPES[types[i] - 1],
+              tx, ty));
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Pola, na które transport frakcji {@code faction} stojący na (x,y) może wjechać jednym rozkazem (1–3 pola
+   * orthogonalnie) – reguły jak w {@link GameRules#resolveMove}: bez przeskakiwania jednostek, pole przeciwnika
+   * kończy drogę zniszczeniem go, pole własnej jednostki jest nieosiągalne (ruch zostałby anulowany).
+   */
+  public synchronized List<ReachableCell> transportReach(int x, int y, Faction faction) {
+    requireCell(x, y);
+    List<ReachableCell> reach = new ArrayList<>();
+    for (int d = 0; d < REACH_DX.length; d++) {
+      for (int step = 1; step <= 3; step++) {
+        int tx = x + REACH_DX[d] * step;
+        int ty = y + REACH_DY[d] * step;
+        if (!inBounds(tx, ty)) {
+          break;
+        }
+        int i = index(tx, ty);
+        if (cells[i] == EMPTY) {
+          reach.add(new ReachableCell(tx, ty, step, EMPTY));
+          continue;
+        }
+        if (factions[i] != faction.ordinal() + 1) {
+          reach.add(new ReachableCell(tx, ty, step, cells[i]));
+        }
+        break;
+      }
+    }
+    return reach;
+  }
+
+  /**
+   * Pola, które mogą ostrzelać łucznicy i armaty frakcji {@code faction} – z liczników utrzymywanych na bieżąco,
+   * bez przeglądania jednostek.
+   */
+  public synchronized ThreatMap threats(Faction faction) {
+    return new ThreatMap(gameId, faction, width, height, threats[faction.ordinal()].bitmap());
+  }
+
+  /**
+   * Ilu strzelców frakcji {@code faction} może trafić pole (x,y).
+   */
+  @Override
+  public synchronized int threatCount(Faction faction, int x, int y) {
+    return threats[faction.ordinal()].count(index(x, y));
+  }
+
+  void touch(long nowMillis) {
+    lastAccessMillis = nowMillis;
+  }
+
+  long lastAccessMillis() {
+    return lastAccessMillis;
+  }
+
+  private int index(int x, int y) {
+    return y * width + x;
+  }
+
+  private void requireCell(int x, int y) {
+    if (!inBounds(x, y)) {
+      throw new IllegalArgumentException("Cell (" + x + "," + y + ") is outside the board");
+    }
+  }
+
+  private void updateThreats(int i, int x, int y, int delta) {
+    if (cells[i] != EMPTY && types[i] != 0) {
+      threats[factions[i] - 1].update(TYPES[types[i] - 1], x, y, delta);
+    }
+  }
+
+  private record Snapshot(int width, int height, long[] cells, byte[] factions, byte[] types, short[][] threats)
+      implements TacticalBoard {
+
+    @Override
+    public boolean inBounds(int x, int y) {
+      return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    @Override
+    public long occupant(int x, int y) {
+      return cells[y * width + x];
+    }
+
+    @Override
+    public Faction factionAt(int x, int y) {
+      byte f = factions[y * width + x];
+      return f == 0 ? null : FACTIONS[f - 1];
+    }
+
+    @Override
+    public UnitType typeAt(int x, int y) {
+      byte t = types[y * width + x];
+      return t == 0 ? null : TYPES[t - 1];
+    }
+
+    @Override
+    public int threatCount(Faction faction, int x, int y) {
+      return threats[faction.ordinal()][y * width + x];
+    }
+  }
+}
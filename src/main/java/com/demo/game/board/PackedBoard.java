@@ -0,0 +1,64 @@
+package com.demo.game.board;
+
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitType;
+
+/**
+ * Plansza gry w postaci upakowanej – dla widzów odpytujących wiele gier naraz.
+ * <p>
+ * • {@code cells[y * width + x]} – 16 bitów na pole: bit 15 – pole zajęte, bit 14 – frakcja (ordinal),
+ * bity 12–13 – rodzaj jednostki (ordinal, {@link #UNKNOWN_TYPE} gdy nieznany), bity 0–11 – indeks w
+ * {@code unitIds}.<br>
+ * • {@code unitIds} – id jednostek w kolejności pól (wiersz po wierszu).<br>
+ * • Postać binarna ({@link #BINARY}, big-endian): {@code long gameId, int width, int height, int unitCount,
+ * long[unitCount] unitIds, short[width * height] cells}.
+ */
+public record PackedBoard(long gameId, int width, int height, long[] unitIds, short[] cells) {
+
+  public static final String BINARY = "application/octet-stream";
+
+  public static final int OCCUPIED = 0x8000;
+  public static final int UNKNOWN_TYPE = 3;
+  public static final int MAX_UNITS = 0x1000;
+
+  private static final int FACTION_SHIFT = 14;
+  private static final int TYPE_SHIFT = 12;
+  private static final int INDEX_MASK = MAX_UNITS - 1;
+
+  private static final Faction[] FACTIONS = Faction.values();
+  private static final UnitType[] TYPES = UnitType.values();
+
+  /**
+   * @param faction ordinal frakcji
+   * @param type    ordinal rodzaju; ujemny – rodzaj nieznany
+   * @param index   indeks w {@code unitIds}
+   */
+  static short cell(int faction, int type, int index) {
+    int t = type < 0 ? UNKNOWN_TYPE : type;
+    return (short) (OCCUPIED | faction << FACTION_SHIFT | t << TYPE_SHIFT | index);
+  }
+
+  /** Rozmiar postaci binarnej w bajtach. */
+  public int binarySize() {
+    return Long.BYTES + 3 * Integer.BYTES + unitIds.length * Long.BYTES + cells.length * Short.BYTES;
+  }
+
+  /* --- odczyt pojedynczego pola (klienci w Javie, testy) --- */
+
+  public boolean occupied(int x, int y) {
+    return (cells[y * width + x] & OCCUPIED) != 0;
+  }
+
+  public Faction factionAt(int x, int y) {
+    return occupied(x, y) ? FACTIONS[cells[y * width + x] >> FACTION_SHIFT & 1] : null;
+  }
+
+  public UnitType typeAt(int x, int y) {
+    int t = cells[y * width + x] >> TYPE_SHIFT & 3;
+    return occupied(x, y) && t != UNKNOWN_TYPE ? TYPES[t] : null;
+  }
+
+  public long unitAt(int x, int y) {
+    return occupied(x, y) ? unitIds[cells[y * width + x] & INDEX_MASK] : BoardView.EMPTY;
+  }
+}
@@ -0,0 +1,9 @@
+package com.demo.game.board;
+
+/**
+ * Pole osiągalne ruchem transportu ({@link OccupancyGrid#transportReach}).
+ *
+ * @param capturedUnit przeciwnik zniszczony wjazdem na to pole albo {@link BoardView#EMPTY}
+ */
+public record ReachableCell(int x, int y, int steps, long capturedUnit) {
+}
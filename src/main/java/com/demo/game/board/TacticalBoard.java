@@ -0,0 +1,23 @@
+package com.demo.game.board;
+
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitType;
+
+/**
+ * Widok planszy dla planisty AI ({@link com.demo.game.commands.CommandScoring}) – poza zajętością także rodzaje
+ * jednostek i zasięg ognia każdej frakcji.
+ * <p>
+ * Implementują go siatka gry ({@link OccupancyGrid}) i jej niezmienna kopia ({@link OccupancyGrid#snapshot}).
+ */
+public interface TacticalBoard extends BoardView {
+
+  /**
+   * Rodzaj jednostki stojącej na polu; {@code null} gdy pole jest wolne albo rodzaj nieznany.
+   */
+  UnitType typeAt(int x, int y);
+
+  /**
+   * Ilu łuczników i armat frakcji {@code faction} może ostrzelać pole (x,y).
+   */
+  int threatCount(Faction faction, int x, int y);
+}
@@ -0,0 +1,80 @@
+package com.demo.game.board;
+
+import com.demo.game.objects.enums.UnitType;
+import java.util.Arrays;
+
+/**
+ * Liczniki zagrożenia pól jednej frakcji – ile jej strzelców może trafić dane pole.
+ * <p>
+ * • Łucznik – pola orthogonalnie w odległości 1–3, armata – wszystkie pola w kwadracie 7x7 wokół niej (zasięgi jak
+ * w {@link com.demo.game.commands.RandomCommands}).<br>
+ * • Pocisk leci nad jednostkami, więc zasięg strzelca zależy tylko od jego pola – przy ruchu i zniszczeniu
+ * wystarczy odjąć i dodać jego wzór, bez przeliczania reszty planszy.<br>
+ * • Bez własnej synchronizacji – zmienia i czyta ją tylko {@link OccupancyGrid} pod swoim monitorem.
+ */
+final class ThreatCounts {
+
+  static final int RANGE = 3;
+
+  private static final int[][] ARCHER = offsets(UnitType.ARCHER);
+  private static final int[][] CANNON = offsets(UnitType.CANNON);
+
+  private final int width;
+  private final int height;
+  private final short[] counts;
+
+  ThreatCounts(int width, int height) {
+    this.width = width;
+    this.height = height;
+    this.counts = new short[width * height];
+  }
+
+  /** Strzelec stanął na polu ({@code delta = 1}) albo je opuścił ({@code delta = -1}); inne rodzaje – bez zmian. */
+  void update(UnitType type, int x, int y, int delta) {
+    int[][] pattern = type == UnitType.ARCHER ? ARCHER : type == UnitType.CANNON ? CANNON : null;
+    if (pattern == null) {
+      return;
+    }
+    for (int[] d : pattern) {
+      int tx = x + d[0];
+      int ty = y + d[1];
+      if (tx >= 0 && tx < width && ty >= 0 && ty < height) {
+        counts[ty * width + tx] += (short) delta;
+      }
+    }
+  }
+
+  int count(int index) {
+    return counts[index];
+  }
+
+  short[] copy() {
+    return counts.clone();
+  }
+
+  /** Mapa bitowa pól o niezerowym liczniku – bit {@code i % 8} bajtu {@code i / 8} dla pola o indeksie i. */
+  byte[] bitmap() {
+    byte[] bits = new byte[(counts.length + 7) >>> 3];
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] != 0) {
+        bits[i >>> 3] |= (byte) (1 << (i & 7));
+      }
+    }
+    return bits;
+  }
+
+  private static int[][] offsets(UnitType type) {
+    int side = 2 * RANGE + 1;
+    int[][] all = new int[side * side][];
+    int n = 0;
+    for (int dy = -RANGE; dy <= RANGE; dy++) {
+      for (int dx = -RANGE; dx <= RANGE; dx++) {
+        boolean hit = type == UnitType.CANNON ? dx != 0 || dy != 0 : (dx == 0) != (dy == 0);
+        if (hit) {
+          all[n++] = new int[] {dx, dy};
+        }
+      }
+    }
+    return Arrays.copyOf(all, n);
+  }
+}
@@ -0,0 +1,17 @@
+package com.demo.game.board;
+
+import com.demo.game.objects.enums.Faction;
+
+/**
+ * Pola, które frakcja może ostrzelać ({@link OccupancyGrid#threats}) – czyli niebezpieczne dla przeciwnika.
+ * <p>
+ * • {@code cells} – mapa bitowa pól, bit {@code i % 8} bajtu {@code i / 8} dla pola {@code i = y * width + x}
+ * (w JSON jako base64).
+ */
+public record ThreatMap(long gameId, Faction faction, int width, int height, byte[] cells) {
+
+  public boolean threatened(int x, int y) {
+    int i = y * width + x;
+    return (cells[i >>> 3] & 1 << (i & 7)) != 0;
+  }
+}
@@ -0,0 +1,93 @@
+package com.demo.game.commands;
+
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Direction;
+import com.demo.game.objects.enums.Faction;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Zwarty, binarny zapis komend do {@code GameEvent.payload}.
+ * <p>
+ * Układ (wersja 1):
+ * <pre>
+ *  bajt 0  FORMAT_V1 (0x01)
+ *  bajt 1  rodzaj(bit 7: 0=move, 1=shoot) | typ komendy (bity 3-4) | frakcja (bit 2) | kierunek (bity 0-1, tylko move)
+ *  move:   bajt 2 = steps                       → 3 bajty
+ *  shoot:  bajt 2 = dx, bajt 3 = dy (ze znakiem) → 4 bajty
+ * </pre>
+ * Stare wpisy w formacie JSON (tekst UTF-8 zaczynający się od '{') są nadal dekodowane. Gdy wartości nie mieszczą
+ * się w bajcie (teoretycznie – plansza ma max 20 pól), komenda zapisywana jest jako JSON.
+ */
+@Component
+@RequiredArgsConstructor
+public class CommandCodec {
+
+  public static final byte FORMAT_V1 = 0x01;
+
+  private static final int SHOOT_FLAG = 0x80;
+
+  private static final CommandType[] TYPES = CommandType.values();
+  private static final Faction[] FACTIONS = Faction.values();
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final ObjectMapper objectMapper;
+
+  public byte[] encode(Command cmd) {
+    return switch (cmd) {
+      case MoveCommand mv -> fitsByte(mv.steps())
+          ? new byte[]{FORMAT_V1, header(0, mv.type(), mv.issuer(), mv.direction().ordinal()), (byte) mv.steps()}
+          : json(cmd);
+      case ShootCommand sh -> fitsByte(sh.dx()) && fitsByte(sh.dy())
+          ? new byte[]{FORMAT_V1, header(SHOOT_FLAG, sh.type(), sh.issuer(), 0), (byte) sh.dx(), (byte) sh.dy()}
+          : json(cmd);
+    };
+  }
+
+  public Command decode(byte[] payload) {
+    if (payload == null || payload.length == 0) {
+      throw new IllegalArgumentException("Empty command payload");
+    }
+    if (payload[0] != FORMAT_V1) {
+      return fromJson(payload);
+    }
+
+    int h = payload[1] & 0xFF;
+    CommandType type = TYPES[(h >>> 3) & 0x03];
+    Faction issuer = FACTIONS[(h >>> 2) & 0x01];
+    if ((h & SHOOT_FLAG) == 0) {
+      return new MoveCommand(DIRECTIONS[h & 0x03], payload[2], issuer, type);
+    }
+    return new ShootCommand(payload[2], payload[3], issuer, type);
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private static byte header(int kind, CommandType type, Faction issuer, int direction) {
+    return (byte) (kind | type.ordinal() << 3 | issuer.ordinal() << 2 | direction);
+  }
+
+  private static boolean fitsByte(int v) {
+    return v >= Byte.MIN_VALUE && v <= Byte.MAX_VALUE;
+  }
+
+  private byte[] json(Command cmd) {
+    try {
+      return objectMapper.writeValueAsString(cmd).getBytes(StandardCharsets.UTF_8);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot serialize command", e);
+    }
+  }
+
+  private Command fromJson(byte[] payload) {
+    try {
+      return objectMapper.readValue(payload, Command.class);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Cannot decode command payload", e);
+    }
+  }
+}
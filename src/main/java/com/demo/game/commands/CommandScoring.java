@@ -0,0 +1,200 @@
+package com.demo.game.commands;
+
+import com.demo.game.board.BoardView;
+import com.demo.game.board.TacticalBoard;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Direction;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitType;
+import java.util.random.RandomGenerator;
+
+/**
+ * Planista AI – ocenia każdy legalny rozkaz jednostki i wybiera najlepszy. Te same rozkazy co
+ * {@link RandomCommands#legal} (bez odrzuceń, anulowanych najazdów i strzałów we własne jednostki).
+ * <p>
+ * Ocena rozkazu:<br>
+ * • zniszczenie przeciwnika (strzałem albo najazdem): {@link #KILL} × wartość ofiary;<br>
+ * • narażenie: −{@link #EXPOSURE} × wartość jednostki × liczba strzelców przeciwnika, którzy mogą ostrzelać pole,
+ * na którym jednostka kończy rozkaz (bez zniszczonego właśnie strzelca);<br>
+ * • blokowanie: {@link #BLOCK} za każdy transport przeciwnika, któremu to pole zamyka drogę do naszej jednostki
+ * (najazd 1–3 pola po prostej);<br>
+ * • strzał w puste pole: −{@link #WASTE}.
+ * <p>
+ * Wartości jednostek: łucznik 3, transport 2, armata 4. Remisy rozstrzyga losowanie rezerwuarowe. Czysta funkcja
+ * na {@link TacticalBoard} – plansza nie może się zmieniać w trakcie oceny.
+ */
+public final class CommandScoring {
+
+  static final int KILL = 10;
+  static final int EXPOSURE = 3;
+  static final int BLOCK = 4;
+  static final int WASTE = 1;
+
+  private static final Direction[] ORTHO = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
+  private static final int[] ORTHO_DX = {0, 0, -1, 1};
+  private static final int[] ORTHO_DY = {-1, 1, 0, 0};
+
+  private CommandScoring() {
+  }
+
+  /**
+   * Najwyżej oceniony legalny rozkaz dla jednostki na polu ({@code x}, {@code y}).
+   *
+   * @param canMove  czy jednostka może już wykonać ruch (cooldown)
+   * @param canShoot czy jednostka może już strzelić
+   * @return rozkaz albo {@code null}, gdy w tym położeniu nie ma żadnego legalnego rozkazu
+   */
+  public static Command best(UnitType type, Faction faction, int x, int y, TacticalBoard board,
+      boolean canMove, boolean canShoot, RandomGenerator rng) {
+
+    Faction enemy = faction == Faction.WHITE ? Faction.BLACK : Faction.WHITE;
+    int self = value(type);
+    int bestScore = Integer.MIN_VALUE;
+    int ties = 0;
+    boolean bestIsMove = false;
+    int bestA = 0;
+    int bestB = 0;
+
+    /* --- ruchy: jak w RandomCommands.legal – do przeszkody, pole wroga kończy drogę --- */
+    if (canMove && type != UnitType.CANNON) {
+      int maxSteps = type == UnitType.ARCHER ? 1 : 3;
+      for (int d = 0; d < ORTHO.length; d++) {
+        for (int step = 1; step <= maxSteps; step++) {
+          int tx = x + ORTHO_DX[d] * step;
+          int ty = y + ORTHO_DY[d] * step;
+          if (!board.inBounds(tx, ty)) {
+            break;
+          }
+          boolean occupied = board.occupant(tx, ty) != BoardView.EMPTY;
+          if (occupied && board.factionAt(tx, ty) == faction) {
+            break;
+          }
+          int score = (occupied ? KILL * value(board.typeAt(tx, ty)) : 0)
+              - EXPOSURE * self * board.threatCount(enemy, tx, ty)
+              + BLOCK * blockedLanes(faction, tx, ty, x, y, board);
+          boolean take = score > bestScore || score == bestScore && rng.nextInt(++ties) == 0;
+          if (score > bestScore) {
+            bestScore = score;
+            ties = 1;
+          }
+          if (take) {
+            bestIsMove = true;
+            bestA = d;
+            bestB = step;
+          }
+          if (occupied) {
+            break;
+          }
+        }
+      }
+    }
+
+    /* --- strzały: liczy się tylko pole docelowe; jednostka zostaje na miejscu --- */
+    if (canShoot && type != UnitType.TRANSPORT) {
+      int stay = BLOCK * blockedLanes(faction, x, y, x, y, board);
+      int exposure = board.threatCount(enemy, x, y);
+      for (int dx = -3; dx <= 3; dx++) {
+        for (int dy = -3; dy <= 3; dy++) {
+          boolean aimable = type == UnitType.CANNON ? dx != 0 || dy != 0 : (dx == 0) != (dy == 0);
+          int tx = x + dx;
+          int ty = y + dy;
+          if (!aimable || !board.inBounds(tx, ty) || board.factionAt(tx, ty) == faction) {
+            continue;
+          }
+          int score;
+          if (board.occupant(tx, ty) == BoardView.EMPTY) {
+            score = stay - EXPOSURE * self * exposure - WASTE;
+          } else {
+            UnitType victim = board.typeAt(tx, ty);
+            int relief = threatens(victim, -dx, -dy) ? 1 : 0;
+            score = stay + KILL * value(victim) - EXPOSURE * self * (exposure - relief);
+          }
+          boolean take = score > bestScore || score == bestScore && rng.nextInt(++ties) == 0;
+          if (score > bestScore) {
+            bestScore = score;
+            ties = 1;
+          }
+          if (take) {
+            bestIsMove = false;
+            bestA = dx;
+            bestB = dy;
+          }
+        }
+      }
+    }
+
+    if (bestScore == Integer.MIN_VALUE) {
+      return null;
+    }
+    if (bestIsMove) {
+      CommandType moveType = type == UnitType.ARCHER ? CommandType.MOVE_ARCHER : CommandType.MOVE_TRANSPORT;
+      return new MoveCommand(ORTHO[bestA], bestB, faction, moveType);
+    }
+    CommandType shotType = type == UnitType.ARCHER ? CommandType.SHOOT_ARCHER : CommandType.SHOOT_CANNON;
+    return new ShootCommand(bestA, bestB, faction, shotType);
+  }
+
+  /**
+   * Wartość jednostki w ocenie rozkazu; nieznany rodzaj liczymy jak transport.
+   */
+  static int value(UnitType type) {
+    return type == null ? 2 : switch (type) {
+      case ARCHER -> 3;
+      case TRANSPORT -> 2;
+      case CANNON -> 4;
+    };
+  }
+
+  /**
+   * Czy strzelec danego rodzaju trafia pole przesunięte o (dx, dy) od siebie – zasięg jak w {@link RandomCommands}.
+   */
+  static boolean threatens(UnitType shooter, int dx, int dy) {
+    if (shooter != UnitType.ARCHER && shooter != UnitType.CANNON
+        || Math.abs(dx) > 3 || Math.abs(dy) > 3 || dx == 0 && dy == 0) {
+      return false;
+    }
+    return shooter == UnitType.CANNON || dx == 0 || dy == 0;
+  }
+
+  /**
+   * Ile transportów przeciwnika ma przez pole (cx, cy) prostą drogę (najwyżej 3 pola) do jednostki frakcji
+   * {@code faction} – jednostka stojąca na tym polu zamyka ją sobą. Pole (ox, oy), które jednostka właśnie
+   * opuszcza, liczymy jako wolne.
+   */
+  static int blockedLanes(Faction faction, int cx, int cy, int ox, int oy, TacticalBoard board) {
+    int lanes = 0;
+    for (int d = 0; d < ORTHO_DX.length; d++) {
+      int a = nearest(cx, cy, ORTHO_DX[d], ORTHO_DY[d], 2, ox, oy, board);
+      if (a == 0) {
+        continue;
+      }
+      int ex = cx + ORTHO_DX[d] * a;
+      int ey = cy + ORTHO_DY[d] * a;
+      if (board.factionAt(ex, ey) == faction || board.typeAt(ex, ey) != UnitType.TRANSPORT) {
+        continue;
+      }
+      int b = nearest(cx, cy, -ORTHO_DX[d], -ORTHO_DY[d], 3 - a, ox, oy, board);
+      if (b != 0 && board.factionAt(cx - ORTHO_DX[d] * b, cy - ORTHO_DY[d] * b) == faction) {
+        lanes++;
+      }
+    }
+    return lanes;
+  }
+
+  /**
+   * Odległość do najbliższej jednostki w kierunku (dx, dy), najwyżej {@code max} pól; 0 gdy jej tam nie ma.
+   */
+  private static int nearest(int cx, int cy, int dx, int dy, int max, int ox, int oy, BoardView board) {
+    for (int step = 1; step <= max; step++) {
+      int tx = cx + dx * step;
+      int ty = cy + dy * step;
+      if (!board.inBounds(tx, ty)) {
+        return 0;
+      }
+      if ((tx != ox || ty != oy) && board.occupant(tx, ty) != BoardView.EMPTY) {
+        return step;
+      }
+    }
+    return 0;
+  }
+}
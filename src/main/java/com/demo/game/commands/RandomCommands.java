@@ -0,0 +1,176 @@
+package com.demo.game.commands;
+
+import com.demo.game.board.BoardView;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Direction;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitType;
+import java.util.random.RandomGenerator;
+
+/**
+ * Losowanie rozkazu dla rodzaju jednostki – wspólne dla endpointu /units/{id}/random i symulacji bez serwera.
+ * <p>
+ * • Łucznik   – pół na pół: ruch o 1 pole albo strzał orthogonalnie na 1-3 pola.<br>
+ * • Transport – ruch o 1-3 pól w losowym kierunku.<br>
+ * • Armata    – strzał o dx, dy z zakresu -3..3 (bez 0,0).
+ * <p>
+ * {@link #random} losuje na ślepo (rozkaz może zostać odrzucony przez reguły), {@link #legal} – tylko spośród
+ * rozkazów wykonalnych w bieżącym położeniu jednostki.
+ */
+public final class RandomCommands {
+
+  private static final Direction[] ORTHO = {Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT};
+  private static final int[] ORTHO_DX = {0, 0, -1, 1};
+  private static final int[] ORTHO_DY = {-1, 1, 0, 0};
+
+  private RandomCommands() {
+  }
+
+  public static Command random(UnitType type, Faction issuer, RandomGenerator rng) {
+    return switch (type) {
+      case ARCHER -> archer(issuer, rng);
+      case TRANSPORT -> new MoveCommand(direction(rng), rng.nextInt(3) + 1, issuer, CommandType.MOVE_TRANSPORT);
+      case CANNON -> cannon(issuer, rng);
+    };
+  }
+
+  /**
+   * Losowy rozkaz spośród legalnych dla jednostki na polu ({@code x}, {@code y}) – reguły jak w
+   * {@link com.demo.game.board.GameRules}.
+   * <p>
+   * • Pomijamy wszystko, co serwer odrzuci (wyjście poza planszę, przeskok nad jednostką) albo anuluje (najazd na
+   * swoją jednostkę); strzałów we własne jednostki też nie oddajemy.<br>
+   * • Łucznik, który może i ruszyć się, i strzelić, wybiera rodzaj rozkazu pół na pół – jak {@link #random}.<br>
+   * • Kandydatów przeglądamy jeden raz, wybór losowaniem rezerwuarowym – bez listy i bez alokacji poza samym
+   * rozkazem.
+   *
+   * @param canMove  czy jednostka może już wykonać ruch (cooldown)
+   * @param canShoot czy jednostka może już strzelić
+   * @return rozkaz albo {@code null}, gdy w tym położeniu nie ma żadnego legalnego rozkazu
+   */
+  public static Command legal(UnitType type, Faction faction, int x, int y, BoardView board,
+      boolean canMove, boolean canShoot, RandomGenerator rng) {
+
+    /* --- ruchy: po każdym kierunku aż do przeszkody; pole wroga można zająć, ale dalej już nie idziemy --- */
+    int moves = 0;
+    int moveDir = 0;
+    int moveSteps = 0;
+    if (canMove && type != UnitType.CANNON) {
+      int maxSteps = type == UnitType.ARCHER ? 1 : 3;
+      for (int d = 0; d < ORTHO.length; d++) {
+        for (int step = 1; step <= maxSteps; step++) {
+          int tx = x + ORTHO_DX[d] * step;
+          int ty = y + ORTHO_DY[d] * step;
+          if (!board.inBounds(tx, ty)) {
+            break;
+          }
+          boolean occupied = board.occupant(tx, ty) != BoardView.EMPTY;
+          if (occupied && board.factionAt(tx, ty) == faction) {
+            break;
+          }
+          if (rng.nextInt(++moves) == 0) {
+            moveDir = d;
+            moveSteps = step;
+          }
+          if (occupied) {
+            break;
+          }
+        }
+      }
+    }
+
+    /* --- strzały: pocisk leci nad jednostkami, liczy się tylko pole docelowe --- */
+    int shots = 0;
+    int shotDx = 0;
+    int shotDy = 0;
+    if (canShoot && type != UnitType.TRANSPORT) {
+      for (int dx = -3; dx <= 3; dx++) {
+        for (int dy = -3; dy <= 3; dy++) {
+          boolean aimable = type == UnitType.CANNON ? dx != 0 || dy != 0 : (dx == 0) != (dy == 0);
+          if (!aimable || !board.inBounds(x + dx, y + dy) || board.factionAt(x + dx, y + dy) == faction) {
+            continue;
+          }
+          if (rng.nextInt(++shots) == 0) {
+            shotDx = dx;
+            shotDy = dy;
+          }
+        }
+      }
+    }
+
+    if (moves == 0 && shots == 0) {
+      return null;
+    }
+    if (shots == 0 || moves > 0 && rng.nextBoolean()) {
+      CommandType moveType = type == UnitType.ARCHER ? CommandType.MOVE_ARCHER : CommandType.MOVE_TRANSPORT;
+      return new MoveCommand(ORTHO[moveDir], moveSteps, faction, moveType);
+    }
+    CommandType shotType = type == UnitType.ARCHER ? CommandType.SHOOT_ARCHER : CommandType.SHOOT_CANNON;
+    return new ShootCommand(shotDx, shotDy, faction, shotType);
+  }
+
+  /**
+   * Czy rozkaz wylosowany przez {@link #legal} nadal jest legalny na planszy {@code board} – ten sam zbiór
+   * rozkazów (bez odrzuceń, anulowanych najazdów i strzałów we własne jednostki). Typ rozkazu musi już pasować do
+   * jednostki.
+   */
+  public static boolean isLegal(Faction faction, int x, int y, Command cmd, BoardView board) {
+    return switch (cmd) {
+      case MoveCommand mv -> {
+        int dx = mv.direction() == Direction.LEFT ? -1 : mv.direction() == Direction.RIGHT ? 1 : 0;
+        int dy = mv.direction() == Direction.UP ? -1 : mv.direction() == Direction.DOWN ? 1 : 0;
+        for (int step = 1; step <= mv.steps(); step++) {
+          int tx = x + dx * step;
+          int ty = y + dy * step;
+          if (!board.inBounds(tx, ty)) {
+            yield false;
+          }
+          if (board.occupant(tx, ty) != BoardView.EMPTY) {
+            yield step == mv.steps() && board.factionAt(tx, ty) != faction;
+          }
+        }
+        yield true;
+      }
+      case ShootCommand sh -> {
+        int tx = sh.targetX(x);
+        int ty = sh.targetY(y);
+        yield board.inBounds(tx, ty) && board.factionAt(tx, ty) != faction;
+      }
+    };
+  }
+
+  private static Command archer(Faction issuer, RandomGenerator rng) {
+    boolean move = rng.nextBoolean();
+    Direction dir = direction(rng);
+    if (move) {
+      return new MoveCommand(dir, 1, issuer, CommandType.MOVE_ARCHER);
+    }
+    int distance = rng.nextInt(3) + 1; // 1–3 pól
+    int dx = switch (dir) {
+      case LEFT -> -distance;
+      case RIGHT -> distance;
+      default -> 0;
+    };
+    int dy = switch (dir) {
+      case UP -> -distance;
+      case DOWN -> distance;
+      default -> 0;
+    };
+    return new ShootCommand(dx, dy, issuer, CommandType.SHOOT_ARCHER);
+  }
+
+  private static Command cannon(Faction issuer, RandomGenerator rng) {
+    /* losujemy dx i dy z zakresu -3..3 (bez 0,0) */
+    int dx;
+    int dy;
+    do {
+      dx = rng.nextInt(7) - 3; // -3..3
+      dy = rng.nextInt(7) - 3;
+    } while (dx == 0 && dy == 0);
+    return new ShootCommand(dx, dy, issuer, CommandType.SHOOT_CANNON);
+  }
+
+  private static Direction direction(RandomGenerator rng) {
+    return ORTHO[rng.nextInt(ORTHO.length)];
+  }
+}
@@ -0,0 +1,11 @@
+package com.demo.game.commands;
+
+/**
+ * Rozkaz zaadresowany do konkretnej jednostki – element paczki komend.
+ *
+ * @param unitId  id jednostki
+ * @param command rozkaz do wykonania
+ */
+public record UnitCommand(long unitId, Command command) {
+
+}
@@ -0,0 +1,13 @@
+package com.demo.game.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Zadania okresowe (np. eksmisja bezczynnych plansz z pamięci).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+
+}
@@ -0,0 +1,24 @@
+package com.demo.game.config;
+
+import com.demo.game.controllers.CommandSocketHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Kanał rozkazów przez WebSocket – {@code /ws/commands} ({@link CommandSocketHandler}).
+ */
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfiguration implements WebSocketConfigurer {
+
+  private final CommandSocketHandler commandSocket;
+
+  @Override
+  public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+    registry.addHandler(commandSocket, "/ws/commands");
+  }
+}
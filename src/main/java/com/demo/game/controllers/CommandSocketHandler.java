@@ -0,0 +1,234 @@
+package com.demo.game.controllers;
+
+import com.demo.game.commands.Command;
+import com.demo.game.commands.CommandCodec;
+import com.demo.game.exceptions.CooldownException;
+import com.demo.game.exceptions.GameNotActiveException;
+import com.demo.game.objects.dto.CommandAck;
+import com.demo.game.objects.dto.CommandResult;
+import com.demo.game.objects.dto.SocketCommand;
+import com.demo.game.service.CommandService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+/**
+ * Kanał rozkazów przez WebSocket ({@code /ws/commands}) – jedno połączenie, wiele rozkazów w locie.
+ * <p>
+ * • Ramka tekstowa: {@link SocketCommand} w JSON, potwierdzenie {@link CommandAck} w JSON.<br>
+ * • Ramka binarna (big-endian): {@code long id, long unitId} + rozkaz w zapisie {@link CommandCodec} (3–4 bajty);
+ * potwierdzenie: {@code long id, short status, int retryAfterMillis} (-1 gdy brak).<br>
+ * • Każdy rozkaz idzie przez {@link CommandService#executeCommand} – te same reguły, cooldowny i metryki co REST.
+ * Wykonują go wątki {@code ws-commands}, a potwierdzenie wraca zaraz po wykonaniu, więc może wyprzedzić
+ * potwierdzenia wcześniejszych rozkazów – klient paruje je po {@code id}.<br>
+ * • Połączenie ma najwyżej {@code game.ws.max-in-flight} rozkazów w toku; kolejne dostają od razu 503.<br>
+ * • Kolejka wątków {@code ws-commands} jest wspólna dla wszystkich połączeń i ograniczona
+ * ({@code game.ws.queue-capacity}) – gdy jest pełna, rozkaz też dostaje 503 zamiast czekać w pamięci.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommandSocketHandler extends AbstractWebSocketHandler {
+
+  static final int BINARY_HEADER = 2 * Long.BYTES;
+  static final int BINARY_ACK = Long.BYTES + Short.BYTES + Integer.BYTES;
+
+  private static final String CONNECTION = "commandConnection";
+
+  private final CommandService commandService;
+  private final CommandCodec codec;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+
+  @Value("${game.ws.max-in-flight:64}")
+  private int maxInFlight;
+
+  @Value("${game.ws.workers:16}")
+  private int workers;
+
+  @Value("${game.ws.queue-capacity:1024}")
+  private int queueCapacity;
+
+  @Value("${game.ws.send-timeout:PT10S}")
+  private Duration sendTimeout;
+
+  @Value("${game.ws.send-buffer:524288}")
+  private int sendBuffer;
+
+  private ExecutorService pool;
+
+  /** Sesja z bezpiecznym dla wielu wątków wysyłaniem i limit rozkazów w toku. */
+  private record Connection(WebSocketSession out, Semaphore inFlight) { }
+
+  @PostConstruct
+  void start() {
+    AtomicInteger threads = new AtomicInteger();
+    pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), r -> {
+          Thread t = new Thread(r, "ws-commands-" + threads.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        });
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdownNow();
+  }
+
+  @Override
+  public void afterConnectionEstablished(WebSocketSession session) {
+    WebSocketSession out = new ConcurrentWebSocketSessionDecorator(session, (int) sendTimeout.toMillis(),
+        sendBuffer);
+    session.getAttributes().put(CONNECTION, new Connection(out, new Semaphore(maxInFlight)));
+  }
+
+  @Override
+  protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+    Connection conn = connection(session);
+    SocketCommand sc;
+    try {
+      sc = objectMapper.readValue(message.getPayload(), SocketCommand.class);
+    } catch (JsonProcessingException ex) {
+      send(conn, CommandAck.error(0, 0, 400, "Malformed command: " + ex.getOriginalMessage()), false);
+      return;
+    }
+    if (!validator.validate(sc).isEmpty()) {
+      send(conn, CommandAck.error(sc.id(), sc.unitId(), 400, "Invalid command"), false);
+      return;
+    }
+
+    Command cmd;
+    try {
+      cmd = sc.command().toDomain();
+    } catch (IllegalArgumentException ex) {
+      send(conn, CommandAck.of(sc.id(), CommandResult.rejected(sc.unitId(), ex.getMessage())), false);
+      return;
+    }
+    submit(conn, sc.id(), sc.unitId(), cmd, false);
+  }
+
+  @Override
+  protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+    Connection conn = connection(session);
+    ByteBuffer in = message.getPayload();
+    if (in.remaining() < BINARY_HEADER + 1) {
+      send(conn, CommandAck.error(0, 0, 400, "Malformed command"), true);
+      return;
+    }
+    long id = in.getLong();
+    long unitId = in.getLong();
+    byte[] payload = new byte[in.remaining()];
+    in.get(payload);
+
+    Command cmd;
+    try {
+      cmd = codec.decode(payload);
+    } catch (RuntimeException ex) {
+      send(conn, CommandAck.error(id, unitId, 400, "Malformed command"), true);
+      return;
+    }
+    submit(conn, id, unitId, cmd, true);
+  }
+
+  @Override
+  public void handleTransportError(WebSocketSession session, Throwable exception) {
+    log.debug("Command socket {} failed: {}", session.getId(), exception.getMessage());
+  }
+
+  @Override
+  public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+    session.getAttributes().remove(CONNECTION);
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private void submit(Connection conn, long id, long unitId, Command cmd, boolean binary) {
+    if (!conn.inFlight().tryAcquire()) {
+      send(conn, CommandAck.error(id, unitId, 503, "Too many commands in flight"), binary);
+      return;
+    }
+    try {
+      pool.execute(() -> {
+        try {
+          send(conn, execute(id, unitId, cmd), binary);
+        } finally {
+          conn.inFlight().release();
+        }
+      });
+    } catch (RejectedExecutionException ex) {
+      conn.inFlight().release();
+      send(conn, CommandAck.error(id, unitId, 503,
+          pool.isShutdown() ? "Server is shutting down" : "Server is overloaded"), binary);
+    }
+  }
+
+  /**
+   * Wynik jak przy REST ({@code RestExceptionHandler}) – kody statusu zamiast wyjątków.
+   */
+  private CommandAck execute(long id, long unitId, Command cmd) {
+    try {
+      commandService.executeCommand(unitId, cmd);
+      return CommandAck.of(id, CommandResult.accepted(unitId));
+    } catch (CooldownException ex) {
+      return CommandAck.of(id, CommandResult.cooldown(unitId, ex.getRetryAfter()));
+    } catch (NotFoundException ex) {
+      return CommandAck.of(id, CommandResult.notFound(unitId));
+    } catch (GameNotActiveException ex) {
+      return CommandAck.error(id, unitId, 409, ex.getMessage());
+    } catch (IllegalArgumentException ex) {
+      return CommandAck.of(id, CommandResult.rejected(unitId, ex.getMessage()));
+    } catch (RejectedExecutionException ex) {
+      return CommandAck.error(id, unitId, 503, "Game is overloaded");
+    } catch (RuntimeException ex) {
+      log.error("Command {} for unit {} failed", id, unitId, ex);
+      return CommandAck.error(id, unitId, 500, "Internal error");
+    }
+  }
+
+  private void send(Connection conn, CommandAck ack, boolean binary) {
+    try {
+      conn.out().sendMessage(binary ? binaryAck(ack) : new TextMessage(objectMapper.writeValueAsString(ack)));
+    } catch (IOException | IllegalStateException | SessionLimitExceededException ex) {
+      /* połączenie zamknięte albo klient nie odbiera – rozkaz i tak został wykonany */
+      log.debug("Cannot acknowledge command {}: {}", ack.id(), ex.getMessage());
+    }
+  }
+
+  private static WebSocketMessage<?> binaryAck(CommandAck ack) {
+    ByteBuffer out = ByteBuffer.allocate(BINARY_ACK);
+    out.putLong(ack.id());
+    out.putShort((short) ack.status());
+    out.putInt(ack.retryAfterMillis() == null ? -1 : (int) Math.min(Integer.MAX_VALUE, ack.retryAfterMillis()));
+    return new BinaryMessage(out.flip());
+  }
+
+  private static Connection connection(WebSocketSession session) {
+    return (Connection) session.getAttributes().get(CONNECTION);
+  }
+}
@@ -1,29 +1,46 @@
 package com.demo.game.controllers;
 
-import com.demo.game.commands.Command;
+import com.demo.game.board.BoardUnit;
+import com.demo.game.board.PackedBoard;
+import com.demo.game.board.ReachableCell;
+import com.demo.game.board.ThreatMap;
+import com.demo.game.commands.UnitCommand;
 import com.demo.game.objects.dao.Game;
-import com.demo.game.objects.dao.Unit;
+import com.demo.game.objects.dto.BatchCommandRequest;
 import com.demo.game.objects.dto.CommandRequest;
+import com.demo.game.objects.dto.CommandResult;
+import com.demo.game.objects.dto.EndGamesResult;
 import com.demo.game.objects.dto.GameDto;
 import com.demo.game.objects.dto.NewGameRequest;
+import com.demo.game.objects.dto.TurnResult;
+import com.demo.game.objects.dto.UnitChanges;
+import com.demo.game.objects.dto.UnitCommandRequest;
 import com.demo.game.objects.dto.UnitDto;
+import com.demo.game.objects.dto.UnitQuery;
+import com.demo.game.objects.enums.AiStrategy;
 import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.GameStatus;
+import com.demo.game.objects.enums.UnitStatus;
+import com.demo.game.objects.enums.UnitType;
 import com.demo.game.service.CommandService;
 import com.demo.game.service.GameService;
-import com.demo.game.service.RandomCommandGenerator;
+import com.demo.game.service.UnitListCache;
+import com.demo.game.service.UnitReader;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.List;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -33,6 +50,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 
 @RestController
@@ -44,14 +62,15 @@ public class GameApiController {
 
   private final GameService gameService;
   private final CommandService commandService;
-  private final RandomCommandGenerator randomCommandGenerator;
+  private final UnitListCache unitLists;
+  private final UnitReader unitReader;
 
   /* ----------------------------------------------------------- */
   /* 1. Tworzenie nowej gry                                      */
   /* ----------------------------------------------------------- */
 
   @Operation(summary = "Utwórz nową grę",
-      description = "Zamyka ewentualną poprzednią rozgrywkę i startuje nową planszę.",
+      description = "Startuje nową planszę obok już trwających rozgrywek.",
       requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
           required = true,
           content = @Content(schema = @Schema(implementation = NewGameRequest.class))
@@ -63,26 +82,172 @@ public class GameApiController {
   @PostMapping(path = "/games", consumes = MediaType.APPLICATION_JSON_VALUE)
   @ResponseStatus(HttpStatus.CREATED)
   public GameDto createNewGame(@Valid @RequestBody NewGameRequest req) {
-    Game game = gameService.createNewGame(req.boardWidth(), req.boardHeight(), req.whiteConfig(), req.blackConfig());
+    Game game = gameService.createNewGame(req.boardWidth(), req.boardHeight(), req.whiteConfig(), req.blackConfig(),
+        req.seed());
     return GameDto.from(game);
   }
 
+  /* ----------------------------------------------------------- */
+  /* 1a. Zakończenie gry                                         */
+  /* ----------------------------------------------------------- */
+
+  @Operation(summary = "Zakończ grę",
+      description = "Gra przestaje przyjmować rozkazy – kolejne dostają 409.",
+      parameters = {
+          @Parameter(name = "gameId", description = "Id gry", required = true),
+          @Parameter(name = "result", description = "FINISHED (domyślnie) lub ABORTED")
+      },
+      responses = {
+          @ApiResponse(responseCode = "200", description = "Gra zakończona",
+              content = @Content(schema = @Schema(implementation = GameDto.class))),
+          @ApiResponse(responseCode = "409", description = "Gra była już zakończona")
+      })
+  @PostMapping("/games/{gameId}/end")
+  public GameDto endGame(@PathVariable long gameId, @RequestParam(defaultValue = "FINISHED") GameStatus result)
+      throws NotFoundException {
+    return GameDto.from(gameService.endGame(gameId, result));
+  }
+
+  @Operation(summary = "Zakończ wszystkie aktywne gry",
+      description = "Jeden UPDATE dla wszystkich aktywnych gier, np. sprzątanie po teście obciążeniowym.",
+      parameters = {
+          @Parameter(name = "result", description = "ABORTED (domyślnie) lub FINISHED"),
+          @Parameter(name = "keep", description = "Id gry, która ma trwać dalej")
+      },
+      responses = @ApiResponse(responseCode = "200", description = "Liczba zakończonych gier",
+          content = @Content(schema = @Schema(implementation = EndGamesResult.class))))
+  @PostMapping("/games/end")
+  public EndGamesResult endActiveGames(@RequestParam(defaultValue = "ABORTED") GameStatus result,
+      @RequestParam(required = false) Long keep) {
+    return new EndGamesResult(gameService.endActiveGames(result, keep));
+  }
+
   /* ----------------------------------------------------------- */
   /* 2. Lista jednostek                                          */
   /* ----------------------------------------------------------- */
 
   @Operation(summary = "Pobierz jednostki gracza",
+      description = "Bez filtrów: cała lista frakcji z ETagiem wersji stanu gry – z aktualnym If-None-Match serwer "
+          + "zwraca 304 bez czytania bazy. Z filtrami (status, type, after, limit): lista czytana z bazy i "
+          + "wysyłana w trakcie czytania, po id rosnąco; kolejna strona: after = id ostatniej jednostki.",
       parameters = {
           @Parameter(name = "gameId", description = "Id gry", required = true),
-          @Parameter(name = "faction", description = "WHITE lub BLACK", required = true)
+          @Parameter(name = "faction", description = "WHITE lub BLACK", required = true),
+          @Parameter(name = "status", description = "Tylko ACTIVE albo DESTROYED"),
+          @Parameter(name = "type", description = "Tylko ARCHER, TRANSPORT albo CANNON"),
+          @Parameter(name = "after", description = "Tylko jednostki o id większym niż to"),
+          @Parameter(name = "limit", description = "Najwyżej tyle jednostek")
       },
-      responses = @ApiResponse(responseCode = "200", description = "Lista jednostek",
-          content = @Content(schema = @Schema(implementation = UnitDto.class, type = "array")))
+      responses = {
+          @ApiResponse(responseCode = "200", description = "Lista jednostek",
+              content = @Content(schema = @Schema(implementation = UnitDto.class, type = "array"))),
+          @ApiResponse(responseCode = "304", description = "Lista nie zmieniła się od wskazanego ETagu")
+      }
   )
   @GetMapping("/games/{gameId}/units")
-  public List<UnitDto> listUnits(@PathVariable long gameId, @RequestParam Faction faction) {
-    List<Unit> units = gameService.listUnits(gameId, faction);
-    return units.stream().map(UnitDto::from).collect(Collectors.toList());
+  public ResponseEntity<byte[]> listUnits(@PathVariable long gameId, @RequestParam Faction faction,
+      @RequestParam(required = false) UnitStatus status,
+      @RequestParam(required = false) UnitType type,
+      @RequestParam(defaultValue = "0") long after,
+      @RequestParam(required = false) Integer limit,
+      WebRequest request, HttpServletResponse response) throws NotFoundException, IOException {
+    UnitQuery query = new UnitQuery(faction, status, type, after, limit);
+    if (!query.isAll()) {
+      /* wynik piszemy wprost do odpowiedzi w trakcie czytania – bez składania listy */
+      unitReader.requireGame(gameId);
+      response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+      unitReader.write(gameId, query, response.getOutputStream());
+      return null;
+    }
+
+    if (request.checkNotModified(unitLists.etag(gameId, faction))) {
+      return null;
+    }
+    UnitListCache.Entry units = unitLists.get(gameId, faction);
+    return ResponseEntity.ok()
+        .eTag(units.etag())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(units.json());
+  }
+
+  @Operation(summary = "Pobierz całą planszę",
+      description = "Obie frakcje naraz w postaci upakowanej: 16 bitów na pole (zajęte, frakcja, rodzaj, indeks "
+          + "w unitIds) i lista id jednostek. Accept: application/json albo application/octet-stream "
+          + "(long gameId, int width, int height, int unitCount, long[] unitIds, short[] cells; big-endian).",
+      parameters = @Parameter(name = "gameId", description = "Id gry", required = true),
+      responses = @ApiResponse(responseCode = "200", description = "Plansza",
+          content = {
+              @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                  schema = @Schema(implementation = PackedBoard.class)),
+              @Content(mediaType = PackedBoard.BINARY)
+          }))
+  @GetMapping(path = "/games/{gameId}/board", produces = {MediaType.APPLICATION_JSON_VALUE, PackedBoard.BINARY})
+  public PackedBoard board(@PathVariable long gameId) throws NotFoundException {
+    return gameService.board(gameId);
+  }
+
+  @Operation(summary = "Jednostki w pobliżu pola",
+      description = "Żywe jednostki obu frakcji w odległości co najwyżej distance od pola (x,y) w metryce "
+          + "Czebyszewa (jak zasięg strzału) – z siatki gry w pamięci, bez zapytań do bazy.",
+      parameters = {
+          @Parameter(name = "gameId", description = "Id gry", required = true),
+          @Parameter(name = "x", description = "Kolumna pola", required = true),
+          @Parameter(name = "y", description = "Wiersz pola", required = true),
+          @Parameter(name = "distance", description = "Największa odległość", required = true)
+      },
+      responses = @ApiResponse(responseCode = "200", description = "Jednostki, wiersz po wierszu",
+          content = @Content(schema = @Schema(implementation = BoardUnit.class, type = "array"))))
+  @GetMapping("/games/{gameId}/board/units-within")
+  public List<BoardUnit> unitsWithin(@PathVariable long gameId, @RequestParam int x, @RequestParam int y,
+      @RequestParam int distance) throws NotFoundException {
+    return gameService.unitsWithin(gameId, x, y, distance);
+  }
+
+  @Operation(summary = "Pola osiągalne transportem",
+      description = "Pola, na które transport frakcji faction stojący na (x,y) wjedzie jednym rozkazem (1–3 pola "
+          + "orthogonalnie, bez przeskakiwania jednostek); capturedUnit – przeciwnik zniszczony wjazdem.",
+      parameters = {
+          @Parameter(name = "gameId", description = "Id gry", required = true),
+          @Parameter(name = "x", description = "Kolumna pola", required = true),
+          @Parameter(name = "y", description = "Wiersz pola", required = true),
+          @Parameter(name = "faction", description = "WHITE lub BLACK", required = true)
+      },
+      responses = @ApiResponse(responseCode = "200", description = "Osiągalne pola",
+          content = @Content(schema = @Schema(implementation = ReachableCell.class, type = "array"))))
+  @GetMapping("/games/{gameId}/board/reach")
+  public List<ReachableCell> transportReach(@PathVariable long gameId, @RequestParam int x, @RequestParam int y,
+      @RequestParam Faction faction) throws NotFoundException {
+    return gameService.transportReach(gameId, x, y, faction);
+  }
+
+  @Operation(summary = "Pola w zasięgu strzału frakcji",
+      description = "Mapa bitowa pól, które mogą ostrzelać łucznicy (orthogonalnie, do 3 pól) i armaty (w każdym "
+          + "kierunku, do 3 pól) frakcji faction; bit i % 8 bajtu i / 8 dla pola i = y * width + x, w JSON base64.",
+      parameters = {
+          @Parameter(name = "gameId", description = "Id gry", required = true),
+          @Parameter(name = "faction", description = "Frakcja strzelająca: WHITE lub BLACK", required = true)
+      },
+      responses = @ApiResponse(responseCode = "200", description = "Mapa zagrożenia",
+          content = @Content(schema = @Schema(implementation = ThreatMap.class))))
+  @GetMapping("/games/{gameId}/board/threats")
+  public ThreatMap threats(@PathVariable long gameId, @RequestParam Faction faction) throws NotFoundException {
+    return gameService.threats(gameId, faction);
+  }
+
+  @Operation(summary = "Pobierz zmiany jednostek od wersji",
+      description = "Jednostki obu frakcji, których położenie albo stan zmieniły się po wersji since, i nowa "
+          + "wersja do kolejnego zapytania. Bez since albo gdy serwer nie pamięta już tej wersji – pełna lista "
+          + "(full = true).",
+      parameters = {
+          @Parameter(name = "gameId", description = "Id gry", required = true),
+          @Parameter(name = "since", description = "Wersja z poprzedniej odpowiedzi")
+      },
+      responses = @ApiResponse(responseCode = "200", description = "Zmiany albo pełna lista",
+          content = @Content(schema = @Schema(implementation = UnitChanges.class))))
+  @GetMapping("/games/{gameId}/changes")
+  public UnitChanges changes(@PathVariable long gameId, @RequestParam(required = false) Long since)
+      throws NotFoundException {
+    return gameService.changes(gameId, since);
   }
 
   /* ----------------------------------------------------------- */
@@ -103,21 +268,82 @@ public class GameApiController {
     commandService.executeCommand(unitId, body.toDomain());
   }
 
+  /* ----------------------------------------------------------- */
+  /* 3a. Paczka rozkazów (jedna transakcja)                      */
+  /* ----------------------------------------------------------- */
+
+  @Operation(summary = "Wyślij paczkę rozkazów do jednostek jednej gry",
+      description = "Wszystkie rozkazy wykonywane są w jednej transakcji; odrzucenie jednego nie przerywa pozostałych.",
+      parameters = @Parameter(name = "gameId", description = "Id gry", required = true),
+      requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+          required = true,
+          content = @Content(schema = @Schema(implementation = BatchCommandRequest.class))
+      ),
+      responses = @ApiResponse(responseCode = "200", description = "Wynik każdego rozkazu",
+          content = @Content(schema = @Schema(implementation = CommandResult.class, type = "array")))
+  )
+  @PostMapping(path = "/games/{gameId}/commands", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public List<CommandResult> sendCommands(@PathVariable long gameId, @Valid @RequestBody BatchCommandRequest body)
+      throws NotFoundException {
+    List<UnitCommand> commands = body.commands().stream().map(UnitCommandRequest::toDomain).toList();
+    return commandService.executeBatch(gameId, commands);
+  }
+
   /* ----------------------------------------------------------- */
   /* 4. Losowy rozkaz                                            */
   /* ----------------------------------------------------------- */
 
   @Operation(summary = "Losowy rozkaz (AI)",
+      description = "Wybiera rozkaz spośród legalnych w bieżącym położeniu jednostki i od razu go wykonuje: "
+          + "losowo (RANDOM) albo najwyżej oceniony – zniszczenia, narażenie na ogień, blokowanie (PLANNER).",
       parameters = {
           @Parameter(name = "unitId", description = "Id jednostki", required = true),
-          @Parameter(name = "issuer", description = "WHITE lub BLACK", required = true)
+          @Parameter(name = "issuer", description = "WHITE lub BLACK", required = true),
+          @Parameter(name = "strategy", description = "RANDOM (domyślnie) lub PLANNER")
       },
       responses = @ApiResponse(responseCode = "202", description = "Rozkaz przyjęty")
   )
   @PostMapping("/units/{unitId}/random")
   @ResponseStatus(HttpStatus.ACCEPTED)
-  public void randomCommand(@PathVariable long unitId, @RequestParam Faction issuer) throws NotFoundException {
-    Command cmd = randomCommandGenerator.generate(unitId, issuer);
-    commandService.executeCommand(unitId, cmd);
+  public void randomCommand(@PathVariable long unitId, @RequestParam Faction issuer,
+      @RequestParam(defaultValue = "RANDOM") AiStrategy strategy) throws NotFoundException {
+    commandService.executeRandom(unitId, issuer, strategy);
+  }
+
+  /* ----------------------------------------------------------- */
+  /* 4a. Tura AI całej frakcji                                   */
+  /* ----------------------------------------------------------- */
+
+  @Operation(summary = "Losowa tura całej frakcji (AI)",
+      description = "Każda gotowa jednostka frakcji dostaje legalny rozkaz (losowy albo z planisty – strategy); "
+          + "wszystkie wykonywane są w jednej transakcji, po kolei według id jednostki. Planista ocenia jednostki "
+          + "równolegle w budżecie czasu tury; jednostki poza budżetem dostają rozkaz losowy.",
+      parameters = {
+          @Parameter(name = "gameId", description = "Id gry", required = true),
+          @Parameter(name = "faction", description = "WHITE lub BLACK", required = true),
+          @Parameter(name = "strategy", description = "RANDOM (domyślnie) lub PLANNER")
+      },
+      responses = @ApiResponse(responseCode = "200", description = "Wynik i rozkaz każdej jednostki",
+          content = @Content(schema = @Schema(implementation = TurnResult.class, type = "array")))
+  )
+  @PostMapping("/games/{gameId}/factions/{faction}/random-turn")
+  public List<TurnResult> randomTurn(@PathVariable long gameId, @PathVariable Faction faction,
+      @RequestParam(defaultValue = "RANDOM") AiStrategy strategy) throws NotFoundException {
+    return commandService.executeRandomTurn(gameId, faction, strategy);
+  }
+
+  /* ----------------------------------------------------------- */
+  /* 5. Odtworzenie gry z historii                               */
+  /* ----------------------------------------------------------- */
+
+  @Operation(summary = "Przywróć stan gry z migawki i historii zdarzeń",
+      description = "Ustawia wszystkie jednostki gry według najnowszej migawki i zdarzeń zapisanych po niej.",
+      parameters = @Parameter(name = "gameId", description = "Id gry", required = true),
+      responses = @ApiResponse(responseCode = "200", description = "Jednostki po odtworzeniu",
+          content = @Content(schema = @Schema(implementation = UnitDto.class, type = "array")))
+  )
+  @PostMapping("/games/{gameId}/restore")
+  public List<UnitDto> restoreGame(@PathVariable long gameId) throws NotFoundException {
+    return gameService.restoreGame(gameId).stream().map(UnitDto::from).toList();
   }
 }
@@ -0,0 +1,53 @@
+package com.demo.game.controllers;
+
+import com.demo.game.objects.dto.EventDto;
+import com.demo.game.service.GameEventBroadcaster;
+import com.demo.game.service.GameService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+
+@RestController
+@RequestMapping(path = "/api")
+@RequiredArgsConstructor
+@Tag(name = "Game events", description = "Zdarzenia gry na żywo")
+public class GameEventController {
+
+  private final GameService gameService;
+  private final GameEventBroadcaster broadcaster;
+
+  /* ----------------------------------------------------------- */
+  /* Strumień zdarzeń (SSE)                                      */
+  /* ----------------------------------------------------------- */
+
+  @Operation(summary = "Strumień zdarzeń gry (Server-Sent Events)",
+      description = "Wysyła każde nowo zatwierdzone zdarzenie gry. Po zerwaniu połączenia klient wznawia strumień "
+          + "nagłówkiem Last-Event-ID – brakujące zdarzenia są doczytywane z bazy.",
+      parameters = {
+          @Parameter(name = "gameId", description = "Id gry", required = true),
+          @Parameter(name = "Last-Event-ID", description = "Id ostatniego odebranego zdarzenia")
+      },
+      responses = @ApiResponse(responseCode = "200", description = "Strumień zdarzeń 'game-event'",
+          content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+              schema = @Schema(implementation = EventDto.class)))
+  )
+  @GetMapping(path = "/games/{gameId}/events/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamEvents(@PathVariable long gameId,
+      @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) throws NotFoundException {
+    gameService.getGame(gameId);
+    return broadcaster.subscribe(gameId, lastEventId);
+  }
+}
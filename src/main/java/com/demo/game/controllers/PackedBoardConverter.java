@@ -0,0 +1,59 @@
+package com.demo.game.controllers;
+
+import com.demo.game.board.PackedBoard;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Postać binarna {@link PackedBoard} ({@code Accept: application/octet-stream}) – układ bajtów opisany w
+ * {@link PackedBoard}. JSON obsługuje zwykły konwerter Jacksona.
+ */
+@Component
+public class PackedBoardConverter extends AbstractHttpMessageConverter<PackedBoard> {
+
+  public PackedBoardConverter() {
+    super(MediaType.parseMediaType(PackedBoard.BINARY));
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return PackedBoard.class.equals(clazz);
+  }
+
+  @Override
+  protected boolean canRead(MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected PackedBoard readInternal(Class<? extends PackedBoard> clazz, HttpInputMessage inputMessage) {
+    throw new HttpMessageNotReadableException("Packed board is write-only", inputMessage);
+  }
+
+  @Override
+  protected Long getContentLength(PackedBoard board, MediaType contentType) {
+    return (long) board.binarySize();
+  }
+
+  @Override
+  protected void writeInternal(PackedBoard board, HttpOutputMessage outputMessage) throws IOException {
+    DataOutputStream out = new DataOutputStream(outputMessage.getBody());
+    out.writeLong(board.gameId());
+    out.writeInt(board.width());
+    out.writeInt(board.height());
+    out.writeInt(board.unitIds().length);
+    for (long id : board.unitIds()) {
+      out.writeLong(id);
+    }
+    for (short cell : board.cells()) {
+      out.writeShort(cell);
+    }
+    out.flush();
+  }
+}
@@ -0,0 +1,381 @@
+package com.demo.game.eventlog;
+
+import com.demo.game.archive.EventRecord;
+import com.demo.game.objects.enums.CommandType;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.CRC32;
+
+/**
+ * Dziennik zdarzeń w plikach mapowanych w pamięć – rekordy stałej długości, tylko dopisywanie.
+ * <p>
+ * • Gra należy do partycji {@code gameId % partitions}. Partycja to ciąg plików {@code pP-NNNNNN.log} po
+ * {@code fileSize} bajtów, każdy zmapowany w całości (plik rzadki – miejsce na dysku zajmują zapisane rekordy).<br>
+ * • Rekord ma {@value #RECORD} bajtów i kończy się CRC32; rekord z id 0 oznacza koniec partycji.<br>
+ * • Id nadaje {@link #append} z jednego licznika – w grze i w partycji rosną.<br>
+ * • Indeks przesunięć: dla każdej gry pozycje jej rekordów, rosnąco. Odczyt od id to wyszukiwanie binarne w
+ * indeksie i kolejne rekordy prosto ze zmapowanych plików. Indeks jest w pamięci – przy otwarciu odbudowujemy go
+ * jednym przejściem po rekordach.<br>
+ * • {@link #append} pisze tylko do pamięci; trwałe są rekordy sprzed ostatniego {@link #sync} (force zmienionych
+ * zakresów). Jeden fsync obejmuje wszystkie dopisania od poprzedniego.<br>
+ * • Przy otwarciu rekord z błędnym CRC, nierosnącym id albo z id 0 kończy partycję; ogon za nim zerujemy, żeby
+ * stare rekordy nie wróciły po kolejnej awarii. Luka z id 0 powstaje, gdy strona z dalszymi rekordami trafiła na
+ * dysk przed wcześniejszą – rekordy za luką nie zostały potwierdzone jako trwałe.
+ */
+public final class EventLog implements Closeable {
+
+  /** Rozmiar rekordu – układ w {@link #encode}. */
+  public static final int RECORD = 64;
+
+  /** Najdłuższy payload ({@code CommandCodec} daje 3–4 bajty). */
+  static final int PAYLOAD_MAX = 8;
+
+  private static final int CRC_AT = RECORD - 4;
+
+  private static final int SUCCESS = 1;
+  private static final int UNIT = 1 << 1;
+  private static final int POSITION = 1 << 2;
+  private static final int DESTROYED = 1 << 3;
+  private static final int PAYLOAD = 1 << 4;
+
+  private static final int NO_TYPE = 0xFF;
+  private static final CommandType[] TYPES = CommandType.values();
+
+  private final Path dir;
+  private final int fileSize;
+  private final int perFile;
+  private final Partition[] partitions;
+  private final Map<Long, Offsets> index = new ConcurrentHashMap<>();
+  private long lastId;
+
+  private EventLog(Path dir, int partitions, int fileSize) {
+    if (partitions <= 0) {
+      throw new IllegalArgumentException("partitions must be positive");
+    }
+    if (fileSize < RECORD || fileSize % RECORD != 0) {
+      throw new IllegalArgumentException("fileSize must be a positive multiple of " + RECORD);
+    }
+    this.dir = dir;
+    this.fileSize = fileSize;
+    this.perFile = fileSize / RECORD;
+    this.partitions = new Partition[partitions];
+  }
+
+  /**
+   * Otwórz dziennik w katalogu {@code dir} (tworzony w razie potrzeby) i odbuduj indeks.
+   * <p>
+   * Liczba partycji i rozmiar pliku muszą być takie jak przy zapisie.
+   */
+  public static EventLog open(Path dir, int partitions, int fileSize) throws IOException {
+    EventLog log = new EventLog(Files.createDirectories(dir), partitions, fileSize);
+    for (int p = 0; p < partitions; p++) {
+      log.partitions[p] = log.recover(p);
+    }
+    return log;
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Zapis                                                       */
+  /* ----------------------------------------------------------- */
+
+  /**
+   * Dopisz zdarzenia, nadając im kolejne id ({@link EventRecord#id()} wejścia jest pomijane).
+   *
+   * @return zdarzenia z nadanymi id, w kolejności wejścia
+   */
+  public List<EventRecord> append(List<EventRecord> events) throws IOException {
+    List<EventRecord> stored = new ArrayList<>(events.size());
+    for (EventRecord e : events) {
+      stored.add(append(e));
+    }
+    return stored;
+  }
+
+  private EventRecord append(EventRecord e) throws IOException {
+    if (e.payload() != null && e.payload().length > PAYLOAD_MAX) {
+      throw new IllegalArgumentException("Payload of a log record is limited to " + PAYLOAD_MAX + " bytes");
+    }
+    Partition p = partition(e.gameId());
+    synchronized (p) {
+      EventRecord stored = e.withId(nextId());
+      long pos = p.written;
+      p.fileForWrite(pos).put(offset(pos), encode(stored));
+      p.written = pos + 1;
+      index.computeIfAbsent(e.gameId(), id -> new Offsets()).add(pos);
+      return stored;
+    }
+  }
+
+  /**
+   * Utrwal wszystko, co dopisano do tej pory ({@link MappedByteBuffer#force(int, int)} na zmienionych zakresach).
+   */
+  public void sync() {
+    for (Partition p : partitions) {
+      long from;
+      long to;
+      synchronized (p) {
+        from = p.synced;
+        to = p.written;
+      }
+      while (from < to) {
+        long fileEnd = Math.min(to, (from / perFile + 1) * perFile);
+        p.file(from).force(offset(from), (int) (fileEnd - from) * RECORD);
+        from = fileEnd;
+      }
+      synchronized (p) {
+        p.synced = Math.max(p.synced, to);
+      }
+    }
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Odczyt                                                      */
+  /* ----------------------------------------------------------- */
+
+  /**
+   * Zdarzenia gry o id większym niż {@code afterId}, rosnąco po id (także jeszcze nieutrwalone).
+   */
+  public List<EventRecord> eventsAfter(long gameId, long afterId) {
+    Offsets offsets = index.get(gameId);
+    if (offsets == null) {
+      return List.of();
+    }
+    int size = offsets.size;
+    long[] positions = offsets.positions;
+    Partition p = partition(gameId);
+
+    int lo = 0;
+    int hi = size;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (p.file(positions[mid]).getLong(offset(positions[mid])) <= afterId) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+
+    List<EventRecord> events = new ArrayList<>(size - lo);
+    for (int i = lo; i < size; i++) {
+      long pos = positions[i];
+      events.add(decode(p.file(pos).slice(offset(pos), RECORD)));
+    }
+    return events;
+  }
+
+  /**
+   * Id ostatniego dopisanego zdarzenia (0 – pusty dziennik).
+   */
+  public synchronized long lastId() {
+    return lastId;
+  }
+
+  @Override
+  public void close() {
+    sync();
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Format rekordu                                              */
+  /* ----------------------------------------------------------- */
+
+  /**
+   * <pre>
+   *  0  8  id                    32  8  czas: sekundy epoki
+   *  8  8  id gry                40  4  czas: nanosekundy
+   * 16  8  id jednostki          44  2  x, 46  2  y
+   * 24  8  id zniszczonej        48  1  flagi (jak w BlockCodec), 49  1  typ (0xFF – brak)
+   *                              50  1  długość payloadu, 51  8  payload, 59  1  wolne
+   *                              60  4  CRC32 bajtów 0-59
+   * </pre>
+   */
+  static byte[] encode(EventRecord e) {
+    int flags = (e.success() ? SUCCESS : 0)
+        | (e.unitId() != null ? UNIT : 0)
+        | (e.x() != null ? POSITION : 0)
+        | (e.destroyedUnitId() != null ? DESTROYED : 0)
+        | (e.payload() != null ? PAYLOAD : 0);
+    ByteBuffer buf = ByteBuffer.allocate(RECORD);
+    buf.putLong(e.id())
+        .putLong(e.gameId())
+        .putLong(e.unitId() == null ? 0 : e.unitId())
+        .putLong(e.destroyedUnitId() == null ? 0 : e.destroyedUnitId())
+        .putLong(e.executedAt().getEpochSecond())
+        .putInt(e.executedAt().getNano())
+        .putShort((short) (e.x() == null ? 0 : e.x()))
+        .putShort((short) (e.y() == null ? 0 : e.y()))
+        .put((byte) flags)
+        .put((byte) (e.type() == null ? NO_TYPE : e.type().ordinal()))
+        .put((byte) (e.payload() == null ? 0 : e.payload().length));
+    if (e.payload() != null) {
+      buf.put(e.payload());
+    }
+    CRC32 crc = new CRC32();
+    crc.update(buf.array(), 0, CRC_AT);
+    buf.putInt(CRC_AT, (int) crc.getValue());
+    return buf.array();
+  }
+
+  static EventRecord decode(ByteBuffer rec) {
+    int flags = rec.get(48);
+    int type = rec.get(49) & 0xFF;
+    byte[] payload = null;
+    if ((flags & PAYLOAD) != 0) {
+      payload = new byte[rec.get(50)];
+      rec.get(51, payload);
+    }
+    return new EventRecord(
+        rec.getLong(0),
+        rec.getLong(8),
+        (flags & UNIT) != 0 ? rec.getLong(16) : null,
+        type == NO_TYPE ? null : TYPES[type],
+        payload,
+        (flags & SUCCESS) != 0,
+        (flags & POSITION) != 0 ? (int) rec.getShort(44) : null,
+        (flags & POSITION) != 0 ? (int) rec.getShort(46) : null,
+        (flags & DESTROYED) != 0 ? rec.getLong(24) : null,
+        Instant.ofEpochSecond(rec.getLong(32), rec.getInt(40)));
+  }
+
+  private static boolean valid(ByteBuffer rec) {
+    CRC32 crc = new CRC32();
+    crc.update(rec.slice(0, CRC_AT));
+    return (int) crc.getValue() == rec.getInt(CRC_AT);
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Partycje i odtwarzanie                                      */
+  /* ----------------------------------------------------------- */
+
+  private Partition recover(int no) throws IOException {
+    Partition p = new Partition(no);
+    long previousId = 0;
+    long pos = 0;
+    while (true) {
+      if (pos / perFile == p.files.size()) {
+        if (!Files.exists(path(no, p.files.size()))) {
+          break;
+        }
+        p.files.add(map(path(no, p.files.size())));
+      }
+      ByteBuffer rec = p.file(pos).slice(offset(pos), RECORD);
+      long id = rec.getLong(0);
+      if (id == 0 || id <= previousId || !valid(rec)) {
+        discardTail(p, pos);
+        break;
+      }
+      index.computeIfAbsent(rec.getLong(8), gameId -> new Offsets()).add(pos);
+      lastId = Math.max(lastId, id);
+      previousId = id;
+      pos++;
+    }
+    p.written = pos;
+    p.synced = pos;
+    return p;
+  }
+
+  /**
+   * Wyzeruj urwany rekord i wszystko za nim w jego pliku (także za luką z id 0), usuń dalsze pliki partycji.
+   * Zapisujemy tylko niepuste rekordy – puste strony pliku rzadkiego zostają niezaalokowane.
+   */
+  private void discardTail(Partition p, long pos) throws IOException {
+    MappedByteBuffer file = p.file(pos);
+    byte[] zeros = new byte[RECORD];
+    boolean dirty = false;
+    for (int off = offset(pos); off < fileSize; off += RECORD) {
+      if (file.getLong(off) != 0 || file.getInt(off + CRC_AT) != 0) {
+        file.put(off, zeros);
+        dirty = true;
+      }
+    }
+    if (dirty) {
+      file.force();
+    }
+    for (int n = (int) (pos / perFile) + 1; Files.deleteIfExists(path(p.no, n)); n++) {
+      // kolejne pliki powstały już po urwanym rekordzie
+    }
+  }
+
+  private long nextId() {
+    synchronized (this) {
+      return ++lastId;
+    }
+  }
+
+  private Partition partition(long gameId) {
+    return partitions[(int) Math.floorMod(gameId, partitions.length)];
+  }
+
+  private int offset(long pos) {
+    return (int) (pos % perFile) * RECORD;
+  }
+
+  private MappedByteBuffer map(Path path) throws IOException {
+    try (FileChannel ch = FileChannel.open(path,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      return ch.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+    }
+  }
+
+  private Path path(int partition, int file) {
+    return dir.resolve("p%d-%06d.log".formatted(partition, file + 1));
+  }
+
+  private final class Partition {
+
+    private final int no;
+    private final List<MappedByteBuffer> files = new CopyOnWriteArrayList<>();
+    /** Liczba rekordów zapisanych / utrwalonych w partycji. */
+    private long written;
+    private long synced;
+
+    private Partition(int no) {
+      this.no = no;
+    }
+
+    private MappedByteBuffer file(long pos) {
+      return files.get((int) (pos / perFile));
+    }
+
+    /**
+     * Plik na rekord {@code pos} – za końcem ostatniego pliku tworzy kolejny.
+     */
+    private MappedByteBuffer fileForWrite(long pos) throws IOException {
+      if (pos / perFile == files.size()) {
+        files.add(map(path(no, files.size())));
+      }
+      return file(pos);
+    }
+  }
+
+  /**
+   * Pozycje rekordów jednej gry. Dopisuje jeden wątek (pod blokadą partycji); czytelnik odczytuje najpierw
+   * {@code size}, potem tablicę – widzi co najmniej {@code size} wpisów.
+   */
+  private static final class Offsets {
+
+    private volatile long[] positions = new long[16];
+    private volatile int size;
+
+    private void add(long pos) {
+      if (size == positions.length) {
+        positions = Arrays.copyOf(positions, size * 2);
+      }
+      positions[size] = pos;
+      size = size + 1;
+    }
+  }
+}
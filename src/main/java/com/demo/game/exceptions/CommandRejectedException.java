@@ -0,0 +1,19 @@
+package com.demo.game.exceptions;
+
+import com.demo.game.objects.enums.RejectionReason;
+import lombok.Getter;
+
+/**
+ * Rozkaz niezgodny z regułami gry. Dziedziczy po {@link IllegalArgumentException}, więc nadal kończy się 400 –
+ * powód służy tylko metrykom.
+ */
+@Getter
+public class CommandRejectedException extends IllegalArgumentException {
+
+  private final RejectionReason reason;
+
+  public CommandRejectedException(RejectionReason reason, String message) {
+    super(message);
+    this.reason = reason;
+  }
+}
@@ -0,0 +1,20 @@
+package com.demo.game.exceptions;
+
+import java.time.Duration;
+import lombok.Getter;
+
+/**
+ * Jednostka nie odnowiła jeszcze cooldownu – mapowane na 429 z nagłówkiem {@code Retry-After}.
+ */
+@Getter
+public class CooldownException extends RuntimeException {
+
+  private final long unitId;
+  private final Duration retryAfter;
+
+  public CooldownException(long unitId, Duration retryAfter) {
+    super("Unit " + unitId + " is on cooldown, retry after " + retryAfter.toMillis() + " ms");
+    this.unitId = unitId;
+    this.retryAfter = retryAfter;
+  }
+}
@@ -0,0 +1,20 @@
+package com.demo.game.exceptions;
+
+import com.demo.game.objects.enums.GameStatus;
+import lombok.Getter;
+
+/**
+ * Gra nie przyjmuje już rozkazów (zakończona albo przerwana) – mapowane na 409.
+ */
+@Getter
+public class GameNotActiveException extends RuntimeException {
+
+  private final long gameId;
+  private final GameStatus status;
+
+  public GameNotActiveException(long gameId, GameStatus status) {
+    super("Game " + gameId + " is " + status);
+    this.gameId = gameId;
+    this.status = status;
+  }
+}
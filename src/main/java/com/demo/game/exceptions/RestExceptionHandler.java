@@ -6,7 +6,9 @@ import io.swagger.v3.oas.annotations.Hidden;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
@@ -18,7 +20,8 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
  * Globalny <b>ControllerAdvice</b> mapujący wyjątki domenowe na kody HTTP.
  * <p>
  * • {@link IllegalArgumentException}        → 400  BadRequest<br> • {@link org.springframework.data.crossstore.ChangeSetPersister.NotFoundException} → 404  NotFound<br> • Walidacja beanów (JSR‑380)
- * → 422  UnprocessableEntity
+ * → 422  UnprocessableEntity<br> • {@link CooldownException} → 429  TooManyRequests (+ Retry-After)<br>
+ * • {@link java.util.concurrent.RejectedExecutionException} (pełna skrzynka gry) → 503  ServiceUnavailable
  */
 @Slf4j
 @RestControllerAdvice
@@ -45,6 +48,16 @@ public class RestExceptionHandler {
     return problem(HttpStatus.NOT_FOUND, "Resource not found");
   }
 
+  /* -------------------------------------------------------------- */
+  /* 409 Conflict – gra zakończona                                  */
+  /* -------------------------------------------------------------- */
+
+  @ExceptionHandler(GameNotActiveException.class)
+  public ResponseEntity<ProblemJson> handleConflict(GameNotActiveException ex) {
+    log.debug("409 Conflict: {}", ex.getMessage());
+    return problem(HttpStatus.CONFLICT, ex.getMessage());
+  }
+
   /* -------------------------------------------------------------- */
   /* 422 Validation errors (Bean Validation, @Valid)                */
   /* -------------------------------------------------------------- */
@@ -63,6 +76,29 @@ public class RestExceptionHandler {
     return problem(HttpStatus.UNPROCESSABLE_ENTITY, "Validation failed", details);
   }
 
+  /* -------------------------------------------------------------- */
+  /* 429 Too Many Requests – jednostka na cooldownie                */
+  /* -------------------------------------------------------------- */
+
+  @ExceptionHandler(CooldownException.class)
+  public ResponseEntity<ProblemJson> handleCooldown(CooldownException ex) {
+    log.debug("429 Too Many Requests: {}", ex.getMessage());
+    long seconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+        .body(new ProblemJson(HttpStatus.TOO_MANY_REQUESTS.value(), ex.getMessage(), null));
+  }
+
+  /* -------------------------------------------------------------- */
+  /* 503 Service Unavailable – pełna skrzynka gry (single-writer)   */
+  /* -------------------------------------------------------------- */
+
+  @ExceptionHandler(RejectedExecutionException.class)
+  public ResponseEntity<ProblemJson> handleRejected(RejectedExecutionException ex) {
+    log.debug("503 Service Unavailable: {}", ex.getMessage());
+    return problem(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+  }
+
   /* -------------------------------------------------------------- */
   /* 500 Internal Server Error – nieoczekiwane awarie               */
   /* -------------------------------------------------------------- */
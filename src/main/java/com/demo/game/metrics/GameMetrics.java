@@ -0,0 +1,218 @@
+package com.demo.game.metrics;
+
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.GameStatus;
+import com.demo.game.objects.enums.RejectionReason;
+import com.demo.game.objects.enums.UnitType;
+import com.demo.game.repositories.GameRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Metryki wykonania rozkazów i tworzenia gier (Micrometer, eksport przez {@code /actuator/prometheus}).
+ * <p>
+ * • {@code game.commands{type,outcome}} – cały rozkaz w {@code CommandService.executeCommand}, z commitem.<br>
+ * • {@code game.commands.stage{type,stage}} – etapy rozkazu ({@link CommandStage}).<br>
+ * • {@code game.commands.rejected{reason}} – rozkazy odrzucone przez reguły i anulowane najazdy na swoich.<br>
+ * • {@code game.units.destroyed{type}} – zniszczone jednostki, według rodzaju ofiary.<br>
+ * • {@code game.create} i {@code game.create.stage{stage}} – {@code GameService.createNewGame}.<br>
+ * • {@code game.active} – liczba gier w stanie ACTIVE (zapytanie przy każdym odczycie miernika).
+ * <p>
+ * Wszystkie timery i liczniki budujemy z góry – na ścieżce rozkazu nie ma wyszukiwania w rejestrze.
+ */
+@Component
+public class GameMetrics {
+
+  /** Etapy rozkazu, w kolejności wykonania. */
+  public enum CommandStage {
+    /** wstępne sprawdzenie cooldownu w pamięci (przed transakcją) */
+    COOLDOWN,
+    /** odczyt jednostki – w trybie locking razem z czekaniem na blokadę wiersza */
+    LOCK,
+    /** siatka zajętości gry (przy pierwszym dostępie wczytywana z bazy) */
+    OCCUPANCY,
+    /** reguły ruchu/strzału i zmiany encji, łącznie z odczytem trafionej jednostki */
+    RULES,
+    /** zapis rozkazu do payloadu zdarzenia */
+    ENCODE,
+    /** przekazanie zdarzenia do dziennika (w trybie commit: persist) */
+    JOURNAL,
+    /** flush (UPDATE jednostek, INSERT zdarzeń) i commit */
+    COMMIT
+  }
+
+  /** Etapy tworzenia gry, w kolejności wykonania. */
+  public enum CreateStage {
+    /** zapis nowej gry */
+    GAME,
+    /** losowanie pól i budowa encji jednostek */
+    PLACEMENT,
+    /** zapis jednostek (batch INSERT przy flushu – patrz COMMIT) */
+    UNITS,
+    /** siatka zajętości i migawka początkowa */
+    SNAPSHOT,
+    /** flush i commit */
+    COMMIT
+  }
+
+  /** Wynik rozkazu. */
+  public enum Outcome { ACCEPTED, REJECTED, COOLDOWN, NOT_FOUND, FAILED }
+
+  private final Map<CommandType, Timer[]> commandTimers = new EnumMap<>(CommandType.class);
+  private final Map<CommandType, Timer[]> stageTimers = new EnumMap<>(CommandType.class);
+  private final Map<RejectionReason, Counter> rejected = new EnumMap<>(RejectionReason.class);
+  private final Map<UnitType, Counter> destroyed = new EnumMap<>(UnitType.class);
+  private final Timer createTimer;
+  private final Timer[] createStageTimers;
+
+  public GameMetrics(MeterRegistry registry, GameRepository gameRepo) {
+    for (CommandType type : CommandType.values()) {
+      Timer[] byOutcome = new Timer[Outcome.values().length];
+      for (Outcome o : Outcome.values()) {
+        byOutcome[o.ordinal()] = Timer.builder("game.commands")
+            .description("Command execution time, including commit")
+            .tag("type", type.name())
+            .tag("outcome", tag(o))
+            .register(registry);
+      }
+      commandTimers.put(type, byOutcome);
+
+      Timer[] byStage = new Timer[CommandStage.values().length];
+      for (CommandStage s : CommandStage.values()) {
+        byStage[s.ordinal()] = Timer.builder("game.commands.stage")
+            .description("Time spent in one stage of command execution")
+            .tag("type", type.name())
+            .tag("stage", tag(s))
+            .register(registry);
+      }
+      stageTimers.put(type, byStage);
+    }
+
+    for (RejectionReason r : RejectionReason.values()) {
+      rejected.put(r, Counter.builder("game.commands.rejected")
+          .description("Commands rejected by game rules")
+          .tag("reason", tag(r))
+          .register(registry));
+    }
+    for (UnitType t : UnitType.values()) {
+      destroyed.put(t, Counter.builder("game.units.destroyed")
+          .description("Units destroyed by shots and captures")
+          .tag("type", t.name())
+          .register(registry));
+    }
+
+    createTimer = Timer.builder("game.create")
+        .description("New game creation, including commit")
+        .register(registry);
+    createStageTimers = new Timer[CreateStage.values().length];
+    for (CreateStage s : CreateStage.values()) {
+      createStageTimers[s.ordinal()] = Timer.builder("game.create.stage")
+          .description("Time spent in one stage of game creation")
+          .tag("stage", tag(s))
+          .register(registry);
+    }
+
+    Gauge.builder("game.active", gameRepo, repo -> repo.countByStatus(GameStatus.ACTIVE))
+        .description("Games in ACTIVE status")
+        .register(registry);
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Rozkazy                                                     */
+  /* ----------------------------------------------------------- */
+
+  public void command(CommandType type, Outcome outcome, long startNanos) {
+    commandTimers.get(type)[outcome.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Zapisz etap trwający od {@code startNanos} do teraz.
+   *
+   * @return teraz – początek kolejnego etapu
+   */
+  public long stage(CommandType type, CommandStage stage, long startNanos) {
+    long now = System.nanoTime();
+    stageTimers.get(type)[stage.ordinal()].record(now - startNanos, TimeUnit.NANOSECONDS);
+    return now;
+  }
+
+  /**
+   * Zapisz etap zmierzony wcześniej – dla ścieżek, na których typ rozkazu znamy dopiero po etapie (losowy rozkaz).
+   */
+  public void stage(CommandType type, CommandStage stage, long startNanos, long endNanos) {
+    stageTimers.get(type)[stage.ordinal()].record(endNanos - startNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Etap {@link CommandStage#COMMIT} – od {@code beforeCommit} do zakończenia bieżącej transakcji.
+   */
+  public void timeCommit(CommandType type) {
+    timeCommit(stageTimers.get(type)[CommandStage.COMMIT.ordinal()], null, 0);
+  }
+
+  public void rejected(RejectionReason reason) {
+    rejected.get(reason).increment();
+  }
+
+  public void destroyed(UnitType type) {
+    destroyed.get(type).increment();
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Tworzenie gry                                               */
+  /* ----------------------------------------------------------- */
+
+  public long stage(CreateStage stage, long startNanos) {
+    long now = System.nanoTime();
+    createStageTimers[stage.ordinal()].record(now - startNanos, TimeUnit.NANOSECONDS);
+    return now;
+  }
+
+  /**
+   * Etap {@link CreateStage#COMMIT} oraz całe tworzenie gry (od {@code startNanos}) – zapisywane po zakończeniu
+   * bieżącej transakcji.
+   */
+  public void timeCreateCommit(long startNanos) {
+    timeCommit(createStageTimers[CreateStage.COMMIT.ordinal()], createTimer, startNanos);
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private static void timeCommit(Timer commit, Timer total, long totalStartNanos) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      private long commitStart;
+
+      @Override
+      public void beforeCommit(boolean readOnly) {
+        commitStart = System.nanoTime();
+      }
+
+      @Override
+      public void afterCompletion(int status) {
+        long now = System.nanoTime();
+        if (commitStart != 0) {
+          commit.record(now - commitStart, TimeUnit.NANOSECONDS);
+        }
+        if (total != null) {
+          total.record(now - totalStartNanos, TimeUnit.NANOSECONDS);
+        }
+      }
+    });
+  }
+
+  private static String tag(Enum<?> value) {
+    return value.name().toLowerCase(Locale.ROOT);
+  }
+}
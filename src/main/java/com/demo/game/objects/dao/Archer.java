@@ -1,5 +1,6 @@
 package com.demo.game.objects.dao;
 
+import com.demo.game.objects.enums.UnitType;
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 
@@ -7,6 +8,10 @@ import jakarta.persistence.Entity;
 @DiscriminatorValue("ARCHER")
 public class Archer extends Unit {
 
+  @Override
+  public UnitType getType() {
+    return UnitType.ARCHER;
+  }
 }
 
 
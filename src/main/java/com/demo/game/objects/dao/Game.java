@@ -34,6 +34,9 @@ public class Game {
   private int boardHeight = 8;
   private Instant startedAt = Instant.now();
 
+  /** Ziarno rozstawienia i losowych rozkazów – {@code null}: losowanie bez powtarzalności. */
+  private Long randomSeed;
+
   @Enumerated(EnumType.STRING)
   private GameStatus status = GameStatus.ACTIVE;
 
@@ -9,9 +9,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.Lob;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import java.time.Instant;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -21,10 +23,15 @@ import lombok.Setter;
 @Entity
 @Getter
 @Setter
+@Table(indexes = @Index(name = "ix_game_event_game_id", columnList = "game_id, id"))
 public class GameEvent {
 
+  /**
+   * Sekwencja z pulą – w przeciwieństwie do IDENTITY pozwala Hibernate łączyć INSERT-y w batch JDBC.
+   */
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_event_seq")
+  @SequenceGenerator(name = "game_event_seq", sequenceName = "game_event_seq", allocationSize = 50)
   private Long id;
 
   @ManyToOne(fetch = FetchType.LAZY)
@@ -37,19 +44,34 @@ public class GameEvent {
   @Enumerated(EnumType.STRING)
   private CommandType type;
 
-  @Lob
-  private String payload;
+  /**
+   * Komenda zakodowana przez {@link com.demo.game.commands.CommandCodec} – kilka bajtów zamiast JSON-a w LOB-ie.
+   */
+  @Column(length = 255)
+  private byte[] payload;
 
   /**
    * Czy operacja zakończyła się sukcesem (np. nie najechaliśmy na własną jednostkę)
    */
   private boolean success;
 
+  /**
+   * Pozycja jednostki po wykonaniu rozkazu – odtworzenie stanu nie musi ponownie stosować reguł ruchu.
+   */
+  private Integer x;
+
+  private Integer y;
+
+  /**
+   * Id jednostki zniszczonej tym rozkazem (trafienie albo najazd transportu), {@code null} gdy nikt nie zginął.
+   */
+  private Long destroyedUnitId;
+
   @Column(nullable = false)
   private Instant executedAt = Instant.now();
 
 
-  public GameEvent(Game game, Unit unit, CommandType type, String payload, boolean success, Instant executedAt) {
+  public GameEvent(Game game, Unit unit, CommandType type, byte[] payload, boolean success, Instant executedAt) {
     this.game = game;
     this.unit = unit;
     this.type = type;
@@ -0,0 +1,62 @@
+package com.demo.game.objects.dao;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Lob;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Migawka stanu wszystkich jednostek gry po zdarzeniu {@link #lastEventId}.
+ * <p>
+ * Stan gry = najnowsza migawka + zdarzenia o id większym niż {@code lastEventId}. Pierwsza migawka (z
+ * {@code lastEventId = 0}) powstaje przy rozstawieniu planszy.
+ */
+@NoArgsConstructor
+@Entity
+@Getter
+@Setter
+@Table(indexes = @Index(name = "ix_game_snapshot_game_id", columnList = "game_id, lastEventId"))
+public class GameSnapshot {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(nullable = false)
+  private Game game;
+
+  /**
+   * Ostatnie zdarzenie uwzględnione w migawce.
+   */
+  @Column(nullable = false)
+  private long lastEventId;
+
+  /**
+   * Stan jednostek zakodowany przez {@link com.demo.game.snapshots.SnapshotCodec}.
+   */
+  @Lob
+  @Column(nullable = false)
+  private byte[] state;
+
+  @Column(nullable = false)
+  private Instant takenAt;
+
+  public GameSnapshot(Game game, long lastEventId, byte[] state, Instant takenAt) {
+    this.game = game;
+    this.lastEventId = lastEventId;
+    this.state = state;
+    this.takenAt = takenAt;
+  }
+}
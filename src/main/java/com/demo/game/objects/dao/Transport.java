@@ -1,5 +1,6 @@
 package com.demo.game.objects.dao;
 
+import com.demo.game.objects.enums.UnitType;
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
 
@@ -7,6 +8,10 @@ import jakarta.persistence.Entity;
 @DiscriminatorValue("TRANSPORT")
 public class Transport extends Unit {
 
+  @Override
+  public UnitType getType() {
+    return UnitType.TRANSPORT;
+  }
 }
 
 
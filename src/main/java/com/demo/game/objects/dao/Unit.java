@@ -4,6 +4,7 @@ package com.demo.game.objects.dao;
 import com.demo.game.objects.enums.CommandType;
 import com.demo.game.objects.enums.Faction;
 import com.demo.game.objects.enums.UnitStatus;
+import com.demo.game.objects.enums.UnitType;
 import jakarta.persistence.Column;
 import jakarta.persistence.DiscriminatorColumn;
 import jakarta.persistence.Entity;
@@ -16,6 +17,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Version;
 import java.time.Clock;
 import java.time.Duration;
@@ -32,8 +34,12 @@ import lombok.Setter;
 @DiscriminatorColumn(name = "unit_type")
 public abstract class Unit {
 
+  /**
+   * Sekwencja z pulą – rozstawienie planszy zapisuje jednostki jednym batchem JDBC (IDENTITY wymusza INSERT per wiersz).
+   */
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "unit_seq")
+  @SequenceGenerator(name = "unit_seq", sequenceName = "unit_seq", allocationSize = 50)
   private Long id;
 
   /**
@@ -82,6 +88,12 @@ public abstract class Unit {
   private long version;
 
   /* --- metody pomocnicze --- */
+
+  /**
+   * Rodzaj jednostki bez sięgania po klasę encji (proxy Hibernate ma inną klasę niż encja).
+   */
+  public abstract UnitType getType();
+
   public boolean canExecute(CommandType type, Clock clock) {
     Duration minGap = type.getCooldown();
     return Duration.between(lastCommandAt, clock.instant()).compareTo(minGap) >= 0;
@@ -0,0 +1,13 @@
+package com.demo.game.objects.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+@Schema(description = "Paczka rozkazów dla jednostek jednej gry – wykonywana w jednej transakcji")
+public record BatchCommandRequest(@NotEmpty @Size(max = 1000) List<@NotNull @Valid UnitCommandRequest> commands) {
+
+}
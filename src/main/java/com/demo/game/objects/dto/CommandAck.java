@@ -0,0 +1,21 @@
+package com.demo.game.objects.dto;
+
+/**
+ * Potwierdzenie rozkazu wysłanego kanałem WebSocket.
+ *
+ * @param id               identyfikator rozkazu nadany przez klienta
+ * @param unitId           id jednostki
+ * @param status           kod jak przy REST (202 / 400 / 404 / 409 / 429 / 500), 503 – za dużo rozkazów w toku
+ * @param message          powód odrzucenia albo {@code null}
+ * @param retryAfterMillis przy 429 – za ile jednostka będzie gotowa; inaczej {@code null}
+ */
+public record CommandAck(long id, long unitId, int status, String message, Long retryAfterMillis) {
+
+  public static CommandAck of(long id, CommandResult result) {
+    return new CommandAck(id, result.unitId(), result.status(), result.message(), result.retryAfterMillis());
+  }
+
+  public static CommandAck error(long id, long unitId, int status, String message) {
+    return new CommandAck(id, unitId, status, message, null);
+  }
+}
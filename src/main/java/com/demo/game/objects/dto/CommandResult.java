@@ -0,0 +1,30 @@
+package com.demo.game.objects.dto;
+
+import java.time.Duration;
+
+/**
+ * Wynik pojedynczego rozkazu z paczki.
+ *
+ * @param unitId  id jednostki
+ * @param status           kod zgodny z endpointem pojedynczego rozkazu (202 / 400 / 404 / 429)
+ * @param message          powód odrzucenia albo {@code null}
+ * @param retryAfterMillis przy 429 – za ile jednostka będzie gotowa; inaczej {@code null}
+ */
+public record CommandResult(long unitId, int status, String message, Long retryAfterMillis) {
+
+  public static CommandResult accepted(long unitId) {
+    return new CommandResult(unitId, 202, null, null);
+  }
+
+  public static CommandResult rejected(long unitId, String message) {
+    return new CommandResult(unitId, 400, message, null);
+  }
+
+  public static CommandResult notFound(long unitId) {
+    return new CommandResult(unitId, 404, "Unit not found in this game", null);
+  }
+
+  public static CommandResult cooldown(long unitId, Duration retryAfter) {
+    return new CommandResult(unitId, 429, "Unit is on cooldown", retryAfter.toMillis());
+  }
+}
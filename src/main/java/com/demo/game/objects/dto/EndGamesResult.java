@@ -0,0 +1,8 @@
+package com.demo.game.objects.dto;
+
+/**
+ * Wynik zbiorczego kończenia gier.
+ *
+ * @param ended liczba gier, które przeszły ze stanu ACTIVE do stanu końcowego
+ */
+public record EndGamesResult(int ended) { }
@@ -0,0 +1,36 @@
+package com.demo.game.objects.dto;
+
+import com.demo.game.archive.EventRecord;
+import com.demo.game.commands.Command;
+import com.demo.game.objects.dao.GameEvent;
+import com.demo.game.objects.enums.CommandType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.Instant;
+
+public record EventDto(long id,
+                       long gameId,
+                       Long unitId,
+                       CommandType type,
+                       Command command,
+                       boolean success,
+                       Long destroyedUnitId,
+                       @JsonFormat(shape = JsonFormat.Shape.STRING) Instant executedAt) {
+
+  public static EventDto from(GameEvent e, Command command) {
+    return new EventDto(
+        e.getId(),
+        e.getGame().getId(),
+        e.getUnit() == null ? null : e.getUnit().getId(),
+        e.getType(),
+        command,
+        e.isSuccess(),
+        e.getDestroyedUnitId(),
+        e.getExecutedAt()
+    );
+  }
+
+  public static EventDto from(EventRecord e, Command command) {
+    return new EventDto(e.id(), e.gameId(), e.unitId(), e.type(), command, e.success(), e.destroyedUnitId(),
+        e.executedAt());
+  }
+}
@@ -4,7 +4,17 @@ import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
+/**
+ * @param seed opcjonalne ziarno – to samo ziarno daje to samo rozstawienie i te same losowe rozkazy jednostek;
+ *             tury AI takiej gry planujemy bez budżetu czasu {@code game.ai.turn-budget}, żeby też były powtarzalne
+ */
 public record NewGameRequest(@Min(4) @Max(20) int boardWidth,
                              @Min(4) @Max(20) int boardHeight,
                              @NotNull PlayerConfig whiteConfig,
-                             @NotNull PlayerConfig blackConfig) { }
+                             @NotNull PlayerConfig blackConfig,
+                             Long seed) {
+
+  public NewGameRequest(int boardWidth, int boardHeight, PlayerConfig whiteConfig, PlayerConfig blackConfig) {
+    this(boardWidth, boardHeight, whiteConfig, blackConfig, null);
+  }
+}
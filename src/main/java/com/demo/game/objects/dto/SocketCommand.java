@@ -0,0 +1,13 @@
+package com.demo.game.objects.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Rozkaz wysłany kanałem WebSocket ({@code /ws/commands}) jako ramka tekstowa.
+ *
+ * @param id      identyfikator nadany przez klienta – wraca w potwierdzeniu ({@link CommandAck})
+ * @param unitId  id jednostki
+ * @param command rozkaz, jak w {@code POST /api/units/{unitId}/command}
+ */
+public record SocketCommand(long id, long unitId, @NotNull @Valid CommandRequest command) { }
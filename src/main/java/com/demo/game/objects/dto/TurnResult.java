@@ -0,0 +1,19 @@
+package com.demo.game.objects.dto;
+
+import com.demo.game.commands.Command;
+
+/**
+ * Wynik jednej jednostki w turze AI frakcji – pola jak w {@link CommandResult}, plus wykonany rozkaz.
+ *
+ * @param command wylosowany i wykonany rozkaz; {@code null}, gdy jednostka nic nie wykonała
+ */
+public record TurnResult(long unitId, int status, String message, Long retryAfterMillis, Command command) {
+
+  public static TurnResult accepted(long unitId, Command command) {
+    return new TurnResult(unitId, 202, null, null, command);
+  }
+
+  public static TurnResult of(CommandResult result) {
+    return new TurnResult(result.unitId(), result.status(), result.message(), result.retryAfterMillis(), null);
+  }
+}
@@ -0,0 +1,13 @@
+package com.demo.game.objects.dto;
+
+import java.util.List;
+
+/**
+ * Odpowiedź synchronizacji przyrostowej.
+ *
+ * @param version wersja stanu gry, którą klient podaje w kolejnym zapytaniu ({@code since})
+ * @param full    {@code true} – {@code units} to pełna lista jednostek gry (wersja klienta była za stara albo
+ *                nieznana); {@code false} – tylko jednostki zmienione po wersji klienta
+ * @param units   jednostki w aktualnym stanie
+ */
+public record UnitChanges(long version, boolean full, List<UnitDto> units) { }
@@ -0,0 +1,13 @@
+package com.demo.game.objects.dto;
+
+import com.demo.game.commands.UnitCommand;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+public record UnitCommandRequest(@NotNull Long unitId,
+                                 @NotNull @Valid CommandRequest command) {
+
+  public UnitCommand toDomain() {
+    return new UnitCommand(unitId, command.toDomain());
+  }
+}
@@ -2,14 +2,22 @@ package com.demo.game.objects.dto;
 
 import com.demo.game.objects.dao.Unit;
 import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitStatus;
 
 public record UnitDto(long id, Faction faction, String type, int x, int y, String status, int commands) {
 
+  /**
+   * Konstruktor projekcji JPQL ({@code UnitRepository#streamDtos}) – rodzaj z dyskryminatora, status jako enum.
+   */
+  public UnitDto(long id, Faction faction, String type, int x, int y, UnitStatus status, int commands) {
+    this(id, faction, type, x, y, status.name(), commands);
+  }
+
   public static UnitDto from(Unit u) {
     return new UnitDto(
         u.getId(),
         u.getFaction(),
-        u.getClass().getSimpleName().toUpperCase(),
+        u.getType().name(),
         u.getX(),
         u.getY(),
         u.getStatus().name(),
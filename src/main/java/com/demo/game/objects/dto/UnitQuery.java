@@ -0,0 +1,40 @@
+package com.demo.game.objects.dto;
+
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitStatus;
+import com.demo.game.objects.enums.UnitType;
+
+/**
+ * Filtr listy jednostek gry.
+ *
+ * @param faction tylko jednostki tej frakcji; {@code null} – obie
+ * @param status  tylko jednostki w tym stanie; {@code null} – wszystkie
+ * @param type    tylko jednostki tego rodzaju; {@code null} – wszystkie
+ * @param afterId tylko jednostki o id większym niż to (id ostatniej jednostki poprzedniej strony); 0 – od początku
+ * @param limit   najwyżej tyle jednostek; {@code null} – bez limitu
+ */
+public record UnitQuery(Faction faction, UnitStatus status, UnitType type, long afterId, Integer limit) {
+
+  public UnitQuery {
+    if (afterId < 0) {
+      throw new IllegalArgumentException("after must not be negative");
+    }
+    if (limit != null && limit < 1) {
+      throw new IllegalArgumentException("limit must be positive");
+    }
+  }
+
+  /** Cała lista frakcji. */
+  public static UnitQuery all(Faction faction) {
+    return new UnitQuery(faction, null, null, 0, null);
+  }
+
+  /** Wszystkie jednostki gry. */
+  public static UnitQuery all() {
+    return all(null);
+  }
+
+  public boolean isAll() {
+    return status == null && type == null && afterId == 0 && limit == null;
+  }
+}
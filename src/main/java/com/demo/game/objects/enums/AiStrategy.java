@@ -0,0 +1,13 @@
+package com.demo.game.objects.enums;
+
+/**
+ * Sposób wyboru rozkazu AI ({@code /units/{id}/random}, {@code /games/{id}/factions/{f}/random-turn}).
+ */
+public enum AiStrategy {
+
+  /** Losowo spośród legalnych rozkazów ({@code RandomCommands.legal}). */
+  RANDOM,
+
+  /** Najwyżej oceniony legalny rozkaz ({@code CommandScoring.best}); remisy rozstrzyga losowanie. */
+  PLANNER
+}
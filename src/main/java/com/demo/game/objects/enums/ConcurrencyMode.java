@@ -0,0 +1,13 @@
+package com.demo.game.objects.enums;
+
+/**
+ * Sposób serializacji równoległych rozkazów w obrębie gry ({@code game.commands.mode}).
+ */
+public enum ConcurrencyMode {
+
+  /** Blokada PESSIMISTIC_WRITE na wierszu jednostki – serializacja po stronie bazy. */
+  LOCKING,
+
+  /** Każda gra ma własną skrzynkę opróżnianą przez jeden wirtualny wątek – bez blokad w bazie. */
+  SINGLE_WRITER
+}
@@ -0,0 +1,16 @@
+package com.demo.game.objects.enums;
+
+/**
+ * Kiedy zdarzenia gry stają się trwałe ({@code game.events.durability}).
+ */
+public enum EventDurability {
+
+  /** Razem z rozkazem – w jego transakcji ({@code jpa}) albo fsync dziennika przed powrotem ({@code log}). */
+  COMMIT,
+
+  /**
+   * Po commicie do bufora w pamięci; zapis paczkami co {@code game.events.flush-interval} ({@code jpa}) albo fsync
+   * co {@code game.events.log.sync-interval} ({@code log}).
+   */
+  INTERVAL
+}
@@ -0,0 +1,12 @@
+package com.demo.game.objects.enums;
+
+/**
+ * Powód odrzucenia rozkazu przez reguły gry – etykieta licznika {@code game.commands.rejected}.
+ * <p>
+ * {@link #OWN_UNIT_BUMP} nie jest błędem (ruch jest anulowany, cooldown liczy się normalnie), ale liczymy go razem
+ * z odrzuceniami. {@link #NO_LEGAL_COMMAND} – losowy rozkaz dla jednostki, która w swoim położeniu nie ma żadnego
+ * legalnego ruchu ani strzału. {@link #UNIT_DESTROYED} – rozkaz dla zniszczonej jednostki.
+ */
+public enum RejectionReason {
+  OUT_OF_BOARD, PATH_BLOCKED, OWN_UNIT_BUMP, WRONG_TYPE, INVALID_DISTANCE, NO_LEGAL_COMMAND, UNIT_DESTROYED, OTHER
+}
@@ -0,0 +1,6 @@
+package com.demo.game.objects.enums;
+
+/**
+ * Rodzaj jednostki – odpowiada wartości dyskryminatora {@code unit_type} w tabeli jednostek.
+ */
+public enum UnitType { ARCHER, TRANSPORT, CANNON }
@@ -3,9 +3,13 @@ package com.demo.game.repositories;
 import com.demo.game.objects.dao.Game;
 import com.demo.game.objects.dao.GameEvent;
 import com.demo.game.objects.dao.Unit;
+import com.demo.game.objects.enums.GameStatus;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -38,6 +42,54 @@ public interface GameEventRepository extends JpaRepository<GameEvent, Long> {
       @Param("since") Instant since);
 
 
+  /**
+   * Zdarzenia gry o id większym niż podane – uzupełnienie luki po wznowieniu strumienia SSE (Last-Event-ID).
+   */
+  @Query("""
+      select e
+        from GameEvent e
+       where e.game.id = :gameId
+         and e.id > :afterId
+       order by e.id
+      """)
+  List<GameEvent> findEventsAfter(@Param("gameId") Long gameId,
+      @Param("afterId") Long afterId);
+
+  /**
+   * Jak {@link #findEventsAfter(Long, Long)}, najwyżej jedna strona – przenoszenie zdarzeń do archiwum paczkami.
+   */
+  @Query("""
+      select e
+        from GameEvent e
+       where e.game.id = :gameId
+         and e.id > :afterId
+       order by e.id
+      """)
+  List<GameEvent> findEventsAfter(@Param("gameId") Long gameId,
+      @Param("afterId") Long afterId,
+      Pageable page);
+
+  /**
+   * Gry w podanych stanach, które mają w bazie zdarzenie starsze niż {@code before} – kandydaci do archiwum.
+   */
+  @Query("""
+      select distinct e.game.id
+        from GameEvent e
+       where e.game.status in :statuses
+         and e.executedAt < :before
+      """)
+  List<Long> findGameIdsWithEventsBefore(@Param("statuses") Collection<GameStatus> statuses,
+      @Param("before") Instant before,
+      Pageable page);
+
+  /**
+   * Usuń podane zdarzenia gry – po zapisaniu ich w archiwum. Najwyżej 1000 id naraz (limit listy IN w Oracle).
+   */
+  @Modifying
+  @Query("delete from GameEvent e where e.game.id = :gameId and e.id in :ids")
+  int deleteEvents(@Param("gameId") Long gameId,
+      @Param("ids") Collection<Long> ids);
+
   /**
    * Ostatni czas wykonania rozkazu na jednostce – pomoc przy cooldownie.
    */
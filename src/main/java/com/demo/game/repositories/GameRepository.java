@@ -4,6 +4,8 @@ import com.demo.game.objects.dao.Game;
 import com.demo.game.objects.enums.GameStatus;
 import jakarta.persistence.LockModeType;
 import jakarta.transaction.Transactional;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
@@ -20,6 +22,17 @@ public interface GameRepository extends JpaRepository<Game, Long> {
    */
   Optional<Game> findFirstByStatusOrderByStartedAtDesc(GameStatus status);
 
+  /**
+   * Liczba gier w danym stanie (miernik {@code game.active}).
+   */
+  long countByStatus(GameStatus status);
+
+  /**
+   * Id gier w danym stanie – bez ładowania encji (np. siatki do usunięcia przy zbiorczym kończeniu gier).
+   */
+  @Query("select g.id from Game g where g.status = :status")
+  List<Long> findIdsByStatus(@Param("status") GameStatus status);
+
   /**
    * Pobierz wraz z blokadą do zapisu – przy krytycznych zmianach (np. reset gry).
    */
@@ -28,7 +41,9 @@ public interface GameRepository extends JpaRepository<Game, Long> {
   Optional<Game> findWithLockById(@Param("id") Long id);
 
   /**
-   * Ustaw jeden status dla wszystkich gier spełniających warunek (np. zamknij stare).
+   * Ustaw jeden status wskazanym grom, o ile wciąż są w stanie {@code onlyStatus} (np. zamknij stare). Id podaje
+   * wołający – te same, dla których sprząta potem pamięć podręczną, więc gra założona w międzyczasie nie zostanie
+   * zakończona bez usunięcia jej siatki.
    */
   @Modifying
   @Transactional
@@ -36,10 +51,10 @@ public interface GameRepository extends JpaRepository<Game, Long> {
       update Game g
          set g.status = :newStatus
        where g.status = :onlyStatus
-         and g.id <> :skipGameId
+         and g.id in :ids
       """)
   int bulkUpdateStatus(@Param("newStatus") GameStatus newStatus,
       @Param("onlyStatus") GameStatus onlyStatus,
-      @Param("skipGameId") Long skipGameId);
+      @Param("ids") Collection<Long> ids);
 }
 
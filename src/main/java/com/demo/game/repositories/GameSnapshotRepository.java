@@ -0,0 +1,15 @@
+package com.demo.game.repositories;
+
+import com.demo.game.objects.dao.GameSnapshot;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GameSnapshotRepository extends JpaRepository<GameSnapshot, Long> {
+
+  /**
+   * Najnowsza migawka gry – punkt startowy odtwarzania stanu.
+   */
+  Optional<GameSnapshot> findFirstByGameIdOrderByLastEventIdDesc(Long gameId);
+}
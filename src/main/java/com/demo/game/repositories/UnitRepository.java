@@ -2,15 +2,22 @@ package com.demo.game.repositories;
 
 import com.demo.game.objects.dao.Game;
 import com.demo.game.objects.dao.Unit;
+import com.demo.game.objects.dto.UnitDto;
 import com.demo.game.objects.enums.Faction;
 import com.demo.game.objects.enums.UnitStatus;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -49,6 +56,34 @@ public interface UnitRepository extends JpaRepository<Unit, Long> {
   @Query("select u from Unit u where u.id = :id")
   Optional<Unit> findWithLockById(@Param("id") Long id);
 
+  /**
+   * Id gry, do której należy jednostka – bez ładowania encji (routing do skrzynki gry w trybie single-writer).
+   */
+  @Query("select u.game.id from Unit u where u.id = :id")
+  Optional<Long> findGameIdById(@Param("id") Long id);
+
+  /**
+   * Blokada PESSIMISTIC_WRITE dla całej paczki jednostek jednym zapytaniem – przed wykonaniem paczki rozkazów.
+   * Sortowanie po id daje stałą kolejność blokad (brak zakleszczeń między równoległymi paczkami).
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select u from Unit u where u.id in :ids order by u.id")
+  List<Unit> findAllWithLockByIdIn(@Param("ids") Collection<Long> ids);
+
+  /**
+   * Jednostki frakcji w danym stanie, po id – tura AI frakcji w trybie single-writer.
+   */
+  List<Unit> findByGameIdAndFactionAndStatusOrderById(long gameId, Faction faction, UnitStatus status);
+
+  /**
+   * Jak wyżej, z blokadą PESSIMISTIC_WRITE – tura AI frakcji w trybie locking (kolejność blokad po id).
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select u from Unit u where u.game.id = :gameId and u.faction = :faction and u.status = :status"
+      + " order by u.id")
+  List<Unit> findAllWithLockByGameIdAndFactionAndStatus(@Param("gameId") long gameId,
+      @Param("faction") Faction faction,
+      @Param("status") UnitStatus status);
 
   /**
    * Wszystkie jednostki (żywe + zniszczone) z eager-fetchem gry – do podsumowań.
@@ -72,8 +107,28 @@ public interface UnitRepository extends JpaRepository<Unit, Long> {
       @Param("status") UnitStatus status);
 
   /**
-   * Wszystkie (żywe i zniszczone) jednostki danej frakcji w konkretnej grze. Używane przez GameService.doListUnits → /games/{id}/units.
+   * Jednostki wskazanych frakcji jako {@link UnitDto} prosto z zapytania (bez encji w kontekście utrwalania),
+   * po id rosnąco, od id większego niż {@code afterId} (stronicowanie po kluczu). Strumień czytany w trakcie
+   * transakcji, porcjami po {@code fetchSize} wierszy.
    */
-  List<Unit> findByGameAndFaction(Game game, Faction faction);
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("""
+      select new com.demo.game.objects.dto.UnitDto(
+             u.id, u.faction,
+             case type(u) when Archer then 'ARCHER' when Cannon then 'CANNON' else 'TRANSPORT' end,
+             u.x, u.y, u.status, u.commandCount)
+        from Unit u
+       where u.game.id = :gameId
+         and u.faction in :factions
+         and u.status in :statuses
+         and type(u) in :types
+         and u.id > :afterId
+       order by u.id
+      """)
+  Stream<UnitDto> streamDtos(@Param("gameId") long gameId,
+      @Param("factions") Collection<Faction> factions,
+      @Param("statuses") Collection<UnitStatus> statuses,
+      @Param("types") Collection<Class<? extends Unit>> types,
+      @Param("afterId") long afterId,
+      Limit limit);
 }
-
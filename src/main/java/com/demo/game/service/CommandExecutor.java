@@ -0,0 +1,428 @@
+package com.demo.game.service;
+
+import com.demo.game.board.BoardRegistry;
+import com.demo.game.board.GameRules;
+import com.demo.game.board.MoveOutcome;
+import com.demo.game.board.OccupancyGrid;
+import com.demo.game.board.TacticalBoard;
+import com.demo.game.commands.Command;
+import com.demo.game.commands.CommandCodec;
+import com.demo.game.commands.MoveCommand;
+import com.demo.game.commands.RandomCommands;
+import com.demo.game.commands.ShootCommand;
+import com.demo.game.commands.UnitCommand;
+import com.demo.game.exceptions.CommandRejectedException;
+import com.demo.game.exceptions.CooldownException;
+import com.demo.game.metrics.GameMetrics;
+import com.demo.game.metrics.GameMetrics.CommandStage;
+import com.demo.game.objects.dao.GameEvent;
+import com.demo.game.objects.dao.Unit;
+import com.demo.game.objects.dto.CommandResult;
+import com.demo.game.objects.dto.TurnResult;
+import com.demo.game.objects.enums.AiStrategy;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.RejectionReason;
+import com.demo.game.objects.enums.UnitStatus;
+import com.demo.game.repositories.GameRepository;
+import com.demo.game.repositories.UnitRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import jakarta.transaction.Transactional;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transakcyjne wykonanie rozkazów – reguły ruchu/strzału, aktualizacja jednostek i zapis historii.
+ * <p>
+ * Wywoływany wyłącznie przez {@link CommandService}, który decyduje o trybie współbieżności:
+ * • {@code lock = true}  – klasyczny tryb z blokadą PESSIMISTIC_WRITE na wierszu jednostki,<br>
+ * • {@code lock = false} – tryb single-writer: wszystkie komendy gry idą przez jej skrzynkę ({@link GameMailboxes}),
+ * więc blokady w bazie są zbędne.
+ * <p>
+ * Czas etapów rozkazu, odrzucenia i zniszczone jednostki liczy {@link GameMetrics}.
+ */
+@Service
+@RequiredArgsConstructor
+public class CommandExecutor {
+
+  private final UnitRepository unitRepo;
+  private final GameRepository gameRepo;
+  private final EventStore journal;
+  private final BoardRegistry boards;
+  private final CooldownService cooldowns;
+  private final CommandCodec codec;
+  private final Clock clock;
+  private final EntityManager entityManager;
+  private final GameMetrics metrics;
+  private final RandomCommandGenerator randomCommands;
+  private final TurnPlanner turnPlanner;
+  private final UnitListCache unitLists;
+  private final GameChangeLog changes;
+
+  @Transactional
+  public void execute(long unitId, Command cmd, boolean lock) throws NotFoundException {
+
+    long start = System.nanoTime();
+    Unit unit = (lock ? unitRepo.findWithLockById(unitId) : unitRepo.findById(unitId))
+        .orElseThrow(NotFoundException::new);
+    metrics.stage(cmd.type(), CommandStage.LOCK, start);
+
+    GameEvent event = apply(unit, cmd);
+
+    start = System.nanoTime();
+    journal.write(List.of(event));
+    metrics.stage(cmd.type(), CommandStage.JOURNAL, start);
+    metrics.timeCommit(cmd.type());
+  }
+
+  /**
+   * Losowy rozkaz w jednym przebiegu – jednostkę wczytujemy (i w trybie {@code lock} blokujemy) raz, rozkaz
+   * losujemy spośród legalnych ({@link RandomCommandGenerator}) i wykonujemy pod tym samym monitorem siatki, więc
+   * między losowaniem a wykonaniem nikt nie zmieni planszy.
+   *
+   * @return wykonany rozkaz
+   */
+  @Transactional
+  public Command executeRandom(long unitId, Faction issuer, AiStrategy strategy, boolean lock)
+      throws NotFoundException {
+
+    long start = System.nanoTime();
+    Unit unit = (lock ? unitRepo.findWithLockById(unitId) : unitRepo.findById(unitId))
+        .orElseThrow(NotFoundException::new);
+    long locked = System.nanoTime();
+
+    if (unit.getFaction() != issuer) {
+      throw new IllegalArgumentException("Issuer faction does not own this unit");
+    }
+    requireActive(unit);
+
+    OccupancyGrid grid = boards.grid(unit.getGame());
+    Command cmd;
+    GameEvent event;
+    synchronized (grid) {
+      try {
+        cmd = randomCommands.generate(unit, grid, strategy);
+      } catch (CommandRejectedException ex) {
+        metrics.rejected(ex.getReason());
+        throw ex;
+      }
+      metrics.stage(cmd.type(), CommandStage.LOCK, start, locked);
+      event = apply(unit, cmd);
+    }
+
+    start = System.nanoTime();
+    journal.write(List.of(event));
+    metrics.stage(cmd.type(), CommandStage.JOURNAL, start);
+    metrics.timeCommit(cmd.type());
+    return cmd;
+  }
+
+  /**
+   * Wykonuje paczkę rozkazów dla jednej gry w jednej transakcji.
+   * <p>
+   * • Wszystkie jednostki wczytujemy (i w trybie {@code lock} blokujemy) jednym zapytaniem – każdą dokładnie raz,
+   * w kolejności id.<br>
+   * • Flush tylko przy commicie – zmiany jednostek i zdarzenia idą jednym batchem JDBC.<br>
+   * • Odrzucony rozkaz nie przerywa paczki – trafia do wyniku z kodem 400 / 404 / 429.
+   */
+  @Transactional
+  public List<CommandResult> executeBatch(long gameId, List<UnitCommand> commands, boolean lock)
+      throws NotFoundException {
+
+    if (!gameRepo.existsById(gameId)) {
+      throw new NotFoundException();
+    }
+
+    entityManager.setFlushMode(FlushModeType.COMMIT);
+
+    Set<Long> ids = new TreeSet<>();
+    commands.forEach(c -> ids.add(c.unitId()));
+    Map<Long, Unit> loaded = new HashMap<>();
+    (lock ? unitRepo.findAllWithLockByIdIn(ids) : unitRepo.findAllById(ids))
+        .forEach(u -> loaded.put(u.getId(), u));
+
+    List<CommandResult> results = new ArrayList<>(commands.size());
+    List<GameEvent> events = new ArrayList<>(commands.size());
+
+    for (UnitCommand uc : commands) {
+      Unit unit = loaded.get(uc.unitId());
+      if (unit == null || unit.getGame().getId() != gameId) {
+        results.add(CommandResult.notFound(uc.unitId()));
+        continue;
+      }
+      try {
+        events.add(apply(unit, uc.command()));
+        results.add(CommandResult.accepted(uc.unitId()));
+      } catch (CooldownException ex) {
+        results.add(CommandResult.cooldown(uc.unitId(), ex.getRetryAfter()));
+      } catch (IllegalArgumentException ex) {
+        results.add(CommandResult.rejected(uc.unitId(), ex.getMessage()));
+      }
+    }
+
+    journal.write(events);
+    return results;
+  }
+
+  /**
+   * Tura AI frakcji – po jednym losowym rozkazie dla każdej gotowej jednostki, w jednej transakcji.
+   * <p>
+   * • Jednostki frakcji wczytujemy (i w trybie {@code lock} blokujemy) jednym zapytaniem, w kolejności id.<br>
+   * • Rozkazy planujemy równolegle na niezmiennej kopii planszy – każdy wątek widzi ten sam stan. Planowanie ma
+   * budżet czasu ({@link TurnPlanner}); jednostki, które się w nim nie zmieściły, dostają rozkaz losowy. Gra
+   * z ziarnem planuje bez budżetu – zegar nie może zmienić jej rozkazów.<br>
+   * • Wykonujemy je po kolei (po id) pod monitorem siatki; rozkaz, który po wcześniejszych przestał być legalny
+   * (np. dwie jednostki celowały w to samo pole), losujemy ponownie na bieżącej planszy.<br>
+   * • Zdarzenia trafiają do dziennika razem, flush tylko przy commicie – jeden batch JDBC.
+   */
+  @Transactional
+  public List<TurnResult> executeRandomTurn(long gameId, Faction faction, AiStrategy strategy, boolean lock)
+      throws NotFoundException {
+
+    if (!gameRepo.existsById(gameId)) {
+      throw new NotFoundException();
+    }
+
+    entityManager.setFlushMode(FlushModeType.COMMIT);
+
+    List<Unit> units = lock
+        ? unitRepo.findAllWithLockByGameIdAndFactionAndStatus(gameId, faction, UnitStatus.ACTIVE)
+        : unitRepo.findByGameIdAndFactionAndStatusOrderById(gameId, faction, UnitStatus.ACTIVE);
+    if (units.isEmpty()) {
+      return List.of();
+    }
+    OccupancyGrid grid = boards.grid(units.getFirst().getGame());
+
+    /* --- plan: równolegle, na kopii planszy --- */
+    TacticalBoard snapshot = grid.snapshot();
+    Long seed = grid.randomSeed();
+    Plan[] plans = new Plan[units.size()];
+    if (seed != null) {
+      turnPlanner.planAll(units.size(), i -> plans[i] = plan(units.get(i), snapshot, seed, strategy));
+    } else {
+      turnPlanner.plan(units.size(),
+          i -> plans[i] = plan(units.get(i), snapshot, seed, strategy),
+          i -> plans[i] = plan(units.get(i), snapshot, seed, AiStrategy.RANDOM));
+    }
+
+    /* --- wykonanie: po kolei, na żywej siatce --- */
+    List<TurnResult> results = new ArrayList<>(units.size());
+    List<GameEvent> events = new ArrayList<>(units.size());
+    synchronized (grid) {
+      for (int i = 0; i < units.size(); i++) {
+        Unit unit = units.get(i);
+        Plan plan = plans[i];
+        if (plan.command() != null
+            && !RandomCommands.isLegal(unit.getFaction(), unit.getX(), unit.getY(), plan.command(), grid)) {
+          plan = plan(unit, grid, seed, strategy);
+        }
+        try {
+          if (plan.failure() != null) {
+            throw plan.failure();
+          }
+          events.add(apply(unit, plan.command()));
+          results.add(TurnResult.accepted(unit.getId(), plan.command()));
+        } catch (CooldownException ex) {
+          results.add(TurnResult.of(CommandResult.cooldown(unit.getId(), ex.getRetryAfter())));
+        } catch (IllegalArgumentException ex) {
+          results.add(TurnResult.of(CommandResult.rejected(unit.getId(), ex.getMessage())));
+        }
+      }
+    }
+
+    journal.write(events);
+    return results;
+  }
+
+  /**
+   * Rozkaz zaplanowany dla jednostki albo wyjątek, który go uniemożliwił (cooldown, brak legalnego rozkazu).
+   */
+  private record Plan(Command command, RuntimeException failure) { }
+
+  private Plan plan(Unit unit, TacticalBoard board, Long seed, AiStrategy strategy) {
+    try {
+      return new Plan(randomCommands.generate(unit, board, seed, strategy), null);
+    } catch (CommandRejectedException ex) {
+      metrics.rejected(ex.getReason());
+      return new Plan(null, ex);
+    } catch (CooldownException ex) {
+      return new Plan(null, ex);
+    }
+  }
+
+  /**
+   * Wspólny rdzeń: reguły ruchu/strzału, aktualizacja jednostki i zdarzenie do historii (jeszcze niezapisane).
+   */
+  private GameEvent apply(Unit unit, Command cmd) {
+
+    Instant now = clock.instant();
+    requireActive(unit);
+
+    /* --- cooldown: ostateczna weryfikacja na encji (wstępną robi CooldownService przed transakcją) --- */
+    if (!unit.canExecute(cmd.type(), clock)) {
+      Duration wait = Duration.between(now, unit.getLastCommandAt().plus(cmd.type().getCooldown()));
+      throw new CooldownException(unit.getId(), wait);
+    }
+
+    CommandType commandType = switch (cmd) {
+      case MoveCommand mv -> mv.type();
+      case ShootCommand sh -> sh.type();
+      default -> throw new IllegalStateException("Unknown command type for: " + cmd);
+    };
+
+    /* --- zdarzenie do historii; wynik (pozycja, zniszczona jednostka) uzupełniają reguły poniżej --- */
+    long start = System.nanoTime();
+    GameEvent event = new GameEvent(
+        unit.getGame(),
+        unit,
+        commandType,
+        codec.encode(cmd),
+        true,
+        now
+    );
+    metrics.stage(commandType, CommandStage.ENCODE, start);
+
+    /* --- delegacja do specyficznych implementacji --- */
+    try {
+      switch (cmd) {
+        case MoveCommand mv -> applyMove(unit, mv, event);
+        case ShootCommand sh -> applyShot(unit, sh, event);
+        default -> throw new IllegalStateException("Unsupported command: " + cmd);
+      }
+    } catch (CommandRejectedException ex) {
+      metrics.rejected(ex.getReason());
+      throw ex;
+    } catch (IllegalArgumentException ex) {
+      metrics.rejected(RejectionReason.OTHER);
+      throw ex;
+    }
+
+    /* --- aktualizacja wspólnych pól na jednostce --- */
+    unit.setLastCommandAt(now);
+    unit.setCommandCount(unit.getCommandCount() + 1);
+    recordCooldownAfterCommit(unit.getId(), now);
+    unitLists.bumpAfterCommit(unit.getGame().getId());
+
+    event.setX(unit.getX());
+    event.setY(unit.getY());
+    return event;
+  }
+
+  /**
+   * Zniszczona jednostka nie ma już pola w siatce – jej ruch przesunąłby jednostkę, która zajęła to pole.
+   */
+  private void requireActive(Unit unit) {
+    if (unit.getStatus() != UnitStatus.ACTIVE) {
+      metrics.rejected(RejectionReason.UNIT_DESTROYED);
+      throw new CommandRejectedException(RejectionReason.UNIT_DESTROYED, "Unit is destroyed");
+    }
+  }
+
+  /**
+   * Cooldown w pamięci aktualizujemy dopiero po commicie – wycofany rozkaz nie może blokować jednostki.
+   */
+  private void recordCooldownAfterCommit(long unitId, Instant executedAt) {
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        cooldowns.record(unitId, executedAt);
+      }
+    });
+  }
+
+
+  /**
+   * Wykonuje ruch jednostki – reguły w {@link GameRules#resolveMove}.
+   * <p>
+   * Monitor siatki trzymamy przez cały ruch – sprawdzenie i aktualizacja są atomowe.
+   */
+  private void applyMove(Unit unit, MoveCommand cmd, GameEvent event) {
+
+    long start = System.nanoTime();
+    OccupancyGrid grid = boards.grid(unit.getGame());
+    start = metrics.stage(cmd.type(), CommandStage.OCCUPANCY, start);
+
+    try {
+      synchronized (grid) {
+        MoveOutcome outcome = GameRules.resolveMove(unit.getType(), unit.getFaction(), unit.getX(), unit.getY(), cmd,
+            grid);
+
+        if (outcome.cancelled()) {
+          /* Próba najazdu na swoją jednostkę: ruch anulowany, ale cooldown już „poszedł". */
+          event.setSuccess(false);
+          metrics.rejected(RejectionReason.OWN_UNIT_BUMP);
+          return;
+        }
+        if (outcome.capturedUnit() != OccupancyGrid.EMPTY) {
+          destroy(grid, outcome.capturedUnit(), outcome.x(), outcome.y(), event);
+        }
+        moveTo(grid, unit, outcome.x(), outcome.y());
+      }
+    } finally {
+      metrics.stage(cmd.type(), CommandStage.RULES, start);
+    }
+  }
+
+
+  /**
+   * Wykonuje strzał jednostki – reguły w {@link GameRules#resolveShot}.
+   */
+  private void applyShot(Unit unit, ShootCommand cmd, GameEvent event) {
+
+    long start = System.nanoTime();
+    OccupancyGrid grid = boards.grid(unit.getGame());
+    start = metrics.stage(cmd.type(), CommandStage.OCCUPANCY, start);
+
+    /* Znajdź żywą jednostkę w polu trafienia */
+    try {
+      synchronized (grid) {
+        long hitId = GameRules.resolveShot(unit.getX(), unit.getY(), cmd, grid);
+        if (hitId != OccupancyGrid.EMPTY) {
+          destroy(grid, hitId, cmd.targetX(unit.getX()), cmd.targetY(unit.getY()), event);
+        }
+      }
+    } finally {
+      metrics.stage(cmd.type(), CommandStage.RULES, start);
+    }
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Pomocnicze – zmiana encji + siatki zajętości                */
+  /* ----------------------------------------------------------- */
+
+  private void moveTo(OccupancyGrid grid, Unit unit, int x, int y) {
+    boards.move(grid, unit.getX(), unit.getY(), x, y);
+    unit.setX(x);
+    unit.setY(y);
+    changes.recordAfterCommit(grid.gameId(), unit);
+  }
+
+  /**
+   * Zniszcz jednostkę wskazaną przez siatkę. Odczyt po kluczu głównym jest potrzebny tylko przy trafieniu – encja
+   * musi przejść przez dirty-checking, żeby zachować {@code @Version}.
+   */
+  private void destroy(OccupancyGrid grid, long unitId, int x, int y, GameEvent event) {
+    boards.remove(grid, x, y);
+    event.setDestroyedUnitId(unitId);
+    unitRepo.findById(unitId)
+        .ifPresent(hit -> {
+          hit.setStatus(UnitStatus.DESTROYED);
+          metrics.destroyed(hit.getType());
+          changes.recordAfterCommit(grid.gameId(), hit);
+        });
+  }
+
+}
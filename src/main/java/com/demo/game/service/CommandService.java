@@ -1,193 +1,243 @@
 package com.demo.game.service;
 
 import com.demo.game.commands.Command;
-import com.demo.game.commands.MoveCommand;
-import com.demo.game.commands.ShootCommand;
-import com.demo.game.objects.dao.Archer;
-import com.demo.game.objects.dao.Game;
-import com.demo.game.objects.dao.GameEvent;
-import com.demo.game.objects.dao.Transport;
-import com.demo.game.objects.dao.Unit;
-import com.demo.game.objects.enums.CommandType;
-import com.demo.game.objects.enums.UnitStatus;
-import com.demo.game.repositories.GameEventRepository;
+import com.demo.game.commands.UnitCommand;
+import com.demo.game.exceptions.CooldownException;
+import com.demo.game.exceptions.GameNotActiveException;
+import com.demo.game.metrics.GameMetrics;
+import com.demo.game.metrics.GameMetrics.CommandStage;
+import com.demo.game.metrics.GameMetrics.Outcome;
+import com.demo.game.objects.dto.CommandResult;
+import com.demo.game.objects.dto.TurnResult;
+import com.demo.game.objects.enums.AiStrategy;
+import com.demo.game.objects.enums.ConcurrencyMode;
+import com.demo.game.objects.enums.Faction;
 import com.demo.game.repositories.UnitRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.transaction.Transactional;
-import java.time.Clock;
-import java.util.Optional;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
 import org.springframework.stereotype.Service;
 
+/**
+ * Punkt wejścia dla rozkazów (REST, AI).
+ * <p>
+ * Nie otwiera transakcji sam – najpierw odrzuca rozkazy dla jednostek na cooldownie ({@link CooldownService}),
+ * potem wybiera tryb współbieżności ({@code game.commands.mode}) i deleguje do
+ * {@link CommandExecutor}:
+ * • LOCKING       – od razu, z blokadą wiersza jednostki,<br>
+ * • SINGLE_WRITER – przez skrzynkę gry, w której komendy wykonują się po kolei bez blokad w bazie.
+ * <p>
+ * Po commicie – już bez transakcji – rozkaz czeka na trwały zapis swoich zdarzeń ({@link EventStore#durability};
+ * dziennik plikowy w trybie COMMIT). W trybie SINGLE_WRITER czeka wątek wołającego, nie skrzynka gry – kolejny
+ * rozkaz gry wykonuje się, gdy poprzedni czeka na fsync.
+ * <p>
+ * Czas całego rozkazu (z commitem) i jego wynik trafiają do {@link GameMetrics}.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CommandService {
 
+  private final CommandExecutor executor;
+  private final EventStore events;
+  private final GameMailboxes mailboxes;
+  private final CooldownService cooldowns;
   private final UnitRepository unitRepo;
-  private final GameEventRepository eventRepo;
-  private final ObjectMapper objectMapper;
-  private final Clock clock;
+  private final GameMetrics metrics;
 
-  @Transactional
-  public void executeCommand(Long unitId, Command cmd) throws NotFoundException {
-
-    Unit unit = unitRepo.findWithLockById(unitId)
-        .orElseThrow(NotFoundException::new);
-
-    /* --- delegacja do specyficznych implementacji --- */
-    switch (cmd) {
-      case MoveCommand mv -> applyMove(unit, mv);
-      case ShootCommand sh -> applyShot(unit, sh);
-      default -> throw new IllegalStateException("Unsupported command: " + cmd);
-    }
-
-    /* --- aktualizacja wspólnych pól na jednostce --- */
-    unit.setLastCommandAt(clock.instant());
-    unit.setCommandCount(unit.getCommandCount() + 1);
+  @Value("${game.commands.mode:locking}")
+  private ConcurrencyMode mode;
 
-    /* --- zapis do historii --- */
-    String payload;
+  public void executeCommand(Long unitId, Command cmd) throws NotFoundException {
+    long start = System.nanoTime();
+    Outcome outcome = Outcome.FAILED;
     try {
-      payload = objectMapper.writeValueAsString(cmd);
-    } catch (JsonProcessingException e) {
-      throw new IllegalStateException("Cannot serialize command", e);
+      cooldowns.check(unitId, cmd.type());
+      metrics.stage(cmd.type(), CommandStage.COOLDOWN, start);
+
+      if (mode == ConcurrencyMode.SINGLE_WRITER) {
+        long gameId = unitRepo.findGameIdById(unitId)
+            .orElseThrow(NotFoundException::new);
+        inMailbox(gameId, () -> {
+          executor.execute(unitId, cmd, false);
+          return null;
+        });
+      } else {
+        committed(() -> {
+          executor.execute(unitId, cmd, true);
+          return null;
+        });
+      }
+      outcome = Outcome.ACCEPTED;
+    } catch (CooldownException ex) {
+      outcome = Outcome.COOLDOWN;
+      throw ex;
+    } catch (IllegalArgumentException | GameNotActiveException ex) {
+      outcome = Outcome.REJECTED;
+      throw ex;
+    } catch (NotFoundException ex) {
+      outcome = Outcome.NOT_FOUND;
+      throw ex;
+    } finally {
+      metrics.command(cmd.type(), outcome, start);
     }
-
-    Game game = unit.getGame();
-
-    CommandType commandType = switch (cmd) {
-      case MoveCommand mv -> mv.type();
-      case ShootCommand sh -> sh.type();
-      default -> throw new IllegalStateException("Unknown command type for: " + cmd);
-    };
-
-    GameEvent event = new GameEvent(
-        game,
-        unit,
-        commandType,
-        payload,
-        true,
-        clock.instant()
-    );
-
-    eventRepo.save(event);
   }
 
-
   /**
-   * Wykonuje ruch jednostki.
+   * Losowy rozkaz AI – losowanie i wykonanie w jednej transakcji ({@link CommandExecutor#executeRandom}).
    * <p>
-   * Reguły: • Łucznik     – zawsze dokładnie 1 pole orthogonalnie. • Transport   – 1-3 pól orthogonalnie; niszczy przeciwnika, jeżeli stanie na jego polu. • Własnej jednostki nie wolno „najechać" –
-   * wtedy ruch jest anulowany, a cooldown mimo to liczy się normalnie. • Nie wolno wyjść poza planszę ani „przeskoczyć" nad żywą jednostką.
+   * Typ rozkazu znamy dopiero po losowaniu, więc wstępny cooldown sprawdzamy dla najkrótszego typu, a do
+   * {@code game.commands} trafiają tylko rozkazy wykonane – odrzucenia liczy {@code game.commands.rejected}.
+   *
+   * @return wykonany rozkaz
    */
-  private void applyMove(Unit unit, MoveCommand cmd) {
+  public Command executeRandom(long unitId, Faction issuer) throws NotFoundException {
+    return executeRandom(unitId, issuer, AiStrategy.RANDOM);
+  }
 
-    /* --- walidacja zgodności typu rozkazu z typem jednostki --- */
-    if (unit instanceof Archer && cmd.type() != CommandType.MOVE_ARCHER) {
-      throw new IllegalArgumentException("Archer can execute only MOVE_ARCHER");
-    }
-    if (unit instanceof Transport && cmd.type() != CommandType.MOVE_TRANSPORT) {
-      throw new IllegalArgumentException("Transport can execute only MOVE_TRANSPORT");
+  /**
+   * Jak {@link #executeRandom(long, Faction)}, z wyborem rozkazu według strategii ({@link AiStrategy}).
+   */
+  public Command executeRandom(long unitId, Faction issuer, AiStrategy strategy) throws NotFoundException {
+    long start = System.nanoTime();
+    cooldowns.checkAny(unitId);
+
+    Command cmd;
+    if (mode == ConcurrencyMode.SINGLE_WRITER) {
+      long gameId = unitRepo.findGameIdById(unitId)
+          .orElseThrow(NotFoundException::new);
+      cmd = inMailbox(gameId, () -> executor.executeRandom(unitId, issuer, strategy, false));
+    } else {
+      cmd = committed(() -> executor.executeRandom(unitId, issuer, strategy, true));
     }
+    metrics.command(cmd.type(), Outcome.ACCEPTED, start);
+    return cmd;
+  }
 
-    /* --- dodatkowe limity kroków --- */
-    if (unit instanceof Archer && cmd.steps() != 1) {
-      throw new IllegalArgumentException("Archer moves exactly 1 square");
-    }
-    if (unit instanceof Transport && (cmd.steps() < 1 || cmd.steps() > 3)) {
-      throw new IllegalArgumentException("Transport moves 1-3 squares");
+  public List<CommandResult> executeBatch(long gameId, List<UnitCommand> commands) throws NotFoundException {
+
+    /* jednostki na cooldownie odpadają przed transakcją; reszta idzie dalej, wyniki składamy w pierwotnej kolejności */
+    CommandResult[] results = new CommandResult[commands.size()];
+    List<UnitCommand> ready = new ArrayList<>(commands.size());
+    for (int i = 0; i < commands.size(); i++) {
+      UnitCommand uc = commands.get(i);
+      long wait = cooldowns.remainingMillis(uc.unitId(), uc.command().type());
+      if (wait > 0) {
+        results[i] = CommandResult.cooldown(uc.unitId(), Duration.ofMillis(wait));
+      } else {
+        ready.add(uc);
+      }
     }
 
-    Game game = unit.getGame();
-    int width = game.getBoardWidth();
-    int height = game.getBoardHeight();
-
-    /* Kierunek jako wektor (dx,dy) długości 1 */
-    int dx = switch (cmd.direction()) {
-      case LEFT -> -1;
-      case RIGHT -> 1;
-      default -> 0;
-    };
-    int dy = switch (cmd.direction()) {
-      case UP -> -1;
-      case DOWN -> 1;
-      default -> 0;
-    };
-
-    /* Bierzemy kolejne pola po drodze, aby:
-       • nie „przeskakiwać" innych jednostek,
-       • rozstrzygnąć kolizję z ostatnim polem. */
-    int x = unit.getX();
-    int y = unit.getY();
-
-    for (int step = 1; step <= cmd.steps(); step++) {
-
-      x += dx;
-      y += dy;
-
-      // wyjście poza planszę -> błąd
-      if (x < 0 || x >= width || y < 0 || y >= height) {
-        throw new IllegalArgumentException("Move goes outside the board");
-      }
+    List<CommandResult> executed = ready.isEmpty() ? List.of()
+        : mode == ConcurrencyMode.SINGLE_WRITER
+            ? inMailbox(gameId, () -> executor.executeBatch(gameId, ready, false))
+            : committed(() -> executor.executeBatch(gameId, ready, true));
 
-      /* Czy pole zajęte przez żywą jednostkę? */
-      Optional<Unit> occupant =
-          unitRepo.findFirstByGameAndXAndYAndStatus(game, x, y, UnitStatus.ACTIVE);
-
-      if (occupant.isPresent()) {
-
-        Unit other = occupant.get();
-
-        // w trakcie marszu (nie ostatni krok) – blokada
-        if (step < cmd.steps()) {
-          throw new IllegalArgumentException("Path blocked by another unit at (" + x + "," + y + ")");
-        }
-
-        /* Ostatnie pole – dwa scenariusze */
-        if (other.getFaction() == unit.getFaction()) {
-          /* Próba najazdu na swoją jednostkę: ruch anulowany, ale cooldown już „poszedł". */
-          return;     // pozostajemy na miejscu
-        } else {
-          /* Najazd na przeciwnika – przeciwnik ginie, transport zajmuje pole. */
-          other.setStatus(UnitStatus.DESTROYED);
-          unit.setX(x);
-          unit.setY(y);
-          return;
-        }
+    int next = 0;
+    for (int i = 0; i < results.length; i++) {
+      if (results[i] == null) {
+        results[i] = executed.get(next++);
       }
     }
-
-    /* zwykły ruch na puste pole. */
-    unit.setX(x);
-    unit.setY(y);
+    return Arrays.asList(results);
   }
 
+  /**
+   * Tura AI frakcji – losowe rozkazy dla wszystkich gotowych jednostek frakcji w jednej transakcji
+   * ({@link CommandExecutor#executeRandomTurn}).
+   */
+  public List<TurnResult> executeRandomTurn(long gameId, Faction faction) throws NotFoundException {
+    return executeRandomTurn(gameId, faction, AiStrategy.RANDOM);
+  }
 
   /**
-   * Wykonuje strzał jednostki.
-   * <p>
-   * Reguły: • Archer strzela orthogonalnie (walidacja już w ShootCommand). • Cannon może także po skosie. • Jeśli w polu docelowym znajduje się dowolna żywa jednostka (własna lub cudza) – zostaje
-   * zniszczona. • Brak „przeszkód po drodze" – pocisk leci nad pustymi polami.
+   * Jak {@link #executeRandomTurn(long, Faction)}, z wyborem rozkazów według strategii ({@link AiStrategy}).
    */
-  private void applyShot(Unit unit, ShootCommand cmd) {
+  public List<TurnResult> executeRandomTurn(long gameId, Faction faction, AiStrategy strategy)
+      throws NotFoundException {
+    return mode == ConcurrencyMode.SINGLE_WRITER
+        ? inMailbox(gameId, () -> executor.executeRandomTurn(gameId, faction, strategy, false))
+        : committed(() -> executor.executeRandomTurn(gameId, faction, strategy, true));
+  }
 
-    Game game = unit.getGame();
-    int width = game.getBoardWidth();
-    int height = game.getBoardHeight();
+  /* ----------------------------------------------------------- */
+  /* Pomocnicze                                                  */
+  /* ----------------------------------------------------------- */
 
-    int targetX = cmd.targetX(unit.getX());
-    int targetY = cmd.targetY(unit.getY());
+  /** Transakcja rozkazu ({@link CommandExecutor}). */
+  @FunctionalInterface
+  private interface Transaction<T> {
+    T run() throws NotFoundException;
+  }
+
+  /** Wynik transakcji wykonanej w skrzynce gry – wartość albo wyjątek – i trwały zapis jej zdarzeń. */
+  private record Committed<T>(T result, Exception failure, CompletableFuture<Void> durability) { }
 
-    // wyjście poza planszę -> błąd
-    if (targetX < 0 || targetX >= width || targetY < 0 || targetY >= height) {
-      throw new IllegalArgumentException("Shot goes outside the board");
+  /**
+   * Wykonaj transakcję i poczekaj na trwały zapis jej zdarzeń – także gdy rozkaz odrzucono, bo odrzucenie też może
+   * zapisać zdarzenie.
+   */
+  private <T> T committed(Transaction<T> tx) throws NotFoundException {
+    try {
+      return tx.run();
+    } finally {
+      awaitDurable(events.durability());
     }
+  }
 
-    /* Znajdź żywą jednostkę w polu trafienia */
-    unitRepo.findFirstByGameAndXAndYAndStatus(game, targetX, targetY, UnitStatus.ACTIVE)
-        .ifPresent(hit -> hit.setStatus(UnitStatus.DESTROYED));
+  /**
+   * Jak {@link #committed}, ale transakcja wykonuje się w skrzynce gry, a na trwały zapis czeka wątek wołającego –
+   * skrzynka bierze w tym czasie kolejny rozkaz.
+   */
+  private <T> T inMailbox(long gameId, Transaction<T> tx) throws NotFoundException {
+    Committed<T> done = call(gameId, () -> {
+      try {
+        return new Committed<>(tx.run(), null, events.durability());
+      } catch (NotFoundException | RuntimeException ex) {
+        return new Committed<T>(null, ex, events.durability());
+      }
+    });
+    awaitDurable(done.durability());
+    if (done.failure() instanceof NotFoundException ex) {
+      throw ex;
+    }
+    if (done.failure() instanceof RuntimeException ex) {
+      throw ex;
+    }
+    return done.result();
   }
 
-}
\ No newline at end of file
+  /**
+   * Nie rzuca: rozkaz jest już zatwierdzony, błąd zapisu backend loguje i ponawia sam.
+   */
+  private static void awaitDurable(CompletableFuture<Void> durability) {
+    try {
+      durability.join();
+    } catch (CompletionException | CancellationException ex) {
+      log.error("Committed events are not durable yet, the store will retry", ex.getCause());
+    }
+  }
+
+  private <T> T call(long gameId, Callable<T> work) throws NotFoundException {
+    try {
+      return mailboxes.call(gameId, work);
+    } catch (NotFoundException | RuntimeException ex) {
+      throw ex;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for game " + gameId, ex);
+    } catch (Exception ex) {
+      throw new IllegalStateException("Command failed in mailbox of game " + gameId, ex);
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package com.demo.game.service;
+
+import com.demo.game.exceptions.CooldownException;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.util.LongLongHashMap;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cooldowny jednostek trzymane w pamięci: id jednostki → czas ostatniego rozkazu (epoch millis).
+ * <p>
+ * • Semantyka jak {@link com.demo.game.objects.dao.Unit#canExecute}: od ostatniego rozkazu musi minąć cooldown typu
+ * nowego rozkazu.<br>
+ * • {@link #check} odrzuca zbyt wczesny rozkaz zanim powstanie transakcja – bez zapytania o
+ * {@code max(executedAt)}.<br>
+ * • Jednostka nieznana mapie (np. po restarcie) przechodzi – ostateczną weryfikację robi CommandExecutor na
+ * zablokowanej encji.<br>
+ * • Mapa jest podzielona na paski, każdy synchronizowany osobno; wygasłe wpisy są okresowo usuwane.
+ */
+@Service
+@RequiredArgsConstructor
+public class CooldownService {
+
+  private static final int STRIPES = 64;
+
+  private static final long MAX_COOLDOWN_MILLIS = Arrays.stream(CommandType.values())
+      .mapToLong(t -> t.getCooldown().toMillis())
+      .max()
+      .orElse(0);
+
+  /** Typ o najkrótszym cooldownie – jeśli i on czeka, jednostka nie może wykonać żadnego rozkazu. */
+  private static final CommandType SHORTEST = Arrays.stream(CommandType.values())
+      .min(Comparator.comparing(CommandType::getCooldown))
+      .orElseThrow();
+
+  private final Clock clock;
+
+  private final LongLongHashMap[] stripes = newStripes();
+
+  /**
+   * @throws CooldownException gdy jednostka nie może jeszcze wykonać rozkazu danego typu
+   */
+  public void check(long unitId, CommandType type) {
+    long wait = remainingMillis(unitId, type);
+    if (wait > 0) {
+      throw new CooldownException(unitId, Duration.ofMillis(wait));
+    }
+  }
+
+  /**
+   * Wstępne sprawdzenie dla rozkazu, którego typ nie jest jeszcze znany (losowy rozkaz).
+   *
+   * @throws CooldownException gdy jednostka nie może jeszcze wykonać rozkazu żadnego typu
+   */
+  public void checkAny(long unitId) {
+    check(unitId, SHORTEST);
+  }
+
+  /**
+   * Ile milisekund jednostka musi jeszcze odczekać przed rozkazem danego typu (0 = gotowa).
+   */
+  public long remainingMillis(long unitId, CommandType type) {
+    LongLongHashMap stripe = stripe(unitId);
+    long last;
+    synchronized (stripe) {
+      last = stripe.get(unitId, Long.MIN_VALUE);
+    }
+    if (last == Long.MIN_VALUE) {
+      return 0;
+    }
+    return Math.max(0, last + type.getCooldown().toMillis() - clock.millis());
+  }
+
+  /**
+   * Zapamiętaj wykonany (zatwierdzony) rozkaz.
+   */
+  public void record(long unitId, Instant executedAt) {
+    LongLongHashMap stripe = stripe(unitId);
+    synchronized (stripe) {
+      stripe.put(unitId, executedAt.toEpochMilli());
+    }
+  }
+
+  /**
+   * Po najdłuższym cooldownie wpis nic już nie blokuje – sprzątamy, żeby mapa nie rosła bez końca.
+   */
+  @Scheduled(fixedDelayString = "${game.cooldowns.purge-interval:PT1M}")
+  public void purgeExpired() {
+    long threshold = clock.millis() - MAX_COOLDOWN_MILLIS;
+    for (LongLongHashMap stripe : stripes) {
+      synchronized (stripe) {
+        stripe.removeValuesBelow(threshold);
+      }
+    }
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private LongLongHashMap stripe(long unitId) {
+    return stripes[(int) (unitId & (STRIPES - 1))];
+  }
+
+  private static LongLongHashMap[] newStripes() {
+    LongLongHashMap[] maps = new LongLongHashMap[STRIPES];
+    for (int i = 0; i < STRIPES; i++) {
+      maps[i] = new LongLongHashMap(256);
+    }
+    return maps;
+  }
+}
@@ -0,0 +1,151 @@
+package com.demo.game.service;
+
+import com.demo.game.archive.EventArchive;
+import com.demo.game.archive.EventRecord;
+import com.demo.game.objects.dao.GameEvent;
+import com.demo.game.objects.enums.GameStatus;
+import com.demo.game.repositories.GameEventRepository;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Przenoszenie zdarzeń zakończonych gier (FINISHED, ABORTED) z bazy do archiwum ({@link EventArchive}).
+ * <p>
+ * • Co {@code game.archive.interval} bierzemy najwyżej {@code game.archive.games-per-run} zakończonych gier, które
+ * mają jeszcze zdarzenia w bazie.<br>
+ * • Zdarzenia gry przenosimy paczkami po {@code game.archive.batch-size}: paczka trafia do archiwum jako jeden blok,
+ * a dopiero potem jej wiersze znikają z bazy (osobna transakcja). Awaria pomiędzy zostawia w bazie wiersze, które
+ * są już w archiwum – kolejny przebieg usuwa je według id zapisanych w ostatnim bloku gry.<br>
+ * • Usuwamy dokładnie zarchiwizowane id, nie zakres – zdarzenie o niższym id z puli sekwencji, zatwierdzone
+ * później, zostaje w bazie i trafi do kolejnego bloku. Dlatego każda paczka to najstarsze wiersze gry, jakie
+ * zostały w bazie, a nie wiersze po ostatnim zarchiwizowanym id.<br>
+ * • Zdarzenia młodsze niż {@code game.archive.settle} czekają na kolejny przebieg – zdarzenie o mniejszym id może
+ * jeszcze czekać na commit albo w buforze dziennika (jak przy migawkach).<br>
+ * • Odczyty historii łączą archiwum z bazą – {@link EventHistory}.<br>
+ * • Tylko przy magazynie {@code jpa} – dziennika plikowego ({@link LogEventStore}) nie archiwizujemy.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "game.events.store", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class EventArchiver {
+
+  private static final Set<GameStatus> TERMINAL = EnumSet.of(GameStatus.FINISHED, GameStatus.ABORTED);
+
+  /** Limit listy {@code IN} w Oracle. */
+  private static final int MAX_IN_LIST = 1000;
+
+  private final GameEventRepository eventRepo;
+  private final EventArchive archive;
+  private final PlatformTransactionManager txManager;
+  private final Clock clock;
+
+  @Value("${game.archive.batch-size:1000}")
+  private int batchSize;
+
+  @Value("${game.archive.games-per-run:100}")
+  private int gamesPerRun;
+
+  @Value("${game.archive.settle:PT10S}")
+  private Duration settle;
+
+  private TransactionTemplate tx;
+
+  @PostConstruct
+  void start() {
+    tx = new TransactionTemplate(txManager);
+  }
+
+  /**
+   * @return liczba zdarzeń przeniesionych do archiwum
+   */
+  @Scheduled(fixedDelayString = "${game.archive.interval:PT1M}")
+  public synchronized int archiveFinishedGames() {
+    Instant settledBefore = clock.instant().minus(settle);
+    List<Long> gameIds = tx.execute(status ->
+        eventRepo.findGameIdsWithEventsBefore(TERMINAL, settledBefore, PageRequest.ofSize(gamesPerRun)));
+
+    int moved = 0;
+    for (long gameId : gameIds) {
+      try {
+        moved += archive(gameId, settledBefore);
+      } catch (IOException | RuntimeException ex) {
+        log.error("Archiving events of game {} failed", gameId, ex);
+      }
+    }
+    if (moved > 0) {
+      log.info("Archived {} events of {} finished games", moved, gameIds.size());
+    }
+    return moved;
+  }
+
+  /**
+   * Przenieś do archiwum zdarzenia gry starsze niż {@code settledBefore}.
+   *
+   * @return liczba przeniesionych zdarzeń
+   */
+  int archive(long gameId, Instant settledBefore) throws IOException {
+    delete(gameId, archive.lastBlockEventIds(gameId));
+
+    int moved = 0;
+    while (true) {
+      List<EventRecord> batch = settled(gameId, settledBefore);
+      if (batch.isEmpty()) {
+        break;
+      }
+      archive.append(gameId, batch);
+      delete(gameId, batch.stream().map(EventRecord::id).toList());
+      moved += batch.size();
+      if (batch.size() < batchSize) {
+        break;
+      }
+    }
+    return moved;
+  }
+
+  /* ----------------------------------------------------------- */
+
+  /**
+   * Najstarsze wiersze gry w bazie (zarchiwizowane już usunęliśmy), ucięte na pierwszym zdarzeniu nowszym niż
+   * {@code settledBefore}.
+   */
+  private List<EventRecord> settled(long gameId, Instant settledBefore) {
+    return tx.execute(status -> {
+      List<EventRecord> batch = new ArrayList<>();
+      for (GameEvent e : eventRepo.findEventsAfter(gameId, 0L, PageRequest.ofSize(batchSize))) {
+        if (!e.getExecutedAt().isBefore(settledBefore)) {
+          break;
+        }
+        batch.add(EventRecord.from(e));
+      }
+      return batch;
+    });
+  }
+
+  private void delete(long gameId, List<Long> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    tx.executeWithoutResult(status -> {
+      for (int from = 0; from < ids.size(); from += MAX_IN_LIST) {
+        eventRepo.deleteEvents(gameId, ids.subList(from, Math.min(ids.size(), from + MAX_IN_LIST)));
+      }
+    });
+  }
+}
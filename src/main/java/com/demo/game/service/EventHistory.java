@@ -0,0 +1,52 @@
+package com.demo.game.service;
+
+import com.demo.game.archive.EventArchive;
+import com.demo.game.archive.EventRecord;
+import jakarta.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Historia zdarzeń gry z obu miejsc: archiwum zakończonych gier ({@link EventArchive}) i {@link EventStore}.
+ * <p>
+ * Magazyn czytamy przed archiwum – {@link EventArchiver} najpierw dopisuje blok do archiwum, a dopiero potem usuwa
+ * wiersze, więc zdarzenie przenoszone w trakcie odczytu jest w którymś z dwóch miejsc (w obu – liczy się raz).
+ * Duplikaty rozpoznajemy po id zarchiwizowanych zdarzeń, nie po najwyższym z nich – wiersz o niższym id,
+ * zatwierdzony później, jest jeszcze tylko w bazie.
+ */
+@Service
+@RequiredArgsConstructor
+public class EventHistory {
+
+  private final EventStore store;
+  private final EventArchive archive;
+
+  /**
+   * Zdarzenia gry o id większym niż {@code afterId}, rosnąco po id.
+   */
+  @Transactional
+  public List<EventRecord> eventsAfter(long gameId, long afterId) {
+    List<EventRecord> live = store.eventsAfter(gameId, afterId);
+    List<EventRecord> archived = archive.events(gameId, afterId);
+    if (archived.isEmpty()) {
+      return live;
+    }
+
+    Set<Long> archivedIds = new HashSet<>(archived.size() * 2);
+    archived.forEach(e -> archivedIds.add(e.id()));
+    List<EventRecord> all = new ArrayList<>(archived.size() + live.size());
+    all.addAll(archived);
+    for (EventRecord e : live) {
+      if (!archivedIds.contains(e.id())) {
+        all.add(e);
+      }
+    }
+    all.sort(Comparator.comparingLong(EventRecord::id));
+    return all;
+  }
+}
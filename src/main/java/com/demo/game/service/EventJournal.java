@@ -0,0 +1,303 @@
+package com.demo.game.service;
+
+import com.demo.game.archive.EventRecord;
+import com.demo.game.objects.dao.GameEvent;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.EventDurability;
+import com.demo.game.repositories.GameEventRepository;
+import com.demo.game.repositories.GameRepository;
+import com.demo.game.repositories.UnitRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Dziennik zdarzeń gry w bazie ({@link EventStore} {@code jpa}) z opcjonalnym zapisem odroczonym (write-behind).
+ * <p>
+ * • COMMIT   – {@link #write} zapisuje zdarzenia w bieżącej transakcji rozkazu (batch JDBC przy flushu).<br>
+ * • INTERVAL – po commicie zdarzenia trafiają do ograniczonego bufora pierścieniowego; osobny wątek zapisuje je
+ * paczkami po {@code game.events.batch-size} co {@code game.events.flush-interval} (albo od razu, gdy paczka jest
+ * pełna).<br>
+ * • Gdy bufor jest pełny, wołający czeka na miejsce do {@code game.events.overflow-timeout} (backpressure); potem
+ * opróżnia bufor sam i dopiero wtedy zapisuje swoje zdarzenia – kolejność id zawsze odpowiada kolejności dodania.<br>
+ * • Przy zamykaniu aplikacji bufor jest opróżniany w co najwyżej {@value #SHUTDOWN_ATTEMPTS} próbach; czego nie udało
+ * się zapisać, trafia do logu jako utracone.<br>
+ * • Po trwałym zapisie zdarzenia trafiają do słuchaczy ({@link GameEventBroadcaster} – strumień SSE,
+ * {@link SnapshotService} – migawki stanu gry).
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "game.events.store", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class EventJournal implements EventStore {
+
+  static final int SHUTDOWN_ATTEMPTS = 3;
+
+  private final GameEventRepository eventRepo;
+  private final GameRepository gameRepo;
+  private final UnitRepository unitRepo;
+  private final PlatformTransactionManager txManager;
+
+  @Value("${game.events.durability:commit}")
+  private EventDurability durability;
+
+  @Value("${game.events.flush-interval:PT0.05S}")
+  private Duration flushInterval;
+
+  @Value("${game.events.buffer-capacity:65536}")
+  private int capacity;
+
+  @Value("${game.events.batch-size:1000}")
+  private int batchSize;
+
+  @Value("${game.events.overflow-timeout:PT5S}")
+  private Duration overflowTimeout;
+
+  private BlockingQueue<Entry> buffer;
+  private ScheduledExecutorService flusher;
+  private TransactionTemplate newTx;
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+  /** Sprawiedliwa – zdarzenia trafiają do bufora w kolejności, w jakiej rozkazy zgłosiły się po miejsce. */
+  private final ReentrantLock appendLock = new ReentrantLock(true);
+  private final List<Consumer<List<EventRecord>>> listeners = new CopyOnWriteArrayList<>();
+
+  /** Paczka, której zapis się nie powiódł – ponawiana przy kolejnym flushu. */
+  private List<Entry> retry = List.of();
+
+  @PostConstruct
+  void start() {
+    newTx = new TransactionTemplate(txManager);
+    newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    if (durability == EventDurability.INTERVAL) {
+      buffer = new ArrayBlockingQueue<>(capacity);
+      flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "event-journal");
+        t.setDaemon(true);
+        return t;
+      });
+      flusher.scheduleWithFixedDelay(this::flushSafely,
+          flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Override
+  public void write(List<GameEvent> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+    if (durability == EventDurability.COMMIT) {
+      eventRepo.saveAll(events);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          persisted(events);
+        }
+      });
+      return;
+    }
+
+    List<Entry> entries = events.stream().map(Entry::of).toList();
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        append(entries);
+      }
+    });
+  }
+
+  @Override
+  public List<EventRecord> eventsAfter(long gameId, long afterId) {
+    return eventRepo.findEventsAfter(gameId, afterId).stream().map(EventRecord::from).toList();
+  }
+
+  @Override
+  public void addListener(Consumer<List<EventRecord>> listener) {
+    listeners.add(listener);
+  }
+
+  @Override
+  public int pending() {
+    return buffer == null ? 0 : buffer.size() + retry.size();
+  }
+
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    if (flusher == null) {
+      return;
+    }
+    flusher.shutdown();
+    flusher.awaitTermination(10, TimeUnit.SECONDS);
+    for (int attempt = 1; attempt <= SHUTDOWN_ATTEMPTS && pending() > 0; attempt++) {
+      try {
+        flush();
+      } catch (RuntimeException ex) {
+        log.warn("Event journal flush on shutdown failed (attempt {}/{})", attempt, SHUTDOWN_ATTEMPTS, ex);
+      }
+    }
+    if (pending() > 0) {
+      List<Entry> lost = new ArrayList<>(retry);
+      buffer.drainTo(lost);
+      log.error("Event journal shut down with {} unsaved event(s) dropped, games {}", lost.size(),
+          lost.stream().map(Entry::gameId).distinct().toList());
+      return;
+    }
+    log.info("Event journal drained");
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Bufor i zapis paczkami                                      */
+  /* ----------------------------------------------------------- */
+
+  private void append(List<Entry> entries) {
+    appendLock.lock();
+    try {
+      for (int i = 0; i < entries.size(); i++) {
+        if (!buffer.offer(entries.get(i)) && !awaitSpace(entries.get(i))) {
+          overflow(entries.subList(i, entries.size()));
+          return;
+        }
+      }
+    } finally {
+      appendLock.unlock();
+    }
+    if (buffer.size() >= batchSize) {
+      scheduleFlush();
+    }
+  }
+
+  /**
+   * Pełny bufor – pogoń wątek zapisu i czekaj na miejsce. Inni wołający stoją w tym czasie na {@link #appendLock}.
+   */
+  private boolean awaitSpace(Entry entry) {
+    scheduleFlush();
+    try {
+      return buffer.offer(entry, overflowTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Bufor nie zwolnił miejsca na czas – zapis na wątku wołającego, ale dopiero po starszych zdarzeniach z bufora.
+   * Trzymamy {@link #appendLock}, więc nic nowego nie wejdzie do bufora między jego opróżnieniem a naszym zapisem.
+   * Gdy baza nie odpowiada, zdarzenia ustawiają się za resztą bufora w paczce do ponowienia – rozkaz jest już
+   * zatwierdzony, więc nie rzucamy wyjątku.
+   */
+  private void overflow(List<Entry> entries) {
+    log.warn("Event journal buffer still full after {} – writing {} event(s) on caller thread",
+        overflowTimeout, entries.size());
+    synchronized (this) {
+      try {
+        flush();
+        persist(entries);
+      } catch (RuntimeException ex) {
+        List<Entry> queued = new ArrayList<>(retry);
+        buffer.drainTo(queued);
+        queued.addAll(entries);
+        retry = List.copyOf(queued);
+        log.error("Event journal overflow write failed, {} event(s) will be retried", retry.size(), ex);
+      }
+    }
+  }
+
+  private void scheduleFlush() {
+    if (flushScheduled.compareAndSet(false, true)) {
+      flusher.execute(this::flushSafely);
+    }
+  }
+
+  private void flushSafely() {
+    flushScheduled.set(false);
+    try {
+      flush();
+    } catch (RuntimeException ex) {
+      log.error("Event journal flush failed, {} event(s) will be retried", retry.size(), ex);
+    }
+  }
+
+  private synchronized void flush() {
+    if (!retry.isEmpty()) {
+      persist(retry);
+      retry = List.of();
+    }
+    List<Entry> batch = new ArrayList<>(batchSize);
+    while (buffer.drainTo(batch, batchSize) > 0) {
+      try {
+        persist(batch);
+      } catch (RuntimeException ex) {
+        retry = List.copyOf(batch);
+        throw ex;
+      }
+      batch.clear();
+    }
+  }
+
+  private void persist(List<Entry> entries) {
+    List<GameEvent> saved = newTx.execute(status -> {
+      List<GameEvent> rows = new ArrayList<>(entries.size());
+      for (Entry e : entries) {
+        GameEvent row = new GameEvent(
+            gameRepo.getReferenceById(e.gameId()),
+            e.unitId() == null ? null : unitRepo.getReferenceById(e.unitId()),
+            e.type(),
+            e.payload(),
+            e.success(),
+            e.executedAt());
+        row.setX(e.x());
+        row.setY(e.y());
+        row.setDestroyedUnitId(e.destroyedUnitId());
+        rows.add(row);
+      }
+      return eventRepo.saveAll(rows);
+    });
+    persisted(saved);
+  }
+
+  private void persisted(List<GameEvent> events) {
+    List<EventRecord> records = events.stream().map(EventRecord::from).toList();
+    listeners.forEach(l -> l.accept(records));
+  }
+
+  /**
+   * Zdarzenie w buforze – same identyfikatory zamiast encji, żeby nie trzymać odłączonych obiektów JPA.
+   */
+  private record Entry(long gameId, Long unitId, CommandType type, byte[] payload, boolean success,
+                       Instant executedAt, Integer x, Integer y, Long destroyedUnitId) {
+
+    static Entry of(GameEvent e) {
+      return new Entry(
+          e.getGame().getId(),
+          e.getUnit() == null ? null : e.getUnit().getId(),
+          e.getType(),
+          e.getPayload(),
+          e.isSuccess(),
+          e.getExecutedAt(),
+          e.getX(),
+          e.getY(),
+          e.getDestroyedUnitId());
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.demo.game.service;
+
+import com.demo.game.archive.EventRecord;
+import com.demo.game.objects.dao.GameEvent;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Zapis i odczyt zdarzeń gry – backend wybiera {@code game.events.store}.
+ * <p>
+ * • {@code jpa} (domyślnie) – {@link EventJournal}: tabela {@code game_event}, tryby {@code game.events.durability}.<br>
+ * • {@code log} – {@link LogEventStore}: dziennik w plikach mapowanych w pamięć, bez bazy na ścieżce rozkazu.
+ * <p>
+ * Trwale zapisane zdarzenia (już z id) backend przekazuje słuchaczom – {@link GameEventBroadcaster} i
+ * {@link SnapshotService} rejestrują się przy starcie. Odwrotna zależność dałaby cykl: oba czytają historię przez
+ * {@link EventHistory}, a ta – z magazynu.
+ */
+public interface EventStore {
+
+  /**
+   * Zapisz zdarzenia rozkazu. Wołane wewnątrz transakcji rozkazu.
+   */
+  void write(List<GameEvent> events);
+
+  /**
+   * Zdarzenia gry o id większym niż {@code afterId}, rosnąco po id.
+   */
+  List<EventRecord> eventsAfter(long gameId, long afterId);
+
+  /**
+   * Słuchacz trwale zapisanych zdarzeń. Wołany z wątku, który zapisał paczkę – nie może blokować.
+   */
+  void addListener(Consumer<List<EventRecord>> listener);
+
+  /**
+   * Trwały zapis zdarzeń transakcji zatwierdzonej ostatnio w tym wątku – odebrany z wątku zaraz po commicie, żeby
+   * czekać na niego mógł inny wątek i już poza transakcją (nie trzyma połączenia z bazą). Zakończony, gdy backend
+   * nie każe czekać. Kończy się błędem, gdy zapis się nie udał – rozkaz jest już zatwierdzony, backend ponawia
+   * zapis sam.
+   */
+  default CompletableFuture<Void> durability() {
+    return CompletableFuture.completedFuture(null);
+  }
+
+  /**
+   * Ile zdarzeń czeka na trwały zapis.
+   */
+  int pending();
+}
@@ -0,0 +1,166 @@
+package com.demo.game.service;
+
+import com.demo.game.objects.dao.Unit;
+import com.demo.game.objects.dto.UnitDto;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Dziennik zmian jednostek w pamięci – podstawa synchronizacji przyrostowej ({@code GET /games/{id}/changes}).
+ * <p>
+ * • Każda zatwierdzona zmiana położenia albo stanu jednostki dostaje kolejną wersję; wersja gry = wersja jej
+ * ostatniej zmiany.<br>
+ * • Wersje pochodzą z jednego licznika procesu, startującego od {@code czas uruchomienia [ms] * 1000} – rosną
+ * między grami i między restartami, więc wersja z innego procesu nigdy nie wygląda na świeższą, niż jest.<br>
+ * • Dziennik gry trzyma najwyżej {@code game.changes.capacity} ostatnich zmian; klient, którego wersja jest
+ * starsza niż najstarsza zachowana zmiana (albo pochodzi sprzed utworzenia dziennika), dostaje pełną listę.<br>
+ * • Dziennik gry powstaje przy pierwszym użyciu; przywrócenie gry z historii zaczyna go od nowa, zakończenie gry
+ * usuwa.
+ */
+@Service
+public class GameChangeLog {
+
+  /**
+   * Zmiany po wskazanej wersji.
+   *
+   * @param version wersja, do której sięgają zmiany
+   * @param units   zmienione jednostki (każda raz, w najnowszym stanie); {@code null} – dziennik ich już nie
+   *                pamięta, potrzebna pełna lista
+   */
+  public record Delta(long version, List<UnitDto> units) {}
+
+  private final AtomicLong sequence;
+  private final Map<Long, Log> logs = new ConcurrentHashMap<>();
+
+  @Value("${game.changes.capacity:1024}")
+  private int capacity;
+
+  public GameChangeLog(Clock clock) {
+    this.sequence = new AtomicLong(clock.millis() * 1000);
+  }
+
+  /**
+   * Aktualna wersja gry.
+   */
+  public long version(long gameId) {
+    return log(gameId).version();
+  }
+
+  /**
+   * Jednostki zmienione po wersji {@code since}; {@code null} – gra nie ma jeszcze dziennika (nikt o nią nie pytał
+   * i nic się w niej nie zmieniło od uruchomienia albo od przywrócenia).
+   */
+  public Delta since(long gameId, long since) {
+    Log log = logs.get(gameId);
+    return log == null ? null : log.since(since);
+  }
+
+  /**
+   * Po commicie bieżącej transakcji dopisz aktualny stan jednostki (czytany z encji dopiero wtedy).
+   */
+  public void recordAfterCommit(long gameId, Unit unit) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      log(gameId).append(UnitDto.from(unit));
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        log(gameId).append(UnitDto.from(unit));
+      }
+    });
+  }
+
+  /**
+   * Zacznij dziennik gry od nowa po commicie – zmiany spoza rozkazów (przywrócenie z historii).
+   */
+  public void resetAfterCommit(long gameId) {
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        logs.remove(gameId);
+      }
+    });
+  }
+
+  /**
+   * Usuń dzienniki gier, których jednostki już się nie zmienią (zakończone gry).
+   */
+  public void forget(Collection<Long> gameIds) {
+    gameIds.forEach(logs::remove);
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private Log log(long gameId) {
+    return logs.computeIfAbsent(gameId, id -> new Log(sequence.incrementAndGet(), capacity));
+  }
+
+  /**
+   * Bufor cykliczny zmian jednej gry. Wersje nadawane pod monitorem dziennika, więc rosną w kolejności wpisów.
+   */
+  private final class Log {
+
+    private final long[] versions;
+    private final UnitDto[] units;
+    private int head;
+    private int size;
+
+    /** Zmiany o wersji {@code <= base} nie są w dzienniku. */
+    private long base;
+    private long version;
+
+    Log(long base, int capacity) {
+      this.versions = new long[capacity];
+      this.units = new UnitDto[capacity];
+      this.base = base;
+      this.version = base;
+    }
+
+    synchronized long version() {
+      return version;
+    }
+
+    synchronized void append(UnitDto unit) {
+      if (size == versions.length) {
+        base = versions[head];
+        size--;
+        head = (head + 1) % versions.length;
+      }
+      int slot = (head + size) % versions.length;
+      version = sequence.incrementAndGet();
+      versions[slot] = version;
+      units[slot] = unit;
+      size++;
+    }
+
+    synchronized Delta since(long since) {
+      if (since < base || since > version) {
+        return new Delta(version, null);
+      }
+      /* od najnowszej zmiany wstecz – z kilku zmian jednej jednostki zostaje najnowsza */
+      Map<Long, UnitDto> latest = new LinkedHashMap<>();
+      for (int i = size - 1; i >= 0; i--) {
+        int slot = (head + i) % versions.length;
+        if (versions[slot] <= since) {
+          break;
+        }
+        latest.putIfAbsent(units[slot].id(), units[slot]);
+      }
+      List<UnitDto> changed = new ArrayList<>(latest.values());
+      Collections.reverse(changed);
+      return new Delta(version, changed);
+    }
+  }
+}
@@ -0,0 +1,208 @@
+package com.demo.game.service;
+
+import com.demo.game.archive.EventRecord;
+import com.demo.game.commands.CommandCodec;
+import com.demo.game.objects.dto.EventDto;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Rozgłaszanie zatwierdzonych zdarzeń gry do subskrybentów SSE.
+ * <p>
+ * • {@link EventStore} woła {@link #publish} (słuchacz rejestrowany przy starcie) dopiero gdy zdarzenia są trwale zapisane (mają już id).<br>
+ * • Każdy subskrybent ma własny, ograniczony bufor ({@code game.events.stream-buffer}) i własny wirtualny wątek
+ * wysyłający – wolny klient nie spowalnia rozkazów ani innych klientów.<br>
+ * • Przepełniony bufor zamyka strumień; klient wznawia go z nagłówkiem {@code Last-Event-ID}, a brakujące zdarzenia
+ * doczytujemy z historii gry ({@link EventHistory} – baza albo archiwum zakończonych gier).<br>
+ * • Id z puli sekwencji nie muszą być zatwierdzane rosnąco (11 może przyjść po 12), więc na żywo wysyłamy wszystko;
+ * pomijamy tylko zdarzenia, które wysłała już powtórka z historii.<br>
+ * • Z tego samego powodu wznowienie czyta też okno poniżej {@code Last-Event-ID}: zdarzenia o niższym id wykonane
+ * nie wcześniej niż {@code game.events.resume-settle} przed ostatnim zdarzeniem klienta (szukane wśród
+ * {@code game.events.resume-window} poprzednich id). Niższe id zatwierdzone później nie przepadają, za to zdarzenia
+ * z okna, które klient już miał, przychodzą drugi raz – klient pomija je po id.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GameEventBroadcaster {
+
+  private final EventStore store;
+  private final EventHistory history;
+  private final CommandCodec codec;
+
+  @Value("${game.events.stream-buffer:1024}")
+  private int bufferSize;
+
+  @Value("${game.events.stream-timeout:PT30M}")
+  private Duration timeout;
+
+  @Value("${game.events.stream-heartbeat:PT15S}")
+  private Duration heartbeat;
+
+  @Value("${game.events.resume-settle:PT2S}")
+  private Duration resumeSettle;
+
+  @Value("${game.events.resume-window:1000}")
+  private long resumeWindow;
+
+  private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+  @PostConstruct
+  void start() {
+    store.addListener(this::publish);
+  }
+
+  /**
+   * Otwórz strumień zdarzeń gry.
+   *
+   * @param lastEventId ostatnie zdarzenie, które klient już ma ({@code null} – tylko nowe zdarzenia)
+   */
+  public SseEmitter subscribe(long gameId, Long lastEventId) {
+    return subscribe(gameId, lastEventId, new SseEmitter(timeout.toMillis()));
+  }
+
+  SseEmitter subscribe(long gameId, Long lastEventId, SseEmitter emitter) {
+    Subscriber sub = new Subscriber(gameId, emitter, new ArrayBlockingQueue<>(bufferSize));
+
+    // rejestracja PRZED odczytem luki – nic, co zostanie zatwierdzone w międzyczasie, nie przepadnie
+    subscribers.computeIfAbsent(gameId, id -> new CopyOnWriteArrayList<>()).add(sub);
+    emitter.onCompletion(() -> remove(sub));
+    emitter.onTimeout(() -> remove(sub));
+    emitter.onError(ex -> remove(sub));
+
+    Thread.ofVirtual().name("sse-game-" + gameId).start(() -> sub.run(lastEventId));
+    return emitter;
+  }
+
+  /**
+   * Przekaż świeżo zapisane zdarzenia subskrybentom ich gier. Nie blokuje.
+   */
+  public void publish(List<EventRecord> events) {
+    if (subscribers.isEmpty()) {
+      return;
+    }
+    for (EventRecord e : events) {
+      List<Subscriber> subs = subscribers.get(e.gameId());
+      if (subs == null || subs.isEmpty()) {
+        continue;
+      }
+      EventDto dto = toDto(e);
+      for (Subscriber sub : subs) {
+        if (!sub.queue.offer(dto)) {
+          sub.overflowed = true;
+        }
+      }
+    }
+  }
+
+  public int subscriberCount(long gameId) {
+    List<Subscriber> subs = subscribers.get(gameId);
+    return subs == null ? 0 : subs.size();
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private EventDto toDto(EventRecord e) {
+    return EventDto.from(e, e.payload() == null ? null : codec.decode(e.payload()));
+  }
+
+  private void remove(Subscriber sub) {
+    sub.closed = true;
+    subscribers.computeIfPresent(sub.gameId, (id, subs) -> {
+      subs.remove(sub);
+      return subs.isEmpty() ? null : subs;
+    });
+  }
+
+  private final class Subscriber {
+
+    private final long gameId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<EventDto> queue;
+    private volatile boolean closed;
+    private volatile boolean overflowed;
+    private long lastSentId;
+    /** Id wysłane w powtórce – tylko one mogą przyjść drugi raz z kolejki; ograniczone do rozmiaru kolejki. */
+    private final NavigableSet<Long> replayed = new TreeSet<>();
+
+    private Subscriber(long gameId, SseEmitter emitter, BlockingQueue<EventDto> queue) {
+      this.gameId = gameId;
+      this.emitter = emitter;
+      this.queue = queue;
+    }
+
+    private void run(Long resumeAfter) {
+      try {
+        if (resumeAfter != null) {
+          lastSentId = resumeAfter;
+          for (EventRecord e : missed(resumeAfter)) {
+            send(toDto(e));
+            replayed.add(e.id());
+            if (replayed.size() > bufferSize) {
+              replayed.pollFirst();
+            }
+          }
+        }
+        while (!closed) {
+          if (overflowed) {
+            log.debug("SSE subscriber of game {} overflowed at event {}", gameId, lastSentId);
+            emitter.complete();
+            return;
+          }
+          EventDto next = queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+          if (next == null) {
+            emitter.send(SseEmitter.event().comment("keep-alive"));
+          } else if (!replayed.remove(next.id())) {
+            send(next);
+          }
+        }
+      } catch (IOException | IllegalStateException ex) {
+        log.debug("SSE subscriber of game {} disconnected: {}", gameId, ex.getMessage());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      } finally {
+        remove(this);
+      }
+    }
+
+    /**
+     * Zdarzenia po {@code lastEventId} i te z okna poniżej niego, wykonane tuż przed nim – mogły zostać
+     * zatwierdzone dopiero po nim, więc klient mógł ich nie dostać.
+     */
+    private List<EventRecord> missed(long lastEventId) {
+      List<EventRecord> events = history.eventsAfter(gameId, Math.max(0, lastEventId - resumeWindow));
+      Instant settledBefore = events.stream()
+          .filter(e -> e.id() == lastEventId)
+          .findFirst()
+          .map(e -> e.executedAt().minus(resumeSettle))
+          .orElse(Instant.MIN);
+      return events.stream()
+          .filter(e -> e.id() > lastEventId || e.id() < lastEventId && !e.executedAt().isBefore(settledBefore))
+          .toList();
+    }
+
+    private void send(EventDto e) throws IOException {
+      emitter.send(SseEmitter.event()
+          .id(Long.toString(e.id()))
+          .name("game-event")
+          .data(e));
+      lastSentId = e.id();
+    }
+  }
+}
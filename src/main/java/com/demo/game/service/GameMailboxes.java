@@ -0,0 +1,110 @@
+package com.demo.game.service;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Skrzynki (mailboxy) gier dla trybu single-writer.
+ * <p>
+ * • Każda gra ma własną, ograniczoną kolejkę zadań ({@code game.mailbox.capacity}).<br>
+ * • Kolejkę opróżnia dokładnie jeden wirtualny wątek – zadania danej gry wykonują się po kolei, różne gry
+ * równolegle.<br>
+ * • Pusta skrzynka jest usuwana, a wątek kończy pracę; kolejne zadanie uruchamia nowy wątek.
+ * <p>
+ * Dodawanie zadania i usuwanie pustej skrzynki odbywa się pod blokadą wpisu mapy ({@code compute}), więc nigdy nie
+ * działają dwa wątki dla tej samej gry.
+ */
+@Service
+public class GameMailboxes {
+
+  private final Map<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+  @Value("${game.mailbox.capacity:10000}")
+  private int capacity;
+
+  /**
+   * Wstaw zadanie do skrzynki gry.
+   *
+   * @throws RejectedExecutionException gdy skrzynka jest pełna
+   */
+  public <T> CompletableFuture<T> submit(long gameId, Callable<T> task) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    Runnable job = () -> {
+      try {
+        result.complete(task.call());
+      } catch (Throwable ex) {
+        result.completeExceptionally(ex);
+      }
+    };
+
+    Mailbox[] started = new Mailbox[1];
+    mailboxes.compute(gameId, (id, mb) -> {
+      if (mb == null) {
+        mb = new Mailbox(capacity);
+        started[0] = mb;
+      }
+      if (!mb.queue.offer(job)) {
+        throw new RejectedExecutionException("Mailbox of game " + id + " is full");
+      }
+      return mb;
+    });
+
+    if (started[0] != null) {
+      Mailbox mb = started[0];
+      Thread.ofVirtual().name("game-" + gameId).start(() -> drain(gameId, mb));
+    }
+    return result;
+  }
+
+  /**
+   * Wykonaj zadanie w skrzynce gry i poczekaj na wynik. Wyjątek zadania jest rzucany bez opakowania.
+   */
+  public <T> T call(long gameId, Callable<T> task) throws Exception {
+    try {
+      return submit(gameId, task).get();
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof Exception cause) {
+        throw cause;
+      }
+      throw ex;
+    }
+  }
+
+  /** Liczba gier z niepustą skrzynką. */
+  public int activeMailboxes() {
+    return mailboxes.size();
+  }
+
+  private void drain(long gameId, Mailbox mb) {
+    while (true) {
+      Runnable job = mb.queue.poll();
+      if (job != null) {
+        job.run();
+        continue;
+      }
+      // pusta skrzynka – usuwamy ją atomowo, chyba że w międzyczasie ktoś coś dołożył
+      Mailbox current = mailboxes.computeIfPresent(gameId,
+          (id, mbox) -> mbox == mb && mb.queue.isEmpty() ? null : mbox);
+      if (current != mb) {
+        return;
+      }
+    }
+  }
+
+  private static final class Mailbox {
+
+    private final BlockingQueue<Runnable> queue;
+
+    private Mailbox(int capacity) {
+      this.queue = new LinkedBlockingQueue<>(capacity);
+    }
+  }
+}
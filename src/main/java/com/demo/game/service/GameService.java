@@ -1,26 +1,38 @@
 package com.demo.game.service;
 
 
+import com.demo.game.board.BoardPlacement;
+import com.demo.game.board.BoardRegistry;
+import com.demo.game.board.BoardUnit;
+import com.demo.game.board.OccupancyGrid;
+import com.demo.game.board.PackedBoard;
+import com.demo.game.board.ReachableCell;
+import com.demo.game.board.ThreatMap;
+import com.demo.game.exceptions.GameNotActiveException;
+import com.demo.game.metrics.GameMetrics;
+import com.demo.game.metrics.GameMetrics.CreateStage;
 import com.demo.game.objects.dao.Archer;
 import com.demo.game.objects.dao.Cannon;
 import com.demo.game.objects.dao.Game;
 import com.demo.game.objects.dao.Transport;
 import com.demo.game.objects.dao.Unit;
 import com.demo.game.objects.dto.PlayerConfig;
+import com.demo.game.objects.dto.UnitChanges;
+import com.demo.game.objects.dto.UnitQuery;
 import com.demo.game.objects.enums.Faction;
 import com.demo.game.objects.enums.GameStatus;
 import com.demo.game.objects.enums.UnitStatus;
 import com.demo.game.repositories.GameRepository;
 import com.demo.game.repositories.UnitRepository;
 import jakarta.transaction.Transactional;
-import java.security.SecureRandom;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.NoSuchElementException;
-import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -29,84 +41,102 @@ public class GameService {
 
   private final GameRepository gameRepo;
   private final UnitRepository unitRepo;
-
-  private final SecureRandom rng = new SecureRandom();
+  private final BoardRegistry boards;
+  private final SnapshotService snapshots;
+  private final GameMetrics metrics;
+  private final UnitListCache unitLists;
+  private final UnitReader unitReader;
+  private final GameChangeLog changes;
 
   /* ============================================================= */
-  /*  Utworzenie nowej gry – usuwa/starą oznacza ABORTED           */
+  /*  Utworzenie nowej gry – obok już trwających                   */
   /* ============================================================= */
 
   @Transactional
   public Game createNewGame(int width, int height,
       PlayerConfig whiteCfg,
       PlayerConfig blackCfg) {
+    return createNewGame(width, height, whiteCfg, blackCfg, null);
+  }
+
+  /**
+   * @param seed ziarno rozstawienia i losowych rozkazów ({@link RandomCommandGenerator}); {@code null} – losowanie
+   *             bez powtarzalności
+   */
+  @Transactional
+  public Game createNewGame(int width, int height,
+      PlayerConfig whiteCfg,
+      PlayerConfig blackCfg,
+      Long seed) {
 
-    // 1) zakończ wszystkie aktywne gry (uproszczone: ABORTED)
-    gameRepo.findFirstByStatusOrderByStartedAtDesc(GameStatus.ACTIVE)
-        .ifPresent(g -> {
-          g.setStatus(GameStatus.ABORTED);
-          gameRepo.save(g);
-        });
+    long start = System.nanoTime();
+    metrics.timeCreateCommit(start);
 
-    // 2) tworzymy nową grę
+    // 1) tworzymy nową grę – pozostałe aktywne gry trwają dalej (kończy je endGame / endActiveGames)
     Game game = new Game();
     game.setBoardWidth(width);
     game.setBoardHeight(height);
     game.setStartedAt(Instant.now());
     game.setStatus(GameStatus.ACTIVE);
+    game.setRandomSeed(seed);
     game = gameRepo.save(game);
 
-    // 3) rozmieść jednostki losowo
-    placeUnits(game, Faction.WHITE, whiteCfg);
-    placeUnits(game, Faction.BLACK, blackCfg);
+    long stage = metrics.stage(CreateStage.GAME, start);
 
-    return game;
-  }
+    // 2) rozmieść jednostki losowo – jedno losowanie pól dla obu frakcji, więc nigdy nie stoją na sobie
+    int capacity = width * height;
+    int whiteTotal = total(whiteCfg);
+    RandomGenerator rng = seed == null ? ThreadLocalRandom.current() : new SplittableRandom(seed);
+    int[] cells = BoardPlacement.sampleCells(rng, capacity, whiteTotal + total(blackCfg));
 
-  private void placeUnits(Game game, Faction faction, PlayerConfig cfg) {
-    int total = cfg.archers() + cfg.transports() + cfg.cannons();
-    int capacity = game.getBoardWidth() * game.getBoardHeight();
-    if (total > capacity) {
-      throw new IllegalArgumentException("Board too small for requested units");
-    }
+    List<Unit> units = new ArrayList<>(cells.length);
+    placeUnits(game, Faction.WHITE, whiteCfg, cells, 0, units);
+    placeUnits(game, Faction.BLACK, blackCfg, cells, whiteTotal, units);
+    stage = metrics.stage(CreateStage.PLACEMENT, stage);
+
+    // zapis paczką – identyfikatory z sekwencji, więc Hibernate łączy INSERT-y w batch JDBC
+    unitRepo.saveAll(units);
+    stage = metrics.stage(CreateStage.UNITS, stage);
 
-    Set<String> occupied = new HashSet<>();
+    // 3) siatka zajętości od razu w pamięci – pierwsze komendy nie muszą jej wczytywać
+    boards.register(game, units);
 
-    // helper na szukanie pustych pól
-    java.util.function.Supplier<int[]> freeCoord = () -> {
-      int x, y;
-      do {
-        x = rng.nextInt(game.getBoardWidth());
-        y = rng.nextInt(game.getBoardHeight());
-      } while (!occupied.add(x + ":" + y));
-      return new int[]{x, y};
-    };
+    // 4) migawka początkowa – punkt startowy odtwarzania gry ze zdarzeń
+    snapshots.snapshotInitial(game, units);
+    metrics.stage(CreateStage.SNAPSHOT, stage);
+
+    return game;
+  }
+
+  private static int total(PlayerConfig cfg) {
+    return cfg.archers() + cfg.transports() + cfg.cannons();
+  }
 
-    List<Unit> batch = new ArrayList<>();
+  /**
+   * Tworzy jednostki frakcji na kolejnych wylosowanych polach, zaczynając od {@code cells[offset]}.
+   */
+  private void placeUnits(Game game, Faction faction, PlayerConfig cfg, int[] cells, int offset, List<Unit> out) {
+    int width = game.getBoardWidth();
+    int next = offset;
 
     // archers
-    for (int i = 0; i < cfg.archers(); i++) {
-      int[] pos = freeCoord.get();
+    for (int i = 0; i < cfg.archers(); i++, next++) {
       Archer a = new Archer();
-      initialiseUnit(a, game, faction, pos[0], pos[1]);
-      batch.add(a);
+      initialiseUnit(a, game, faction, cells[next] % width, cells[next] / width);
+      out.add(a);
     }
     // transports
-    for (int i = 0; i < cfg.transports(); i++) {
-      int[] pos = freeCoord.get();
+    for (int i = 0; i < cfg.transports(); i++, next++) {
       Transport t = new Transport();
-      initialiseUnit(t, game, faction, pos[0], pos[1]);
-      batch.add(t);
+      initialiseUnit(t, game, faction, cells[next] % width, cells[next] / width);
+      out.add(t);
     }
     // cannons
-    for (int i = 0; i < cfg.cannons(); i++) {
-      int[] pos = freeCoord.get();
+    for (int i = 0; i < cfg.cannons(); i++, next++) {
       Cannon c = new Cannon();
-      initialiseUnit(c, game, faction, pos[0], pos[1]);
-      batch.add(c);
+      initialiseUnit(c, game, faction, cells[next] % width, cells[next] / width);
+      out.add(c);
     }
-
-    unitRepo.saveAll(batch);
   }
 
   private void initialiseUnit(Unit u, Game game, Faction faction, int x, int y) {
@@ -120,13 +150,144 @@ public class GameService {
   }
 
   /* ============================================================= */
-  /*  Lista jednostek frakcji                                     */
+  /*  Zakończenie gry                                              */
   /* ============================================================= */
 
+  /**
+   * Zakończ jedną aktywną grę. Siatka gry znika z pamięci po commicie – kolejne rozkazy dostają 409.
+   *
+   * @param result FINISHED albo ABORTED
+   * @throws GameNotActiveException gdy gra jest już zakończona
+   */
   @Transactional
-  public List<Unit> listUnits(long gameId, Faction faction) {
-    Game game = gameRepo.findById(gameId)
-        .orElseThrow(() -> new NoSuchElementException("Game " + gameId + " not found"));
-    return unitRepo.findByGameAndFaction(game, faction);
+  public Game endGame(long gameId, GameStatus result) throws NotFoundException {
+    requireTerminal(result);
+    Game game = gameRepo.findWithLockById(gameId)
+        .orElseThrow(NotFoundException::new);
+    if (!game.getStatus().isAcceptingCommands()) {
+      throw new GameNotActiveException(gameId, game.getStatus());
+    }
+    game.setStatus(result);
+    boards.evictAfterCommit(List.of(gameId));
+    unitLists.forget(List.of(gameId));
+    changes.forget(List.of(gameId));
+    return game;
+  }
+
+  /**
+   * Zakończ wszystkie aktywne gry jednym UPDATE ({@link GameRepository#bulkUpdateStatus}) – sprzątanie po testach
+   * obciążeniowych, restart turnieju itp.
+   *
+   * @param keepGameId gra, która ma trwać dalej; {@code null} – kończymy wszystkie
+   * @return liczba zakończonych gier
+   */
+  @Transactional
+  public int endActiveGames(GameStatus result, Long keepGameId) {
+    requireTerminal(result);
+    List<Long> ended = new ArrayList<>(gameRepo.findIdsByStatus(GameStatus.ACTIVE));
+    if (keepGameId != null) {
+      ended.remove(keepGameId);
+    }
+    if (ended.isEmpty()) {
+      return 0;
+    }
+    // dokładnie te id, które usuwamy z pamięci – gra założona po odczycie listy trwa dalej
+    int count = gameRepo.bulkUpdateStatus(result, GameStatus.ACTIVE, ended);
+    boards.evictAfterCommit(ended);
+    unitLists.forget(ended);
+    changes.forget(ended);
+    return count;
+  }
+
+  private static void requireTerminal(GameStatus result) {
+    if (!result.isTerminal()) {
+      throw new IllegalArgumentException("Game can end only as FINISHED or ABORTED, not " + result);
+    }
+  }
+
+  /* ============================================================= */
+  /*  Odczyt gry                                                    */
+  /* ============================================================= */
+
+  public Game getGame(long gameId) throws NotFoundException {
+    return gameRepo.findById(gameId)
+        .orElseThrow(NotFoundException::new);
+  }
+
+  /* ============================================================= */
+  /*  Przywrócenie stanu z historii                                */
+  /* ============================================================= */
+
+  /**
+   * Jednostki gry ustawione według migawki i zapisanych zdarzeń (patrz {@link SnapshotService#restore}).
+   */
+  public List<Unit> restoreGame(long gameId) throws NotFoundException {
+    getGame(gameId);
+    return snapshots.restore(gameId);
+  }
+
+  /* ============================================================= */
+  /*  Plansza dla widzów                                          */
+  /* ============================================================= */
+
+  /**
+   * Cała plansza w postaci upakowanej. Gdy siatka gry jest w pamięci – bez dostępu do bazy.
+   */
+  public PackedBoard board(long gameId) throws NotFoundException {
+    return grid(gameId).pack();
+  }
+
+  /* ============================================================= */
+  /*  Zapytania przestrzenne (siatka gry w pamięci)                */
+  /* ============================================================= */
+
+  /**
+   * Żywe jednostki w odległości Czebyszewa co najwyżej {@code distance} od pola (x,y).
+   */
+  public List<BoardUnit> unitsWithin(long gameId, int x, int y, int distance) throws NotFoundException {
+    return grid(gameId).unitsWithin(x, y, distance);
+  }
+
+  /**
+   * Pola osiągalne jednym ruchem transportu frakcji {@code faction} z pola (x,y).
+   */
+  public List<ReachableCell> transportReach(long gameId, int x, int y, Faction faction) throws NotFoundException {
+    return grid(gameId).transportReach(x, y, faction);
+  }
+
+  /**
+   * Pola w zasięgu łuczników i armat frakcji {@code faction}.
+   */
+  public ThreatMap threats(long gameId, Faction faction) throws NotFoundException {
+    return grid(gameId).threats(faction);
+  }
+
+  /**
+   * Siatka gry do odczytu – z pamięci bez dostępu do bazy, a gdy jej tam nie ma, przez {@link BoardRegistry#view}.
+   */
+  private OccupancyGrid grid(long gameId) throws NotFoundException {
+    OccupancyGrid grid = boards.cached(gameId);
+    return grid != null ? grid : boards.view(getGame(gameId));
+  }
+
+  /* ============================================================= */
+  /*  Synchronizacja przyrostowa                                   */
+  /* ============================================================= */
+
+  /**
+   * Jednostki zmienione po wersji {@code since} – z dziennika w pamięci ({@link GameChangeLog}), bez zapytań.
+   * Gdy dziennik tej wersji już nie pamięta (albo {@code since == null}) – pełna lista jednostek z bazy.
+   */
+  public UnitChanges changes(long gameId, Long since) throws NotFoundException {
+    if (since != null) {
+      GameChangeLog.Delta delta = changes.since(gameId, since);
+      if (delta != null && delta.units() != null) {
+        return new UnitChanges(delta.version(), false, delta.units());
+      }
+    }
+    unitReader.requireGame(gameId);
+    /* wersja przed odczytem – zmiany zatwierdzone w międzyczasie klient dostanie jeszcze raz, nie zgubi ich */
+    long version = changes.version(gameId);
+    return new UnitChanges(version, true, unitReader.list(gameId, UnitQuery.all()));
   }
 }
@@ -0,0 +1,205 @@
+package com.demo.game.service;
+
+import com.demo.game.archive.EventRecord;
+import com.demo.game.eventlog.EventLog;
+import com.demo.game.objects.dao.GameEvent;
+import com.demo.game.objects.enums.EventDurability;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Zdarzenia gry w dzienniku plikowym ({@link EventStore} {@code log}) zamiast w tabeli {@code game_event}.
+ * <p>
+ * • Po commicie rozkazu zdarzenia są dopisywane do {@link EventLog} (pamięć zmapowanego pliku, bez bazy).<br>
+ * • Wątek {@code event-log-sync} co {@code game.events.log.sync-interval} utrwala wszystko, co dopisano od
+ * poprzedniego razu – jeden fsync na całą grupę rozkazów – i dopiero wtedy przekazuje zdarzenia słuchaczom.<br>
+ * • COMMIT – rozkaz budzi wątek i po zakończeniu transakcji ({@link #durability}, czeka {@link CommandService})
+ * czeka na fsync swojej grupy; wraca, gdy zdarzenia są trwałe.<br>
+ * • INTERVAL – rozkaz nie czeka; awaria może zabrać zdarzenia z ostatniego {@code sync-interval}.<br>
+ * • Nieudany fsync: paczka wraca do kolejki i jest utrwalana w następnym przebiegu; czekający rozkaz loguje błąd i
+ * kończy się normalnie – jest już zatwierdzony w bazie.<br>
+ * • Zmiany jednostek są w bazie już po commicie – awaria przed dopisaniem do dziennika gubi zdarzenia rozkazu (jak
+ * bufor dziennika bazy w trybie INTERVAL).<br>
+ * • Dziennik nie jest archiwizowany ani przycinany – {@link EventArchiver} działa tylko z magazynem {@code jpa}, a
+ * katalog {@code game.events.log.dir} rośnie bez końca; sprzątanie zakończonych gier należy do operatora.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "game.events.store", havingValue = "log")
+public class LogEventStore implements EventStore {
+
+  @Value("${game.events.durability:commit}")
+  private EventDurability durability;
+
+  @Value("${game.events.log.dir:data/events}")
+  private String directory;
+
+  @Value("${game.events.log.partitions:8}")
+  private int partitionCount;
+
+  @Value("${game.events.log.file-size:67108864}")
+  private int fileSize;
+
+  @Value("${game.events.log.sync-interval:PT0.01S}")
+  private Duration syncInterval;
+
+  private EventLog eventLog;
+  private Thread syncer;
+  private volatile boolean running;
+  private final List<Consumer<List<EventRecord>>> listeners = new CopyOnWriteArrayList<>();
+
+  /** Dopisane, jeszcze nieutrwalone zdarzenia i przyszłość ich fsync – podmieniane razem pod {@code lock}. */
+  private final Object lock = new Object();
+  private List<EventRecord> unsynced = new ArrayList<>();
+  private CompletableFuture<Void> nextSync = new CompletableFuture<>();
+  /** COMMIT: fsync, na który czeka ostatnia transakcja wątku – odbiera go {@link #durability}. */
+  private final ThreadLocal<CompletableFuture<Void>> awaiting = new ThreadLocal<>();
+
+  @PostConstruct
+  void start() throws IOException {
+    eventLog = EventLog.open(Path.of(directory), partitionCount, fileSize);
+    log.info("Event log opened in {}, last event id {}", directory, eventLog.lastId());
+    log.warn("Events in the file log are not archived – {} grows until cleaned up manually", directory);
+    running = true;
+    syncer = Thread.ofPlatform().name("event-log-sync").daemon().start(this::syncLoop);
+  }
+
+  @Override
+  public void write(List<GameEvent> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+    List<EventRecord> records = events.stream().map(EventRecord::unsaved).toList();
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        append(records);
+      }
+    });
+  }
+
+  @Override
+  public List<EventRecord> eventsAfter(long gameId, long afterId) {
+    return eventLog.eventsAfter(gameId, afterId);
+  }
+
+  @Override
+  public void addListener(Consumer<List<EventRecord>> listener) {
+    listeners.add(listener);
+  }
+
+  @Override
+  public CompletableFuture<Void> durability() {
+    CompletableFuture<Void> synced = awaiting.get();
+    if (synced == null) {
+      return EventStore.super.durability();
+    }
+    awaiting.remove();
+    return synced;
+  }
+
+  @Override
+  public int pending() {
+    synchronized (lock) {
+      return unsynced.size();
+    }
+  }
+
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    running = false;
+    LockSupport.unpark(syncer);
+    syncer.join(Duration.ofSeconds(10));
+    sync();
+    eventLog.close();
+    log.info("Event log closed, last event id {}", eventLog.lastId());
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Dopisywanie i grupowy fsync                                 */
+  /* ----------------------------------------------------------- */
+
+  /**
+   * Wołane w {@code afterCommit} – nie czeka i nie rzuca, rozkaz jest już zatwierdzony.
+   */
+  private void append(List<EventRecord> records) {
+    List<EventRecord> stored;
+    try {
+      stored = eventLog.append(records);
+    } catch (IOException | RuntimeException ex) {
+      log.error("Cannot append {} event(s) of a committed command to the event log", records.size(), ex);
+      return;
+    }
+    // dopisane przed pobraniem przyszłości – fsync, który ją zakończy, obejmie też te rekordy
+    CompletableFuture<Void> synced;
+    synchronized (lock) {
+      unsynced.addAll(stored);
+      synced = nextSync;
+    }
+    if (durability == EventDurability.COMMIT) {
+      LockSupport.unpark(syncer);
+      awaiting.set(synced);
+    }
+  }
+
+  private void syncLoop() {
+    long pause = syncInterval.toNanos();
+    while (running) {
+      LockSupport.parkNanos(pause);
+      try {
+        sync();
+      } catch (RuntimeException ex) {
+        log.error("Event log sync failed, {} event(s) will be retried", pending(), ex);
+      }
+    }
+  }
+
+  /**
+   * Utrwal dopisane zdarzenia i przekaż je słuchaczom. Woła tylko wątek {@code event-log-sync} (i zamknięcie).
+   */
+  private void sync() {
+    List<EventRecord> batch;
+    CompletableFuture<Void> done;
+    synchronized (lock) {
+      if (unsynced.isEmpty()) {
+        return;
+      }
+      batch = unsynced;
+      done = nextSync;
+      unsynced = new ArrayList<>();
+      nextSync = new CompletableFuture<>();
+    }
+
+    try {
+      eventLog.sync();
+    } catch (RuntimeException ex) {
+      synchronized (lock) {
+        batch.addAll(unsynced);
+        unsynced = batch;
+      }
+      done.completeExceptionally(ex);
+      throw ex;
+    }
+    done.complete(null);
+
+    // kolejność dopisania do listy może się różnić od kolejności id – słuchacze dostają zdarzenia rosnąco
+    batch.sort(Comparator.comparingLong(EventRecord::id));
+    listeners.forEach(l -> l.accept(batch));
+  }
+}
@@ -1,109 +1,133 @@
 package com.demo.game.service;
 
+import com.demo.game.board.BoardView;
+import com.demo.game.board.OccupancyGrid;
+import com.demo.game.board.TacticalBoard;
 import com.demo.game.commands.Command;
-import com.demo.game.commands.MoveCommand;
-import com.demo.game.commands.ShootCommand;
-import com.demo.game.objects.dao.*;
-import com.demo.game.objects.enums.*;
-import com.demo.game.repositories.UnitRepository;
+import com.demo.game.commands.CommandScoring;
+import com.demo.game.commands.RandomCommands;
+import com.demo.game.exceptions.CommandRejectedException;
+import com.demo.game.exceptions.CooldownException;
+import com.demo.game.objects.dao.Unit;
+import com.demo.game.objects.enums.AiStrategy;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.RejectionReason;
+import com.demo.game.objects.enums.UnitType;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.security.SecureRandom;
-import java.time.Clock;
-import java.util.List;
-
 /**
- * Losowy generator komend – wykorzystywany przez endpoint /units/{id}/random.
+ * Losowy generator komend – wykorzystywany przez endpoint /units/{id}/random (przez
+ * {@link CommandExecutor#executeRandom}).
  * <p>
- * • Wybiera legalny ruch/strzał biorąc pod uwagę typ jednostki i rozmiar planszy.<br>
- * • Nie sprawdza cooldownu – to robi CommandService.<br>
- * • Zawsze zwraca rozkaz wydany przez właściwą frakcję (issuer == unit.getFaction()).
+ * • Losuje tylko spośród rozkazów legalnych w bieżącym położeniu jednostki i na bieżącej planszy
+ * ({@link RandomCommands#legal}) i tylko tych typów, których cooldown już minął.<br>
+ * • Strategia {@link AiStrategy#PLANNER} zamiast losować wybiera najwyżej oceniony z tych samych rozkazów
+ * ({@link CommandScoring#best}); generator służy wtedy tylko do remisów.<br>
+ * • Gra bez ziarna losuje na {@link ThreadLocalRandom} – bez wspólnego stanu między wątkami.<br>
+ * • Gra z ziarnem ({@code Game.randomSeed}) losuje na {@link SplittableRandom} wyprowadzonym z ziarna, pola
+ * jednostki i liczby jej rozkazów – nie z id, więc ta sama sekwencja żądań w nowej grze z tym samym ziarnem
+ * (identyczne rozstawienie, inne id) daje te same rozkazy.<br>
+ * • Wołający trzyma monitor siatki albo podaje niezmienną kopię planszy – plansza nie zmienia się w trakcie
+ * losowania.
  */
 @Service
 @RequiredArgsConstructor
 public class RandomCommandGenerator {
 
-  private final UnitRepository unitRepo;
-//  private final Clock clock; // feature
+  private static final long X_GAMMA = 0x9E3779B97F4A7C15L;
+  private static final long Y_GAMMA = 0xBF58476D1CE4E5B9L;
+  private static final long COUNT_GAMMA = 0x94D049BB133111EBL;
 
-  private final SecureRandom rng = new SecureRandom();
+  private final Clock clock;
 
-  public Command generate(long unitId, Faction issuer) throws NotFoundException {
-    Unit unit = unitRepo.findById(unitId)
-        .orElseThrow(NotFoundException::new);
-
-    if (unit.getFaction() != issuer) {
-      throw new IllegalArgumentException("Issuer faction does not own this unit");
-    }
-
-    /* ====== wybór wariantu komendy ====== */
-    return switch (unit) {
-      case Archer archer -> randomArcherCommand(archer, issuer);
-      case Transport transport -> randomTransportCommand(transport, issuer);
-      case Cannon cannon -> randomCannonCommand(cannon, issuer);
-      default -> throw new IllegalStateException("Unknown unit type: " + unit.getClass());
-    };
+  /**
+   * @throws CooldownException        gdy jednostka nie może jeszcze wykonać żadnego rozkazu
+   * @throws CommandRejectedException gdy w tym położeniu nie ma żadnego legalnego rozkazu
+   */
+  public Command generate(Unit unit, OccupancyGrid grid) {
+    return generate(unit, grid, grid.randomSeed());
   }
 
-  /* ---------------------------------------------------------------- */
-  /*  ŁUCZNIK                                                         */
-  /* ---------------------------------------------------------------- */
-
-  private Command randomArcherCommand(Archer unit, Faction issuer) {
-    boolean move = rng.nextBoolean();
-    Direction dir = randomDirectionOrthogonal();
-    if (move) {
-      return new MoveCommand(dir, 1, issuer, CommandType.MOVE_ARCHER);
-    } else {
-      int distance = rng.nextInt(3) + 1; // 1–3 pól
-      int dx = switch (dir) {
-        case LEFT -> -distance;
-        case RIGHT -> distance;
-        default -> 0;
-      };
-      int dy = switch (dir) {
-        case UP -> -distance;
-        case DOWN -> distance;
-        default -> 0;
-      };
-      return new ShootCommand(dx, dy, issuer, CommandType.SHOOT_ARCHER);
-    }
+  /**
+   * Jak {@link #generate(Unit, OccupancyGrid)}, według wskazanej strategii.
+   */
+  public Command generate(Unit unit, OccupancyGrid grid, AiStrategy strategy) {
+    return generate(unit, grid, grid.randomSeed(), strategy);
   }
 
-  /* ---------------------------------------------------------------- */
-  /*  TRANSPORT                                                       */
-  /* ---------------------------------------------------------------- */
+  /**
+   * Wariant dla dowolnego widoku planszy, np. niezmiennej kopii ({@link OccupancyGrid#snapshot}) czytanej przez
+   * kilka wątków naraz.
+   */
+  public Command generate(Unit unit, BoardView board, Long seed) {
+    return choose(unit, board, seed, null);
+  }
 
-  private Command randomTransportCommand(Transport t, Faction issuer) {
-    Direction dir = randomDirectionOrthogonal();
-    int steps = rng.nextInt(3) + 1; // 1–3
-    return new MoveCommand(dir, steps, issuer, CommandType.MOVE_TRANSPORT);
+  /**
+   * Wariant z wyborem strategii – planista potrzebuje rodzajów jednostek i zasięgu ognia ({@link TacticalBoard}).
+   */
+  public Command generate(Unit unit, TacticalBoard board, Long seed, AiStrategy strategy) {
+    return choose(unit, board, seed, strategy == AiStrategy.PLANNER ? board : null);
   }
 
-  /* ---------------------------------------------------------------- */
-  /*  ARMATA                                                          */
-  /* ---------------------------------------------------------------- */
+  /* ----------------------------------------------------------- */
+
+  /**
+   * @param planner plansza do oceny rozkazów; {@code null} – rozkaz losowy
+   */
+  private Command choose(Unit unit, BoardView board, Long seed, TacticalBoard planner) {
+    CommandType moveType = moveType(unit.getType());
+    CommandType shotType = shotType(unit.getType());
+    boolean canMove = moveType != null && unit.canExecute(moveType, clock);
+    boolean canShoot = shotType != null && unit.canExecute(shotType, clock);
+
+    if (!canMove && !canShoot) {
+      CommandType soonest = moveType == null ? shotType
+          : shotType == null ? moveType
+          : moveType.getCooldown().compareTo(shotType.getCooldown()) <= 0 ? moveType : shotType;
+      Duration wait = Duration.between(clock.instant(), unit.getLastCommandAt().plus(soonest.getCooldown()));
+      throw new CooldownException(unit.getId(), wait);
+    }
 
-  private Command randomCannonCommand(Cannon c, Faction issuer) {
-    /* losujemy dx i dy z zakresu -3..3 (bez 0,0) */
-    int dx, dy;
-    do {
-      dx = rng.nextInt(7) - 3; // -3..3
-      dy = rng.nextInt(7) - 3;
-    } while (dx == 0 && dy == 0);
-    return new ShootCommand(dx, dy, issuer, CommandType.SHOOT_CANNON);
+    Command cmd = planner != null
+        ? CommandScoring.best(unit.getType(), unit.getFaction(), unit.getX(), unit.getY(), planner,
+            canMove, canShoot, rng(unit, seed))
+        : RandomCommands.legal(unit.getType(), unit.getFaction(), unit.getX(), unit.getY(), board,
+            canMove, canShoot, rng(unit, seed));
+    if (cmd == null) {
+      throw new CommandRejectedException(RejectionReason.NO_LEGAL_COMMAND,
+          "Unit " + unit.getId() + " has no legal command");
+    }
+    return cmd;
   }
 
-  /* ---------------------------------------------------------------- */
-  /*  Pomocnicze                                                       */
-  /* ---------------------------------------------------------------- */
+  private static RandomGenerator rng(Unit unit, Long seed) {
+    if (seed == null) {
+      return ThreadLocalRandom.current();
+    }
+    return new SplittableRandom(seed + unit.getX() * X_GAMMA + unit.getY() * Y_GAMMA
+        + unit.getCommandCount() * COUNT_GAMMA);
+  }
 
-  private static final List<Direction> ORTHO = List.of(Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT);
+  private static CommandType moveType(UnitType type) {
+    return switch (type) {
+      case ARCHER -> CommandType.MOVE_ARCHER;
+      case TRANSPORT -> CommandType.MOVE_TRANSPORT;
+      case CANNON -> null;
+    };
+  }
 
-  private Direction randomDirectionOrthogonal() {
-    return ORTHO.get(rng.nextInt(ORTHO.size()));
+  private static CommandType shotType(UnitType type) {
+    return switch (type) {
+      case ARCHER -> CommandType.SHOOT_ARCHER;
+      case TRANSPORT -> null;
+      case CANNON -> CommandType.SHOOT_CANNON;
+    };
   }
 }
-
@@ -0,0 +1,196 @@
+package com.demo.game.service;
+
+import com.demo.game.archive.EventRecord;
+import com.demo.game.board.BoardRegistry;
+import com.demo.game.objects.dao.Game;
+import com.demo.game.objects.dao.GameSnapshot;
+import com.demo.game.objects.dao.Unit;
+import com.demo.game.repositories.GameRepository;
+import com.demo.game.repositories.GameSnapshotRepository;
+import com.demo.game.repositories.UnitRepository;
+import com.demo.game.snapshots.GameState;
+import com.demo.game.snapshots.SnapshotCodec;
+import com.demo.game.snapshots.UnitState;
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Migawki stanu gry i odtwarzanie stanu ze zdarzeń (event sourcing).
+ * <p>
+ * • Przy rozstawieniu planszy zapisujemy migawkę początkową ({@code lastEventId = 0}).<br>
+ * • {@link EventStore} zgłasza każde trwale zapisane zdarzenie; gdy od ostatniej migawki gry uzbiera się
+ * {@code game.snapshots.interval} zdarzeń, zadanie w tle składa nową migawkę: poprzednia + zdarzenia po niej.
+ * Migawka powstaje wyłącznie ze zdarzeń, nigdy z wierszy jednostek, więc zawsze zgadza się z historią.<br>
+ * • Zdarzenia młodsze niż {@code game.snapshots.settle} nie trafiają do migawki – zdarzenie o mniejszym id może
+ * jeszcze czekać na commit (tryb locking) albo w buforze dziennika (tryb interval).<br>
+ * • Odtworzenie gry = jedna migawka + ogon zdarzeń po indeksie {@code (game_id, id)}, bez czytania tabeli jednostek.
+ * Zdarzenia zakończonych gier mogą być już w archiwum – czytamy je przez {@link EventHistory}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SnapshotService {
+
+  private final GameSnapshotRepository snapshotRepo;
+  private final EventStore store;
+  private final EventHistory history;
+  private final GameRepository gameRepo;
+  private final UnitRepository unitRepo;
+  private final BoardRegistry boards;
+  private final CooldownService cooldowns;
+  private final UnitListCache unitLists;
+  private final GameChangeLog changes;
+  private final PlatformTransactionManager txManager;
+  private final Clock clock;
+
+  @Value("${game.snapshots.interval:500}")
+  private int interval;
+
+  @Value("${game.snapshots.settle:PT10S}")
+  private Duration settle;
+
+  /** Ile zdarzeń gry zapisano od jej ostatniej migawki (tylko w tym procesie). */
+  private final Map<Long, Integer> sinceSnapshot = new ConcurrentHashMap<>();
+
+  private TransactionTemplate tx;
+
+  @PostConstruct
+  void start() {
+    tx = new TransactionTemplate(txManager);
+    store.addListener(this::onPersisted);
+  }
+
+  /**
+   * Migawka początkowa – wołane w transakcji tworzenia gry, po nadaniu jednostkom identyfikatorów.
+   */
+  public void snapshotInitial(Game game, Collection<? extends Unit> units) {
+    List<UnitState> states = units.stream().map(UnitState::from).toList();
+    snapshotRepo.save(new GameSnapshot(game, 0L, SnapshotCodec.encode(states), clock.instant()));
+  }
+
+  /**
+   * Zdarzenia trwale zapisane w {@link EventStore} (po commicie albo po zapisie paczki dziennika).
+   */
+  public void onPersisted(List<EventRecord> events) {
+    for (EventRecord e : events) {
+      sinceSnapshot.merge(e.gameId(), 1, Integer::sum);
+    }
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Migawki okresowe                                            */
+  /* ----------------------------------------------------------- */
+
+  @Scheduled(fixedDelayString = "${game.snapshots.check-interval:PT10S}")
+  public void takeDueSnapshots() {
+    for (Map.Entry<Long, Integer> due : sinceSnapshot.entrySet()) {
+      if (due.getValue() < interval) {
+        continue;
+      }
+      long gameId = due.getKey();
+      try {
+        Integer folded = tx.execute(status -> snapshot(gameId));
+        sinceSnapshot.computeIfPresent(gameId, (id, n) -> n - folded > 0 ? n - folded : null);
+      } catch (RuntimeException ex) {
+        log.error("Snapshot of game {} failed", gameId, ex);
+      }
+    }
+  }
+
+  /**
+   * @return liczba zdarzeń dołożonych do nowej migawki
+   */
+  private int snapshot(long gameId) {
+    GameSnapshot last = snapshotRepo.findFirstByGameIdOrderByLastEventIdDesc(gameId).orElse(null);
+    if (last == null) {
+      return 0;
+    }
+    GameState state = new GameState(gameId, last.getLastEventId(), SnapshotCodec.decode(last.getState()));
+    Instant settledBefore = clock.instant().minus(settle);
+
+    int folded = 0;
+    for (EventRecord e : history.eventsAfter(gameId, last.getLastEventId())) {
+      if (!e.executedAt().isBefore(settledBefore)) {
+        break;    // dalej tylko zdarzenia, które mogą jeszcze mieć lukę przed sobą
+      }
+      state.apply(e);
+      folded++;
+    }
+    if (folded > 0) {
+      save(state);
+      log.debug("Snapshot of game {} taken at event {}", gameId, state.lastEventId());
+    }
+    return folded;
+  }
+
+  private void save(GameState state) {
+    snapshotRepo.save(new GameSnapshot(
+        gameRepo.getReferenceById(state.gameId()),
+        state.lastEventId(),
+        SnapshotCodec.encode(state.units()),
+        clock.instant()));
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Odtwarzanie                                                 */
+  /* ----------------------------------------------------------- */
+
+  /**
+   * Stan gry odtworzony z najnowszej migawki i zdarzeń zapisanych po niej.
+   */
+  @Transactional
+  public GameState rebuild(long gameId) throws NotFoundException {
+    GameSnapshot last = snapshotRepo.findFirstByGameIdOrderByLastEventIdDesc(gameId)
+        .orElseThrow(NotFoundException::new);
+    GameState state = new GameState(gameId, last.getLastEventId(), SnapshotCodec.decode(last.getState()));
+    history.eventsAfter(gameId, last.getLastEventId()).forEach(state::apply);
+    return state;
+  }
+
+  /**
+   * Przywróć jednostki gry do stanu wynikającego z historii – np. po awarii w trybie interval, gdy wiersze jednostek
+   * wyprzedziły utracone zdarzenia. Zdarzenia czekające jeszcze w buforze dziennika nie są uwzględniane.
+   * <p>
+   * Siatkę zajętości i cooldowny w pamięci odświeżamy dopiero po commicie.
+   */
+  @Transactional
+  public List<Unit> restore(long gameId) throws NotFoundException {
+    GameState state = rebuild(gameId);
+
+    List<Long> ids = state.units().stream().map(UnitState::id).toList();
+    List<Unit> units = ids.isEmpty() ? List.of() : unitRepo.findAllWithLockByIdIn(ids);
+    for (Unit u : units) {
+      state.unit(u.getId()).copyTo(u);
+    }
+
+    unitLists.bumpAfterCommit(gameId);
+    changes.resetAfterCommit(gameId);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        boards.evict(gameId);
+        state.units().forEach(u -> cooldowns.record(u.id(), u.lastCommandAt()));
+      }
+    });
+
+    log.info("Game {} restored from history up to event {}", gameId, state.lastEventId());
+    return units;
+  }
+}
@@ -0,0 +1,77 @@
+package com.demo.game.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Równoległe planowanie tury AI z budżetem czasu ({@link CommandExecutor#executeRandomTurn}).
+ * <p>
+ * • Jednostki oceniamy równolegle na własnej puli fork-join ({@code game.ai.parallelism} wątków, 0 – liczba
+ * rdzeni), nie na wspólnej puli JVM – planowanie tur nie zagłodzi innych równoległych strumieni.<br>
+ * • Budżet {@code game.ai.turn-budget} liczymy od początku planowania tury. Jednostka, której kolej przyszła po
+ * terminie, dostaje rozkaz zapasowy (np. losowy legalny – ułamek mikrosekundy), więc tura zawsze ma rozkaz dla
+ * każdej gotowej jednostki.<br>
+ * • Gry z ziarnem planujemy bez budżetu ({@link #planAll}) – to, kto zmieści się w terminie, zależy od zegara
+ * i obciążenia maszyny, a ta sama gra z tym samym ziarnem ma dać te same rozkazy.
+ */
+@Slf4j
+@Service
+public class TurnPlanner {
+
+  @Value("${game.ai.parallelism:0}")
+  private int parallelism;
+
+  @Value("${game.ai.turn-budget:PT0.05S}")
+  private Duration turnBudget;
+
+  private ForkJoinPool pool;
+
+  @PostConstruct
+  void start() {
+    pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdownNow();
+  }
+
+  /**
+   * Wywołaj {@code planned} dla każdego indeksu z {@code [0, count)} – równolegle, a po przekroczeniu budżetu
+   * {@code fallback} zamiast niego. Wraca, gdy każdy indeks ma już plan.
+   *
+   * @return liczba indeksów zaplanowanych przez {@code fallback}
+   */
+  public int plan(int count, IntConsumer planned, IntConsumer fallback) {
+    long deadline = System.nanoTime() + turnBudget.toNanos();
+    AtomicInteger late = new AtomicInteger();
+    pool.submit(() -> IntStream.range(0, count).parallel().forEach(i -> {
+      if (System.nanoTime() - deadline < 0) {
+        planned.accept(i);
+      } else {
+        late.incrementAndGet();
+        fallback.accept(i);
+      }
+    })).join();
+
+    if (late.get() > 0) {
+      log.debug("Turn budget {} exceeded: {} of {} units got a fallback command", turnBudget, late.get(), count);
+    }
+    return late.get();
+  }
+
+  /**
+   * Wywołaj {@code planned} dla każdego indeksu z {@code [0, count)} – równolegle, bez budżetu czasu.
+   */
+  public void planAll(int count, IntConsumer planned) {
+    pool.submit(() -> IntStream.range(0, count).parallel().forEach(planned)).join();
+  }
+}
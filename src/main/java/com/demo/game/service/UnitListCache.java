@@ -0,0 +1,153 @@
+package com.demo.game.service;
+
+import com.demo.game.objects.dto.UnitQuery;
+import com.demo.game.objects.enums.Faction;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Zserializowane listy jednostek (gra, frakcja) dla {@code GET /games/{id}/units}, wersjonowane stanem gry.
+ * <p>
+ * • Wersja gry rośnie po commicie każdej zmiany jednostek ({@link #bumpAfterCommit}) – rozkazy, paczki, losowe
+ * rozkazy i tury, przywrócenie z historii.<br>
+ * • Wersje pochodzą z jednego licznika procesu, więc się nie powtarzają – wersję gry można w każdej chwili
+ * zapomnieć ({@link #forget}), kolejny odczyt dostanie nową. ETag zawiera też losowy identyfikator procesu, więc
+ * nie myli się po restarcie.<br>
+ * • {@link #etag} nie sięga do bazy – zapytanie z aktualnym {@code If-None-Match} kończy się 304 bez
+ * zapytań. Wersja jest wspólna dla obu frakcji, ale ETag zawiera frakcję – ETag listy białych nie pasuje do listy
+ * czarnych.<br>
+ * • Wersję czytamy przed odczytem jednostek, a podbijamy po commicie – wpis nigdy nie jest starszy niż jego
+ * wersja.<br>
+ * • Chybienie czyta listę przez {@link UnitReader} (projekcja do DTO, bez encji).<br>
+ * • Wpisów najwyżej {@code game.units.cache-size}, usuwany najdawniej używany (LRU). Tak samo ograniczone są
+ * wersje – {@link #etag} dla dowolnego id (także nieistniejącej gry, przed 404) tworzy wersję, a wyparta wersja to
+ * tylko jedno dodatkowe chybienie.
+ */
+@Service
+@RequiredArgsConstructor
+public class UnitListCache {
+
+  /** Lista jednostek w JSON i jej ETag. */
+  public record Entry(long version, String etag, byte[] json) {}
+
+  private record Key(long gameId, Faction faction) {}
+
+  private final UnitReader reader;
+
+  @Value("${game.units.cache-size:4096}")
+  private int cacheSize;
+
+  private final String processId = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+  private final AtomicLong sequence = new AtomicLong();
+  private final Map<Long, Long> versions = new LinkedHashMap<>(64, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+      return size() > cacheSize;
+    }
+  };
+
+  private final Map<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+      return size() > cacheSize;
+    }
+  };
+
+  /**
+   * Aktualny ETag listy jednostek frakcji – bez dostępu do bazy.
+   */
+  public String etag(long gameId, Faction faction) {
+    return etagOf(version(gameId), faction);
+  }
+
+  /**
+   * Lista jednostek frakcji w aktualnej wersji gry – z pamięci albo, przy zmianie wersji, z bazy.
+   */
+  public Entry get(long gameId, Faction faction) throws NotFoundException {
+    long version = version(gameId);
+    Key key = new Key(gameId, faction);
+    synchronized (entries) {
+      Entry cached = entries.get(key);
+      if (cached != null && cached.version() >= version) {
+        return cached;
+      }
+    }
+
+    reader.requireGame(gameId);
+    Entry loaded = new Entry(version, etagOf(version, faction), serialize(gameId, faction));
+
+    synchronized (entries) {
+      Entry cached = entries.get(key);
+      if (cached != null && cached.version() > version) {
+        return cached;
+      }
+      entries.put(key, loaded);
+    }
+    return loaded;
+  }
+
+  /**
+   * Po commicie bieżącej transakcji nadaj grze nową wersję (bez transakcji – od razu).
+   */
+  public void bumpAfterCommit(long gameId) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      bump(gameId);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        bump(gameId);
+      }
+    });
+  }
+
+  /**
+   * Zapomnij wersje gier, których jednostki już się nie zmienią (zakończone gry).
+   */
+  public void forget(Collection<Long> gameIds) {
+    synchronized (versions) {
+      gameIds.forEach(versions::remove);
+    }
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private long version(long gameId) {
+    synchronized (versions) {
+      return versions.computeIfAbsent(gameId, id -> sequence.incrementAndGet());
+    }
+  }
+
+  private void bump(long gameId) {
+    synchronized (versions) {
+      versions.put(gameId, sequence.incrementAndGet());
+    }
+  }
+
+  private String etagOf(long version, Faction faction) {
+    return "\"" + processId + "-" + Long.toString(version, 36) + "-" + faction + "\"";
+  }
+
+  private byte[] serialize(long gameId, Faction faction) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      reader.write(gameId, UnitQuery.all(faction), out);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return out.toByteArray();
+  }
+}
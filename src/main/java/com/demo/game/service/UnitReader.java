@@ -0,0 +1,131 @@
+package com.demo.game.service;
+
+import com.demo.game.objects.dao.Archer;
+import com.demo.game.objects.dao.Cannon;
+import com.demo.game.objects.dao.Transport;
+import com.demo.game.objects.dao.Unit;
+import com.demo.game.objects.dto.UnitDto;
+import com.demo.game.objects.dto.UnitQuery;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitStatus;
+import com.demo.game.objects.enums.UnitType;
+import com.demo.game.repositories.GameRepository;
+import com.demo.game.repositories.UnitRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Odczyt list jednostek tylko do odczytu – projekcja JPQL prosto do {@link UnitDto}
+ * ({@link UnitRepository#streamDtos}).
+ * <p>
+ * • Bez encji w kontekście utrwalania – nic do sprawdzania przy commicie, transakcja tylko do odczytu.<br>
+ * • Jednostki trafiają do JSON-a w trakcie czytania wyniku – cała lista nie jest składana w pamięci.<br>
+ * • Filtry: status i rodzaj jednostki; stronicowanie po kluczu ({@code afterId} + {@code limit}, po id rosnąco).
+ */
+@Service
+@RequiredArgsConstructor
+public class UnitReader {
+
+  private static final List<Class<? extends Unit>> ALL_TYPES = List.of(Archer.class, Transport.class, Cannon.class);
+
+  private final GameRepository gameRepo;
+  private final UnitRepository unitRepo;
+  private final ObjectMapper objectMapper;
+  private final PlatformTransactionManager txManager;
+
+  private TransactionTemplate readOnlyTx;
+
+  @PostConstruct
+  void start() {
+    readOnlyTx = new TransactionTemplate(txManager);
+    readOnlyTx.setReadOnly(true);
+  }
+
+  /**
+   * @throws NotFoundException gdy gry nie ma – do sprawdzenia przed wysłaniem nagłówków odpowiedzi
+   */
+  public void requireGame(long gameId) throws NotFoundException {
+    if (!gameRepo.existsById(gameId)) {
+      throw new NotFoundException();
+    }
+  }
+
+  /**
+   * Zapisz jednostki spełniające filtr jako tablicę JSON. Strumienia wyjściowego nie zamyka.
+   */
+  public void write(long gameId, UnitQuery query, OutputStream out) throws IOException {
+    try (SequenceWriter json = objectMapper.writer()
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        .writeValuesAsArray(out)) {
+      readOnlyTx.executeWithoutResult(status -> {
+        try (Stream<UnitDto> units = stream(gameId, query)) {
+          units.forEach(u -> {
+            try {
+              json.write(u);
+            } catch (IOException ex) {
+              throw new UncheckedIOException(ex);
+            }
+          });
+        }
+      });
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  /**
+   * Jednostki spełniające filtr jako lista – dla odpowiedzi, które nie są samą listą (pełna synchronizacja).
+   */
+  public List<UnitDto> list(long gameId, UnitQuery query) {
+    return readOnlyTx.execute(status -> {
+      try (Stream<UnitDto> units = stream(gameId, query)) {
+        return units.toList();
+      }
+    });
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private Stream<UnitDto> stream(long gameId, UnitQuery query) {
+    return unitRepo.streamDtos(gameId, factions(query), statuses(query), types(query), query.afterId(),
+        query.limit() == null ? Limit.unlimited() : Limit.of(query.limit()));
+  }
+
+  private static Collection<Faction> factions(UnitQuery query) {
+    return query.faction() == null ? EnumSet.allOf(Faction.class) : EnumSet.of(query.faction());
+  }
+
+  private static Collection<UnitStatus> statuses(UnitQuery query) {
+    return query.status() == null ? EnumSet.allOf(UnitStatus.class) : EnumSet.of(query.status());
+  }
+
+  private static Collection<Class<? extends Unit>> types(UnitQuery query) {
+    if (query.type() == null) {
+      return ALL_TYPES;
+    }
+    return List.of(entityClass(query.type()));
+  }
+
+  private static Class<? extends Unit> entityClass(UnitType type) {
+    return switch (type) {
+      case ARCHER -> Archer.class;
+      case TRANSPORT -> Transport.class;
+      case CANNON -> Cannon.class;
+    };
+  }
+}
@@ -0,0 +1,135 @@
+package com.demo.game.simulation;
+
+import com.demo.game.board.BoardView;
+import com.demo.game.board.GameRules;
+import com.demo.game.board.MoveOutcome;
+import com.demo.game.commands.Command;
+import com.demo.game.commands.MoveCommand;
+import com.demo.game.commands.ShootCommand;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Faction;
+import java.util.SplittableRandom;
+
+/**
+ * Jedna rozgrywka bot-kontra-bot w pamięci – bez Springa, JPA i HTTP.
+ * <p>
+ * • Te same reguły ruchu i strzału co serwer ({@link GameRules}) i te same cooldowny ({@link CommandType}).<br>
+ * • Czas jest wirtualny ({@link VirtualClock}): silnik przeskakuje od razu do chwili, w której najbliższa jednostka
+ * jest gotowa – minuty gry liczą się w mikrosekundach.<br>
+ * • Cała losowość (rozstawienie, boty, opóźnienia) pochodzi z jednego ziarna, więc wynik jest powtarzalny.
+ */
+public final class HeadlessGame {
+
+  private static final CommandType[] TYPES = CommandType.values();
+
+  private static final long[] COOLDOWN_MILLIS = new long[TYPES.length];
+
+  static {
+    for (CommandType t : TYPES) {
+      COOLDOWN_MILLIS[t.ordinal()] = t.getCooldown().toMillis();
+    }
+  }
+
+  private final SimulationConfig cfg;
+  private final SimulationPolicy white;
+  private final SimulationPolicy black;
+  private final long seed;
+
+  private final SplittableRandom rng;
+  private final VirtualClock clock = new VirtualClock(0);
+  private final SimulationBoard board;
+
+  private long executed;
+  private long rejected;
+  private long throttled;
+
+  public HeadlessGame(SimulationConfig cfg, SimulationPolicy white, SimulationPolicy black, long seed) {
+    this.cfg = cfg;
+    this.white = white;
+    this.black = black;
+    this.seed = seed;
+    this.rng = new SplittableRandom(seed);
+    this.board = SimulationBoard.setUp(cfg, rng);
+  }
+
+  public SimulationBoard board() {
+    return board;
+  }
+
+  public VirtualClock clock() {
+    return clock;
+  }
+
+  /**
+   * Graj do zniszczenia jednej z armii albo do limitu {@link SimulationConfig#maxGameTime()}.
+   */
+  public SimulationResult play() {
+    long deadline = cfg.maxGameTime().toMillis();
+    long jitter = cfg.reactionJitter().toMillis();
+    for (int u = 0; u < board.size; u++) {
+      board.nextReadyAt[u] = jitter > 0 ? rng.nextLong(jitter + 1) : 0;
+    }
+
+    while (board.aliveCount(Faction.WHITE) > 0 && board.aliveCount(Faction.BLACK) > 0) {
+      int unit = board.nextReadyUnit();
+      if (board.nextReadyAt[unit] > deadline) {
+        break;
+      }
+      clock.advanceTo(board.nextReadyAt[unit]);
+      SimulationPolicy policy = board.faction(unit) == Faction.WHITE ? white : black;
+      execute(unit, policy.next(board, unit, rng), jitter);
+    }
+
+    int whiteAlive = board.aliveCount(Faction.WHITE);
+    int blackAlive = board.aliveCount(Faction.BLACK);
+    Faction winner = whiteAlive == 0 && blackAlive > 0 ? Faction.BLACK
+        : blackAlive == 0 && whiteAlive > 0 ? Faction.WHITE
+        : null;
+    return new SimulationResult(seed, winner, executed, rejected, throttled, clock.millis(), whiteAlive, blackAlive);
+  }
+
+  /**
+   * Wykonaj rozkaz jak CommandExecutor: cooldown, reguły, zmiana planszy.
+   */
+  void execute(int unit, Command cmd, long jitter) {
+    long now = clock.millis();
+    long cooldown = COOLDOWN_MILLIS[cmd.type().ordinal()];
+
+    /* --- cooldown: ponowienie dokładnie po jego upływie (jak po 429 z Retry-After) --- */
+    long wait = board.lastCommandAt[unit] + cooldown - now;
+    if (wait > 0) {
+      throttled++;
+      board.nextReadyAt[unit] = now + wait;
+      return;
+    }
+
+    try {
+      switch (cmd) {
+        case MoveCommand mv -> {
+          MoveOutcome outcome = GameRules.resolveMove(board.type(unit), board.faction(unit),
+              board.x[unit], board.y[unit], mv, board);
+          if (!outcome.cancelled()) {
+            if (outcome.capturedUnit() != BoardView.EMPTY) {
+              board.destroy((int) outcome.capturedUnit() - 1);
+            }
+            board.move(unit, outcome.x(), outcome.y());
+          }
+        }
+        case ShootCommand sh -> {
+          long hit = GameRules.resolveShot(board.x[unit], board.y[unit], sh, board);
+          if (hit != BoardView.EMPTY) {
+            board.destroy((int) hit - 1);
+          }
+        }
+      }
+    } catch (IllegalArgumentException ex) {
+      rejected++;
+      board.nextReadyAt[unit] = now + cfg.rejectDelay().toMillis();
+      return;
+    }
+
+    executed++;
+    board.lastCommandAt[unit] = now;
+    board.nextReadyAt[unit] = now + cooldown + (jitter > 0 ? rng.nextLong(jitter + 1) : 0);
+  }
+}
@@ -0,0 +1,184 @@
+package com.demo.game.simulation;
+
+import com.demo.game.board.BoardPlacement;
+import com.demo.game.board.BoardView;
+import com.demo.game.objects.dto.PlayerConfig;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitType;
+import java.util.random.RandomGenerator;
+
+/**
+ * Plansza symulacji w układzie struct-of-arrays: jednostka to indeks, jej cechy leżą w tablicach prymitywów.
+ * <p>
+ * • {@code cells[i]} – indeks jednostki + 1 na polu {@code y * width + x} albo {@link #EMPTY}; tak samo jak id
+ * w {@link com.demo.game.board.OccupancyGrid}, więc {@link com.demo.game.board.GameRules} działają bez zmian.<br>
+ * • {@code nextReadyAt} – kiedy bot jednostki wyda następny rozkaz (czas wirtualny, millis).<br>
+ * • Brak obiektów per jednostka i brak synchronizacji – plansza należy do jednego wątku.
+ */
+public final class SimulationBoard implements BoardView {
+
+  private static final UnitType[] TYPES = UnitType.values();
+  private static final Faction[] FACTIONS = Faction.values();
+
+  /** „Dawno temu" – jednostka bez rozkazu jest gotowa na każdy typ (jak {@code Instant.EPOCH} w encji). */
+  static final long NEVER = Long.MIN_VALUE / 4;
+
+  final int width;
+  final int height;
+  final int size;
+
+  final byte[] type;
+  final byte[] faction;
+  final int[] x;
+  final int[] y;
+  final boolean[] alive;
+  final long[] lastCommandAt;
+  final long[] nextReadyAt;
+
+  private final int[] cells;
+  private final int[] aliveByFaction = new int[FACTIONS.length];
+
+  private SimulationBoard(int width, int height, int size) {
+    this.width = width;
+    this.height = height;
+    this.size = size;
+    this.type = new byte[size];
+    this.faction = new byte[size];
+    this.x = new int[size];
+    this.y = new int[size];
+    this.alive = new boolean[size];
+    this.lastCommandAt = new long[size];
+    this.nextReadyAt = new long[size];
+    this.cells = new int[width * height];
+  }
+
+  /**
+   * Rozstaw obie armie losowo – to samo losowanie pól co {@code GameService.createNewGame}.
+   */
+  public static SimulationBoard setUp(SimulationConfig cfg, RandomGenerator rng) {
+    int whiteTotal = total(cfg.white());
+    int count = whiteTotal + total(cfg.black());
+    int[] picked = BoardPlacement.sampleCells(rng, cfg.width() * cfg.height(), count);
+
+    SimulationBoard board = new SimulationBoard(cfg.width(), cfg.height(), count);
+    int next = board.place(Faction.WHITE, cfg.white(), picked, 0);
+    board.place(Faction.BLACK, cfg.black(), picked, next);
+    return board;
+  }
+
+  private static int total(PlayerConfig cfg) {
+    return cfg.archers() + cfg.transports() + cfg.cannons();
+  }
+
+  private int place(Faction f, PlayerConfig cfg, int[] picked, int next) {
+    next = place(f, UnitType.ARCHER, cfg.archers(), picked, next);
+    next = place(f, UnitType.TRANSPORT, cfg.transports(), picked, next);
+    return place(f, UnitType.CANNON, cfg.cannons(), picked, next);
+  }
+
+  private int place(Faction f, UnitType t, int count, int[] picked, int next) {
+    for (int i = 0; i < count; i++, next++) {
+      type[next] = (byte) t.ordinal();
+      faction[next] = (byte) f.ordinal();
+      x[next] = picked[next] % width;
+      y[next] = picked[next] / width;
+      alive[next] = true;
+      lastCommandAt[next] = NEVER;
+      cells[picked[next]] = next + 1;
+      aliveByFaction[f.ordinal()]++;
+    }
+    return next;
+  }
+
+  /* ----------------------------------------------------------- */
+  /* BoardView                                                   */
+  /* ----------------------------------------------------------- */
+
+  @Override
+  public boolean inBounds(int x, int y) {
+    return x >= 0 && x < width && y >= 0 && y < height;
+  }
+
+  @Override
+  public long occupant(int x, int y) {
+    return cells[y * width + x];
+  }
+
+  @Override
+  public Faction factionAt(int x, int y) {
+    int u = cells[y * width + x];
+    return u == EMPTY ? null : FACTIONS[faction[u - 1]];
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Odczyt dla polityk                                          */
+  /* ----------------------------------------------------------- */
+
+  public int width() {
+    return width;
+  }
+
+  public int height() {
+    return height;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public UnitType type(int unit) {
+    return TYPES[type[unit]];
+  }
+
+  public Faction faction(int unit) {
+    return FACTIONS[faction[unit]];
+  }
+
+  public int x(int unit) {
+    return x[unit];
+  }
+
+  public int y(int unit) {
+    return y[unit];
+  }
+
+  public boolean alive(int unit) {
+    return alive[unit];
+  }
+
+  public int aliveCount(Faction f) {
+    return aliveByFaction[f.ordinal()];
+  }
+
+  /* ----------------------------------------------------------- */
+  /* Zmiany stanu (silnik)                                       */
+  /* ----------------------------------------------------------- */
+
+  /**
+   * Żywa jednostka, której bot najwcześniej wyda rozkaz; przy remisie – niższy indeks. {@code -1} gdy brak żywych.
+   */
+  int nextReadyUnit() {
+    int best = -1;
+    long bestAt = Long.MAX_VALUE;
+    for (int u = 0; u < size; u++) {
+      if (alive[u] && nextReadyAt[u] < bestAt) {
+        best = u;
+        bestAt = nextReadyAt[u];
+      }
+    }
+    return best;
+  }
+
+  void move(int unit, int toX, int toY) {
+    cells[y[unit] * width + x[unit]] = (int) EMPTY;
+    cells[toY * width + toX] = unit + 1;
+    x[unit] = toX;
+    y[unit] = toY;
+  }
+
+  void destroy(int unit) {
+    cells[y[unit] * width + x[unit]] = (int) EMPTY;
+    alive[unit] = false;
+    aliveByFaction[faction[unit]]--;
+  }
+}
@@ -0,0 +1,38 @@
+package com.demo.game.simulation;
+
+import com.demo.game.objects.dto.PlayerConfig;
+import java.time.Duration;
+
+/**
+ * Parametry jednej rozgrywki symulacji.
+ *
+ * @param width          szerokość planszy
+ * @param height         wysokość planszy
+ * @param white          skład armii białych
+ * @param black          skład armii czarnych
+ * @param maxGameTime    limit czasu wirtualnego – po nim gra kończy się remisem
+ * @param reactionJitter losowe opóźnienie bota po odzyskaniu gotowości (0 = natychmiast)
+ * @param rejectDelay    po ilu ms bot ponawia rozkaz odrzucony przez reguły (odpowiednik odpowiedzi 400)
+ */
+public record SimulationConfig(int width,
+                               int height,
+                               PlayerConfig white,
+                               PlayerConfig black,
+                               Duration maxGameTime,
+                               Duration reactionJitter,
+                               Duration rejectDelay) {
+
+  public SimulationConfig {
+    if (width < 1 || height < 1) {
+      throw new IllegalArgumentException("Board must have at least one cell");
+    }
+    if (rejectDelay.toMillis() < 1) {
+      throw new IllegalArgumentException("Reject delay must be at least 1 ms, otherwise virtual time stops");
+    }
+  }
+
+  public static SimulationConfig of(int width, int height, PlayerConfig white, PlayerConfig black) {
+    return new SimulationConfig(width, height, white, black,
+        Duration.ofHours(1), Duration.ofMillis(500), Duration.ofMillis(100));
+  }
+}
@@ -0,0 +1,25 @@
+package com.demo.game.simulation;
+
+import com.demo.game.commands.Command;
+import com.demo.game.commands.RandomCommands;
+import java.util.random.RandomGenerator;
+
+/**
+ * Bot sterujący jednostkami w symulacji. Implementacje muszą być bezstanowe albo bezpieczne wątkowo – jedna
+ * instancja obsługuje wiele gier naraz; losowość wyłącznie z przekazanego generatora (powtarzalność po ziarnie).
+ */
+@FunctionalInterface
+public interface SimulationPolicy {
+
+  /**
+   * Rozkaz dla gotowej, żywej jednostki {@code unit}.
+   */
+  Command next(SimulationBoard board, int unit, RandomGenerator rng);
+
+  /**
+   * To samo zachowanie co endpoint /units/{id}/random.
+   */
+  static SimulationPolicy random() {
+    return (board, unit, rng) -> RandomCommands.random(board.type(unit), board.faction(unit), rng);
+  }
+}
@@ -0,0 +1,43 @@
+package com.demo.game.simulation;
+
+import com.demo.game.objects.enums.Faction;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Zbiorczy wynik serii gier.
+ *
+ * @param results  wyniki poszczególnych gier (w kolejności ziaren)
+ * @param wallTime czas rzeczywisty całej serii
+ */
+public record SimulationReport(List<SimulationResult> results, Duration wallTime) {
+
+  public int games() {
+    return results.size();
+  }
+
+  public long wins(Faction faction) {
+    return results.stream().filter(r -> r.winner() == faction).count();
+  }
+
+  public long draws() {
+    return results.stream().filter(r -> r.winner() == null).count();
+  }
+
+  /**
+   * Wszystkie rozkazy wydane przez boty – wykonane, odrzucone i przedwczesne.
+   */
+  public long commands() {
+    return results.stream().mapToLong(r -> r.executed() + r.rejected() + r.throttled()).sum();
+  }
+
+  public double commandsPerSecond() {
+    double seconds = wallTime.toNanos() / 1e9;
+    return seconds == 0 ? 0 : commands() / seconds;
+  }
+
+  public double gamesPerSecond() {
+    double seconds = wallTime.toNanos() / 1e9;
+    return seconds == 0 ? 0 : games() / seconds;
+  }
+}
@@ -0,0 +1,25 @@
+package com.demo.game.simulation;
+
+import com.demo.game.objects.enums.Faction;
+
+/**
+ * Wynik jednej rozgrywki.
+ *
+ * @param seed        ziarno – ta sama wartość odtwarza identyczną grę
+ * @param winner      zwycięzca albo {@code null} przy remisie (limit czasu)
+ * @param executed    rozkazy wykonane (także ruchy anulowane najazdem na swoich)
+ * @param rejected    rozkazy odrzucone przez reguły (odpowiednik 400)
+ * @param throttled   rozkazy wydane przed końcem cooldownu (odpowiednik 429)
+ * @param gameMillis  czas wirtualny rozgrywki
+ * @param whiteAlive  żywe jednostki białych na koniec
+ * @param blackAlive  żywe jednostki czarnych na koniec
+ */
+public record SimulationResult(long seed,
+                               Faction winner,
+                               long executed,
+                               long rejected,
+                               long throttled,
+                               long gameMillis,
+                               int whiteAlive,
+                               int blackAlive) {
+}
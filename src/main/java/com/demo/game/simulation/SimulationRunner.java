@@ -0,0 +1,69 @@
+package com.demo.game.simulation;
+
+import com.demo.game.objects.dto.PlayerConfig;
+import com.demo.game.objects.enums.Faction;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Seria gier bez serwera, równolegle na puli fork-join.
+ * <p>
+ * Każda gra dostaje własne ziarno wyprowadzone z ziarna serii – wynik serii nie zależy od liczby wątków ani od
+ * kolejności wykonania. Gry niczego nie współdzielą (plansza i zegar per gra), więc skalują się liniowo z rdzeniami.
+ * <p>
+ * Uruchomienie: {@code java -cp game.jar com.demo.game.simulation.SimulationRunner [gry] [szer] [wys]
+ * [łucznicy] [transporty] [armaty] [ziarno] [wątki]}.
+ */
+public final class SimulationRunner {
+
+  private final int parallelism;
+
+  public SimulationRunner(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public SimulationReport run(SimulationConfig cfg, SimulationPolicy white, SimulationPolicy black,
+      int games, long seed) {
+
+    SplittableRandom root = new SplittableRandom(seed);
+    long[] seeds = new long[games];
+    Arrays.setAll(seeds, i -> root.nextLong());
+
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      long start = System.nanoTime();
+      List<SimulationResult> results = pool.submit(() -> Arrays.stream(seeds)
+              .parallel()
+              .mapToObj(s -> new HeadlessGame(cfg, white, black, s).play())
+              .toList())
+          .join();
+      return new SimulationReport(results, Duration.ofNanos(System.nanoTime() - start));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  public static void main(String[] args) {
+    int games = arg(args, 0, 10_000);
+    int width = arg(args, 1, 20);
+    int height = arg(args, 2, 20);
+    PlayerConfig army = new PlayerConfig(arg(args, 3, 5), arg(args, 4, 3), arg(args, 5, 2));
+    long seed = arg(args, 6, 42);
+    int threads = arg(args, 7, Runtime.getRuntime().availableProcessors());
+
+    SimulationConfig cfg = SimulationConfig.of(width, height, army, army);
+    SimulationReport report = new SimulationRunner(threads)
+        .run(cfg, SimulationPolicy.random(), SimulationPolicy.random(), games, seed);
+
+    System.out.printf("games=%d white=%d black=%d draws=%d commands=%d wall=%dms -> %.0f games/s, %.0f commands/s%n",
+        report.games(), report.wins(Faction.WHITE), report.wins(Faction.BLACK), report.draws(),
+        report.commands(), report.wallTime().toMillis(), report.gamesPerSecond(), report.commandsPerSecond());
+  }
+
+  private static int arg(String[] args, int i, int fallback) {
+    return args.length > i ? Integer.parseInt(args[i]) : fallback;
+  }
+}
@@ -0,0 +1,82 @@
+package com.demo.game.simulation;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Zegar symulacji – czas przesuwa silnik, a nie upływ czasu rzeczywistego.
+ * <p>
+ * Symulacja używa go z jednego wątku (jedna gra); benchmarki wielu gier przesuwają jeden zegar z kilku wątków,
+ * stąd odczyt volatile i synchronizowane przesunięcie.
+ */
+public final class VirtualClock extends Clock {
+
+  private volatile long millis;
+
+  public VirtualClock(long startMillis) {
+    this.millis = startMillis;
+  }
+
+  /**
+   * Przesuń zegar do podanej chwili (nigdy wstecz).
+   */
+  public synchronized void advanceTo(long epochMillis) {
+    millis = Math.max(millis, epochMillis);
+  }
+
+  @Override
+  public long millis() {
+    return millis;
+  }
+
+  @Override
+  public Instant instant() {
+    return Instant.ofEpochMilli(millis);
+  }
+
+  @Override
+  public ZoneId getZone() {
+    return ZoneOffset.UTC;
+  }
+
+  /**
+   * Widok zegara w innej strefie – ten sam wirtualny czas, przesuwany razem z tym zegarem.
+   */
+  @Override
+  public Clock withZone(ZoneId zone) {
+    return zone.equals(getZone()) ? this : new Zoned(this, zone);
+  }
+
+  private static final class Zoned extends Clock {
+
+    private final VirtualClock source;
+    private final ZoneId zone;
+
+    private Zoned(VirtualClock source, ZoneId zone) {
+      this.source = source;
+      this.zone = zone;
+    }
+
+    @Override
+    public long millis() {
+      return source.millis();
+    }
+
+    @Override
+    public Instant instant() {
+      return source.instant();
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return source.withZone(zone);
+    }
+  }
+}
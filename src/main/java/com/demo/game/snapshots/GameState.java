@@ -0,0 +1,78 @@
+package com.demo.game.snapshots;
+
+import com.demo.game.archive.EventRecord;
+import com.demo.game.objects.dao.GameEvent;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stan gry odtwarzany ze zdarzeń: migawka + kolejne zdarzenia ({@link GameEvent} z bazy albo {@link EventRecord}
+ * z historii) w kolejności id.
+ * <p>
+ * Zdarzenie niesie wynik rozkazu (pozycja po ruchu, zniszczona jednostka), więc odtworzenie nie stosuje ponownie
+ * reguł gry ani nie sięga do planszy – to zwykłe przepisanie faktów.
+ */
+public final class GameState {
+
+  private final long gameId;
+  private final Map<Long, UnitState> units;
+  private long lastEventId;
+
+  public GameState(long gameId, long lastEventId, Collection<UnitState> units) {
+    this.gameId = gameId;
+    this.lastEventId = lastEventId;
+    this.units = new LinkedHashMap<>(units.size() * 2);
+    units.forEach(u -> this.units.put(u.id(), u));
+  }
+
+  public long gameId() {
+    return gameId;
+  }
+
+  /**
+   * Id ostatniego zdarzenia uwzględnionego w stanie (0 – stan z rozstawienia planszy).
+   */
+  public long lastEventId() {
+    return lastEventId;
+  }
+
+  public Collection<UnitState> units() {
+    return Collections.unmodifiableCollection(units.values());
+  }
+
+  public UnitState unit(long unitId) {
+    return units.get(unitId);
+  }
+
+  /**
+   * Zastosuj zdarzenie. Zdarzenia już uwzględnione (id ≤ {@link #lastEventId()}) są pomijane.
+   */
+  public void apply(GameEvent e) {
+    apply(e.getId(), e.getUnit() == null ? null : e.getUnit().getId(), e.getX(), e.getY(), e.getDestroyedUnitId(),
+        e.getExecutedAt());
+  }
+
+  public void apply(EventRecord e) {
+    apply(e.id(), e.unitId(), e.x(), e.y(), e.destroyedUnitId(), e.executedAt());
+  }
+
+  private void apply(long eventId, Long unitId, Integer x, Integer y, Long destroyedUnitId, Instant executedAt) {
+    if (eventId <= lastEventId) {
+      return;
+    }
+    lastEventId = eventId;
+
+    if (unitId != null) {
+      units.computeIfPresent(unitId, (id, u) -> u.afterCommand(
+          x == null ? u.x() : x,
+          y == null ? u.y() : y,
+          executedAt));
+    }
+    if (destroyedUnitId != null) {
+      units.computeIfPresent(destroyedUnitId, (id, u) -> u.destroyed());
+    }
+  }
+}
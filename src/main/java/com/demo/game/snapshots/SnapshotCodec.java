@@ -0,0 +1,79 @@
+package com.demo.game.snapshots;
+
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitStatus;
+import com.demo.game.objects.enums.UnitType;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Binarny zapis migawki stanu gry ({@code GameSnapshot.state}).
+ * <p>
+ * Układ (wersja 1):
+ * <pre>
+ *  bajt 0     FORMAT_V1 (0x01)
+ *  bajty 1-4  liczba jednostek
+ *  per jednostka (25 bajtów):
+ *    8  id
+ *    1  typ (bity 4-7) | frakcja (bity 1-3) | status (bit 0: 1 = zniszczona)
+ *    2  x, 2  y
+ *    4  liczba rozkazów
+ *    8  czas ostatniego rozkazu (epoch millis)
+ * </pre>
+ */
+public final class SnapshotCodec {
+
+  public static final byte FORMAT_V1 = 0x01;
+
+  private static final int UNIT_BYTES = 25;
+
+  private static final UnitType[] TYPES = UnitType.values();
+  private static final Faction[] FACTIONS = Faction.values();
+
+  private SnapshotCodec() {
+  }
+
+  public static byte[] encode(Collection<UnitState> units) {
+    ByteBuffer buf = ByteBuffer.allocate(5 + units.size() * UNIT_BYTES);
+    buf.put(FORMAT_V1);
+    buf.putInt(units.size());
+    for (UnitState u : units) {
+      int flags = u.type().ordinal() << 4
+          | u.faction().ordinal() << 1
+          | (u.status() == UnitStatus.DESTROYED ? 1 : 0);
+      buf.putLong(u.id());
+      buf.put((byte) flags);
+      buf.putShort((short) u.x());
+      buf.putShort((short) u.y());
+      buf.putInt(u.commandCount());
+      buf.putLong(u.lastCommandAt().toEpochMilli());
+    }
+    return buf.array();
+  }
+
+  public static List<UnitState> decode(byte[] state) {
+    ByteBuffer buf = ByteBuffer.wrap(state);
+    if (buf.get() != FORMAT_V1) {
+      throw new IllegalArgumentException("Unsupported snapshot format");
+    }
+    int count = buf.getInt();
+    List<UnitState> units = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      long id = buf.getLong();
+      int flags = buf.get() & 0xFF;
+      units.add(new UnitState(
+          id,
+          TYPES[flags >>> 4],
+          FACTIONS[(flags >>> 1) & 0x07],
+          buf.getShort(),
+          buf.getShort(),
+          (flags & 1) == 1 ? UnitStatus.DESTROYED : UnitStatus.ACTIVE,
+          buf.getInt(),
+          Instant.ofEpochMilli(buf.getLong())));
+    }
+    return units;
+  }
+}
@@ -0,0 +1,55 @@
+package com.demo.game.snapshots;
+
+import com.demo.game.objects.dao.Unit;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitStatus;
+import com.demo.game.objects.enums.UnitType;
+import java.time.Instant;
+
+/**
+ * Niezmienny stan jednej jednostki – element migawki i wynik odtwarzania gry ze zdarzeń.
+ */
+public record UnitState(long id,
+                        UnitType type,
+                        Faction faction,
+                        int x,
+                        int y,
+                        UnitStatus status,
+                        int commandCount,
+                        Instant lastCommandAt) {
+
+  public static UnitState from(Unit u) {
+    return new UnitState(
+        u.getId(),
+        u.getType(),
+        u.getFaction(),
+        u.getX(),
+        u.getY(),
+        u.getStatus(),
+        u.getCommandCount(),
+        u.getLastCommandAt()
+    );
+  }
+
+  /**
+   * Stan po wykonaniu rozkazu – licznik i czas ostatniego rozkazu rosną także dla ruchu anulowanego.
+   */
+  UnitState afterCommand(int newX, int newY, Instant executedAt) {
+    return new UnitState(id, type, faction, newX, newY, status, commandCount + 1, executedAt);
+  }
+
+  UnitState destroyed() {
+    return new UnitState(id, type, faction, x, y, UnitStatus.DESTROYED, commandCount, lastCommandAt);
+  }
+
+  /**
+   * Przepisz stan na encję (przywracanie gry); typ i frakcja jednostki się nie zmieniają.
+   */
+  public void copyTo(Unit u) {
+    u.setX(x);
+    u.setY(y);
+    u.setStatus(status);
+    u.setCommandCount(commandCount);
+    u.setLastCommandAt(lastCommandAt);
+  }
+}
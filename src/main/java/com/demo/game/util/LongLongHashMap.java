@@ -0,0 +1,108 @@
+package com.demo.game.util;
+
+import java.util.Arrays;
+
+/**
+ * Prosta mapa {@code long -> long} bez boxingu (adresowanie otwarte, sondowanie liniowe).
+ * <p>
+ * • Klucz {@code 0} jest zarezerwowany jako „puste miejsce" – identyfikatory encji zaczynają się od 1.<br>
+ * • Klasa nie jest thread-safe – synchronizację zapewnia właściciel (np. podział na paski).
+ */
+public final class LongLongHashMap {
+
+  private static final float LOAD_FACTOR = 0.6f;
+
+  private long[] keys;
+  private long[] values;
+  private int size;
+  private int mask;
+  private int resizeAt;
+
+  public LongLongHashMap(int expected) {
+    int cap = Integer.highestOneBit(Math.max(8, (int) (expected / LOAD_FACTOR)) - 1) << 1;
+    allocate(cap);
+  }
+
+  public long get(long key, long missing) {
+    int i = slot(key);
+    while (keys[i] != 0) {
+      if (keys[i] == key) {
+        return values[i];
+      }
+      i = (i + 1) & mask;
+    }
+    return missing;
+  }
+
+  public void put(long key, long value) {
+    if (key == 0) {
+      throw new IllegalArgumentException("Key 0 is reserved");
+    }
+    int i = slot(key);
+    while (keys[i] != 0) {
+      if (keys[i] == key) {
+        values[i] = value;
+        return;
+      }
+      i = (i + 1) & mask;
+    }
+    keys[i] = key;
+    values[i] = value;
+    if (++size >= resizeAt) {
+      rehash(keys.length << 1);
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Usuń wszystkie wpisy, których wartość jest mniejsza od progu (np. wygasłe znaczniki czasu).
+   *
+   * @return liczba usuniętych wpisów
+   */
+  public int removeValuesBelow(long threshold) {
+    int before = size;
+    long[] oldKeys = keys;
+    long[] oldValues = values;
+    allocate(oldKeys.length);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != 0 && oldValues[i] >= threshold) {
+        put(oldKeys[i], oldValues[i]);
+      }
+    }
+    return before - size;
+  }
+
+  public void clear() {
+    Arrays.fill(keys, 0L);
+    size = 0;
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private void rehash(int capacity) {
+    long[] oldKeys = keys;
+    long[] oldValues = values;
+    allocate(capacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != 0) {
+        put(oldKeys[i], oldValues[i]);
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new long[capacity];
+    mask = capacity - 1;
+    resizeAt = (int) (capacity * LOAD_FACTOR);
+    size = 0;
+  }
+
+  private int slot(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32)) & mask;
+  }
+}
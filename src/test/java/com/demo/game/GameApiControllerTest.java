@@ -1,27 +1,56 @@
 package com.demo.game;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.demo.game.board.BoardUnit;
+import com.demo.game.board.PackedBoard;
+import com.demo.game.board.ThreatMap;
 import com.demo.game.commands.MoveCommand;
 import com.demo.game.controllers.GameApiController;
+import com.demo.game.exceptions.CooldownException;
+import com.demo.game.exceptions.GameNotActiveException;
+import com.demo.game.objects.dao.Archer;
 import com.demo.game.objects.dao.Game;
+import com.demo.game.objects.dto.BatchCommandRequest;
+import com.demo.game.objects.dto.CommandResult;
 import com.demo.game.objects.dto.MoveRequest;
+import com.demo.game.objects.dto.TurnResult;
+import com.demo.game.objects.dto.UnitChanges;
+import com.demo.game.objects.dto.UnitCommandRequest;
+import com.demo.game.objects.dto.UnitDto;
+import com.demo.game.objects.dto.UnitQuery;
+import com.demo.game.objects.enums.AiStrategy;
 import com.demo.game.objects.enums.CommandType;
 import com.demo.game.objects.enums.Direction;
 import com.demo.game.objects.enums.Faction;
 import com.demo.game.objects.enums.GameStatus;
+import com.demo.game.objects.enums.UnitStatus;
+import com.demo.game.objects.enums.UnitType;
 import com.demo.game.service.CommandService;
 import com.demo.game.service.GameService;
-import com.demo.game.service.RandomCommandGenerator;
+import com.demo.game.service.UnitListCache;
+import com.demo.game.service.UnitReader;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.RejectedExecutionException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,7 +78,10 @@ class GameApiControllerTest {
   CommandService commandService;
 
   @MockitoBean
-  RandomCommandGenerator randomCommandGenerator;
+  UnitListCache unitLists;
+
+  @MockitoBean
+  UnitReader unitReader;
 
   /* ---------------------------------------------------------
      1. POST /api/games
@@ -64,27 +96,179 @@ class GameApiControllerTest {
     saved.setBoardHeight(8);
     saved.setStatus(GameStatus.NEW);
 
-    given(gameService.createNewGame(anyInt(), anyInt(), any(), any()))
+    given(gameService.createNewGame(anyInt(), anyInt(), any(), any(), any()))
         .willReturn(saved);
   }
 
+  /* ---------------------------------------------------------
+     1a. POST /api/games/{gameId}/end, POST /api/games/end
+     --------------------------------------------------------- */
+  @Test
+  @DisplayName("endGame() zwraca 200 z grą w stanie końcowym, druga próba – 409")
+  void shouldEndGame() throws Exception {
+    Game ended = new Game();
+    ended.setId(7L);
+    ended.setStatus(GameStatus.FINISHED);
+
+    given(gameService.endGame(7L, GameStatus.FINISHED))
+        .willReturn(ended)
+        .willThrow(new GameNotActiveException(7L, GameStatus.FINISHED));
+
+    mockMvc.perform(post("/api/games/{gameId}/end", 7L))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.status").value("FINISHED"));
+    mockMvc.perform(post("/api/games/{gameId}/end", 7L))
+        .andExpect(status().isConflict());
+  }
+
+  @Test
+  @DisplayName("endActiveGames() kończy wszystkie aktywne gry poza wskazaną")
+  void shouldEndActiveGames() throws Exception {
+    given(gameService.endActiveGames(GameStatus.ABORTED, 3L)).willReturn(12);
+
+    mockMvc.perform(post("/api/games/end").param("keep", "3"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.ended").value(12));
+
+    verify(gameService).endActiveGames(GameStatus.ABORTED, 3L);
+  }
+
   /* ---------------------------------------------------------
      2. GET /api/games/{gameId}/units
      --------------------------------------------------------- */
   @Test
-  @DisplayName("listUnits() zwraca 200 i deleguje do GameService")
+  @DisplayName("listUnits() zwraca 200 z ETagiem, a z aktualnym If-None-Match 304 bez czytania listy")
   void shouldListUnits() throws Exception {
     long gameId = 42L;
+    String etag = "\"p-1\"";
 
-    given(gameService.listUnits(eq(gameId), eq(Faction.WHITE)))
-        .willReturn(java.util.List.of()); // pusta lista wystarcza
+    given(unitLists.etag(gameId, Faction.WHITE)).willReturn(etag);
+    given(unitLists.get(eq(gameId), eq(Faction.WHITE)))
+        .willReturn(new UnitListCache.Entry(1, etag, "[]".getBytes(StandardCharsets.UTF_8)));
 
     mockMvc.perform(get("/api/games/{id}/units", gameId)
             .param("faction", "WHITE"))
         .andExpect(status().isOk())
-        .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+        .andExpect(header().string("ETag", etag))
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(content().json("[]"));
+
+    mockMvc.perform(get("/api/games/{id}/units", gameId)
+            .param("faction", "WHITE")
+            .header("If-None-Match", etag))
+        .andExpect(status().isNotModified());
+
+    verify(unitLists, times(1)).get(gameId, Faction.WHITE);
+  }
+
+  @Test
+  @DisplayName("listUnits() z ETagiem listy białych w zapytaniu o czarne zwraca 200 z listą czarnych")
+  void shouldNotReuseEtagAcrossFactions() throws Exception {
+    long gameId = 42L;
+    String white = "\"p-1-WHITE\"";
+    String black = "\"p-1-BLACK\"";
+
+    given(unitLists.etag(gameId, Faction.WHITE)).willReturn(white);
+    given(unitLists.etag(gameId, Faction.BLACK)).willReturn(black);
+    given(unitLists.get(gameId, Faction.BLACK))
+        .willReturn(new UnitListCache.Entry(1, black, "[]".getBytes(StandardCharsets.UTF_8)));
+
+    mockMvc.perform(get("/api/games/{id}/units", gameId)
+            .param("faction", "BLACK")
+            .header("If-None-Match", white))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", black));
+  }
 
-    verify(gameService).listUnits(gameId, Faction.WHITE);
+  @Test
+  @DisplayName("listUnits() z filtrami pisze listę z UnitReader wprost do odpowiedzi, z pominięciem cache")
+  void shouldStreamFilteredUnits() throws Exception {
+    long gameId = 42L;
+    UnitQuery query = new UnitQuery(Faction.BLACK, UnitStatus.ACTIVE, UnitType.ARCHER, 100L, 50);
+    willAnswer(inv -> {
+      inv.getArgument(2, OutputStream.class).write("[]".getBytes(StandardCharsets.UTF_8));
+      return null;
+    }).given(unitReader).write(eq(gameId), eq(query), any());
+
+    mockMvc.perform(get("/api/games/{id}/units", gameId)
+            .param("faction", "BLACK")
+            .param("status", "ACTIVE")
+            .param("type", "ARCHER")
+            .param("after", "100")
+            .param("limit", "50"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(content().json("[]"));
+
+    verify(unitReader).requireGame(gameId);
+    verify(unitLists, never()).get(anyLong(), any());
+  }
+
+  @Test
+  @DisplayName("board() zwraca planszę jako JSON albo binarnie – według nagłówka Accept")
+  void shouldNegotiateBoardFormat() throws Exception {
+    long gameId = 42L;
+    short cell = (short) (PackedBoard.OCCUPIED | 1 << 14 | 2 << 12);
+    PackedBoard board = new PackedBoard(gameId, 2, 1, new long[] {7L}, new short[] {0, cell});
+    given(gameService.board(gameId)).willReturn(board);
+
+    mockMvc.perform(get("/api/games/{id}/board", gameId).accept(MediaType.APPLICATION_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.width").value(2))
+        .andExpect(jsonPath("$.unitIds[0]").value(7))
+        .andExpect(jsonPath("$.cells[1]").value((int) cell));
+
+    byte[] binary = mockMvc.perform(get("/api/games/{id}/board", gameId).accept(PackedBoard.BINARY))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(PackedBoard.BINARY))
+        .andReturn().getResponse().getContentAsByteArray();
+
+    ByteBuffer buf = ByteBuffer.wrap(binary);
+    assertThat(binary).hasSize(board.binarySize());
+    assertThat(buf.getLong()).isEqualTo(gameId);
+    assertThat(buf.getInt()).isEqualTo(2);
+    assertThat(buf.getInt()).isEqualTo(1);
+    assertThat(buf.getInt()).isEqualTo(1);
+    assertThat(buf.getLong()).isEqualTo(7L);
+    assertThat(buf.getShort()).isZero();
+    assertThat(buf.getShort()).isEqualTo(cell);
+  }
+
+  @Test
+  @DisplayName("threats() zwraca mapę bitową w base64, a unitsWithin() jednostki z siatki gry")
+  void shouldAnswerSpatialQueries() throws Exception {
+    long gameId = 42L;
+    given(gameService.threats(gameId, Faction.BLACK))
+        .willReturn(new ThreatMap(gameId, Faction.BLACK, 3, 3, new byte[] {(byte) 0x81, 0x01}));
+    given(gameService.unitsWithin(gameId, 1, 1, 2))
+        .willReturn(java.util.List.of(new BoardUnit(7L, Faction.WHITE, UnitType.CANNON, 0, 2)));
+
+    mockMvc.perform(get("/api/games/{id}/board/threats", gameId).param("faction", "BLACK"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.faction").value("BLACK"))
+        .andExpect(jsonPath("$.cells").value("gQE="));
+
+    mockMvc.perform(get("/api/games/{id}/board/units-within", gameId)
+            .param("x", "1").param("y", "1").param("distance", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].unitId").value(7))
+        .andExpect(jsonPath("$[0].type").value("CANNON"))
+        .andExpect(jsonPath("$[0].y").value(2));
+  }
+
+  @Test
+  @DisplayName("changes() przekazuje wersję klienta do GameService i zwraca zmiany z nową wersją")
+  void shouldReturnChangesSinceVersion() throws Exception {
+    long gameId = 42L;
+    UnitDto moved = new UnitDto(7L, Faction.WHITE, "ARCHER", 3, 4, "ACTIVE", 2);
+    given(gameService.changes(gameId, 100L)).willReturn(new UnitChanges(105L, false, java.util.List.of(moved)));
+
+    mockMvc.perform(get("/api/games/{id}/changes", gameId).param("since", "100"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.version").value(105))
+        .andExpect(jsonPath("$.full").value(false))
+        .andExpect(jsonPath("$.units[0].id").value(7))
+        .andExpect(jsonPath("$.units[0].x").value(3));
   }
 
   /* ---------------------------------------------------------
@@ -105,15 +289,27 @@ class GameApiControllerTest {
     verify(commandService).executeCommand(eq(unitId), any());
   }
 
+  @Test
+  @DisplayName("sendCommand() zwraca 503, gdy skrzynka gry (single-writer) jest pełna")
+  void shouldAnswerServiceUnavailableWhenMailboxIsFull() throws Exception {
+    willThrow(new RejectedExecutionException("Mailbox of game 3 is full"))
+        .given(commandService).executeCommand(eq(8L), any());
+
+    mockMvc.perform(post("/api/units/{unitId}/command", 8L)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(mapper.writeValueAsString(new MoveRequest(Direction.RIGHT, 1, Faction.WHITE))))
+        .andExpect(status().isServiceUnavailable());
+  }
+
   /* ---------------------------------------------------------
      4. POST /api/units/{unitId}/random
      --------------------------------------------------------- */
   @Test
-  @DisplayName("randomCommand() zwraca 202, generuje i wykonuje komendę")
+  @DisplayName("randomCommand() zwraca 202, losuje i wykonuje komendę jednym wywołaniem")
   void shouldSendRandomCommand() throws Exception {
     long unitId = 15L;
 
-    given(randomCommandGenerator.generate(unitId, Faction.BLACK))
+    given(commandService.executeRandom(unitId, Faction.BLACK, AiStrategy.RANDOM))
         .willReturn(new MoveCommand(Direction.DOWN, 1, Faction.BLACK,
             CommandType.MOVE_TRANSPORT));
 
@@ -121,7 +317,95 @@ class GameApiControllerTest {
             .param("issuer", "BLACK"))
         .andExpect(status().isAccepted());
 
-    verify(randomCommandGenerator).generate(unitId, Faction.BLACK);
-    verify(commandService).executeCommand(eq(unitId), any());
+    verify(commandService).executeRandom(unitId, Faction.BLACK, AiStrategy.RANDOM);
+  }
+
+  /* ---------------------------------------------------------
+     4a. POST /api/games/{gameId}/factions/{faction}/random-turn
+     --------------------------------------------------------- */
+  @Test
+  @DisplayName("randomTurn() przekazuje strategię i zwraca 200 z wynikiem i rozkazem każdej jednostki")
+  void shouldRunRandomTurn() throws Exception {
+    long gameId = 3L;
+
+    given(commandService.executeRandomTurn(gameId, Faction.WHITE, AiStrategy.PLANNER))
+        .willReturn(java.util.List.of(
+            TurnResult.accepted(1L, new MoveCommand(Direction.UP, 1, Faction.WHITE, CommandType.MOVE_ARCHER)),
+            TurnResult.of(CommandResult.cooldown(2L, java.time.Duration.ofMillis(1500)))));
+
+    mockMvc.perform(post("/api/games/{gameId}/factions/{faction}/random-turn", gameId, "WHITE")
+            .param("strategy", "PLANNER"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].status").value(202))
+        .andExpect(jsonPath("$[0].command.type").value("MOVE_ARCHER"))
+        .andExpect(jsonPath("$[1].status").value(429))
+        .andExpect(jsonPath("$[1].retryAfterMillis").value(1500));
+
+    verify(commandService).executeRandomTurn(gameId, Faction.WHITE, AiStrategy.PLANNER);
+  }
+
+  /* ---------------------------------------------------------
+     5. POST /api/games/{gameId}/commands
+     --------------------------------------------------------- */
+  @Test
+  @DisplayName("sendCommands() zwraca 200 i wynik dla każdego rozkazu z paczki")
+  void shouldSendCommandBatch() throws Exception {
+    long gameId = 3L;
+    BatchCommandRequest req = new BatchCommandRequest(java.util.List.of(
+        new UnitCommandRequest(7L, new MoveRequest(Direction.RIGHT, 1, Faction.WHITE)),
+        new UnitCommandRequest(8L, new MoveRequest(Direction.UP, 2, Faction.WHITE))));
+
+    given(commandService.executeBatch(eq(gameId), any()))
+        .willReturn(java.util.List.of(CommandResult.accepted(7L), CommandResult.rejected(8L, "blocked")));
+
+    mockMvc.perform(post("/api/games/{gameId}/commands", gameId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(mapper.writeValueAsString(req)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].status").value(202))
+        .andExpect(jsonPath("$[1].status").value(400));
+
+    verify(commandService).executeBatch(eq(gameId), any());
+  }
+
+  /* ---------------------------------------------------------
+     6. Cooldown -> 429 + Retry-After
+     --------------------------------------------------------- */
+  @Test
+  @DisplayName("sendCommand() zwraca 429 z Retry-After, gdy jednostka jest na cooldownie")
+  void shouldRejectCommandOnCooldown() throws Exception {
+    long unitId = 9L;
+    willThrow(new CooldownException(unitId, java.time.Duration.ofMillis(2300)))
+        .given(commandService).executeCommand(eq(unitId), any());
+
+    mockMvc.perform(post("/api/units/{unitId}/command", unitId)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(mapper.writeValueAsString(new MoveRequest(Direction.LEFT, 1, Faction.BLACK))))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string("Retry-After", "3"));
+  }
+
+  /* ---------------------------------------------------------
+     7. POST /api/games/{gameId}/restore
+     --------------------------------------------------------- */
+  @Test
+  @DisplayName("restoreGame() zwraca 200 z jednostkami odtworzonymi z historii")
+  void shouldRestoreGame() throws Exception {
+    long gameId = 5L;
+    Archer archer = new Archer();
+    archer.setId(11L);
+    archer.setFaction(Faction.WHITE);
+    archer.setX(2);
+    archer.setY(3);
+
+    given(gameService.restoreGame(gameId)).willReturn(java.util.List.of(archer));
+
+    mockMvc.perform(post("/api/games/{gameId}/restore", gameId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(11))
+        .andExpect(jsonPath("$[0].type").value("ARCHER"))
+        .andExpect(jsonPath("$[0].x").value(2));
+
+    verify(gameService).restoreGame(gameId);
   }
-}
\ No newline at end of file
+}
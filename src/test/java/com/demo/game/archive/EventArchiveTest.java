@@ -0,0 +1,140 @@
+package com.demo.game.archive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.game.objects.enums.CommandType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class EventArchiveTest {
+
+  private static final Instant T0 = Instant.parse("2025-01-01T10:00:00.123456789Z");
+
+  @TempDir
+  Path dir;
+
+  private final List<EventArchive> opened = new ArrayList<>();
+
+  @AfterEach
+  void closeAll() throws IOException {
+    for (EventArchive a : opened) {
+      a.close();
+    }
+  }
+
+  @Test
+  @DisplayName("zdarzenia wracają z archiwum bez strat, od podanego id, także po ponownym otwarciu")
+  void shouldRoundTripEventsAcrossRestart() throws IOException {
+    EventArchive archive = open(1 << 20);
+    List<EventRecord> first = events(7L, 1, 300);
+    List<EventRecord> second = events(7L, 301, 20);
+    archive.append(7L, first);
+    archive.append(8L, events(8L, 1000, 5));
+    archive.append(7L, second);
+
+    assertThat(archive.lastEventId(7L)).isEqualTo(320L);
+    assertThat(archive.events(7L, 0)).usingRecursiveFieldByFieldElementComparator()
+        .containsExactlyElementsOf(concat(first, second));
+    assertThat(archive.events(7L, 310)).extracting(EventRecord::id).containsExactly(
+        311L, 312L, 313L, 314L, 315L, 316L, 317L, 318L, 319L, 320L);
+    assertThat(archive.events(9L, 0)).isEmpty();
+
+    EventArchive reopened = open(1 << 20);
+    assertThat(reopened.events(7L, 0)).usingRecursiveFieldByFieldElementComparator()
+        .containsExactlyElementsOf(concat(first, second));
+    assertThat(reopened.events(8L, 0)).hasSize(5);
+  }
+
+  @Test
+  @DisplayName("pełny segment jest zamykany, kolejne bloki idą do następnego")
+  void shouldRollSegments() throws IOException {
+    EventArchive archive = open(512);
+    for (long game = 1; game <= 10; game++) {
+      archive.append(game, events(game, game * 100, 50));
+    }
+
+    try (Stream<Path> files = Files.list(dir)) {
+      assertThat(files.filter(p -> p.getFileName().toString().startsWith("segment-")).count()).isGreaterThan(1);
+    }
+    for (long game = 1; game <= 10; game++) {
+      assertThat(archive.events(game, 0)).extracting(EventRecord::id).first().isEqualTo(game * 100);
+    }
+  }
+
+  @Test
+  @DisplayName("urwany rekord na końcu indeksu jest odcinany przy starcie, a nowe bloki dopisują się za nim")
+  void shouldDropTornIndexRecord() throws IOException {
+    EventArchive archive = open(1 << 20);
+    archive.append(7L, events(7L, 1, 10));
+    archive.close();
+    opened.remove(archive);
+    try (FileChannel index = FileChannel.open(dir.resolve("index.dat"), StandardOpenOption.APPEND)) {
+      index.write(ByteBuffer.wrap(new byte[EventArchive.INDEX_RECORD / 2]));
+    }
+
+    EventArchive reopened = open(1 << 20);
+    assertThat(Files.size(dir.resolve("index.dat"))).isEqualTo(EventArchive.INDEX_RECORD);
+    reopened.append(7L, events(7L, 11, 10));
+    assertThat(open(1 << 20).events(7L, 0)).hasSize(20);
+  }
+
+  @Test
+  @DisplayName("niższe id zarchiwizowane w późniejszym bloku wraca na swoim miejscu, rosnąco po id")
+  void shouldMergeOverlappingBlocks() throws IOException {
+    EventArchive archive = open(1 << 20);
+    archive.append(7L, List.of(events(7L, 10, 1).getFirst(), events(7L, 12, 1).getFirst()));
+    archive.append(7L, events(7L, 11, 1));
+
+    assertThat(archive.events(7L, 0)).extracting(EventRecord::id).containsExactly(10L, 11L, 12L);
+    assertThat(archive.events(7L, 10)).extracting(EventRecord::id).containsExactly(11L, 12L);
+    assertThat(archive.lastEventId(7L)).isEqualTo(12L);
+    assertThat(archive.lastBlockEventIds(7L)).containsExactly(11L);
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private EventArchive open(long segmentSize) throws IOException {
+    EventArchive archive = new EventArchive();
+    ReflectionTestUtils.setField(archive, "directory", dir.toString());
+    ReflectionTestUtils.setField(archive, "segmentSize", segmentSize);
+    archive.open();
+    opened.add(archive);
+    return archive;
+  }
+
+  /**
+   * Na przemian ruchy (pozycja, payload) i strzały bez pozycji; co piąty rozkaz niszczy jednostkę.
+   */
+  private static List<EventRecord> events(long gameId, long firstId, int count) {
+    List<EventRecord> events = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      long id = firstId + i;
+      boolean move = i % 2 == 0;
+      events.add(new EventRecord(id, gameId, i % 7 == 6 ? null : 10L + i % 3,
+          move ? CommandType.MOVE_TRANSPORT : CommandType.SHOOT_CANNON,
+          move ? new byte[]{1, (byte) i, 3} : null, i % 3 != 0,
+          move ? i % 8 : null, move ? i % 5 : null,
+          i % 5 == 4 ? 20L + i : null, T0.plusMillis(i * 250L)));
+    }
+    return events;
+  }
+
+  private static List<EventRecord> concat(List<EventRecord> a, List<EventRecord> b) {
+    List<EventRecord> all = new ArrayList<>(a);
+    all.addAll(b);
+    return all;
+  }
+}
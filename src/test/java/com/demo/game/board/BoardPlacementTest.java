@@ -0,0 +1,34 @@
+package com.demo.game.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BoardPlacementTest {
+
+  @Test
+  @DisplayName("pełna plansza daje permutację wszystkich pól")
+  void shouldPickEveryCellOnFullBoard() {
+    int[] cells = BoardPlacement.sampleCells(new SplittableRandom(1), 100, 100);
+
+    assertThat(Arrays.stream(cells).sorted().toArray()).containsExactly(IntStream.range(0, 100).toArray());
+  }
+
+  @Test
+  @DisplayName("na ogromnej planszy losuje różne pola bez alokowania całej planszy")
+  void shouldSampleDistinctCellsOnHugeBoard() {
+    int capacity = Integer.MAX_VALUE - 1;
+
+    int[] cells = BoardPlacement.sampleCells(new SplittableRandom(7), capacity, 10_000);
+
+    assertThat(cells).hasSize(10_000).doesNotHaveDuplicates();
+    assertThat(Arrays.stream(cells).allMatch(c -> c >= 0 && c < capacity)).isTrue();
+    assertThatThrownBy(() -> BoardPlacement.sampleCells(new SplittableRandom(7), 3, 4))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
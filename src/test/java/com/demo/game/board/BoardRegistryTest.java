@@ -0,0 +1,104 @@
+package com.demo.game.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import com.demo.game.objects.dao.Archer;
+import com.demo.game.objects.dao.Game;
+import com.demo.game.objects.dao.Unit;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.repositories.UnitRepository;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class BoardRegistryTest {
+
+  private final Clock clock = mock(Clock.class);
+  private final BoardRegistry boards = new BoardRegistry(mock(UnitRepository.class), clock);
+  private final Game game = new Game();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(boards, "idleTimeout", Duration.ofMinutes(10));
+    game.setId(1L);
+    boards.register(game, List.of(archer(11L, 0, 0), archer(12L, 5, 5)));
+  }
+
+  @AfterEach
+  void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  @Test
+  @DisplayName("rollback cofa tylko zmiany swojej transakcji – ruch zatwierdzony w innej transakcji zostaje")
+  void shouldUndoOnlyRolledBackChanges() throws Exception {
+    OccupancyGrid grid = boards.grid(game);
+    TransactionSynchronizationManager.initSynchronization();
+    boards.move(grid, 0, 0, 1, 0);
+    boards.remove(grid, 1, 0);
+
+    Thread other = new Thread(() -> inTransaction(() -> boards.move(grid, 5, 5, 6, 6),
+        TransactionSynchronization.STATUS_COMMITTED));
+    other.start();
+    other.join();
+    complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+    assertThat(boards.cached(1L)).isSameAs(grid);
+    assertThat(grid.occupant(0, 0)).isEqualTo(11L);
+    assertThat(grid.occupant(1, 0)).isEqualTo(OccupancyGrid.EMPTY);
+    assertThat(grid.occupant(6, 6)).isEqualTo(12L);
+    assertThat(grid.occupant(5, 5)).isEqualTo(OccupancyGrid.EMPTY);
+  }
+
+  @Test
+  @DisplayName("bezczynna siatka ze zmianami w toku nie jest eksmitowana, dopóki transakcja się nie skończy")
+  void shouldNotEvictGridInUse() {
+    OccupancyGrid grid = boards.grid(game);
+    TransactionSynchronizationManager.initSynchronization();
+    boards.move(grid, 0, 0, 1, 0);
+    given(clock.millis()).willReturn(Duration.ofHours(1).toMillis());
+
+    boards.evictIdle();
+    assertThat(boards.cached(1L)).isSameAs(grid);
+
+    complete(TransactionSynchronization.STATUS_COMMITTED);
+    boards.evictIdle();
+    assertThat(boards.cached(1L)).isNull();
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private static void inTransaction(Runnable body, int status) {
+    TransactionSynchronizationManager.initSynchronization();
+    body.run();
+    complete(status);
+  }
+
+  private static void complete(int status) {
+    try {
+      TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(status));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  private static Unit archer(long id, int x, int y) {
+    Archer archer = new Archer();
+    archer.setId(id);
+    archer.setFaction(Faction.WHITE);
+    archer.setX(x);
+    archer.setY(y);
+    return archer;
+  }
+}
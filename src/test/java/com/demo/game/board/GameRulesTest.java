@@ -0,0 +1,91 @@
+package com.demo.game.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.demo.game.commands.MoveCommand;
+import com.demo.game.commands.ShootCommand;
+import com.demo.game.exceptions.CommandRejectedException;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Direction;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.RejectionReason;
+import com.demo.game.objects.enums.UnitType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class GameRulesTest {
+
+  /**
+   * <pre>
+   *   0 1 2 3 4
+   * 0 . . . . .
+   * 1 . T w . b      T – biały transport (1), w – biały łucznik (2), b – czarny łucznik (3)
+   * 2 . . . . .
+   * 3 . b . . .      b – czarna armata (4)
+   * </pre>
+   */
+  private static OccupancyGrid board() {
+    OccupancyGrid grid = new OccupancyGrid(1L, 5, 4);
+    grid.place(1L, Faction.WHITE, UnitType.TRANSPORT, 1, 1);
+    grid.place(2L, Faction.WHITE, UnitType.ARCHER, 2, 1);
+    grid.place(3L, Faction.BLACK, UnitType.ARCHER, 4, 1);
+    grid.place(4L, Faction.BLACK, UnitType.CANNON, 1, 3);
+    return grid;
+  }
+
+  @Test
+  @DisplayName("transport wchodzi na pole przeciwnika i go niszczy, na puste pole po prostu przechodzi")
+  void shouldCaptureEnemyOnLastStep() {
+    OccupancyGrid grid = board();
+
+    assertThat(GameRules.resolveMove(UnitType.TRANSPORT, Faction.WHITE, 1, 1,
+        transport(Direction.DOWN, 2), grid)).isEqualTo(new MoveOutcome(1, 3, 4L, false));
+    assertThat(GameRules.resolveMove(UnitType.TRANSPORT, Faction.WHITE, 1, 1,
+        transport(Direction.UP, 1), grid)).isEqualTo(new MoveOutcome(1, 0, BoardView.EMPTY, false));
+  }
+
+  @Test
+  @DisplayName("najazd na swoją jednostkę anuluje ruch; blokada po drodze i wyjście poza planszę są odrzucane")
+  void shouldCancelOrRejectBlockedMoves() {
+    OccupancyGrid grid = board();
+
+    assertThat(GameRules.resolveMove(UnitType.TRANSPORT, Faction.WHITE, 1, 1,
+        transport(Direction.RIGHT, 1), grid)).isEqualTo(new MoveOutcome(1, 1, BoardView.EMPTY, true));
+    assertThatThrownBy(() -> GameRules.resolveMove(UnitType.TRANSPORT, Faction.WHITE, 1, 1,
+        transport(Direction.RIGHT, 3), grid))
+        .isInstanceOfSatisfying(CommandRejectedException.class,
+            ex -> assertThat(ex.getReason()).isEqualTo(RejectionReason.PATH_BLOCKED));
+    assertThatThrownBy(() -> GameRules.resolveMove(UnitType.TRANSPORT, Faction.WHITE, 1, 1,
+        transport(Direction.LEFT, 2), grid))
+        .isInstanceOfSatisfying(CommandRejectedException.class,
+            ex -> assertThat(ex.getReason()).isEqualTo(RejectionReason.OUT_OF_BOARD));
+    assertThatThrownBy(() -> GameRules.resolveMove(UnitType.ARCHER, Faction.WHITE, 2, 1,
+        new MoveCommand(Direction.DOWN, 2, Faction.WHITE, CommandType.MOVE_ARCHER), grid))
+        .isInstanceOfSatisfying(CommandRejectedException.class,
+            ex -> assertThat(ex.getReason()).isEqualTo(RejectionReason.INVALID_DISTANCE));
+  }
+
+  @Test
+  @DisplayName("strzał trafia dowolną jednostkę na polu docelowym i leci nad zajętymi polami po drodze")
+  void shouldHitAnyUnitOnTarget() {
+    OccupancyGrid grid = board();
+
+    assertThat(GameRules.resolveShot(1, 3, new ShootCommand(1, -2, Faction.BLACK, CommandType.SHOOT_CANNON), grid))
+        .isEqualTo(2L);
+    assertThat(GameRules.resolveShot(4, 1, new ShootCommand(-3, 0, Faction.BLACK, CommandType.SHOOT_ARCHER), grid))
+        .isEqualTo(1L);
+    assertThat(GameRules.resolveShot(2, 1, new ShootCommand(0, 1, Faction.WHITE, CommandType.SHOOT_ARCHER), grid))
+        .isEqualTo(BoardView.EMPTY);
+    assertThatThrownBy(() -> GameRules.resolveShot(4, 1,
+        new ShootCommand(1, 0, Faction.BLACK, CommandType.SHOOT_ARCHER), grid))
+        .isInstanceOfSatisfying(CommandRejectedException.class,
+            ex -> assertThat(ex.getReason()).isEqualTo(RejectionReason.OUT_OF_BOARD));
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private static MoveCommand transport(Direction direction, int steps) {
+    return new MoveCommand(direction, steps, Faction.WHITE, CommandType.MOVE_TRANSPORT);
+  }
+}
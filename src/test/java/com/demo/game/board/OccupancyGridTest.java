@@ -0,0 +1,78 @@
+package com.demo.game.board;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OccupancyGridTest {
+
+  @Test
+  @DisplayName("pack() koduje zajętość, frakcję, rodzaj i indeks id jednostki dla każdego pola")
+  void shouldPackBoard() {
+    OccupancyGrid grid = new OccupancyGrid(9L, 4, 3);
+    grid.place(11L, Faction.WHITE, UnitType.CANNON, 3, 0);
+    grid.place(12L, Faction.BLACK, UnitType.ARCHER, 0, 2);
+    grid.place(13L, Faction.BLACK, UnitType.TRANSPORT, 1, 1);
+    grid.move(1, 1, 2, 2);
+
+    PackedBoard board = grid.pack();
+
+    assertThat(board.unitIds()).containsExactly(11L, 12L, 13L);
+    assertThat(board.cells()).hasSize(12);
+    assertThat(board.unitAt(3, 0)).isEqualTo(11L);
+    assertThat(board.factionAt(3, 0)).isEqualTo(Faction.WHITE);
+    assertThat(board.typeAt(3, 0)).isEqualTo(UnitType.CANNON);
+    assertThat(board.unitAt(2, 2)).isEqualTo(13L);
+    assertThat(board.typeAt(2, 2)).isEqualTo(UnitType.TRANSPORT);
+    assertThat(board.factionAt(0, 2)).isEqualTo(Faction.BLACK);
+    assertThat(board.occupied(1, 1)).isFalse();
+    assertThat(board.unitAt(1, 1)).isEqualTo(BoardView.EMPTY);
+  }
+
+  @Test
+  @DisplayName("liczniki zagrożenia po ruchach i zniszczeniach zgadzają się z przeliczeniem od zera")
+  void shouldKeepThreatsInSyncWithUnits() {
+    OccupancyGrid grid = new OccupancyGrid(9L, 8, 8);
+    grid.place(1L, Faction.WHITE, UnitType.ARCHER, 0, 0);
+    grid.place(2L, Faction.WHITE, UnitType.CANNON, 4, 4);
+    grid.place(3L, Faction.WHITE, UnitType.TRANSPORT, 6, 1);
+    grid.place(4L, Faction.BLACK, UnitType.CANNON, 7, 7);
+    grid.move(0, 0, 0, 1);
+    grid.move(4, 4, 5, 4);
+    grid.remove(7, 7);
+
+    for (int y = 0; y < 8; y++) {
+      for (int x = 0; x < 8; x++) {
+        int archer = (x == 0) != (y == 1) && Math.abs(x) + Math.abs(y - 1) <= 3 ? 1 : 0;
+        int cannon = (x != 5 || y != 4) && Math.abs(x - 5) <= 3 && Math.abs(y - 4) <= 3 ? 1 : 0;
+        assertThat(grid.threatCount(Faction.WHITE, x, y)).as("(%d,%d)", x, y).isEqualTo(archer + cannon);
+        assertThat(grid.threats(Faction.WHITE).threatened(x, y)).isEqualTo(archer + cannon > 0);
+        assertThat(grid.threatCount(Faction.BLACK, x, y)).isZero();
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("transportReach() zatrzymuje się na jednostkach, a unitsWithin() liczy odległość jak strzał")
+  void shouldAnswerReachAndRangeQueries() {
+    OccupancyGrid grid = new OccupancyGrid(9L, 6, 6);
+    grid.place(1L, Faction.WHITE, UnitType.TRANSPORT, 2, 2);
+    grid.place(2L, Faction.WHITE, UnitType.ARCHER, 2, 1);
+    grid.place(3L, Faction.BLACK, UnitType.ARCHER, 4, 2);
+    grid.place(4L, Faction.BLACK, UnitType.CANNON, 5, 5);
+
+    assertThat(grid.transportReach(2, 2, Faction.WHITE)).containsExactlyInAnyOrder(
+        new ReachableCell(2, 3, 1, BoardView.EMPTY), new ReachableCell(2, 4, 2, BoardView.EMPTY),
+        new ReachableCell(2, 5, 3, BoardView.EMPTY),
+        new ReachableCell(1, 2, 1, BoardView.EMPTY), new ReachableCell(0, 2, 2, BoardView.EMPTY),
+        new ReachableCell(3, 2, 1, BoardView.EMPTY), new ReachableCell(4, 2, 2, 3L));
+
+    assertThat(grid.unitsWithin(2, 2, 2)).extracting(BoardUnit::unitId).containsExactly(2L, 1L, 3L);
+    assertThat(grid.unitsWithin(2, 2, 3)).extracting(BoardUnit::unitId).containsExactly(2L, 1L, 3L, 4L);
+    assertThat(grid.unitsWithin(5, 5, 0)).singleElement().isEqualTo(
+        new BoardUnit(4L, Faction.BLACK, UnitType.CANNON, 5, 5));
+  }
+}
@@ -0,0 +1,48 @@
+package com.demo.game.commands;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Direction;
+import com.demo.game.objects.enums.Faction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CommandCodecTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final CommandCodec codec = new CommandCodec(mapper);
+
+  @Test
+  @DisplayName("ruch zajmuje 3 bajty i dekoduje się bez strat")
+  void shouldRoundTripMove() {
+    Command move = new MoveCommand(Direction.LEFT, 3, Faction.BLACK, CommandType.MOVE_TRANSPORT);
+
+    byte[] bytes = codec.encode(move);
+
+    assertThat(bytes).hasSize(3);
+    assertThat(codec.decode(bytes)).isEqualTo(move);
+  }
+
+  @Test
+  @DisplayName("strzał zajmuje 4 bajty, ujemne dx/dy zachowują znak")
+  void shouldRoundTripShot() {
+    Command shot = new ShootCommand(-3, 2, Faction.WHITE, CommandType.SHOOT_CANNON);
+
+    byte[] bytes = codec.encode(shot);
+
+    assertThat(bytes).hasSize(4);
+    assertThat(codec.decode(bytes)).isEqualTo(shot);
+  }
+
+  @Test
+  @DisplayName("stary payload w JSON-ie jest nadal dekodowany")
+  void shouldDecodeLegacyJson() throws Exception {
+    Command shot = new ShootCommand(0, -1, Faction.BLACK, CommandType.SHOOT_ARCHER);
+    byte[] legacy = mapper.writeValueAsString(shot).getBytes(StandardCharsets.UTF_8);
+
+    assertThat(codec.decode(legacy)).isEqualTo(shot);
+  }
+}
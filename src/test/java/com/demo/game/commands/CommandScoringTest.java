@@ -0,0 +1,86 @@
+package com.demo.game.commands;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.game.board.GameRules;
+import com.demo.game.board.MoveOutcome;
+import com.demo.game.board.OccupancyGrid;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Direction;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitType;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CommandScoringTest {
+
+  @Test
+  @DisplayName("best() strzela w najcenniejszy cel w zasięgu")
+  void shouldShootMostValuableTarget() {
+    OccupancyGrid grid = new OccupancyGrid(1L, 7, 7);
+    grid.place(1L, Faction.WHITE, UnitType.CANNON, 3, 3);
+    grid.place(2L, Faction.BLACK, UnitType.TRANSPORT, 0, 3);
+    grid.place(3L, Faction.BLACK, UnitType.ARCHER, 3, 1);
+    grid.place(4L, Faction.BLACK, UnitType.CANNON, 5, 5);
+
+    Command cmd = CommandScoring.best(UnitType.CANNON, Faction.WHITE, 3, 3, grid.snapshot(), false, true,
+        new SplittableRandom(1));
+
+    assertThat(cmd).isEqualTo(new ShootCommand(2, 2, Faction.WHITE, CommandType.SHOOT_CANNON));
+  }
+
+  @Test
+  @DisplayName("best() zamyka transportowi przeciwnika drogę do cenniejszej jednostki")
+  void shouldBlockCaptureLane() {
+    OccupancyGrid grid = new OccupancyGrid(1L, 5, 5);
+    grid.place(1L, Faction.WHITE, UnitType.TRANSPORT, 0, 2);
+    grid.place(2L, Faction.WHITE, UnitType.CANNON, 2, 3);
+    grid.place(3L, Faction.BLACK, UnitType.TRANSPORT, 2, 0);
+
+    Command cmd = CommandScoring.best(UnitType.TRANSPORT, Faction.WHITE, 0, 2, grid.snapshot(), true, false,
+        new SplittableRandom(1));
+
+    assertThat(cmd).isEqualTo(new MoveCommand(Direction.RIGHT, 2, Faction.WHITE, CommandType.MOVE_TRANSPORT));
+  }
+
+  @Test
+  @DisplayName("best() wybiera tylko legalne rozkazy, a ruch bez zniszczeń kończy na najmniej ostrzeliwanym polu")
+  void shouldChooseLegalAndLeastExposedMoves() {
+    SplittableRandom rng = new SplittableRandom(7);
+    for (int round = 0; round < 200; round++) {
+      OccupancyGrid grid = new OccupancyGrid(1L, 6, 6);
+      grid.place(1L, Faction.WHITE, UnitType.TRANSPORT, 2, 2);
+      for (int id = 2; id < 8; id++) {
+        int x = rng.nextInt(6);
+        int y = rng.nextInt(6);
+        if (grid.occupant(x, y) == OccupancyGrid.EMPTY) {
+          grid.place(id, rng.nextBoolean() ? Faction.WHITE : Faction.BLACK,
+              rng.nextBoolean() ? UnitType.ARCHER : UnitType.CANNON, x, y);
+        }
+      }
+
+      Command cmd = CommandScoring.best(UnitType.TRANSPORT, Faction.WHITE, 2, 2, grid.snapshot(), true, false, rng);
+      if (cmd == null) {
+        continue;
+      }
+      assertThat(RandomCommands.isLegal(Faction.WHITE, 2, 2, cmd, grid)).isTrue();
+
+      MoveOutcome chosen = GameRules.resolveMove(UnitType.TRANSPORT, Faction.WHITE, 2, 2, (MoveCommand) cmd, grid);
+      if (chosen.capturedUnit() == OccupancyGrid.EMPTY && CommandScoring.blockedLanes(Faction.WHITE,
+          chosen.x(), chosen.y(), 2, 2, grid) == 0) {
+        for (Direction d : Direction.values()) {
+          for (int steps = 1; steps <= 3; steps++) {
+            MoveCommand other = new MoveCommand(d, steps, Faction.WHITE, CommandType.MOVE_TRANSPORT);
+            if (RandomCommands.isLegal(Faction.WHITE, 2, 2, other, grid)) {
+              MoveOutcome o = GameRules.resolveMove(UnitType.TRANSPORT, Faction.WHITE, 2, 2, other, grid);
+              /* zniszczenie i blokowanie tylko podnoszą ocenę – wybrany ruch bez nich nie może być bardziej narażony */
+              assertThat(grid.threatCount(Faction.BLACK, chosen.x(), chosen.y()))
+                  .isLessThanOrEqualTo(grid.threatCount(Faction.BLACK, o.x(), o.y()));
+            }
+          }
+        }
+      }
+    }
+  }
+}
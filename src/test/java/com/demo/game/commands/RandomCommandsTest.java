@@ -0,0 +1,88 @@
+package com.demo.game.commands;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.game.board.GameRules;
+import com.demo.game.board.MoveOutcome;
+import com.demo.game.board.OccupancyGrid;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Direction;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitType;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RandomCommandsTest {
+
+  @Test
+  @DisplayName("legal() losuje tylko rozkazy, których reguły nie odrzucą ani nie anulują")
+  void shouldDrawOnlyLegalCommands() {
+    OccupancyGrid grid = new OccupancyGrid(1L, 5, 5);
+    grid.place(1L, Faction.WHITE, 0, 0);
+    grid.place(2L, Faction.WHITE, 1, 0);
+    grid.place(3L, Faction.BLACK, 0, 1);
+    SplittableRandom rng = new SplittableRandom(7);
+
+    for (UnitType type : UnitType.values()) {
+      for (int i = 0; i < 500; i++) {
+        Command cmd = RandomCommands.legal(type, Faction.WHITE, 0, 0, grid, true, true, rng);
+        assertThat(RandomCommands.isLegal(Faction.WHITE, 0, 0, cmd, grid)).isTrue();
+
+        switch (cmd) {
+          case MoveCommand mv -> {
+            MoveOutcome outcome = GameRules.resolveMove(type, Faction.WHITE, 0, 0, mv, grid);
+            assertThat(outcome.cancelled()).isFalse();
+          }
+          case ShootCommand sh -> assertThat(GameRules.resolveShot(0, 0, sh, grid)).isNotEqualTo(2L);
+          default -> throw new AssertionError(cmd);
+        }
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("isLegal() odrzuca rozkaz, który po zmianie planszy najechałby albo strzelił we własną jednostkę")
+  void shouldDetectConflictAfterBoardChange() {
+    OccupancyGrid grid = new OccupancyGrid(1L, 5, 5);
+    grid.place(1L, Faction.WHITE, 0, 0);
+    Command move = new MoveCommand(Direction.RIGHT, 2, Faction.WHITE, CommandType.MOVE_TRANSPORT);
+    Command shot = new ShootCommand(0, 2, Faction.WHITE, CommandType.SHOOT_ARCHER);
+    assertThat(RandomCommands.isLegal(Faction.WHITE, 0, 0, move, grid)).isTrue();
+    assertThat(RandomCommands.isLegal(Faction.WHITE, 0, 0, shot, grid)).isTrue();
+
+    grid.place(2L, Faction.WHITE, 2, 0);
+    grid.place(3L, Faction.WHITE, 0, 2);
+
+    assertThat(RandomCommands.isLegal(Faction.WHITE, 0, 0, move, grid)).isFalse();
+    assertThat(RandomCommands.isLegal(Faction.WHITE, 0, 0, shot, grid)).isFalse();
+  }
+
+  @Test
+  @DisplayName("legal() zwraca null, gdy jednostka nie ma legalnego rozkazu")
+  void shouldReturnNullWhenBoxedIn() {
+    OccupancyGrid grid = new OccupancyGrid(1L, 5, 5);
+    grid.place(1L, Faction.WHITE, 0, 0);
+    grid.place(2L, Faction.WHITE, 1, 0);
+    grid.place(3L, Faction.WHITE, 0, 1);
+    SplittableRandom rng = new SplittableRandom(7);
+
+    assertThat(RandomCommands.legal(UnitType.TRANSPORT, Faction.WHITE, 0, 0, grid, true, true, rng)).isNull();
+    assertThat(RandomCommands.legal(UnitType.ARCHER, Faction.WHITE, 0, 0, grid, true, false, rng)).isNull();
+    assertThat(RandomCommands.legal(UnitType.CANNON, Faction.WHITE, 0, 0, grid, false, true, rng)).isNotNull();
+  }
+
+  @Test
+  @DisplayName("to samo ziarno daje ten sam ciąg rozkazów")
+  void shouldBeDeterministicForSeed() {
+    OccupancyGrid grid = new OccupancyGrid(1L, 8, 8);
+    grid.place(1L, Faction.BLACK, 4, 4);
+    SplittableRandom a = new SplittableRandom(42);
+    SplittableRandom b = new SplittableRandom(42);
+
+    for (int i = 0; i < 100; i++) {
+      assertThat(RandomCommands.legal(UnitType.ARCHER, Faction.BLACK, 4, 4, grid, true, true, a))
+          .isEqualTo(RandomCommands.legal(UnitType.ARCHER, Faction.BLACK, 4, 4, grid, true, true, b));
+    }
+  }
+}
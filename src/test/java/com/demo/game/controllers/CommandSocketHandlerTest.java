@@ -0,0 +1,151 @@
+package com.demo.game.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.demo.game.commands.CommandCodec;
+import com.demo.game.commands.MoveCommand;
+import com.demo.game.exceptions.CooldownException;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Direction;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.service.CommandService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+class CommandSocketHandlerTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final CommandService commandService = mock(CommandService.class);
+  private final CommandCodec codec = new CommandCodec(mapper);
+  private final WebSocketSession session = mock(WebSocketSession.class);
+  private final CommandSocketHandler handler = new CommandSocketHandler(commandService, codec, mapper,
+      Validation.buildDefaultValidatorFactory().getValidator());
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(handler, "maxInFlight", 1);
+    ReflectionTestUtils.setField(handler, "workers", 1);
+    ReflectionTestUtils.setField(handler, "queueCapacity", 1);
+    ReflectionTestUtils.setField(handler, "sendTimeout", Duration.ofSeconds(5));
+    ReflectionTestUtils.setField(handler, "sendBuffer", 1 << 16);
+    org.mockito.BDDMockito.given(session.getAttributes()).willReturn(new HashMap<>());
+    org.mockito.BDDMockito.given(session.isOpen()).willReturn(true);
+    handler.start();
+    handler.afterConnectionEstablished(session);
+  }
+
+  @AfterEach
+  void tearDown() {
+    handler.shutdown();
+  }
+
+  @Test
+  @DisplayName("ramka binarna: rozkaz z kodeka idzie do CommandService, potwierdzenie wraca z id klienta")
+  void shouldAcknowledgeBinaryCommand() throws Exception {
+    MoveCommand move = new MoveCommand(Direction.UP, 2, Faction.WHITE, CommandType.MOVE_TRANSPORT);
+    byte[] payload = codec.encode(move);
+    ByteBuffer frame = ByteBuffer.allocate(CommandSocketHandler.BINARY_HEADER + payload.length)
+        .putLong(77L).putLong(5L).put(payload).flip();
+
+    handler.handleMessage(session, new BinaryMessage(frame));
+
+    verify(commandService, timeout(2000)).executeCommand(5L, move);
+    ByteBuffer ack = ((BinaryMessage) sent(1).getFirst()).getPayload();
+    assertThat(ack.getLong()).isEqualTo(77L);
+    assertThat(ack.getShort()).isEqualTo((short) 202);
+    assertThat(ack.getInt()).isEqualTo(-1);
+  }
+
+  @Test
+  @DisplayName("ramka tekstowa: odrzucenie przez cooldown wraca jako 429, nadmiar rozkazów w toku jako 503")
+  void shouldMapOutcomesAndLimitInFlight() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    willAnswer(inv -> {
+      release.await();
+      throw new CooldownException(5L, Duration.ofMillis(1500));
+    }).given(commandService).executeCommand(eq(5L), any());
+    willThrow(new IllegalStateException("must not run")).given(commandService).executeCommand(eq(6L), any());
+
+    handler.handleMessage(session, text(1L, 5L));
+    handler.handleMessage(session, text(2L, 6L));
+    JsonNode busy = mapper.readTree(((TextMessage) sent(1).getFirst()).getPayload());
+    release.countDown();
+    JsonNode cooldown = mapper.readTree(((TextMessage) sent(2).get(1)).getPayload());
+
+    assertThat(busy.get("id").asLong()).isEqualTo(2L);
+    assertThat(busy.get("status").asInt()).isEqualTo(503);
+    assertThat(cooldown.get("id").asLong()).isEqualTo(1L);
+    assertThat(cooldown.get("status").asInt()).isEqualTo(429);
+    assertThat(cooldown.get("retryAfterMillis").asLong()).isEqualTo(1500L);
+  }
+
+  @Test
+  @DisplayName("pełna wspólna kolejka wątków: rozkaz z kolejnego połączenia dostaje 503, a nie czeka w pamięci")
+  void shouldRejectWhenWorkerQueueIsFull() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    willAnswer(inv -> {
+      release.await();
+      return null;
+    }).given(commandService).executeCommand(eq(5L), any());
+    WebSocketSession second = session();
+    WebSocketSession third = session();
+
+    handler.handleMessage(session, text(1L, 5L));
+    handler.handleMessage(second, text(2L, 5L));
+    handler.handleMessage(third, text(3L, 5L));
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<WebSocketMessage<?>> captor = ArgumentCaptor.forClass(WebSocketMessage.class);
+    verify(third, timeout(2000)).sendMessage(captor.capture());
+    release.countDown();
+    JsonNode rejected = mapper.readTree(((TextMessage) captor.getValue()).getPayload());
+
+    assertThat(rejected.get("id").asLong()).isEqualTo(3L);
+    assertThat(rejected.get("status").asInt()).isEqualTo(503);
+    verify(commandService, timeout(2000).times(2)).executeCommand(eq(5L), any());
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private WebSocketSession session() {
+    WebSocketSession s = mock(WebSocketSession.class);
+    org.mockito.BDDMockito.given(s.getAttributes()).willReturn(new HashMap<>());
+    org.mockito.BDDMockito.given(s.isOpen()).willReturn(true);
+    handler.afterConnectionEstablished(s);
+    return s;
+  }
+
+  private static TextMessage text(long id, long unitId) {
+    return new TextMessage("{\"id\":" + id + ",\"unitId\":" + unitId
+        + ",\"command\":{\"kind\":\"move\",\"direction\":\"UP\",\"steps\":1,\"issuer\":\"WHITE\"}}");
+  }
+
+  private List<WebSocketMessage<?>> sent(int count) throws Exception {
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<WebSocketMessage<?>> captor = ArgumentCaptor.forClass(WebSocketMessage.class);
+    verify(session, timeout(2000).times(count)).sendMessage(captor.capture());
+    return captor.getAllValues();
+  }
+}
@@ -0,0 +1,147 @@
+package com.demo.game.eventlog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.game.archive.EventRecord;
+import com.demo.game.objects.enums.CommandType;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class EventLogTest {
+
+  private static final Instant T0 = Instant.parse("2025-01-01T10:00:00.123456789Z");
+
+  @TempDir
+  Path dir;
+
+  private final List<EventLog> opened = new ArrayList<>();
+
+  @AfterEach
+  void closeAll() {
+    opened.forEach(EventLog::close);
+  }
+
+  @Test
+  @DisplayName("zdarzenia dostają kolejne id i wracają bez strat, od podanego id, także po ponownym otwarciu")
+  void shouldRoundTripEventsAcrossRestart() throws IOException {
+    EventLog log = open(1 << 16);
+    List<EventRecord> first = log.append(events(7L, 100));
+    log.append(events(8L, 5));
+    List<EventRecord> second = log.append(events(7L, 20));
+    log.sync();
+
+    assertThat(first).extracting(EventRecord::id).first().isEqualTo(1L);
+    assertThat(second).extracting(EventRecord::id).last().isEqualTo(125L);
+    assertThat(log.eventsAfter(7L, 0)).usingRecursiveFieldByFieldElementComparator()
+        .containsExactlyElementsOf(concat(first, second));
+    assertThat(log.eventsAfter(7L, 120)).extracting(EventRecord::id).containsExactly(121L, 122L, 123L, 124L, 125L);
+    assertThat(log.eventsAfter(9L, 0)).isEmpty();
+
+    EventLog reopened = open(1 << 16);
+    assertThat(reopened.lastId()).isEqualTo(125L);
+    assertThat(reopened.eventsAfter(7L, 0)).usingRecursiveFieldByFieldElementComparator()
+        .containsExactlyElementsOf(concat(first, second));
+    assertThat(reopened.append(events(8L, 1))).extracting(EventRecord::id).containsExactly(126L);
+  }
+
+  @Test
+  @DisplayName("pełny plik partycji jest zamykany, kolejne rekordy idą do następnego")
+  void shouldRollFiles() throws IOException {
+    EventLog log = open(EventLog.RECORD * 16);
+    for (int round = 0; round < 5; round++) {
+      for (long game = 1; game <= 4; game++) {
+        log.append(events(game, 10));
+      }
+    }
+    log.sync();
+
+    try (Stream<Path> files = Files.list(dir)) {
+      assertThat(files.filter(p -> p.getFileName().toString().startsWith("p0-")).count()).isGreaterThan(1);
+    }
+    EventLog reopened = open(EventLog.RECORD * 16);
+    for (long game = 1; game <= 4; game++) {
+      assertThat(reopened.eventsAfter(game, 0)).hasSize(50).extracting(EventRecord::gameId).containsOnly(game);
+    }
+  }
+
+  @Test
+  @DisplayName("urwany rekord kończy partycję przy starcie – jest zerowany, a nowe rekordy dopisują się w jego miejsce")
+  void shouldDropTornRecord() throws IOException {
+    EventLog log = open(1 << 16);
+    log.append(events(2L, 10));
+    log.close();
+    opened.remove(log);
+    try (FileChannel ch = FileChannel.open(dir.resolve("p0-000001.log"), StandardOpenOption.WRITE)) {
+      ch.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), 8L * EventLog.RECORD + 20);
+    }
+
+    EventLog reopened = open(1 << 16);
+    assertThat(reopened.lastId()).isEqualTo(8L);
+    assertThat(reopened.eventsAfter(2L, 0)).hasSize(8);
+    reopened.append(events(2L, 3));
+    reopened.sync();
+    assertThat(open(1 << 16).eventsAfter(2L, 0)).extracting(EventRecord::id)
+        .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L);
+  }
+
+  @Test
+  @DisplayName("luka z id 0 kończy partycję – rekordy za nią są zerowane i nie wracają po kolejnym otwarciu")
+  void shouldDropRecordsAfterZeroGap() throws IOException {
+    EventLog log = open(1 << 16);
+    log.append(events(2L, 10));
+    log.close();
+    opened.remove(log);
+    try (FileChannel ch = FileChannel.open(dir.resolve("p0-000001.log"), StandardOpenOption.WRITE)) {
+      ch.write(ByteBuffer.wrap(new byte[EventLog.RECORD]), 5L * EventLog.RECORD);
+    }
+
+    EventLog reopened = open(1 << 16);
+    assertThat(reopened.lastId()).isEqualTo(5L);
+    reopened.append(events(2L, 2));
+    reopened.sync();
+    assertThat(open(1 << 16).eventsAfter(2L, 0)).extracting(EventRecord::id)
+        .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private EventLog open(int fileSize) throws IOException {
+    EventLog log = EventLog.open(dir, 2, fileSize);
+    opened.add(log);
+    return log;
+  }
+
+  /**
+   * Na przemian ruchy (pozycja, payload) i strzały bez pozycji; co piąty rozkaz niszczy jednostkę.
+   */
+  private static List<EventRecord> events(long gameId, int count) {
+    List<EventRecord> events = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      boolean move = i % 2 == 0;
+      events.add(new EventRecord(0, gameId, i % 7 == 6 ? null : 10L + i % 3,
+          move ? CommandType.MOVE_TRANSPORT : CommandType.SHOOT_CANNON,
+          move ? new byte[]{1, (byte) i, 3} : null, i % 3 != 0,
+          move ? i % 8 : null, move ? -(i % 5) : null,
+          i % 5 == 4 ? 20L + i : null, T0.plusMillis(i * 250L)));
+    }
+    return events;
+  }
+
+  private static List<EventRecord> concat(List<EventRecord> a, List<EventRecord> b) {
+    List<EventRecord> all = new ArrayList<>(a);
+    all.addAll(b);
+    return all;
+  }
+}
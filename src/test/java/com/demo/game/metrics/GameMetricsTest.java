@@ -0,0 +1,70 @@
+package com.demo.game.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import com.demo.game.metrics.GameMetrics.CommandStage;
+import com.demo.game.metrics.GameMetrics.Outcome;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.GameStatus;
+import com.demo.game.objects.enums.RejectionReason;
+import com.demo.game.repositories.GameRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class GameMetricsTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final GameRepository gameRepo = mock(GameRepository.class);
+  private final GameMetrics metrics = new GameMetrics(registry, gameRepo);
+
+  @Test
+  @DisplayName("czas rozkazu i etapów trafia do timerów z typem rozkazu, odrzucenia do licznika z powodem")
+  void shouldRecordCommandStagesAndRejections() {
+    long start = System.nanoTime();
+    long next = metrics.stage(CommandType.SHOOT_CANNON, CommandStage.LOCK, start);
+    metrics.stage(CommandType.SHOOT_CANNON, CommandStage.RULES, next);
+    metrics.command(CommandType.SHOOT_CANNON, Outcome.REJECTED, start);
+    metrics.rejected(RejectionReason.OUT_OF_BOARD);
+
+    assertThat(next).isGreaterThanOrEqualTo(start);
+    assertThat(registry.get("game.commands.stage").tags("type", "SHOOT_CANNON", "stage", "lock").timer().count())
+        .isEqualTo(1);
+    assertThat(registry.get("game.commands").tags("type", "SHOOT_CANNON", "outcome", "rejected").timer().count())
+        .isEqualTo(1);
+    assertThat(registry.get("game.commands").tags("type", "SHOOT_CANNON", "outcome", "accepted").timer().count())
+        .isZero();
+    assertThat(registry.get("game.commands.rejected").tag("reason", "out_of_board").counter().count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  @DisplayName("commit mierzony od beforeCommit do zakończenia transakcji")
+  void shouldTimeCommitThroughSynchronization() {
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      metrics.timeCommit(CommandType.MOVE_TRANSPORT);
+      for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+        s.beforeCommit(false);
+        s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+      }
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    assertThat(registry.get("game.commands.stage").tags("type", "MOVE_TRANSPORT", "stage", "commit").timer().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("miernik game.active czyta liczbę aktywnych gier")
+  void shouldReportActiveGames() {
+    given(gameRepo.countByStatus(GameStatus.ACTIVE)).willReturn(3L);
+
+    assertThat(registry.get("game.active").gauge().value()).isEqualTo(3.0);
+  }
+}
@@ -0,0 +1,84 @@
+package com.demo.game.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.demo.game.board.BoardRegistry;
+import com.demo.game.board.OccupancyGrid;
+import com.demo.game.commands.MoveCommand;
+import com.demo.game.objects.dao.Game;
+import com.demo.game.objects.dao.Unit;
+import com.demo.game.objects.dto.PlayerConfig;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Direction;
+import com.demo.game.objects.enums.UnitStatus;
+import com.demo.game.repositories.UnitRepository;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:command-service;MODE=Oracle;DB_CLOSE_DELAY=-1",
+    "logging.file.name="})
+class CommandServiceTest {
+
+  @Autowired
+  GameService games;
+
+  @Autowired
+  CommandService commands;
+
+  @Autowired
+  UnitRepository units;
+
+  @Autowired
+  BoardRegistry boards;
+
+  @Test
+  @DisplayName("rozkaz zniszczonej jednostki jest odrzucany, a siatka zostaje bez zmian")
+  void shouldRejectCommandOfDestroyedUnit() {
+    Game game = games.createNewGame(10, 10, new PlayerConfig(2, 0, 0), new PlayerConfig(2, 0, 0));
+    List<Unit> all = units.findByGame(game);
+    Unit dead = all.get(0);
+    Unit other = all.get(1);
+    OccupancyGrid grid = boards.grid(game);
+
+    /* jednostka zginęła, a na jej pole weszła już inna */
+    dead.setStatus(UnitStatus.DESTROYED);
+    units.save(dead);
+    grid.remove(dead.getX(), dead.getY());
+    grid.move(other.getX(), other.getY(), dead.getX(), dead.getY());
+
+    Direction dir = freeDirection(grid, dead.getX(), dead.getY());
+    MoveCommand move = new MoveCommand(dir, 1, dead.getFaction(), CommandType.MOVE_ARCHER);
+
+    assertThatThrownBy(() -> commands.executeCommand(dead.getId(), move))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("destroyed");
+    assertThat(grid.occupant(dead.getX(), dead.getY())).isEqualTo(other.getId());
+    assertThat(grid.occupant(dead.getX() + dx(dir), dead.getY() + dy(dir))).isEqualTo(OccupancyGrid.EMPTY);
+    // odrzucony rozkaz niczego nie zmienił w siatce, więc rollback jej nie wyrzuca
+    assertThat(boards.grid(game)).isSameAs(grid);
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private static Direction freeDirection(OccupancyGrid grid, int x, int y) {
+    for (Direction d : Direction.values()) {
+      if (grid.inBounds(x + dx(d), y + dy(d)) && grid.occupant(x + dx(d), y + dy(d)) == OccupancyGrid.EMPTY) {
+        return d;
+      }
+    }
+    throw new IllegalStateException("Unit at (" + x + "," + y + ") is boxed in");
+  }
+
+  private static int dx(Direction d) {
+    return d == Direction.LEFT ? -1 : d == Direction.RIGHT ? 1 : 0;
+  }
+
+  private static int dy(Direction d) {
+    return d == Direction.UP ? -1 : d == Direction.DOWN ? 1 : 0;
+  }
+}
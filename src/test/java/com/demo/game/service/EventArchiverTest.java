@@ -0,0 +1,81 @@
+package com.demo.game.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.demo.game.archive.EventArchive;
+import com.demo.game.archive.EventRecord;
+import com.demo.game.objects.dao.Game;
+import com.demo.game.objects.dao.GameEvent;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.repositories.GameEventRepository;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class EventArchiverTest {
+
+  private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+  @TempDir
+  Path dir;
+
+  private final GameEventRepository eventRepo = mock(GameEventRepository.class);
+  private final EventArchive archive = new EventArchive();
+  private EventArchiver archiver;
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(archive, "directory", dir.toString());
+    ReflectionTestUtils.setField(archive, "segmentSize", 1L << 20);
+    ReflectionTestUtils.invokeMethod(archive, "open");
+    archiver = new EventArchiver(eventRepo, archive, mock(PlatformTransactionManager.class),
+        Clock.fixed(NOW, Clock.systemUTC().getZone()));
+    ReflectionTestUtils.setField(archiver, "batchSize", 100);
+    ReflectionTestUtils.setField(archiver, "settle", Duration.ofSeconds(10));
+    archiver.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    ReflectionTestUtils.invokeMethod(archive, "close");
+  }
+
+  @Test
+  @DisplayName("zdarzenie o niższym id zatwierdzone po zarchiwizowaniu wyższego trafia do archiwum, nie znika")
+  void shouldArchiveLowerIdCommittedLater() throws IOException {
+    given(eventRepo.findEventsAfter(eq(1L), eq(0L), any())).willReturn(List.of(event(12)));
+    assertThat(archiver.archive(1L, NOW)).isEqualTo(1);
+    verify(eventRepo).deleteEvents(1L, List.of(12L));
+
+    given(eventRepo.findEventsAfter(eq(1L), eq(0L), any())).willReturn(List.of(event(11)));
+    assertThat(archiver.archive(1L, NOW)).isEqualTo(1);
+
+    verify(eventRepo).deleteEvents(1L, List.of(11L));
+    assertThat(archive.events(1L, 0)).extracting(EventRecord::id).containsExactly(11L, 12L);
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private static GameEvent event(long id) {
+    Game game = new Game();
+    game.setId(1L);
+    GameEvent e = new GameEvent(game, null, CommandType.MOVE_ARCHER, new byte[0], true, NOW.minusSeconds(60));
+    e.setId(id);
+    return e;
+  }
+}
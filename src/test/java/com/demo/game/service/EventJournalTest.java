@@ -0,0 +1,113 @@
+package com.demo.game.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+
+import com.demo.game.objects.dao.Game;
+import com.demo.game.objects.dao.GameEvent;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.EventDurability;
+import com.demo.game.repositories.GameEventRepository;
+import com.demo.game.repositories.GameRepository;
+import com.demo.game.repositories.UnitRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class EventJournalTest {
+
+  private final GameEventRepository eventRepo = mock(GameEventRepository.class);
+  private final GameRepository gameRepo = mock(GameRepository.class);
+  private final List<Integer> saved = Collections.synchronizedList(new ArrayList<>());
+  private final AtomicLong ids = new AtomicLong();
+
+  @Test
+  @DisplayName("pełny bufor wstrzymuje wołającego – zdarzenia są zapisywane w kolejności dodania")
+  void shouldKeepOrderWhenBufferIsFull() throws Exception {
+    shouldKeepOrder(journal("PT5S"));
+  }
+
+  @Test
+  @DisplayName("po czasie oczekiwania wołający najpierw opróżnia bufor, potem zapisuje swoje zdarzenia")
+  void shouldKeepOrderWhenWritingOnCallerThread() throws Exception {
+    shouldKeepOrder(journal("PT0.001S"));
+  }
+
+  @Test
+  @DisplayName("zamknięcie przy niedziałającej bazie kończy się po kilku próbach zamiast kręcić się w pętli")
+  void shouldGiveUpOnShutdownWhenDatabaseFails() {
+    willThrow(new DataAccessResourceFailureException("db down")).given(eventRepo).saveAll(anyList());
+    EventJournal journal = journal("PT5S");
+    for (int i = 0; i < 3; i++) {
+      commit(journal, i);
+    }
+
+    assertTimeoutPreemptively(Duration.ofSeconds(10), journal::shutdown);
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private void shouldKeepOrder(EventJournal journal) throws Exception {
+    given(eventRepo.saveAll(anyList())).willAnswer(inv -> {
+      List<GameEvent> rows = inv.getArgument(0);
+      Thread.sleep(2);
+      rows.forEach(r -> {
+        r.setId(ids.incrementAndGet());
+        saved.add(r.getX());
+      });
+      return rows;
+    });
+
+    for (int i = 0; i < 50; i++) {
+      commit(journal, i);
+    }
+    journal.shutdown();
+
+    assertThat(saved).hasSize(50).isSorted();
+  }
+
+  private EventJournal journal(String overflowTimeout) {
+    Game game = new Game();
+    game.setId(1L);
+    given(gameRepo.getReferenceById(anyLong())).willReturn(game);
+    EventJournal journal = new EventJournal(eventRepo, gameRepo, mock(UnitRepository.class),
+        mock(PlatformTransactionManager.class));
+    ReflectionTestUtils.setField(journal, "durability", EventDurability.INTERVAL);
+    ReflectionTestUtils.setField(journal, "flushInterval", Duration.ofHours(1));
+    ReflectionTestUtils.setField(journal, "capacity", 4);
+    ReflectionTestUtils.setField(journal, "batchSize", 2);
+    ReflectionTestUtils.setField(journal, "overflowTimeout", Duration.parse(overflowTimeout));
+    journal.start();
+    return journal;
+  }
+
+  /** Rozkaz z jednym zdarzeniem – kolejny numer w polu {@code x}. */
+  private static void commit(EventJournal journal, int no) {
+    Game game = new Game();
+    game.setId(1L);
+    GameEvent event = new GameEvent(game, null, CommandType.MOVE_ARCHER, new byte[0], true, Instant.now());
+    event.setX(no);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      journal.write(List.of(event));
+      TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.demo.game.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.game.objects.dao.Archer;
+import com.demo.game.objects.dao.Unit;
+import com.demo.game.objects.dto.UnitDto;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitStatus;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class GameChangeLogTest {
+
+  private final GameChangeLog log = newLog(3);
+
+  @Test
+  @DisplayName("since() zwraca każdą zmienioną jednostkę raz, w najnowszym stanie")
+  void shouldReturnLatestStatePerUnit() {
+    long start = log.version(1L);
+    log.recordAfterCommit(1L, unit(10L, 0, 0));
+    log.recordAfterCommit(1L, unit(11L, 1, 1));
+    long middle = log.version(1L);
+    log.recordAfterCommit(1L, unit(10L, 2, 0));
+
+    GameChangeLog.Delta all = log.since(1L, start);
+    assertThat(all.units()).extracting(UnitDto::id).containsExactly(11L, 10L);
+    assertThat(all.units()).filteredOn(u -> u.id() == 10L).extracting(UnitDto::x).containsExactly(2);
+    assertThat(all.version()).isGreaterThan(middle);
+
+    assertThat(log.since(1L, middle).units()).extracting(UnitDto::id).containsExactly(10L);
+    assertThat(log.since(1L, all.version()).units()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("since() wymaga pełnej listy, gdy wersja wypadła z dziennika albo pochodzi spoza niego")
+  void shouldRequireFullResyncForUnknownVersion() {
+    long start = log.version(1L);
+    for (int i = 0; i < 4; i++) {
+      log.recordAfterCommit(1L, unit(10L + i, i, 0));
+    }
+    long current = log.version(1L);
+
+    assertThat(log.since(1L, start).units()).isNull();
+    assertThat(log.since(1L, current + 1).units()).isNull();
+    assertThat(log.since(1L, current).units()).isEmpty();
+    assertThat(log.since(2L, start)).isNull();
+
+    log.forget(List.of(1L));
+    assertThat(log.since(1L, current)).isNull();
+    assertThat(log.version(1L)).isGreaterThan(current);
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private static GameChangeLog newLog(int capacity) {
+    GameChangeLog log = new GameChangeLog(Clock.fixed(Instant.ofEpochSecond(1_000), ZoneOffset.UTC));
+    ReflectionTestUtils.setField(log, "capacity", capacity);
+    return log;
+  }
+
+  private static Unit unit(long id, int x, int y) {
+    Unit u = new Archer();
+    u.setId(id);
+    u.setFaction(Faction.WHITE);
+    u.setX(x);
+    u.setY(y);
+    u.setStatus(UnitStatus.ACTIVE);
+    return u;
+  }
+}
@@ -0,0 +1,110 @@
+package com.demo.game.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import com.demo.game.archive.EventRecord;
+import com.demo.game.commands.CommandCodec;
+import com.demo.game.objects.enums.CommandType;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class GameEventBroadcasterTest {
+
+  private final EventHistory history = mock(EventHistory.class);
+  private final GameEventBroadcaster broadcaster =
+      new GameEventBroadcaster(mock(EventStore.class), history, mock(CommandCodec.class));
+  private final RecordingEmitter emitter = new RecordingEmitter();
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(broadcaster, "bufferSize", 16);
+    ReflectionTestUtils.setField(broadcaster, "heartbeat", Duration.ofMillis(10));
+    ReflectionTestUtils.setField(broadcaster, "resumeSettle", Duration.ofSeconds(2));
+    ReflectionTestUtils.setField(broadcaster, "resumeWindow", 1000L);
+  }
+
+  @Test
+  @DisplayName("id zatwierdzone nie po kolei (12, potem 11) docierają na żywo oba")
+  void shouldSendEventsCommittedOutOfOrder() throws Exception {
+    broadcaster.subscribe(1L, null, emitter);
+
+    broadcaster.publish(List.of(record(12)));
+    broadcaster.publish(List.of(record(11)));
+
+    assertThat(emitter.await(2)).containsExactly(12L, 11L);
+  }
+
+  @Test
+  @DisplayName("wznowienie doczytuje lukę z historii i nie powtarza zdarzeń, które przyszły też na żywo")
+  void shouldResumeWithoutDuplicates() throws Exception {
+    given(history.eventsAfter(1L, 0L)).willAnswer(inv -> {
+      // zatwierdzone w trakcie odczytu luki – 13 jest w historii i w kolejce, 12 tylko w kolejce
+      broadcaster.publish(List.of(record(13), record(12)));
+      return List.of(record(11), record(13));
+    });
+
+    broadcaster.subscribe(1L, 10L, emitter);
+    emitter.await(3);
+    broadcaster.publish(List.of(record(14)));
+
+    assertThat(emitter.await(4)).containsExactly(11L, 13L, 12L, 14L);
+  }
+
+  @Test
+  @DisplayName("wznowienie po 12 doczytuje 11 zatwierdzone później, ale pomija zdarzenia sprzed okna")
+  void shouldResumeWithLowerIdCommittedLater() throws Exception {
+    // klient dostał 12 i się rozłączył, 11 zatwierdzono dopiero potem
+    given(history.eventsAfter(1L, 0L)).willReturn(List.of(
+        record(5, Instant.EPOCH),
+        record(11, Instant.EPOCH.plusSeconds(10)),
+        record(12, Instant.EPOCH.plusSeconds(10))));
+
+    broadcaster.subscribe(1L, 12L, emitter);
+
+    assertThat(emitter.await(1)).containsExactly(11L);
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private static EventRecord record(long id) {
+    return record(id, Instant.EPOCH);
+  }
+
+  private static EventRecord record(long id, Instant executedAt) {
+    return new EventRecord(id, 1L, 5L, CommandType.MOVE_ARCHER, null, true, 0, 0, null, executedAt);
+  }
+
+  /** Zapamiętuje id wysłanych zdarzeń zamiast pisać do odpowiedzi HTTP. */
+  private static final class RecordingEmitter extends SseEmitter {
+
+    private final List<Long> ids = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void send(SseEventBuilder builder) {
+      String head = builder.build().iterator().next().getData().toString();
+      if (head.startsWith("id:")) {
+        ids.add(Long.parseLong(head.substring(3, head.indexOf('\n'))));
+      }
+    }
+
+    List<Long> await(int count) throws InterruptedException {
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (ids.size() < count && System.nanoTime() < deadline) {
+        Thread.sleep(1);
+      }
+      Thread.sleep(50);
+      return List.copyOf(ids);
+    }
+  }
+}
@@ -0,0 +1,176 @@
+package com.demo.game.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.demo.game.commands.MoveCommand;
+import com.demo.game.metrics.GameMetrics;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.ConcurrencyMode;
+import com.demo.game.objects.enums.Direction;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.repositories.UnitRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.crossstore.ChangeSetPersister.NotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class GameMailboxesTest {
+
+  private final GameMailboxes mailboxes = mailboxes(100);
+
+  @Test
+  @DisplayName("zadania jednej gry wykonują się po kolei, na jednym wątku naraz, w kolejności wstawienia")
+  void shouldRunTasksOfGameInOrder() throws Exception {
+    List<Integer> order = new ArrayList<>();
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger overlaps = new AtomicInteger();
+    List<CompletableFuture<Integer>> results = new ArrayList<>();
+
+    for (int i = 0; i < 100; i++) {
+      int no = i;
+      results.add(mailboxes.submit(7L, () -> {
+        if (running.incrementAndGet() > 1) {
+          overlaps.incrementAndGet();
+        }
+        order.add(no);
+        running.decrementAndGet();
+        return no;
+      }));
+    }
+
+    CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+    assertThat(order).hasSize(100).isSorted();
+    assertThat(overlaps).hasValue(0);
+    assertThat(results.get(42).get()).isEqualTo(42);
+  }
+
+  @Test
+  @DisplayName("pełna skrzynka odrzuca zadanie, inne gry działają dalej, a opróżniona skrzynka znika")
+  void shouldRejectWhenMailboxIsFull() throws Exception {
+    GameMailboxes small = mailboxes(2);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+
+    CompletableFuture<Object> blocking = small.submit(1L, () -> {
+      started.countDown();
+      return release.await(5, TimeUnit.SECONDS);
+    });
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    CompletableFuture<Integer> second = small.submit(1L, () -> 2);
+    CompletableFuture<Integer> third = small.submit(1L, () -> 3);
+
+    assertThatThrownBy(() -> small.submit(1L, () -> 4)).isInstanceOf(RejectedExecutionException.class);
+    assertThat(small.call(2L, () -> "other game")).isEqualTo("other game");
+
+    release.countDown();
+    assertThat(blocking.get(5, TimeUnit.SECONDS)).isEqualTo(true);
+    assertThat(second.get(5, TimeUnit.SECONDS) + third.get(5, TimeUnit.SECONDS)).isEqualTo(5);
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (small.activeMailboxes() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertThat(small.activeMailboxes()).isZero();
+  }
+
+  @Test
+  @DisplayName("single-writer: rozkaz idzie przez skrzynkę gry bez blokady wiersza, pełna skrzynka go odrzuca")
+  void shouldExecuteThroughMailboxInSingleWriterMode() throws Exception {
+    CommandExecutor executor = mock(CommandExecutor.class);
+    UnitRepository unitRepo = mock(UnitRepository.class);
+    GameMailboxes small = mailboxes(1);
+    EventStore events = mock(EventStore.class);
+    given(events.durability()).willReturn(CompletableFuture.completedFuture(null));
+    CommandService service = new CommandService(executor, events, small,
+        mock(CooldownService.class), unitRepo, mock(GameMetrics.class));
+    ReflectionTestUtils.setField(service, "mode", ConcurrencyMode.SINGLE_WRITER);
+    given(unitRepo.findGameIdById(anyLong())).willReturn(Optional.of(9L));
+    MoveCommand move = new MoveCommand(Direction.UP, 1, Faction.WHITE, CommandType.MOVE_ARCHER);
+
+    List<String> threads = new ArrayList<>();
+    willAnswer(inv -> threads.add(Thread.currentThread().getName()))
+        .given(executor).execute(eq(5L), eq(move), eq(false));
+    service.executeCommand(5L, move);
+    assertThat(threads).containsExactly("game-9");
+    verify(executor, never()).execute(anyLong(), eq(move), eq(true));
+    verify(events).durability();
+
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    small.submit(9L, () -> {
+      started.countDown();
+      return release.await(5, TimeUnit.SECONDS);
+    });
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    small.submit(9L, () -> null);
+    assertThatThrownBy(() -> service.executeCommand(6L, move)).isInstanceOf(RejectedExecutionException.class);
+    release.countDown();
+  }
+
+  @Test
+  @DisplayName("single-writer: na fsync czeka wołający – kolejny rozkaz gry rusza, zanim poprzedni jest trwały")
+  void shouldAwaitDurabilityOutsideMailbox() throws Exception {
+    CommandExecutor executor = mock(CommandExecutor.class);
+    UnitRepository unitRepo = mock(UnitRepository.class);
+    EventStore events = mock(EventStore.class);
+    CompletableFuture<Void> firstSync = new CompletableFuture<>();
+    given(events.durability()).willReturn(firstSync, CompletableFuture.completedFuture(null));
+    CommandService service = new CommandService(executor, events, mailboxes,
+        mock(CooldownService.class), unitRepo, mock(GameMetrics.class));
+    ReflectionTestUtils.setField(service, "mode", ConcurrencyMode.SINGLE_WRITER);
+    given(unitRepo.findGameIdById(anyLong())).willReturn(Optional.of(9L));
+    MoveCommand move = new MoveCommand(Direction.UP, 1, Faction.WHITE, CommandType.MOVE_ARCHER);
+
+    CountDownLatch firstExecuted = new CountDownLatch(1);
+    CountDownLatch secondStarted = new CountDownLatch(1);
+    willAnswer(inv -> {
+      firstExecuted.countDown();
+      return null;
+    }).given(executor).execute(eq(5L), eq(move), eq(false));
+    willAnswer(inv -> {
+      secondStarted.countDown();
+      return null;
+    }).given(executor).execute(eq(6L), eq(move), eq(false));
+
+    CompletableFuture<Void> first = CompletableFuture.runAsync(() -> execute(service, 5L, move));
+    assertThat(firstExecuted.await(5, TimeUnit.SECONDS)).isTrue();
+    CompletableFuture<Void> second = CompletableFuture.runAsync(() -> execute(service, 6L, move));
+
+    assertThat(secondStarted.await(5, TimeUnit.SECONDS)).isTrue();
+    second.get(5, TimeUnit.SECONDS);
+    assertThat(first).isNotDone();
+    firstSync.complete(null);
+    first.get(5, TimeUnit.SECONDS);
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private static void execute(CommandService service, long unitId, MoveCommand move) {
+    try {
+      service.executeCommand(unitId, move);
+    } catch (NotFoundException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static GameMailboxes mailboxes(int capacity) {
+    GameMailboxes mailboxes = new GameMailboxes();
+    ReflectionTestUtils.setField(mailboxes, "capacity", capacity);
+    return mailboxes;
+  }
+}
@@ -0,0 +1,41 @@
+package com.demo.game.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TurnPlannerTest {
+
+  private final TurnPlanner planner = new TurnPlanner();
+  private final AtomicIntegerArray planned = new AtomicIntegerArray(64);
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(planner, "parallelism", 2);
+    ReflectionTestUtils.setField(planner, "turnBudget", Duration.ZERO);
+    planner.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    planner.shutdown();
+  }
+
+  @Test
+  @DisplayName("po budżecie jednostki dostają rozkaz zapasowy, planAll planuje każdą niezależnie od zegara")
+  void shouldIgnoreBudgetInPlanAll() {
+    int late = planner.plan(64, i -> planned.incrementAndGet(i), i -> { });
+    assertThat(late).isEqualTo(64);
+
+    planner.planAll(64, i -> planned.incrementAndGet(i));
+
+    assertThat(IntStream.range(0, 64).allMatch(i -> planned.get(i) == 1)).isTrue();
+  }
+}
@@ -0,0 +1,51 @@
+package com.demo.game.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.demo.game.objects.enums.Faction;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class UnitListCacheTest {
+
+  private final UnitListCache cache = new UnitListCache(mock(UnitReader.class));
+
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(cache, "cacheSize", 4);
+  }
+
+  @Test
+  @DisplayName("ETag jest stały do zmiany gry; po podbiciu i po zapomnieniu wersji – nowy")
+  void shouldChangeEtagOnlyAfterBumpOrForget() {
+    String first = cache.etag(1L, Faction.WHITE);
+
+    assertThat(cache.etag(1L, Faction.WHITE)).isEqualTo(first);
+    cache.bumpAfterCommit(1L);
+    String bumped = cache.etag(1L, Faction.WHITE);
+    assertThat(bumped).isNotEqualTo(first);
+    cache.forget(List.of(1L));
+    assertThat(cache.etag(1L, Faction.WHITE)).isNotIn(first, bumped);
+  }
+
+  @Test
+  @DisplayName("ETag listy białych różni się od ETagu listy czarnych tej samej wersji gry")
+  void shouldIncludeFactionInEtag() {
+    assertThat(cache.etag(1L, Faction.WHITE)).isNotEqualTo(cache.etag(1L, Faction.BLACK));
+  }
+
+  @Test
+  @DisplayName("odpytywanie dowolnych id nie rozdmuchuje mapy wersji ponad rozmiar pamięci podręcznej")
+  void shouldBoundVersionsForUnknownGames() {
+    for (long id = 1; id <= 1_000; id++) {
+      cache.etag(id, Faction.WHITE);
+    }
+
+    assertThat((Map<?, ?>) ReflectionTestUtils.getField(cache, "versions")).hasSize(4);
+  }
+}
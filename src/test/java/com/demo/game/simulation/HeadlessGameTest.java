@@ -0,0 +1,60 @@
+package com.demo.game.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.game.commands.MoveCommand;
+import com.demo.game.commands.ShootCommand;
+import com.demo.game.objects.dto.PlayerConfig;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Direction;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class HeadlessGameTest {
+
+  private final SimulationConfig cfg = SimulationConfig.of(8, 8, new PlayerConfig(3, 2, 1), new PlayerConfig(3, 2, 1));
+
+  @Test
+  @DisplayName("to samo ziarno daje identyczną rozgrywkę, także równolegle")
+  void shouldBeReproducibleFromSeed() {
+    SimulationReport sequential = new SimulationRunner(1)
+        .run(cfg, SimulationPolicy.random(), SimulationPolicy.random(), 50, 7L);
+    SimulationReport parallel = new SimulationRunner(4)
+        .run(cfg, SimulationPolicy.random(), SimulationPolicy.random(), 50, 7L);
+
+    assertThat(parallel.results()).isEqualTo(sequential.results());
+    assertThat(sequential.wins(Faction.WHITE) + sequential.wins(Faction.BLACK) + sequential.draws()).isEqualTo(50);
+  }
+
+  @Test
+  @DisplayName("reguły jak na serwerze: poza planszę odrzucone, strzał niszczy, cooldown odsuwa rozkaz")
+  void shouldApplyServerRules() {
+    HeadlessGame game = new HeadlessGame(cfg, SimulationPolicy.random(), SimulationPolicy.random(), 1L);
+    SimulationBoard board = game.board();
+    // rozstawienie dla ziarna 1: biały łucznik 0 na dolnej krawędzi, biała armata 5 w rogu, czarna armata 11 u góry
+    assertThat(position(board, 0)).containsExactly(5, 7);
+    assertThat(position(board, 5)).containsExactly(7, 7);
+    assertThat(position(board, 11)).containsExactly(6, 0);
+    assertThat(board.type(11)).isEqualTo(UnitType.CANNON);
+    assertThat(board.faction(11)).isEqualTo(Faction.BLACK);
+
+    game.execute(0, new MoveCommand(Direction.DOWN, 1, Faction.WHITE, CommandType.MOVE_ARCHER), 0);
+    assertThat(position(board, 0)).containsExactly(5, 7);
+    assertThat(board.lastCommandAt[0]).isEqualTo(SimulationBoard.NEVER);
+
+    game.execute(5, new ShootCommand(-1, -7, Faction.WHITE, CommandType.SHOOT_CANNON), 0);
+    assertThat(board.alive(11)).isFalse();
+    assertThat(board.aliveCount(Faction.BLACK)).isEqualTo(5);
+
+    game.execute(5, new ShootCommand(1, 0, Faction.WHITE, CommandType.SHOOT_CANNON), 0);
+    assertThat(board.nextReadyAt[5]).isEqualTo(CommandType.SHOOT_CANNON.getCooldown().toMillis());
+  }
+
+  /* ----------------------------------------------------------- */
+
+  private static int[] position(SimulationBoard board, int unit) {
+    return new int[] {board.x(unit), board.y(unit)};
+  }
+}
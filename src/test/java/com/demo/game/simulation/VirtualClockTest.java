@@ -0,0 +1,26 @@
+package com.demo.game.simulation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class VirtualClockTest {
+
+  @Test
+  @DisplayName("zegar w innej strefie pokazuje ten sam wirtualny czas i przesuwa się razem ze źródłem")
+  void shouldShareInstantAcrossZones() {
+    VirtualClock clock = new VirtualClock(0);
+    Clock warsaw = clock.withZone(ZoneId.of("Europe/Warsaw"));
+
+    clock.advanceTo(1_000);
+
+    assertThat(warsaw.instant()).isEqualTo(Instant.ofEpochMilli(1_000));
+    assertThat(LocalDateTime.now(warsaw)).isEqualTo(LocalDateTime.of(1970, 1, 1, 1, 0, 1));
+    assertThat(warsaw.withZone(clock.getZone())).isSameAs(clock);
+  }
+}
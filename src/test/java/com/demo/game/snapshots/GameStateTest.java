@@ -0,0 +1,61 @@
+package com.demo.game.snapshots;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.demo.game.objects.dao.Archer;
+import com.demo.game.objects.dao.GameEvent;
+import com.demo.game.objects.enums.CommandType;
+import com.demo.game.objects.enums.Faction;
+import com.demo.game.objects.enums.UnitStatus;
+import com.demo.game.objects.enums.UnitType;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class GameStateTest {
+
+  private static final Instant T0 = Instant.parse("2025-01-01T10:00:00Z");
+
+  private final UnitState archer = new UnitState(1L, UnitType.ARCHER, Faction.WHITE, 2, 3,
+      UnitStatus.ACTIVE, 0, Instant.EPOCH);
+  private final UnitState cannon = new UnitState(2L, UnitType.CANNON, Faction.BLACK, 7, 19,
+      UnitStatus.DESTROYED, 12, T0);
+
+  @Test
+  @DisplayName("migawka koduje się do 25 bajtów na jednostkę i dekoduje bez strat")
+  void shouldRoundTripSnapshot() {
+    byte[] bytes = SnapshotCodec.encode(List.of(archer, cannon));
+
+    assertThat(bytes).hasSize(5 + 2 * 25);
+    assertThat(SnapshotCodec.decode(bytes)).containsExactly(archer, cannon);
+  }
+
+  @Test
+  @DisplayName("odtworzenie stosuje pozycję, zniszczenie i liczniki; stare zdarzenia są pomijane")
+  void shouldApplyEventsAfterSnapshot() {
+    GameState state = new GameState(9L, 100L, List.of(archer, cannon.destroyed()));
+
+    state.apply(event(100L, 1L, 5, 5, null));
+    state.apply(event(101L, 1L, 3, 3, 2L));
+
+    UnitState moved = state.unit(1L);
+    assertThat(state.lastEventId()).isEqualTo(101L);
+    assertThat(moved.x()).isEqualTo(3);
+    assertThat(moved.y()).isEqualTo(3);
+    assertThat(moved.commandCount()).isEqualTo(1);
+    assertThat(moved.lastCommandAt()).isEqualTo(T0);
+    assertThat(state.unit(2L).status()).isEqualTo(UnitStatus.DESTROYED);
+  }
+
+  private static GameEvent event(long id, long unitId, int x, int y, Long destroyed) {
+    Archer unit = new Archer();
+    unit.setId(unitId);
+    GameEvent e = new GameEvent(null, unit, CommandType.MOVE_ARCHER, new byte[0], true, T0);
+    e.setId(id);
+    e.setX(x);
+    e.setY(y);
+    e.setDestroyedUnitId(destroyed);
+    return e;
+  }
+}